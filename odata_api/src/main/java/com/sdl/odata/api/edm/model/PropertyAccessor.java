@@ -0,0 +1,114 @@
+/**
+ * Copyright (c) 2014-2024 All Rights Reserved by the RWS Group for and on behalf of its affiliates and subsidiaries.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.sdl.odata.api.edm.model;
+
+import com.sdl.odata.api.ODataSystemException;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Reads and writes the Java field of a property through method handles. The field is made accessible and the
+ * handles are looked up only once per field, instead of on every read or write of the property value.
+ * <p>
+ * Shared accessors are attached to the declaring class with a {@link ClassValue}, so they do not keep the class
+ * (or its class loader) reachable after the entity classes have been unloaded.
+ */
+public final class PropertyAccessor {
+
+    private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+    private static final MethodType SETTER_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+    private static final ClassValue<Map<Field, PropertyAccessor>> ACCESSORS =
+            new ClassValue<Map<Field, PropertyAccessor>>() {
+                @Override
+                protected Map<Field, PropertyAccessor> computeValue(Class<?> type) {
+                    return new ConcurrentHashMap<>();
+                }
+            };
+
+    private final Field field;
+    private final MethodHandle getter;
+    private final MethodHandle setter;
+
+    private PropertyAccessor(Field field) {
+        this.field = field;
+        try {
+            field.setAccessible(true);
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+            this.getter = lookup.unreflectGetter(field).asType(GETTER_TYPE);
+            this.setter = lookup.unreflectSetter(field).asType(SETTER_TYPE);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            throw new ODataSystemException("Cannot access field: " + field.toGenericString(), e);
+        }
+    }
+
+    /**
+     * Gets the accessor for a field. Accessors are created on first use and shared afterwards.
+     *
+     * @param field The (non-static) Java field.
+     * @return The accessor for the field.
+     */
+    public static PropertyAccessor forField(Field field) {
+        return ACCESSORS.get(field.getDeclaringClass()).computeIfAbsent(field, PropertyAccessor::new);
+    }
+
+    /**
+     * Returns the Java field which is read and written by this accessor.
+     *
+     * @return The Java field which is read and written by this accessor.
+     */
+    public Field getField() {
+        return field;
+    }
+
+    /**
+     * Gets the value of the field.
+     *
+     * @param object The object to get the value from.
+     * @return The value of the field.
+     */
+    public Object get(Object object) {
+        try {
+            return (Object) getter.invokeExact(object);
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new ODataSystemException("Cannot read field: " + field.toGenericString() + " of object: " + object,
+                    e);
+        }
+    }
+
+    /**
+     * Sets the value of the field.
+     *
+     * @param object The object to set the value in.
+     * @param value  The value to set.
+     */
+    public void set(Object object, Object value) {
+        try {
+            setter.invokeExact(object, value);
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new ODataSystemException("Cannot write field: " + field.toGenericString() + " of object: " + object,
+                    e);
+        }
+    }
+}
@@ -68,4 +68,13 @@ public interface StructuralProperty {
      * @return The Java field which is associated with this property.
      */
     Field getJavaField();
+
+    /**
+     * Returns the accessor which reads and writes the Java field of this property.
+     *
+     * @return The accessor which reads and writes the Java field of this property.
+     */
+    default PropertyAccessor getPropertyAccessor() {
+        return PropertyAccessor.forField(getJavaField());
+    }
 }
@@ -20,12 +20,20 @@ import com.sdl.odata.api.edm.model.EntityDataModel;
 import com.sdl.odata.api.parser.ODataUri;
 import com.sdl.odata.api.processor.link.ODataLink;
 
+import java.util.ArrayList;
+import java.util.List;
+
 /**
  * The general API of the data source.
  * It can handle the webservice entity and performs CRUD operations.
  * <p>
  * Reference : OData Version 4.0 Part 1: Protocol. Paragraph 11
  * <p>
+ * The bulk operations {@link #createAll}, {@link #updateAll} and {@link #deleteAll} are used to write several
+ * entities of one entity set at once, for example for the requests of a change set. By default they write the
+ * entities one by one; data sources that can write several entities in a single round trip should override them.
+ * An overriding bulk operation that fails must not have written any of its entities: the change set handling then
+ * writes the entities one by one, to report the failure of the entity that causes it.
  *
  */
 public interface DataSource {
@@ -61,6 +69,58 @@ public interface DataSource {
      */
     void delete(ODataUri uri, EntityDataModel entityDataModel) throws ODataException;
 
+    /**
+     * Creates entities in the data storage, which are all created through the same OData URI. By default each
+     * entity is created with {@link #create(ODataUri, Object, EntityDataModel)}, in the given order.
+     *
+     * @param uri             The OData URI.
+     * @param entities        The entities to create.
+     * @param entityDataModel The entity data model.
+     * @return The created entities, in the order of the given entities.
+     * @throws ODataException If the operation fails for any of the entities.
+     */
+    default List<Object> createAll(ODataUri uri, List<?> entities, EntityDataModel entityDataModel)
+            throws ODataException {
+        List<Object> createdEntities = new ArrayList<>(entities.size());
+        for (Object entity : entities) {
+            createdEntities.add(create(uri, entity, entityDataModel));
+        }
+        return createdEntities;
+    }
+
+    /**
+     * Updates entities in the data storage. By default each entity is updated with
+     * {@link #update(ODataUri, Object, EntityDataModel)}, in the given order.
+     *
+     * @param uris            The OData URIs, one for each entity to update.
+     * @param entities        The entities to update, in the order of the URIs.
+     * @param entityDataModel The entity data model.
+     * @return The updated entities, in the order of the given entities.
+     * @throws ODataException If the operation fails for any of the entities.
+     */
+    default List<Object> updateAll(List<ODataUri> uris, List<?> entities, EntityDataModel entityDataModel)
+            throws ODataException {
+        List<Object> updatedEntities = new ArrayList<>(entities.size());
+        for (int i = 0; i < entities.size(); i++) {
+            updatedEntities.add(update(uris.get(i), entities.get(i), entityDataModel));
+        }
+        return updatedEntities;
+    }
+
+    /**
+     * Deletes entities in the data storage. By default each entity is deleted with
+     * {@link #delete(ODataUri, EntityDataModel)}, in the given order.
+     *
+     * @param uris            The OData URIs which identify the entities to delete.
+     * @param entityDataModel The entity data model.
+     * @throws ODataException If the operation fails for any of the entities.
+     */
+    default void deleteAll(List<ODataUri> uris, EntityDataModel entityDataModel) throws ODataException {
+        for (ODataUri uri : uris) {
+            delete(uri, entityDataModel);
+        }
+    }
+
     /**
      * Creates a link by updating the navigation property that the URI resolves to, by setting it to (in case of a
      * single value navigation property) or adding (in case of a collection navigation property) the entity specified
@@ -62,6 +62,19 @@ public final class QueryResult {
         return new QueryResult(obj, ResultType.OBJECT);
     }
 
+    /**
+     * Creates a result of the same type with other data, for example a copy of the data of this result. The
+     * metadata is copied into the new result.
+     *
+     * @param newData The data of the new result.
+     * @return The new query result.
+     */
+    public QueryResult withData(Object newData) {
+        QueryResult result = new QueryResult(newData, type);
+        result.metadata.putAll(metadata);
+        return result;
+    }
+
     public QueryResult addMeta(String key, Object value) {
         metadata.put(key, value);
         return this;
@@ -71,6 +84,16 @@ public final class QueryResult {
         return addMeta("count", count);
     }
 
+    /**
+     * Marks this result as one page of a larger result, and sets the URL that gets the next page.
+     *
+     * @param nextLink The URL that gets the next page of the result.
+     * @return This query result.
+     */
+    public QueryResult withNextLink(String nextLink) {
+        return addMeta("nextLink", nextLink);
+    }
+
     @Override
     public String toString() {
         return type.name() + ": " + data.toString();
@@ -32,6 +32,11 @@ public interface ODataRenderer {
      * Returns a score that indicates how suitable this renderer is for rendering the response body for the specified
      * request. The score should be a number between 0 and 100 that indicates how suitable this renderer is for the
      * specified request and data. A return value of 0 means that this renderer cannot be used this request.
+     * <p>
+     * If {@link #isScoreCacheable()} returns {@code true}, the score must only depend on the request method, the
+     * shape and target type of the URI, the {@code $format} option, the type and subtype of the {@code Accept} and
+     * {@code Content-Type} headers, the type of the result and, for an error result, the class of the exception. The
+     * renderer which is selected for one request is then reused for all requests which agree on these inputs.
      *
      * @param requestContext The request context.
      * @param data           The data to render.
@@ -89,4 +94,27 @@ public interface ODataRenderer {
      */
     void renderEnd(ODataRequestContext requestContext, QueryResult result,
                    ChunkedActionRenderResult previousResult) throws ODataException;
+
+    /**
+     * Whether the score of this renderer only depends on the inputs listed at {@link #score}, so that the renderer
+     * selected for a combination of these inputs can be reused. The selection is only reused if all renderers
+     * return {@code true}; renderers which score on anything else, such as other headers or the data of the result,
+     * must return {@code false}.
+     *
+     * @return {@code true} if the score of this renderer only depends on the inputs listed at {@link #score}.
+     */
+    default boolean isScoreCacheable() {
+        return false;
+    }
+
+    /**
+     * Whether a complete, non-streamed collection result can be rendered by this renderer straight into the
+     * response stream through {@code renderStart}, {@code renderBody} and {@code renderEnd}, setting its own
+     * headers in {@code renderStart}. Renderers that only implement {@code render} should return {@code false}.
+     *
+     * @return {@code true} if collection results can be streamed to the response by this renderer.
+     */
+    default boolean supportsCollectionStreaming() {
+        return false;
+    }
 }
@@ -31,10 +31,18 @@ public final class HeaderNames {
      * Accept Charset.
      */
     public static final String ACCEPT_CHARSET = "Accept-Charset";
+    /**
+     * Accept Encoding.
+     */
+    public static final String ACCEPT_ENCODING = "Accept-Encoding";
     /**
      * Prefer.
      */
     public static final String PREFER = "Prefer";
+    /**
+     * Preference-Applied.
+     */
+    public static final String PREFERENCE_APPLIED = "Preference-Applied";
     /**
      * Location.
      */
@@ -79,6 +87,22 @@ public final class HeaderNames {
      * ETag.
      */
     public static final String ETAG = "ETag";
+    /**
+     * If-None-Match.
+     */
+    public static final String IF_NONE_MATCH = "If-None-Match";
+    /**
+     * If-Modified-Since.
+     */
+    public static final String IF_MODIFIED_SINCE = "If-Modified-Since";
+    /**
+     * Last-Modified.
+     */
+    public static final String LAST_MODIFIED = "Last-Modified";
+    /**
+     * Cache-Control.
+     */
+    public static final String CACHE_CONTROL = "Cache-Control";
     /**
      * OData Version.
      */
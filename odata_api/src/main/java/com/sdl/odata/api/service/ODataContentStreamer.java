@@ -31,6 +31,9 @@ import static com.sdl.odata.api.service.HeaderNames.ODATA_CHUNKED_ERROR_MESSAGE_
 
 /**
  * OData service content streamer. Streams content into {@link OutputStream}.
+ * <p>
+ * A {@code STREAM} result is rendered chunk by chunk as the data comes through the stream. Any other result is
+ * rendered in one go, but still straight into the response stream instead of into an in-memory body.
  */
 public class ODataContentStreamer implements ODataContent {
 
@@ -52,6 +55,15 @@ public class ODataContentStreamer implements ODataContent {
         ChunkedActionRenderResult bodyRenderResult = null;
         ServletOutputStream servletOutputStream = httpServletResponse.getOutputStream();
 
+        if (queryResult.getType() != QueryResult.ResultType.STREAM) {
+            startRenderResult = oDataRenderer.renderStart(oDataRequestContext, queryResult, servletOutputStream);
+            addHeaders(startRenderResult, httpServletResponse);
+            bodyRenderResult = oDataRenderer.renderBody(oDataRequestContext, queryResult, startRenderResult);
+            oDataRenderer.renderEnd(oDataRequestContext, queryResult, bodyRenderResult);
+            servletOutputStream.flush();
+            return;
+        }
+
         try (Stream resultStream = (Stream) queryResult.getData()) {
             Iterator resultDataIterator = resultStream.iterator();
             Object currentDataChunk = null;
@@ -15,6 +15,11 @@
  */
 package com.sdl.odata.api.service;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
 import java.io.UnsupportedEncodingException;
 import java.util.Arrays;
 import java.util.Collections;
@@ -31,8 +36,13 @@ import static java.util.Collections.unmodifiableMap;
 /**
  * OData request.
  * <p>
- * This is an immutable class with a builder to create instances.
+ * Instances are created with a builder.
  * See for example http://www.javacodegeeks.com/2013/01/the-builder-pattern-in-practice.html
+ * <p>
+ * Everything except the body is immutable. The body can either be given as bytes, or as a stream which is consumed
+ * lazily by {@link #getBodyStream()}. A streamed body is only buffered in memory when {@link #getBody()} or
+ * {@link #getBodyText(String)} is called before that; once the stream has been handed out, the body can no longer
+ * be read through any of these methods and they throw an {@code IllegalStateException}.
  */
 public final class ODataRequest extends ODataRequestResponseBase {
 
@@ -70,6 +80,7 @@ public final class ODataRequest extends ODataRequestResponseBase {
         private String uri;
         private final Map<String, String> headersBuilder = new HashMap<>();
         private byte[] body;
+        private InputStream bodyStream;
         private Map<Class<?>, Object> additionalData = new HashMap<>();
 
         public Builder setMethod(Method builderMethod) {
@@ -113,11 +124,19 @@ public final class ODataRequest extends ODataRequestResponseBase {
 
         public Builder setBody(byte[] builderBody) {
             this.body = builderBody;
+            this.bodyStream = null;
+            return this;
+        }
+
+        public Builder setBodyStream(InputStream builderBodyStream) {
+            this.bodyStream = builderBodyStream;
+            this.body = null;
             return this;
         }
 
         public Builder setBodyText(String bodyText, String charset) throws UnsupportedEncodingException {
             this.body = bodyText.getBytes(charset);
+            this.bodyStream = null;
             return this;
         }
 
@@ -131,10 +150,16 @@ public final class ODataRequest extends ODataRequestResponseBase {
         }
     }
 
+    private static final int BUFFER_SIZE = 8192;
+
     private final Method method;
     private final String uri;
     private final Map<Class<?>, Object> additionalData;
 
+    private InputStream bodyStream;
+    private boolean bodyStreamTaken;
+    private byte[] bufferedBody;
+
     private ODataRequest(Builder builder) {
         super(unmodifiableMap(builder.headersBuilder), builder.body, null);
 
@@ -149,6 +174,60 @@ public final class ODataRequest extends ODataRequestResponseBase {
         this.method = builder.method;
         this.uri = builder.uri;
         this.additionalData = unmodifiableMap(builder.additionalData);
+        this.bodyStream = builder.bodyStream;
+    }
+
+    /**
+     * Gets the body as bytes. A streamed body which has not been handed out yet is read fully and buffered.
+     *
+     * @return The body, or {@code null} if there is no body.
+     * @throws IllegalStateException If the body stream has already been handed out by {@link #getBodyStream()}.
+     */
+    @Override
+    public synchronized byte[] getBody() {
+        if (bodyStream != null) {
+            bufferedBody = readFully(bodyStream);
+            bodyStream = null;
+        } else if (bodyStreamTaken) {
+            throw new IllegalStateException("The request body stream has already been consumed: " + this);
+        }
+        return bufferedBody != null ? bufferedBody : super.getBody();
+    }
+
+    /**
+     * Gets the body as a stream. A streamed body is handed out as-is and can only be consumed once; a body given as
+     * bytes, or a streamed body which has been buffered, is wrapped and can be read any number of times.
+     *
+     * @return The body stream, never {@code null}.
+     * @throws IllegalStateException If the body stream has already been handed out.
+     */
+    public synchronized InputStream getBodyStream() {
+        if (bodyStream != null) {
+            return takeBodyStream();
+        }
+        byte[] body = getBody();
+        return new ByteArrayInputStream(body != null ? body : new byte[0]);
+    }
+
+    private InputStream takeBodyStream() {
+        InputStream stream = bodyStream;
+        bodyStream = null;
+        bodyStreamTaken = true;
+        return stream;
+    }
+
+    private static byte[] readFully(InputStream in) {
+        try {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            byte[] buffer = new byte[BUFFER_SIZE];
+            int count;
+            while ((count = in.read(buffer)) != -1) {
+                out.write(buffer, 0, count);
+            }
+            return out.toByteArray();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read request body", e);
+        }
     }
 
     public Method getMethod() {
@@ -87,6 +87,6 @@ public abstract class ODataRequestResponseBase {
     }
 
     public String getBodyText(String charset) throws UnsupportedEncodingException {
-        return new String(body, charset);
+        return new String(getBody(), charset);
     }
 }
@@ -17,6 +17,9 @@ package com.sdl.odata.api.service;
 
 import com.sdl.odata.api.ODataException;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+
 /**
  * OData service interface.
  */
@@ -30,4 +33,24 @@ public interface ODataService {
      * @throws ODataException If an error occurs while handling the request.
      */
     ODataResponse handleRequest(ODataRequest request) throws ODataException;
+
+    /**
+     * Handles an OData request without blocking the calling thread.
+     * <p>
+     * The default implementation delegates to {@link #handleRequest(ODataRequest)} on the calling thread;
+     * implementations should override it to complete the returned stage asynchronously.
+     *
+     * @param request The request to handle.
+     * @return A stage that completes with the response, or exceptionally if an error occurs while handling
+     * the request.
+     */
+    default CompletionStage<ODataResponse> handleRequestAsync(ODataRequest request) {
+        CompletableFuture<ODataResponse> future = new CompletableFuture<>();
+        try {
+            future.complete(handleRequest(request));
+        } catch (ODataException | RuntimeException e) {
+            future.completeExceptionally(e);
+        }
+        return future;
+    }
 }
@@ -21,10 +21,12 @@ import org.slf4j.LoggerFactory;
 import javax.xml.XMLConstants;
 import javax.xml.parsers.DocumentBuilderFactory;
 import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.stream.XMLInputFactory;
 
 public class XmlBuilderFactory {
     private static final Logger LOG = LoggerFactory.getLogger(XmlBuilderFactory.class);
     private static final DocumentBuilderFactory FACTORY = create();
+    private static final XMLInputFactory INPUT_FACTORY = createInputFactory();
 
     private XmlBuilderFactory() {
     }
@@ -33,6 +35,25 @@ public class XmlBuilderFactory {
         return FACTORY;
     }
 
+    /**
+     * Gets a namespace aware StAX input factory which does not support DTDs or external entities.
+     *
+     * @return The shared StAX input factory.
+     */
+    public static XMLInputFactory getSecuredInputFactory() {
+        return INPUT_FACTORY;
+    }
+
+    private static XMLInputFactory createInputFactory() {
+        XMLInputFactory factory = XMLInputFactory.newInstance();
+        factory.setProperty(XMLInputFactory.IS_NAMESPACE_AWARE, true);
+        factory.setProperty(XMLInputFactory.IS_COALESCING, true);
+        // same XXE protection as for the document builder factory
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        return factory;
+    }
+
     private static DocumentBuilderFactory create() {
         DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance(
                 "com.sun.org.apache.xerces.internal.jaxp.DocumentBuilderFactoryImpl",
@@ -38,7 +38,6 @@ import com.sdl.odata.api.edm.model.Type;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.lang.reflect.Field;
 import java.time.Period;
 import java.util.ArrayList;
 import java.util.Collection;
@@ -327,13 +326,7 @@ public final class EntityDataModelUtil {
      * @return The value of the property.
      */
     public static Object getPropertyValue(StructuralProperty property, Object object) {
-        Field field = property.getJavaField();
-        field.setAccessible(true);
-        try {
-            return field.get(object);
-        } catch (IllegalAccessException e) {
-            throw new ODataSystemException("Cannot read property: " + property + " of object: " + object, e);
-        }
+        return property.getPropertyAccessor().get(object);
     }
 
     /**
@@ -344,13 +337,7 @@ public final class EntityDataModelUtil {
      * @param value    The value to set.
      */
     public static void setPropertyValue(StructuralProperty property, Object object, Object value) {
-        Field field = property.getJavaField();
-        field.setAccessible(true);
-        try {
-            field.set(object, value);
-        } catch (IllegalAccessException e) {
-            throw new ODataSystemException("Cannot write property: " + property + " of object: " + object, e);
-        }
+        property.getPropertyAccessor().set(object, value);
     }
 
     /**
@@ -750,9 +737,7 @@ public final class EntityDataModelUtil {
             throws IllegalAccessException, ODataEdmException {
 
         EntityType entityType = getAndCheckEntityType(entityDataModel, entity.getClass());
-        Field field = entityType.getStructuralProperty(propertyRef.getPath()).getJavaField();
-        field.setAccessible(true);
-        Object value = field.get(entity);
+        Object value = getPropertyValue(entityType.getStructuralProperty(propertyRef.getPath()), entity);
         if (value instanceof String) {
             return String.format("'%s'", ((String) value).replaceAll("'", "''"));
         } else if (value instanceof Period) {
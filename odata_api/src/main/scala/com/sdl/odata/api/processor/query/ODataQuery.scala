@@ -173,6 +173,65 @@ case class SkipOperation(@BeanProperty source: QueryOperation, @BeanProperty cou
  */
 case class LimitOperation(@BeanProperty source: QueryOperation, @BeanProperty count: Int) extends FilterOperation
 
+/**
+ * Skip token operation. A skip token operation is a filter operation that continues a result which is returned in
+ * pages (server-driven paging) after the last entity of the previous page.
+ *
+ * The entities are ordered on `orderByProperties`, which always end with the key properties of the entity type, so
+ * that every entity has a unique position. Only the entities that come after `lastValues` in this order are selected
+ * (keyset pagination), so that a data source does not have to read and skip all previous pages. The same condition
+ * is available as `criteria` for data sources that already support `CriteriaFilterOperation`.
+ *
+ * @param source The source operation.
+ * @param orderByProperties The properties the entities are ordered on.
+ * @param lastValues The values of the `orderByProperties` of the last entity of the previous page.
+ */
+case class SkipTokenOperation(@BeanProperty source: QueryOperation,
+                              @BeanProperty orderByProperties: List[OrderByProperty],
+                              @BeanProperty lastValues: List[Any]) extends FilterOperation {
+  require(orderByProperties.size == lastValues.size, "There must be a value for each order by property")
+
+  def getOrderByPropertiesAsJava: java.util.List[OrderByProperty] = orderByProperties.asJava
+
+  def getLastValuesAsJava: java.util.List[Any] = lastValues.asJava
+
+  /**
+   * The criteria that select the entities after the last entity of the previous page. For properties `a, b` in
+   * ascending order this is `a > lastA or (a = lastA and b > lastB)`.
+   *
+   * Null values come before all other values in ascending order and after them in descending order. A null last
+   * value is never compared with `gt` or `lt`, but with `eq null` and `ne null` (is null and is not null): in
+   * ascending order the entities after a null value are the ones with a value, in descending order there are none,
+   * and in descending order the entities without a value come after any non-null value.
+   *
+   * @return The criteria that select the entities after the last entity of the previous page.
+   */
+  def criteria: Criteria = {
+    val positions = orderByProperties.zip(lastValues).map {
+      case (OrderByProperty(propertyName, direction), value) => (PropertyCriteriaValue(propertyName), value, direction)
+    }
+
+    positions.indices.flatMap { i =>
+      val (property, value, direction) = positions(i)
+      after(property, value, direction).map { afterCriteria =>
+        positions.take(i).foldRight(afterCriteria) {
+          case ((equalProperty, equalValue, _), criteria) =>
+            equalProperty.eq(LiteralCriteriaValue(equalValue)).and(criteria)
+        }
+      }
+    }.reduceLeftOption[Criteria](_.or(_)).getOrElse(
+      throw new IllegalStateException(s"No entities can come after the last values: $lastValues"))
+  }
+
+  private def after(property: PropertyCriteriaValue, value: Any, direction: OrderByDirection): Option[Criteria] =
+    (direction, value) match {
+      case (Ascending, null) => Some(property.ne(LiteralCriteriaValue(null)))
+      case (Ascending, _) => Some(property.gt(LiteralCriteriaValue(value)))
+      case (Descending, null) => None
+      case (Descending, _) => Some(property.lt(LiteralCriteriaValue(value)).or(property.eq(LiteralCriteriaValue(null))))
+    }
+}
+
 /**
   * Count operation. A count operation is a transform operation that gives back the count of
   * source query operation.
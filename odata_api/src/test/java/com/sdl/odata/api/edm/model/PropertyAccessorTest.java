@@ -0,0 +1,59 @@
+/**
+ * Copyright (c) 2014-2024 All Rights Reserved by the RWS Group for and on behalf of its affiliates and subsidiaries.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.sdl.odata.api.edm.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+/**
+ * Unit tests for {@link PropertyAccessor}.
+ */
+public class PropertyAccessorTest {
+
+    @Test
+    public void testGetAndSetPrivateFields() throws Exception {
+        Sample sample = new Sample();
+        PropertyAccessor name = PropertyAccessor.forField(Sample.class.getDeclaredField("name"));
+        PropertyAccessor count = PropertyAccessor.forField(Sample.class.getDeclaredField("count"));
+        PropertyAccessor items = PropertyAccessor.forField(Sample.class.getDeclaredField("items"));
+
+        name.set(sample, "test");
+        count.set(sample, 42);
+        items.set(sample, Collections.singletonList("item"));
+
+        assertEquals("test", name.get(sample));
+        assertEquals(42, count.get(sample));
+        assertEquals(Collections.singletonList("item"), items.get(sample));
+        assertEquals(42, sample.count);
+    }
+
+    @Test
+    public void testAccessorIsShared() throws Exception {
+        assertSame(PropertyAccessor.forField(Sample.class.getDeclaredField("name")),
+                PropertyAccessor.forField(Sample.class.getDeclaredField("name")));
+    }
+
+    private static final class Sample {
+        private String name;
+        private int count;
+        private List<String> items;
+    }
+}
@@ -18,12 +18,15 @@ package com.sdl.odata.api.service;
 import com.google.common.collect.ImmutableMap;
 import org.junit.jupiter.api.Test;
 
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
 import java.io.UnsupportedEncodingException;
 import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 /**
@@ -64,6 +67,32 @@ public class ODataRequestTest {
         assertEquals("The bike costs € 725", request.getBodyText("UTF-8"));
     }
 
+    @Test
+    public void testBuilderStreamBody() throws IOException {
+        ODataRequest request = new ODataRequest.Builder()
+                .setMethod(ODataRequest.Method.POST)
+                .setUri("http://localhost:8080/test")
+                .setBodyStream(new ByteArrayInputStream(new byte[]{1, 2, 3}))
+                .build();
+
+        assertArrayEquals(new byte[]{1, 2, 3}, request.getBodyStream().readAllBytes());
+        assertThrows(IllegalStateException.class, request::getBody);
+        assertThrows(IllegalStateException.class, () -> request.getBodyText("UTF-8"));
+        assertThrows(IllegalStateException.class, request::getBodyStream);
+    }
+
+    @Test
+    public void testBuilderStreamBodyBufferedOnDemand() throws IOException {
+        ODataRequest request = new ODataRequest.Builder()
+                .setMethod(ODataRequest.Method.POST)
+                .setUri("http://localhost:8080/test")
+                .setBodyStream(new ByteArrayInputStream("The bike costs € 725".getBytes("UTF-8")))
+                .build();
+
+        assertEquals("The bike costs € 725", request.getBodyText("UTF-8"));
+        assertEquals("The bike costs € 725", new String(request.getBodyStream().readAllBytes(), "UTF-8"));
+    }
+
     @Test
     public void testGetAccept() {
         ODataRequest request = new ODataRequest.Builder()
@@ -15,12 +15,16 @@
  */
 package com.sdl.odata.client;
 
+import com.sdl.odata.api.edm.ODataEdmException;
+import com.sdl.odata.api.edm.model.EntityDataModel;
 import com.sdl.odata.client.api.ODataClientComponentsProvider;
 import com.sdl.odata.client.api.caller.EndpointCaller;
 import com.sdl.odata.client.api.exception.ODataClientRuntimeException;
 import com.sdl.odata.client.api.marshall.ODataEntityMarshaller;
 import com.sdl.odata.client.api.marshall.ODataEntityUnmarshaller;
 import com.sdl.odata.client.caller.BasicEndpointCaller;
+import com.sdl.odata.client.caller.CachingEndpointCaller;
+import com.sdl.odata.client.marshall.EntityDataModelCache;
 import org.slf4j.Logger;
 
 import java.lang.reflect.Constructor;
@@ -32,7 +36,11 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Properties;
 
+import static com.sdl.odata.client.ODataClientConstants.WebService.CLIENT_ENDPOINT_CALLER;
+import static com.sdl.odata.client.ODataClientConstants.WebService.CLIENT_RESPONSE_CACHE_SIZE;
 import static com.sdl.odata.client.ODataClientConstants.WebService.CLIENT_SERVICE_URI;
+import static com.sdl.odata.client.property.PropertyUtils.getIntegerProperty;
+import static com.sdl.odata.client.property.PropertyUtils.getStringProperty;
 import static org.slf4j.LoggerFactory.getLogger;
 
 /**
@@ -56,20 +64,40 @@ public abstract class AbstractODataClientComponentsProvider implements ODataClie
     }
 
     /**
-     * If the TracingEndpointCaller class is in a classpath - use it, otherwise use BasicEndpointCaller.
+     * If an endpoint caller class is configured - use it. Otherwise, if the TracingEndpointCaller class is in a
+     * classpath - use it, otherwise use BasicEndpointCaller. If a response cache size is configured, the endpoint
+     * caller is wrapped in a CachingEndpointCaller.
      *
      * @param properties properties argument for endpoint caller
      * @return endpoint caller instance
      */
     public static EndpointCaller initializeEndpointCaller(Properties properties) {
+        EndpointCaller endpointCaller = createConfiguredEndpointCaller(properties);
+        Integer responseCacheSize = getIntegerProperty(properties, CLIENT_RESPONSE_CACHE_SIZE);
+        if (responseCacheSize != null && responseCacheSize > 0) {
+            LOG.trace("Caching up to {} responses of the endpoint caller.", responseCacheSize);
+            return new CachingEndpointCaller(endpointCaller, responseCacheSize);
+        }
+        return endpointCaller;
+    }
+
+    private static EndpointCaller createConfiguredEndpointCaller(Properties properties) {
+        String endpointCallerClassName = getStringProperty(properties, CLIENT_ENDPOINT_CALLER);
+        if (endpointCallerClassName != null) {
+            try {
+                LOG.trace("Using configured '{}' instance as endpoint caller object.", endpointCallerClassName);
+                return createEndpointCaller(Class.forName(endpointCallerClassName.trim()), properties);
+            } catch (ReflectiveOperationException | ClassCastException e) {
+                throw processedPropertyException(e, " Endpoint caller is invalid,", endpointCallerClassName,
+                        CLIENT_ENDPOINT_CALLER);
+            }
+        }
+
         EndpointCaller ec;
         try {
             LOG.trace("Initializing endpoint caller. Checking whether '{}' is in classpath.",
                     TRACING_ENDPOINT_CALLER_CLASSNAME);
-            Class<?> tracingEndpointCallerClass = Class.forName(TRACING_ENDPOINT_CALLER_CLASSNAME);
-            Constructor<?> tracingEndpointCallerConstructor = tracingEndpointCallerClass
-                    .getConstructor(Properties.class);
-            ec = (EndpointCaller) tracingEndpointCallerConstructor.newInstance(properties);
+            ec = createEndpointCaller(Class.forName(TRACING_ENDPOINT_CALLER_CLASSNAME), properties);
             LOG.trace("Using '{}' instance as endpoint caller object.", TRACING_ENDPOINT_CALLER_CLASSNAME);
         } catch (Exception e) {
             ec = new BasicEndpointCaller(properties);
@@ -79,6 +107,12 @@ public abstract class AbstractODataClientComponentsProvider implements ODataClie
         return ec;
     }
 
+    private static EndpointCaller createEndpointCaller(Class<?> endpointCallerClass, Properties properties)
+            throws ReflectiveOperationException {
+        Constructor<?> endpointCallerConstructor = endpointCallerClass.getConstructor(Properties.class);
+        return (EndpointCaller) endpointCallerConstructor.newInstance(properties);
+    }
+
     protected void setEntityMarshaller(ODataEntityMarshaller entityMarshaller) {
         this.marshaller = entityMarshaller;
     }
@@ -147,4 +181,20 @@ public abstract class AbstractODataClientComponentsProvider implements ODataClie
         }
         return edmEntityClasses;
     }
+
+    /**
+     * Gets the entity data model for the given entity classes. A provider gets it once and shares it between its
+     * marshaller and unmarshaller, and providers for the same classes share the model of the
+     * {@link EntityDataModelCache}.
+     *
+     * @param edmEntityClasses The entity classes.
+     * @return The entity data model.
+     */
+    protected EntityDataModel buildEntityDataModel(Iterable<Class<?>> edmEntityClasses) {
+        try {
+            return EntityDataModelCache.getEntityDataModel(edmEntityClasses);
+        } catch (ODataEdmException | RuntimeException e) {
+            throw new ODataClientRuntimeException("Cannot build OData entity model", e);
+        }
+    }
 }
@@ -0,0 +1,231 @@
+/**
+ * Copyright (c) 2014-2024 All Rights Reserved by the RWS Group for and on behalf of its affiliates and subsidiaries.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.sdl.odata.client;
+
+import com.sdl.odata.api.service.ODataResponse;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Parses the multipart/mixed response of a $batch request into its parts.
+ * <p>
+ * Every top-level part of the response answers one request content of the batch request, which is either a single
+ * query or a change set. Each is returned as a list of HTTP responses: a single one for a query, and one per request
+ * of the change set. The parser accepts both CRLF and LF line endings, and status lines with either a status code or
+ * only a reason phrase, as rendered by this OData service. The Content-Length of the parts is not used.
+ */
+final class BatchResponseParser {
+
+    private static final String DELIMITER_PREFIX = "--";
+    private static final String BOUNDARY = "boundary=";
+    private static final String HTTP_PREFIX = "HTTP/";
+    private static final String MULTIPART_MIXED = "multipart/mixed";
+
+    private final String[] lines;
+    private int index;
+
+    private BatchResponseParser(String response) {
+        this.lines = response.split("\r?\n", -1);
+    }
+
+    /**
+     * Parses a batch response.
+     *
+     * @param response The body of the batch response.
+     * @param boundary The boundary of the batch response, which is the boundary of the batch request.
+     * @return The HTTP responses of each top-level part, in the order of the response.
+     */
+    static List<List<HttpPart>> parse(String response, String boundary) {
+        return new BatchResponseParser(response).parseParts(boundary);
+    }
+
+    private List<List<HttpPart>> parseParts(String boundary) {
+        String delimiter = DELIMITER_PREFIX + boundary;
+        List<List<HttpPart>> parts = new ArrayList<>();
+        skipTo(delimiter);
+        while (index < lines.length && !isCloseDelimiter(current(), delimiter)) {
+            index++;
+            Map<String, String> partHeaders = readHeaders(delimiter);
+            String contentType = partHeaders.getOrDefault("content-type", "");
+            if (contentType.toLowerCase(Locale.ENGLISH).startsWith(MULTIPART_MIXED)) {
+                String changeSetDelimiter = DELIMITER_PREFIX + getBoundary(contentType);
+                parts.add(parseChangeSet(changeSetDelimiter));
+                skipTo(delimiter);
+            } else {
+                HttpPart part = readHttpPart(delimiter);
+                if (part != null) {
+                    parts.add(Collections.singletonList(part));
+                }
+            }
+        }
+        return parts;
+    }
+
+    private List<HttpPart> parseChangeSet(String changeSetDelimiter) {
+        List<HttpPart> parts = new ArrayList<>();
+        skipTo(changeSetDelimiter);
+        while (index < lines.length && !isCloseDelimiter(current(), changeSetDelimiter)) {
+            index++;
+            Map<String, String> partHeaders = readHeaders(changeSetDelimiter);
+            HttpPart part = readHttpPart(changeSetDelimiter);
+            if (part != null) {
+                parts.add(part.withContentId(partHeaders.get("content-id")));
+            }
+        }
+        return parts;
+    }
+
+    /**
+     * Reads an HTTP response up to the next line which starts with the given delimiter.
+     *
+     * @return The response, or {@code null} if there is no status line before the delimiter.
+     */
+    private HttpPart readHttpPart(String delimiter) {
+        while (index < lines.length && current().isEmpty()) {
+            index++;
+        }
+        if (index >= lines.length || current().startsWith(delimiter) || !current().startsWith(HTTP_PREFIX)) {
+            skipTo(delimiter);
+            return null;
+        }
+        int status = parseStatus(current());
+        index++;
+        Map<String, String> headers = readHeaders(delimiter);
+        StringBuilder body = new StringBuilder();
+        while (index < lines.length && !current().startsWith(delimiter)) {
+            body.append(lines[index]).append('\n');
+            index++;
+        }
+        return new HttpPart(status, headers, body.toString().trim(), headers.get("content-id"));
+    }
+
+    /**
+     * Reads headers up to and including the empty line after them. Header names are returned in lower case.
+     */
+    private Map<String, String> readHeaders(String delimiter) {
+        Map<String, String> headers = new TreeMap<>();
+        while (index < lines.length && !current().isEmpty() && !current().startsWith(delimiter)) {
+            String line = current();
+            int colon = line.indexOf(':');
+            if (colon > 0) {
+                headers.put(line.substring(0, colon).trim().toLowerCase(Locale.ENGLISH),
+                        line.substring(colon + 1).trim());
+            }
+            index++;
+        }
+        if (index < lines.length && current().isEmpty()) {
+            index++;
+        }
+        return headers;
+    }
+
+    private void skipTo(String delimiter) {
+        while (index < lines.length && !current().startsWith(delimiter)) {
+            index++;
+        }
+    }
+
+    private String current() {
+        return lines[index].trim();
+    }
+
+    private static boolean isCloseDelimiter(String line, String delimiter) {
+        return line.equals(delimiter + DELIMITER_PREFIX);
+    }
+
+    private static String getBoundary(String contentType) {
+        int start = contentType.indexOf(BOUNDARY);
+        if (start < 0) {
+            return "";
+        }
+        String boundary = contentType.substring(start + BOUNDARY.length());
+        int end = boundary.indexOf(';');
+        return (end < 0 ? boundary : boundary.substring(0, end)).trim();
+    }
+
+    /**
+     * Parses the status code of a status line like {@code HTTP/1.1 201 Created} or {@code HTTP/1.1 NOT FOUND}.
+     *
+     * @return The status code, or {@code 0} if it is not recognized.
+     */
+    static int parseStatus(String statusLine) {
+        int space = statusLine.indexOf(' ');
+        String status = space < 0 ? "" : statusLine.substring(space + 1).trim();
+        int end = status.indexOf(' ');
+        String code = end < 0 ? status : status.substring(0, end);
+        if (!code.isEmpty() && code.chars().allMatch(Character::isDigit)) {
+            return Integer.parseInt(code);
+        }
+        try {
+            return ODataResponse.Status.valueOf(status.replace(' ', '_').toUpperCase(Locale.ENGLISH)).getCode();
+        } catch (IllegalArgumentException e) {
+            return 0;
+        }
+    }
+
+    /**
+     * A single HTTP response in a batch response.
+     */
+    static final class HttpPart {
+
+        private final int status;
+        private final Map<String, String> headers;
+        private final String body;
+        private final String contentId;
+
+        HttpPart(int status, Map<String, String> headers, String body, String contentId) {
+            this.status = status;
+            this.headers = headers;
+            this.body = body;
+            this.contentId = contentId;
+        }
+
+        private HttpPart withContentId(String id) {
+            return id == null || contentId != null ? this : new HttpPart(status, headers, body, id);
+        }
+
+        int getStatus() {
+            return status;
+        }
+
+        /**
+         * Gets a header of the response.
+         *
+         * @param name The name of the header, in any case.
+         * @return The value of the header, or {@code null} if the response does not have it.
+         */
+        String getHeader(String name) {
+            return headers.get(name.toLowerCase(Locale.ENGLISH));
+        }
+
+        String getBody() {
+            return body;
+        }
+
+        String getContentId() {
+            return contentId;
+        }
+
+        boolean isError() {
+            return status == 0 || status >= ODataResponse.Status.BAD_REQUEST.getCode();
+        }
+    }
+}
@@ -0,0 +1,243 @@
+/**
+ * Copyright (c) 2014-2024 All Rights Reserved by the RWS Group for and on behalf of its affiliates and subsidiaries.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.sdl.odata.client;
+
+import com.sdl.odata.client.api.ODataClientQuery;
+import com.sdl.odata.client.api.exception.ODataClientRuntimeException;
+import org.slf4j.Logger;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.sdl.odata.client.ODataClientConstants.DefaultValues.CLIENT_BATCH_WINDOW_DEFAULT;
+import static com.sdl.odata.client.ODataClientConstants.DefaultValues.CLIENT_MAX_BATCH_SIZE_DEFAULT;
+import static com.sdl.odata.client.ODataClientConstants.DefaultValues.CLIENT_MAX_CONCURRENT_BATCHES_DEFAULT;
+import static org.slf4j.LoggerFactory.getLogger;
+
+/**
+ * Coalesces concurrent single-entity lookups into $batch requests.
+ * <p>
+ * The first lookup which is not part of a batch yet opens a time window. All lookups made within that window are sent
+ * together in one {@link ODataClientBatch} when it ends, or as soon as the maximum batch size is reached. This trades
+ * a short delay of each lookup for far fewer round trips when many threads look up entities at the same time. A single
+ * daemon thread times the windows, and the batches are sent on a bounded pool of daemon threads so that a slow batch
+ * does not hold up the windows or the batches after it. At most the maximum number of concurrent batches are sent at
+ * the same time, and as many more wait for a thread; the lookups of any batch beyond that fail right away instead of
+ * piling up while the service is slow. The threads are stopped by {@link #close()}.
+ */
+public class BatchingEntityLoader implements AutoCloseable {
+
+    private static final Logger LOG = getLogger(BatchingEntityLoader.class);
+    private static final long SENDER_KEEP_ALIVE_SECONDS = 60;
+
+    private final DefaultODataClient client;
+    private final Map<String, String> requestProperties;
+    private final long windowNanos;
+    private final int maxBatchSize;
+    private final ScheduledExecutorService scheduler;
+    private final ThreadPoolExecutor sender;
+
+    private final Object lock = new Object();
+    private List<PendingLookup> pendingLookups = new ArrayList<>();
+    private long window;
+    private boolean closed;
+
+    public BatchingEntityLoader(DefaultODataClient client, Map<String, String> requestProperties) {
+        this(client, requestProperties, Duration.ofMillis(CLIENT_BATCH_WINDOW_DEFAULT), CLIENT_MAX_BATCH_SIZE_DEFAULT);
+    }
+
+    public BatchingEntityLoader(DefaultODataClient client, Map<String, String> requestProperties,
+                                Duration window, int maxBatchSize) {
+        this(client, requestProperties, window, maxBatchSize, CLIENT_MAX_CONCURRENT_BATCHES_DEFAULT);
+    }
+
+    public BatchingEntityLoader(DefaultODataClient client, Map<String, String> requestProperties,
+                                Duration window, int maxBatchSize, int maxConcurrentBatches) {
+        if (window.isNegative()) {
+            throw new IllegalArgumentException("The batch window must not be negative, but is: " + window);
+        }
+        if (maxBatchSize < 1) {
+            throw new IllegalArgumentException("The maximum batch size must be positive, but is: " + maxBatchSize);
+        }
+        if (maxConcurrentBatches < 1) {
+            throw new IllegalArgumentException("The maximum number of concurrent batches must be positive, but is: " +
+                    maxConcurrentBatches);
+        }
+        this.client = client;
+        this.requestProperties = requestProperties;
+        this.windowNanos = window.toNanos();
+        this.maxBatchSize = maxBatchSize;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(daemonThreads("odata-client-batch-window"));
+        this.sender = new ThreadPoolExecutor(maxConcurrentBatches, maxConcurrentBatches,
+                SENDER_KEEP_ALIVE_SECONDS, TimeUnit.SECONDS, new ArrayBlockingQueue<>(maxConcurrentBatches),
+                daemonThreads("odata-client-batch-send"), new ThreadPoolExecutor.AbortPolicy());
+        this.sender.allowCoreThreadTimeOut(true);
+    }
+
+    private static ThreadFactory daemonThreads(String name) {
+        AtomicInteger count = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, name + "-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    /**
+     * Looks up a single entity in the next batch.
+     *
+     * @param query The query for the entity.
+     * @return A future for the entity, or for {@code null} if the service returned no content.
+     */
+    public CompletableFuture<Object> getEntity(ODataClientQuery query) {
+        PendingLookup lookup = new PendingLookup(query);
+        List<PendingLookup> rejected = null;
+        synchronized (lock) {
+            if (closed) {
+                lookup.result.completeExceptionally(
+                        new ODataClientRuntimeException("The batching entity loader is closed"));
+                return lookup.result;
+            }
+            pendingLookups.add(lookup);
+            // The executors are only used while holding the lock, so they are never used after they have been shut down
+            if (pendingLookups.size() >= maxBatchSize) {
+                rejected = dispatch(takePendingLookups());
+            } else if (pendingLookups.size() == 1) {
+                long currentWindow = window;
+                scheduler.schedule(() -> flush(currentWindow), windowNanos, TimeUnit.NANOSECONDS);
+            }
+        }
+        fail(rejected);
+        return lookup.result;
+    }
+
+    /**
+     * Sends the lookups which are still waiting for their window to end, and stops the threads which send the
+     * batches once they have been sent. Lookups made afterwards fail.
+     */
+    @Override
+    public void close() {
+        List<PendingLookup> rejected;
+        synchronized (lock) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            rejected = dispatch(takePendingLookups());
+            sender.shutdown();
+            scheduler.shutdown();
+        }
+        fail(rejected);
+    }
+
+    private void flush(long expectedWindow) {
+        List<PendingLookup> rejected;
+        synchronized (lock) {
+            // The window may already have been sent because it was full, or because the loader was closed
+            if (window != expectedWindow) {
+                return;
+            }
+            rejected = dispatch(takePendingLookups());
+        }
+        fail(rejected);
+    }
+
+    /**
+     * Hands a batch to the sender threads.
+     *
+     * @return The lookups of the batch if there are too many batches in flight already, or {@code null}.
+     */
+    private List<PendingLookup> dispatch(List<PendingLookup> batch) {
+        if (batch.isEmpty()) {
+            return null;
+        }
+        try {
+            sender.execute(() -> send(batch));
+            return null;
+        } catch (RejectedExecutionException e) {
+            LOG.debug("Rejecting a batch of {} entity lookups, too many batches are in flight", batch.size());
+            return batch;
+        }
+    }
+
+    /**
+     * Fails rejected lookups. This is not done while holding the lock, because it runs the callbacks of the lookups.
+     */
+    private static void fail(List<PendingLookup> rejected) {
+        if (rejected == null) {
+            return;
+        }
+        ODataClientRuntimeException e = new ODataClientRuntimeException(
+                "Too many batches of entity lookups are in flight, the lookup was not sent");
+        for (PendingLookup lookup : rejected) {
+            lookup.result.completeExceptionally(e);
+        }
+    }
+
+    private List<PendingLookup> takePendingLookups() {
+        List<PendingLookup> batch = pendingLookups;
+        pendingLookups = new ArrayList<>();
+        window++;
+        return batch;
+    }
+
+    private void send(List<PendingLookup> lookups) {
+        if (lookups.isEmpty()) {
+            return;
+        }
+        LOG.debug("Sending a batch of {} entity lookups", lookups.size());
+        ODataClientBatch batch = new ODataClientBatch(client);
+        for (PendingLookup lookup : lookups) {
+            batch.getEntity(lookup.query).whenComplete((entity, e) -> {
+                if (e == null) {
+                    lookup.result.complete(entity);
+                } else {
+                    lookup.result.completeExceptionally(e);
+                }
+            });
+        }
+        try {
+            batch.execute(requestProperties);
+        } catch (RuntimeException e) {
+            // The futures of the batch, and so those of the lookups, have been completed with the failure
+            LOG.debug("Batch of entity lookups failed", e);
+        }
+    }
+
+    /**
+     * A lookup waiting to be sent in a batch.
+     */
+    private static final class PendingLookup {
+
+        private final ODataClientQuery query;
+        private final CompletableFuture<Object> result = new CompletableFuture<>();
+
+        private PendingLookup(ODataClientQuery query) {
+            this.query = query;
+        }
+    }
+}
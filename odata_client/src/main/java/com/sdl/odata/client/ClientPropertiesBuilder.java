@@ -15,10 +15,16 @@
  */
 package com.sdl.odata.client;
 
+import com.sdl.odata.client.api.caller.EndpointCaller;
+
+import java.util.Arrays;
 import java.util.Map;
 import java.util.Properties;
 
+import static com.sdl.odata.client.ODataClientConstants.WebService.CLIENT_ACCEPT_GZIP;
 import static com.sdl.odata.client.ODataClientConstants.WebService.CLIENT_CONNECTION_TIMEOUT;
+import static com.sdl.odata.client.ODataClientConstants.WebService.CLIENT_ENDPOINT_CALLER;
+import static com.sdl.odata.client.ODataClientConstants.WebService.CLIENT_HTTP_VERSION;
 import static com.sdl.odata.client.ODataClientConstants.WebService.CLIENT_SERVICE_PROXY_HOST_NAME;
 import static com.sdl.odata.client.ODataClientConstants.WebService.CLIENT_SERVICE_PROXY_PORT;
 import static com.sdl.odata.client.ODataClientConstants.WebService.CLIENT_SERVICE_URI;
@@ -55,6 +61,11 @@ public class ClientPropertiesBuilder {
             properties.setProperty(CLIENT_SERVICE_PROXY_PORT, clientServiceProxyPort);
 
         }
+        for (String key : Arrays.asList(CLIENT_ENDPOINT_CALLER, CLIENT_HTTP_VERSION, CLIENT_ACCEPT_GZIP)) {
+            if (configValues.get(key) != null) {
+                properties.setProperty(key, configValues.get(key));
+            }
+        }
     }
 
     /**
@@ -109,4 +120,38 @@ public class ClientPropertiesBuilder {
         properties.setProperty(CLIENT_SERVICE_PROXY_PORT, proxyPortNumber.toString());
         return this;
     }
+
+    /**
+     * Specify the endpoint caller which calls the OData web service, e.g. the pooled HttpClientEndpointCaller.
+     * The class must have a public constructor taking the client properties.
+     *
+     * @param endpointCallerClass the endpoint caller class
+     * @return the properties builder
+     */
+    public ClientPropertiesBuilder withEndpointCaller(Class<? extends EndpointCaller> endpointCallerClass) {
+        properties.setProperty(CLIENT_ENDPOINT_CALLER, endpointCallerClass.getName());
+        return this;
+    }
+
+    /**
+     * Specify the HTTP version used by the pooled endpoint caller, HTTP_1_1 or HTTP_2 (the default).
+     *
+     * @param httpVersion the HTTP version
+     * @return the properties builder
+     */
+    public ClientPropertiesBuilder withHttpVersion(String httpVersion) {
+        properties.setProperty(CLIENT_HTTP_VERSION, httpVersion);
+        return this;
+    }
+
+    /**
+     * Specify whether the pooled endpoint caller accepts gzip compressed responses (it does by default).
+     *
+     * @param acceptGzip whether gzip compressed responses are accepted
+     * @return the properties builder
+     */
+    public ClientPropertiesBuilder withAcceptGzip(boolean acceptGzip) {
+        properties.setProperty(CLIENT_ACCEPT_GZIP, String.valueOf(acceptGzip));
+        return this;
+    }
 }
@@ -0,0 +1,302 @@
+/**
+ * Copyright (c) 2014-2024 All Rights Reserved by the RWS Group for and on behalf of its affiliates and subsidiaries.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.sdl.odata.client;
+
+import com.sdl.odata.api.service.MediaType;
+import com.sdl.odata.client.api.AsyncODataClient;
+import com.sdl.odata.client.api.ODataActionClientQuery;
+import com.sdl.odata.client.api.ODataClientComponentsProvider;
+import com.sdl.odata.client.api.ODataClientQuery;
+import com.sdl.odata.client.api.caller.AsyncEndpointCaller;
+import com.sdl.odata.client.api.caller.EndpointCaller;
+import com.sdl.odata.client.api.exception.ODataClientException;
+import com.sdl.odata.client.api.exception.ODataClientRuntimeException;
+import com.sdl.odata.client.api.exception.ODataClientTimeout;
+import com.sdl.odata.client.api.model.ODataIdAwareEntity;
+import org.slf4j.Logger;
+
+import java.io.UnsupportedEncodingException;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import static com.sdl.odata.api.service.MediaType.JSON;
+import static com.sdl.odata.client.ODataClientConstants.DefaultValues.CLIENT_MAX_CONCURRENT_REQUESTS_DEFAULT;
+import static com.sdl.odata.client.ODataClientConstants.DefaultValues.CLIENT_TIMEOUT_DEFAULT;
+import static java.text.MessageFormat.format;
+import static org.slf4j.LoggerFactory.getLogger;
+
+/**
+ * Default {@link AsyncODataClient} implementation for calling OData service without blocking.
+ * <p>
+ * It needs an {@link AsyncEndpointCaller}, such as {@link com.sdl.odata.client.caller.HttpClientEndpointCaller}. At
+ * most a configured number of calls is in flight at the same time; further calls wait in a queue, without holding a
+ * thread, until an earlier call completes. A call which does not complete within the timeout, including the time it
+ * waited in the queue, fails with {@link ODataClientTimeout}. It counts as in flight until its exchange with the
+ * service has ended. A call which times out or is cancelled while it waits in the queue is never started.
+ */
+public class DefaultAsyncODataClient implements AsyncODataClient {
+
+    private static final Logger LOG = getLogger(DefaultAsyncODataClient.class);
+
+    // Builds the URLs and unmarshalls the responses exactly like the blocking client does
+    private final DefaultODataClient client = new DefaultODataClient();
+
+    private final int maxConcurrentRequests;
+    private final Duration timeout;
+    private final Queue<BooleanSupplier> pendingCalls = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger activeCalls = new AtomicInteger();
+    private final AtomicInteger startRequests = new AtomicInteger();
+
+    private AsyncEndpointCaller endpointCaller;
+
+    public DefaultAsyncODataClient() {
+        this(CLIENT_MAX_CONCURRENT_REQUESTS_DEFAULT, Duration.ofMillis(CLIENT_TIMEOUT_DEFAULT));
+    }
+
+    public DefaultAsyncODataClient(int maxConcurrentRequests, Duration timeout) {
+        if (maxConcurrentRequests < 1) {
+            throw new IllegalArgumentException("The maximum number of concurrent requests must be positive, but is: " +
+                    maxConcurrentRequests);
+        }
+        this.maxConcurrentRequests = maxConcurrentRequests;
+        this.timeout = timeout;
+    }
+
+    @Override
+    public void configure(ODataClientComponentsProvider clientComponentsProvider) {
+        EndpointCaller caller = clientComponentsProvider.getEndpointCaller();
+        if (!(caller instanceof AsyncEndpointCaller)) {
+            throw new ODataClientRuntimeException("The endpoint caller '" + caller.getClass().getName() +
+                    "' can not make asynchronous calls. Configure an " + AsyncEndpointCaller.class.getSimpleName() +
+                    " such as the HttpClientEndpointCaller.");
+        }
+        client.configure(clientComponentsProvider);
+        endpointCaller = (AsyncEndpointCaller) caller;
+    }
+
+    @Override
+    public void encodeURL(boolean encode) {
+        client.encodeURL(encode);
+    }
+
+    /**
+     * Returns Component Provider.
+     *
+     * @return componentProvider
+     */
+    public ODataClientComponentsProvider getComponentsProvider() {
+        return client.getComponentsProvider();
+    }
+
+    @Override
+    public CompletableFuture<Object> getEntity(Map<String, String> requestProperties, ODataClientQuery query) {
+        LOG.debug("Getting entity asynchronously for query {}", query);
+        return getODataResponse(requestProperties, query)
+                .thenApply(oDataResponse -> client.unmarshallEntity(oDataResponse, query));
+    }
+
+    @Override
+    public CompletableFuture<List<?>> getEntities(Map<String, String> requestProperties, ODataClientQuery query) {
+        LOG.debug("Getting entities asynchronously for query {}", query);
+        return getODataResponse(requestProperties, query)
+                .thenApply(oDataResponse -> client.unmarshallEntities(oDataResponse, query));
+    }
+
+    @Override
+    public CompletableFuture<Object> performAction(Map<String, String> properties,
+                                                   ODataActionClientQuery actionQuery) {
+        MediaType acceptType = client.getAcceptType();
+        return submit(() -> endpointCaller.doPostEntityAsync(properties, client.buildURL(actionQuery),
+                        actionQuery.getActionRequestBody(), JSON, acceptType),
+                e -> new ODataClientRuntimeException("Unable to perform action", e))
+                .thenApply(oDataResponse -> client.unmarshallActionResult(oDataResponse, actionQuery));
+    }
+
+    @Override
+    public CompletableFuture<Object> createEntity(Map<String, String> requestProperties, Object entity) {
+        BasicODataClientQuery query = client.buildQueryForEntity(entity);
+        String entitySetName = query.getEdmEntityName();
+        try {
+            URL endpointUrl = new URL(client.getUrlToCall(entitySetName, false, null));
+            String marshalledEntity = getComponentsProvider().getMarshaller().marshallEntity(entity, query);
+            MediaType contentType = client.getContentType();
+            MediaType acceptType = client.getAcceptType();
+            return submit(() -> endpointCaller.doPostEntityAsync(requestProperties, endpointUrl, marshalledEntity,
+                            contentType, acceptType),
+                    e -> client.formFailedRequestException(e, entitySetName))
+                    .thenApply(createdEntity -> unmarshallWrittenEntity(createdEntity, query, entitySetName));
+        } catch (ODataClientException e) {
+            return CompletableFuture.failedFuture(client.formFailedRequestException(e, entitySetName));
+        } catch (MalformedURLException | UnsupportedEncodingException e) {
+            return CompletableFuture.failedFuture(client.formFailedUrlFormingException(e, entitySetName));
+        }
+    }
+
+    @Override
+    public CompletableFuture<Object> updateEntity(Map<String, String> requestProperties, ODataIdAwareEntity entity) {
+        BasicODataClientQuery query = client.buildQueryForEntity(entity);
+        String entitySetName = query.getEdmEntityName();
+        try {
+            URL endpointUrl = new URL(client.getUrlToCall(entitySetName, true, entity.getId()));
+            String marshalledEntity = getComponentsProvider().getMarshaller().marshallEntity(entity, query);
+            MediaType contentType = client.getContentType();
+            return submit(() -> endpointCaller.doPutEntityAsync(requestProperties, endpointUrl, marshalledEntity,
+                            contentType),
+                    e -> client.formFailedRequestException(e, entitySetName))
+                    .thenApply(updatedEntity -> unmarshallWrittenEntity(updatedEntity, query, entitySetName));
+        } catch (ODataClientException e) {
+            return CompletableFuture.failedFuture(client.formFailedRequestException(e, entitySetName));
+        } catch (MalformedURLException | UnsupportedEncodingException e) {
+            return CompletableFuture.failedFuture(client.formFailedUrlFormingException(e, entitySetName));
+        }
+    }
+
+    @Override
+    public CompletableFuture<Void> deleteEntity(Map<String, String> requestProperties, ODataIdAwareEntity entity) {
+        BasicODataClientQuery query = client.buildQueryForEntity(entity);
+        String entitySetName = query.getEdmEntityName();
+        try {
+            URL endpointUrl = new URL(client.getUrlToCall(entitySetName, true, entity.getId()));
+            return submit(() -> endpointCaller.doDeleteEntityAsync(requestProperties, endpointUrl),
+                    e -> client.formFailedRequestException(e, entitySetName));
+        } catch (MalformedURLException | UnsupportedEncodingException e) {
+            return CompletableFuture.failedFuture(client.formFailedUrlFormingException(e, entitySetName));
+        }
+    }
+
+    private CompletableFuture<String> getODataResponse(Map<String, String> requestProperties,
+                                                       ODataClientQuery query) {
+        Map<String, String> properties = client.withAcceptType(requestProperties);
+        return submit(() -> endpointCaller.callEndpointAsync(properties, client.buildURL(query)),
+                e -> new ODataClientRuntimeException(
+                        format("Unable to call OData service for \"{0}\" URL and service query \"/{1}\"",
+                                getComponentsProvider().getWebServiceUrl().toString(), query.getQuery()), e));
+    }
+
+    private Object unmarshallWrittenEntity(String oDataResponse, BasicODataClientQuery query, String entitySetName) {
+        try {
+            return getComponentsProvider().getUnmarshaller().unmarshallEntity(oDataResponse, query);
+        } catch (ODataClientException e) {
+            throw client.formFailedRequestException(e, entitySetName);
+        }
+    }
+
+    /**
+     * Starts a call as soon as fewer than the maximum number of calls are in flight. The timeout starts right away,
+     * and cancelling the returned future cancels the call if it has not started yet. A call stays in flight until
+     * the future of the endpoint caller completes, also when its result timed out before: the exchange is still
+     * running then, and ends by the endpoint caller's own timeout.
+     *
+     * @param call      Starts the call.
+     * @param onFailure Converts the checked exception a call can fail with, like the blocking client does.
+     * @param <T>       The type of the result of the call.
+     * @return The future of the result of the call.
+     */
+    private <T> CompletableFuture<T> submit(Supplier<CompletableFuture<T>> call,
+                                            Function<ODataClientException, ODataClientRuntimeException> onFailure) {
+        CompletableFuture<T> response = new CompletableFuture<T>()
+                .orTimeout(timeout.toMillis(), TimeUnit.MILLISECONDS);
+        pendingCalls.add(() -> {
+            if (response.isDone()) {
+                // The call timed out or was cancelled while it was waiting
+                return false;
+            }
+            CompletableFuture<T> future;
+            try {
+                future = call.get();
+            } catch (RuntimeException e) {
+                future = CompletableFuture.failedFuture(e);
+            }
+            future.whenComplete((value, error) -> {
+                activeCalls.decrementAndGet();
+                startPendingCalls();
+                if (error == null) {
+                    response.complete(value);
+                } else {
+                    response.completeExceptionally(error);
+                }
+            });
+            return true;
+        });
+        startPendingCalls();
+
+        CompletableFuture<T> result = new CompletableFuture<>();
+        response.whenComplete((value, error) -> {
+            if (error == null) {
+                result.complete(value);
+            } else {
+                result.completeExceptionally(convert(error, onFailure));
+            }
+        });
+        result.whenComplete((value, error) -> {
+            if (result.isCancelled()) {
+                response.cancel(false);
+            }
+        });
+        return result;
+    }
+
+    /**
+     * Starts pending calls while fewer than the maximum number of calls are in flight. Only one thread starts calls
+     * at a time: a thread which finds another one doing so leaves its request to that thread. So a call which
+     * completes right away while it is started does not start the next one recursively.
+     */
+    private void startPendingCalls() {
+        if (startRequests.getAndIncrement() != 0) {
+            return;
+        }
+        int requests = 1;
+        do {
+            while (activeCalls.get() < maxConcurrentRequests) {
+                BooleanSupplier pendingCall = pendingCalls.poll();
+                if (pendingCall == null) {
+                    break;
+                }
+                activeCalls.incrementAndGet();
+                if (!pendingCall.getAsBoolean()) {
+                    activeCalls.decrementAndGet();
+                }
+            }
+            requests = startRequests.addAndGet(-requests);
+        } while (requests != 0);
+    }
+
+    private Throwable convert(Throwable error,
+                              Function<ODataClientException, ODataClientRuntimeException> onFailure) {
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        if (cause instanceof TimeoutException) {
+            return new ODataClientTimeout("No response from OData service within " + timeout.toMillis() + " ms",
+                    cause);
+        }
+        if (cause instanceof ODataClientException) {
+            return onFailure.apply((ODataClientException) cause);
+        }
+        return cause;
+    }
+}
@@ -15,6 +15,8 @@
  */
 package com.sdl.odata.client;
 
+import com.sdl.odata.api.service.HeaderNames;
+import com.sdl.odata.api.service.MediaType;
 import com.sdl.odata.client.api.ODataActionClientQuery;
 import com.sdl.odata.client.api.ODataClient;
 import com.sdl.odata.client.api.ODataClientComponentsProvider;
@@ -22,6 +24,8 @@ import com.sdl.odata.client.api.ODataClientQuery;
 import com.sdl.odata.client.api.exception.ODataClientException;
 import com.sdl.odata.client.api.exception.ODataClientRuntimeException;
 import com.sdl.odata.client.api.exception.ODataNotImplementedException;
+import com.sdl.odata.client.api.marshall.ODataEntityMarshaller;
+import com.sdl.odata.client.api.marshall.ODataEntityUnmarshaller;
 import com.sdl.odata.client.api.model.ODataIdAwareEntity;
 import java.io.InputStream;
 import java.util.Map;
@@ -32,11 +36,17 @@ import java.net.MalformedURLException;
 import java.net.URL;
 import java.net.URLEncoder;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 import static com.sdl.odata.api.service.MediaType.ATOM_XML;
 import static com.sdl.odata.api.service.MediaType.JSON;
 import static com.sdl.odata.client.marshall.AtomEntityUnmarshaller.PRIMITIVE_CLASSES;
+import static com.sdl.odata.client.util.ODataClientUtils.defaultAcceptType;
 import static java.text.MessageFormat.format;
 import static org.slf4j.LoggerFactory.getLogger;
 
@@ -66,7 +76,10 @@ public class DefaultODataClient implements ODataClient {
     @Override
     public Object getEntity(Map<String, String> requestProperties, ODataClientQuery query) {
         LOG.debug("Getting entity for query {}", query);
-        String oDataResponse = getODataResponse(requestProperties, query);
+        return unmarshallEntity(getODataResponse(requestProperties, query), query);
+    }
+
+    Object unmarshallEntity(String oDataResponse, ODataClientQuery query) {
         try {
             return oDataResponse.isEmpty() ? null :
                     componentsProvider.getUnmarshaller().unmarshallEntity(oDataResponse, query);
@@ -79,10 +92,19 @@ public class DefaultODataClient implements ODataClient {
 
     @Override
     public Object performAction(Map<String, String> properties, ODataActionClientQuery actionQuery) {
+        String oDataResponse;
         try {
-            String oDataResponse = getComponentsProvider().getEndpointCaller()
+            oDataResponse = getComponentsProvider().getEndpointCaller()
                     .doPostEntity(properties, buildURL(actionQuery), actionQuery.getActionRequestBody(),
-                                  JSON, ATOM_XML);
+                                  JSON, getAcceptType());
+        } catch (ODataClientException e) {
+            throw new ODataClientRuntimeException("Unable to perform action", e);
+        }
+        return unmarshallActionResult(oDataResponse, actionQuery);
+    }
+
+    Object unmarshallActionResult(String oDataResponse, ODataActionClientQuery actionQuery) {
+        try {
             return oDataResponse.isEmpty() ? null :
                     (PRIMITIVE_CLASSES.contains(actionQuery.getEntityType()) ?
                             componentsProvider.getUnmarshaller().unmarshallEntity(oDataResponse, actionQuery) :
@@ -106,7 +128,10 @@ public class DefaultODataClient implements ODataClient {
     @Override
     public List<?> getEntities(Map<String, String> requestProperties, ODataClientQuery query) {
         LOG.debug("Getting entities for query {}", query);
-        String oDataResponse = getODataResponse(requestProperties, query);
+        return unmarshallEntities(getODataResponse(requestProperties, query), query);
+    }
+
+    List<?> unmarshallEntities(String oDataResponse, ODataClientQuery query) {
         try {
             return oDataResponse.isEmpty() ? new ArrayList<>() :
                     componentsProvider.getUnmarshaller().unmarshall(oDataResponse, query);
@@ -117,7 +142,31 @@ public class DefaultODataClient implements ODataClient {
         }
     }
 
-    private URL buildURL(ODataClientQuery query) {
+    @Override
+    public Stream<?> streamEntities(Map<String, String> requestProperties, ODataClientQuery query) {
+        LOG.debug("Streaming entities for query {}", query);
+        PagedEntityIterator entities = new PagedEntityIterator(this, requestProperties, query, buildURL(query));
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(entities,
+                Spliterator.ORDERED | Spliterator.NONNULL), false)
+                .onClose(entities::close);
+    }
+
+    URL buildURL(ODataClientQuery query) {
+        String builtQuery = buildQueryPath(query);
+        try {
+            return new URL(componentsProvider.getWebServiceUrl().toString() + "/" + builtQuery);
+        } catch (MalformedURLException e) {
+            throw new IllegalArgumentException(
+                    format("MalformedURLException, cannot form a valid URL for endpoint "
+                                    + "\"{0}\" and service query \"/{1}\"",
+                            componentsProvider.getWebServiceUrl().toString(), builtQuery), e);
+        }
+    }
+
+    /**
+     * Builds the path of the query relative to the web service URL, encoded if URL encoding is enabled.
+     */
+    String buildQueryPath(ODataClientQuery query) {
         String builtQuery = query.getQuery();
         try {
             // encoding can be an issue due to tomcat's validation
@@ -126,19 +175,16 @@ public class DefaultODataClient implements ODataClient {
                 builtQuery = URLEncoder.encode(builtQuery, "UTF-8");
                 LOG.debug("Encoded query : " + query);
             }
-
-            return new URL(componentsProvider.getWebServiceUrl().toString() + "/" + builtQuery);
-        } catch (MalformedURLException | UnsupportedEncodingException e) {
-            throw new IllegalArgumentException(
-                    format("MalformedURLException, cannot form a valid URL for endpoint "
-                                    + "\"{0}\" and service query \"/{1}\"",
-                            componentsProvider.getWebServiceUrl().toString(), builtQuery), e);
+            return builtQuery;
+        } catch (UnsupportedEncodingException e) {
+            throw new IllegalArgumentException(format("Unable to encode service query \"/{0}\"", builtQuery), e);
         }
     }
 
     private String getODataResponse(Map<String, String> requestProperties, ODataClientQuery query) {
         try {
-            return componentsProvider.getEndpointCaller().callEndpoint(requestProperties, buildURL(query));
+            return componentsProvider.getEndpointCaller().callEndpoint(withAcceptType(requestProperties),
+                    buildURL(query));
         } catch (ODataClientException e) {
             throw new ODataClientRuntimeException(
                     format("Unable to call OData service for \"{0}\" URL and service query \"/{1}\"",
@@ -170,7 +216,7 @@ public class DefaultODataClient implements ODataClient {
             URL endpointUrl = new URL(getUrlToCall(entitySetName, false, null));
             String marshalledEntity = componentsProvider.getMarshaller().marshallEntity(entity, query);
             String createdEntity = componentsProvider.getEndpointCaller()
-                    .doPostEntity(requestProperties, endpointUrl, marshalledEntity, ATOM_XML, ATOM_XML);
+                    .doPostEntity(requestProperties, endpointUrl, marshalledEntity, getContentType(), getAcceptType());
             return componentsProvider.getUnmarshaller().unmarshallEntity(createdEntity, query);
         } catch (ODataClientException e) {
             throw formFailedRequestException(e, entitySetName);
@@ -188,7 +234,7 @@ public class DefaultODataClient implements ODataClient {
             URL endpointUrl = new URL(getUrlToCall(entitySetName, true, entity.getId()));
             String marshalledEntity = componentsProvider.getMarshaller().marshallEntity(entity, query);
             String createdEntity = componentsProvider.getEndpointCaller()
-                    .doPutEntity(requestProperties, endpointUrl, marshalledEntity, ATOM_XML);
+                    .doPutEntity(requestProperties, endpointUrl, marshalledEntity, getContentType());
             return componentsProvider.getUnmarshaller().unmarshallEntity(createdEntity, query);
         } catch (ODataClientException e) {
             throw formFailedRequestException(e, entitySetName);
@@ -217,26 +263,60 @@ public class DefaultODataClient implements ODataClient {
         return componentsProvider.getEndpointCaller().getInputStream(requestProperties, url);
     }
 
-    private String getUrlToCall(String entitySetName, boolean includeId, String id) throws
+    String getUrlToCall(String entitySetName, boolean includeId, String id) throws
             UnsupportedEncodingException {
-        return componentsProvider.getWebServiceUrl().toString() + "/" +
-                URLEncoder.encode(entitySetName, "UTF-8") + (includeId ? "('" + id + "')" : "");
+        return componentsProvider.getWebServiceUrl().toString() + "/" + getEntityPath(entitySetName, includeId, id);
+    }
+
+    String getEntityPath(String entitySetName, boolean includeId, String id) throws UnsupportedEncodingException {
+        return URLEncoder.encode(entitySetName, "UTF-8") + (includeId ? "('" + id + "')" : "");
     }
 
-    private BasicODataClientQuery buildQueryForEntity(Object entity) {
+    BasicODataClientQuery buildQueryForEntity(Object entity) {
         return new BasicODataClientQuery.Builder()
                 .withEntityType(entity.getClass())
                 .build();
     }
 
-    private ODataClientRuntimeException formFailedRequestException(Throwable e, String entitySetName) {
+    /**
+     * Adds the accept header for the media type of the unmarshaller to the request properties, unless the request
+     * properties already contain one or the unmarshaller reads the default Atom format.
+     */
+    Map<String, String> withAcceptType(Map<String, String> requestProperties) {
+        MediaType acceptType = defaultAcceptType(requestProperties, getUnmarshallerMediaType());
+        if (acceptType == null) {
+            return requestProperties;
+        }
+        Map<String, String> properties = requestProperties == null ? new HashMap<>() :
+                new HashMap<>(requestProperties);
+        properties.put(HeaderNames.ACCEPT, acceptType.toString());
+        return properties;
+    }
+
+    MediaType getAcceptType() {
+        MediaType mediaType = getUnmarshallerMediaType();
+        return mediaType == null ? ATOM_XML : mediaType;
+    }
+
+    MediaType getContentType() {
+        ODataEntityMarshaller marshaller = componentsProvider.getMarshaller();
+        MediaType mediaType = marshaller == null ? null : marshaller.getMediaType();
+        return mediaType == null ? ATOM_XML : mediaType;
+    }
+
+    private MediaType getUnmarshallerMediaType() {
+        ODataEntityUnmarshaller unmarshaller = componentsProvider.getUnmarshaller();
+        return unmarshaller == null ? null : unmarshaller.getMediaType();
+    }
+
+    ODataClientRuntimeException formFailedRequestException(Throwable e, String entitySetName) {
         return new ODataClientRuntimeException(
                 format("Unable to make POST request to OData service for \"{0}\" URL and service query \"/{1}\"",
                         componentsProvider.getWebServiceUrl().toString(), entitySetName),
                 e);
     }
 
-    private ODataClientRuntimeException formFailedUrlFormingException(Throwable e, String entitySetName) {
+    ODataClientRuntimeException formFailedUrlFormingException(Throwable e, String entitySetName) {
         return new ODataClientRuntimeException(
                 format("Unable to form POST URL for OData service with \"{0}\" URL and service query \"/{1}\"",
                         componentsProvider.getWebServiceUrl().toString(), entitySetName),
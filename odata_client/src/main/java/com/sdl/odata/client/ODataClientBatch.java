@@ -0,0 +1,402 @@
+/**
+ * Copyright (c) 2014-2024 All Rights Reserved by the RWS Group for and on behalf of its affiliates and subsidiaries.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.sdl.odata.client;
+
+import com.sdl.odata.api.service.MediaType;
+import com.sdl.odata.client.BatchResponseParser.HttpPart;
+import com.sdl.odata.client.api.ODataClientQuery;
+import com.sdl.odata.client.api.exception.ODataClientException;
+import com.sdl.odata.client.api.exception.ODataClientRuntimeException;
+import com.sdl.odata.client.api.model.ODataIdAwareEntity;
+import org.slf4j.Logger;
+
+import java.io.UnsupportedEncodingException;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static com.sdl.odata.api.service.MediaType.MULTIPART;
+import static com.sdl.odata.client.util.ODataClientUtils.buildException;
+import static org.slf4j.LoggerFactory.getLogger;
+
+/**
+ * Collects queries and change sets and sends them to the OData service in a single $batch request.
+ * <p>
+ * Every query or change set which is added returns a future, which completes when the batch has been executed with
+ * {@link #execute(Map)}: with the unmarshalled result, or exceptionally if the service returned an error for that
+ * request. The requests are built and the responses are unmarshalled by the given client, so they are encoded
+ * exactly as if they were sent one by one. A batch can be executed only once and is not thread-safe.
+ */
+public class ODataClientBatch {
+
+    private static final Logger LOG = getLogger(ODataClientBatch.class);
+
+    private static final String CRLF = "\r\n";
+    private static final String DELIMITER_PREFIX = "--";
+    private static final String BATCH_PATH = "/$batch";
+    private static final String HTTP_VERSION = " HTTP/1.1";
+    private static final String BATCH_BOUNDARY_PREFIX = "batch_";
+    private static final String CHANGE_SET_BOUNDARY_PREFIX = "changeset_";
+    private static final String ERROR_MESSAGE = "Unable to get response from OData service: ";
+
+    private final DefaultODataClient client;
+    private final List<RequestContent> contents = new ArrayList<>();
+    private int lastContentId;
+    private boolean executed;
+
+    public ODataClientBatch(DefaultODataClient client) {
+        this.client = Objects.requireNonNull(client);
+    }
+
+    /**
+     * Adds a query for a single entity to the batch.
+     *
+     * @param query The query.
+     * @return A future for the entity, or for {@code null} if the service returned no content.
+     */
+    public CompletableFuture<Object> getEntity(ODataClientQuery query) {
+        return addQuery(query, body -> client.unmarshallEntity(body, query));
+    }
+
+    /**
+     * Adds a query for a collection of entities to the batch.
+     *
+     * @param query The query.
+     * @return A future for the entities.
+     */
+    public CompletableFuture<List<?>> getEntities(ODataClientQuery query) {
+        return addQuery(query, body -> client.unmarshallEntities(body, query));
+    }
+
+    /**
+     * Adds a change set to the batch. The service applies all changes of a change set, or none of them.
+     *
+     * @return The change set, to which the changes can be added until the batch is executed.
+     */
+    public ChangeSet changeSet() {
+        checkNotExecuted();
+        ChangeSetContent content = new ChangeSetContent();
+        contents.add(content);
+        return new ChangeSet(content);
+    }
+
+    /**
+     * Returns the number of queries and change sets in the batch.
+     *
+     * @return The number of queries and change sets in the batch.
+     */
+    public int size() {
+        return contents.size();
+    }
+
+    /**
+     * Sends the batch to the OData service and completes the futures of all its requests. Nothing is sent if the
+     * batch does not contain any requests.
+     *
+     * @param requestProperties The properties of the $batch request.
+     * @throws ODataClientRuntimeException If the $batch request itself fails. The futures of all requests are then
+     *                                     completed with this exception as well.
+     */
+    public void execute(Map<String, String> requestProperties) {
+        checkNotExecuted();
+        executed = true;
+        List<RequestContent> requests = contents.stream().filter(content -> !content.isEmpty())
+                .collect(Collectors.toList());
+        if (requests.isEmpty()) {
+            return;
+        }
+
+        String boundary = BATCH_BOUNDARY_PREFIX + UUID.randomUUID();
+        String batchRequest = writeBatch(requests, boundary);
+        LOG.debug("Executing batch with {} requests", requests.size());
+        List<List<HttpPart>> responses;
+        try {
+            URL batchUrl = new URL(client.getComponentsProvider().getWebServiceUrl().toString() + BATCH_PATH);
+            MediaType contentType = new MediaType(MULTIPART.getType(), MULTIPART.getSubType(),
+                    Collections.singletonMap("boundary", boundary));
+            String batchResponse = client.getComponentsProvider().getEndpointCaller()
+                    .doPostEntity(requestProperties, batchUrl, batchRequest, contentType, MULTIPART);
+            responses = BatchResponseParser.parse(batchResponse, boundary);
+        } catch (ODataClientException | MalformedURLException | RuntimeException e) {
+            ODataClientRuntimeException failure = new ODataClientRuntimeException("Unable to execute batch request",
+                    e);
+            requests.forEach(request -> request.fail(failure));
+            throw failure;
+        }
+
+        for (int i = 0; i < requests.size(); i++) {
+            requests.get(i).complete(i < responses.size() ? responses.get(i) : Collections.emptyList());
+        }
+    }
+
+    private <T> CompletableFuture<T> addQuery(ODataClientQuery query, Function<String, T> reader) {
+        checkNotExecuted();
+        Operation<T> operation = new Operation<>("GET", client.buildQueryPath(query), reader);
+        operation.headers.put("Accept", client.getAcceptType().toString());
+        contents.add(new QueryContent(operation));
+        return operation.result;
+    }
+
+    private void checkNotExecuted() {
+        if (executed) {
+            throw new IllegalStateException("The batch has already been executed");
+        }
+    }
+
+    private static String writeBatch(List<RequestContent> requests, String boundary) {
+        StringBuilder batch = new StringBuilder();
+        for (RequestContent request : requests) {
+            batch.append(DELIMITER_PREFIX).append(boundary).append(CRLF);
+            request.write(batch);
+        }
+        batch.append(DELIMITER_PREFIX).append(boundary).append(DELIMITER_PREFIX).append(CRLF);
+        return batch.toString();
+    }
+
+    /**
+     * A change set of a batch. It can contain creates, updates and deletes of entities, which the service applies
+     * all together or not at all.
+     */
+    public final class ChangeSet {
+
+        private final ChangeSetContent content;
+
+        private ChangeSet(ChangeSetContent content) {
+            this.content = content;
+        }
+
+        /**
+         * Adds the creation of an entity to the change set.
+         *
+         * @param entity The entity to create.
+         * @return A future for the entity as created by the service.
+         */
+        public CompletableFuture<Object> createEntity(Object entity) {
+            return addChange("POST", entity, false, null);
+        }
+
+        /**
+         * Adds the update of an entity to the change set.
+         *
+         * @param entity The entity to update.
+         * @return A future for the entity as updated by the service.
+         */
+        public CompletableFuture<Object> updateEntity(ODataIdAwareEntity entity) {
+            return addChange("PUT", entity, true, entity.getId());
+        }
+
+        /**
+         * Adds the deletion of an entity to the change set.
+         *
+         * @param entity The entity to delete.
+         * @return A future which completes when the entity has been deleted.
+         */
+        public CompletableFuture<Void> deleteEntity(ODataIdAwareEntity entity) {
+            checkNotExecuted();
+            BasicODataClientQuery query = client.buildQueryForEntity(entity);
+            String entitySetName = query.getEdmEntityName();
+            try {
+                Operation<Void> operation = new Operation<>("DELETE",
+                        client.getEntityPath(entitySetName, true, entity.getId()), body -> null);
+                return add(operation);
+            } catch (UnsupportedEncodingException e) {
+                return failedFuture(client.formFailedUrlFormingException(e, entitySetName));
+            }
+        }
+
+        private CompletableFuture<Object> addChange(String method, Object entity, boolean includeId, String id) {
+            checkNotExecuted();
+            BasicODataClientQuery query = client.buildQueryForEntity(entity);
+            String entitySetName = query.getEdmEntityName();
+            try {
+                Operation<Object> operation = new Operation<>(method, client.getEntityPath(entitySetName, includeId,
+                        id), body -> client.unmarshallEntity(body, query));
+                operation.headers.put("Content-Type", client.getContentType().toString());
+                operation.headers.put("Accept", client.getAcceptType().toString());
+                operation.body = client.getComponentsProvider().getMarshaller().marshallEntity(entity, query);
+                return add(operation);
+            } catch (ODataClientException e) {
+                return failedFuture(client.formFailedRequestException(e, entitySetName));
+            } catch (UnsupportedEncodingException e) {
+                return failedFuture(client.formFailedUrlFormingException(e, entitySetName));
+            }
+        }
+
+        private <T> CompletableFuture<T> add(Operation<T> operation) {
+            operation.contentId = Integer.toString(++lastContentId);
+            content.operations.add(operation);
+            return operation.result;
+        }
+    }
+
+    private static <T> CompletableFuture<T> failedFuture(Throwable cause) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        future.completeExceptionally(cause);
+        return future;
+    }
+
+    /**
+     * A top-level part of a batch request: a single query or a change set.
+     */
+    private interface RequestContent {
+
+        boolean isEmpty();
+
+        void write(StringBuilder batch);
+
+        void complete(List<HttpPart> responses);
+
+        void fail(Throwable cause);
+    }
+
+    /**
+     * The requests of a change set.
+     */
+    private static final class ChangeSetContent implements RequestContent {
+
+        private final List<Operation<?>> operations = new ArrayList<>();
+
+        @Override
+        public boolean isEmpty() {
+            return operations.isEmpty();
+        }
+
+        @Override
+        public void write(StringBuilder batch) {
+            String boundary = CHANGE_SET_BOUNDARY_PREFIX + UUID.randomUUID();
+            batch.append("Content-Type: ").append(MULTIPART).append(";boundary=").append(boundary).append(CRLF)
+                    .append(CRLF);
+            for (Operation<?> operation : operations) {
+                batch.append(DELIMITER_PREFIX).append(boundary).append(CRLF);
+                operation.write(batch);
+            }
+            batch.append(DELIMITER_PREFIX).append(boundary).append(DELIMITER_PREFIX).append(CRLF);
+        }
+
+        @Override
+        public void complete(List<HttpPart> responses) {
+            // A change set which fails as a whole is answered with a single error response
+            HttpPart changeSetError = responses.size() == 1 && responses.get(0).isError() ? responses.get(0) : null;
+            for (int i = 0; i < operations.size(); i++) {
+                Operation<?> operation = operations.get(i);
+                HttpPart response = findResponse(responses, operation.contentId);
+                if (response == null && responses.size() == operations.size()) {
+                    response = responses.get(i);
+                }
+                operation.complete(response == null ? changeSetError : response);
+            }
+        }
+
+        @Override
+        public void fail(Throwable cause) {
+            operations.forEach(operation -> operation.result.completeExceptionally(cause));
+        }
+
+        private static HttpPart findResponse(List<HttpPart> responses, String contentId) {
+            return responses.stream().filter(response -> contentId.equals(response.getContentId()))
+                    .findFirst().orElse(null);
+        }
+    }
+
+    /**
+     * A single query of a batch request.
+     */
+    private static final class QueryContent implements RequestContent {
+
+        private final Operation<?> operation;
+
+        private QueryContent(Operation<?> operation) {
+            this.operation = operation;
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return false;
+        }
+
+        @Override
+        public void write(StringBuilder batch) {
+            operation.write(batch);
+        }
+
+        @Override
+        public void complete(List<HttpPart> responses) {
+            operation.complete(responses.isEmpty() ? null : responses.get(0));
+        }
+
+        @Override
+        public void fail(Throwable cause) {
+            operation.result.completeExceptionally(cause);
+        }
+    }
+
+    /**
+     * A single HTTP request in a batch request, with the future for its result.
+     */
+    private static final class Operation<T> {
+
+        private final String method;
+        private final String path;
+        private final Function<String, T> reader;
+        private final Map<String, String> headers = new LinkedHashMap<>();
+        private final CompletableFuture<T> result = new CompletableFuture<>();
+        private String body;
+        private String contentId;
+
+        private Operation(String method, String path, Function<String, T> reader) {
+            this.method = method;
+            this.path = path;
+            this.reader = reader;
+        }
+
+        private void write(StringBuilder batch) {
+            batch.append("Content-Type: application/http").append(CRLF)
+                    .append("Content-Transfer-Encoding: binary").append(CRLF);
+            if (contentId != null) {
+                batch.append("Content-ID: ").append(contentId).append(CRLF);
+            }
+            batch.append(CRLF).append(method).append(' ').append(path).append(HTTP_VERSION).append(CRLF);
+            headers.forEach((name, value) -> batch.append(name).append(": ").append(value).append(CRLF));
+            // An empty body is written as a single empty line
+            batch.append(CRLF).append(body == null ? "" : body).append(CRLF);
+        }
+
+        private void complete(HttpPart response) {
+            if (response == null) {
+                result.completeExceptionally(new ODataClientRuntimeException(
+                        "The batch response does not contain a response for: " + method + " " + path));
+            } else if (response.isError()) {
+                result.completeExceptionally(buildException(ERROR_MESSAGE + response.getBody(),
+                        response.getStatus()));
+            } else {
+                try {
+                    result.complete(reader.apply(response.getBody()));
+                } catch (RuntimeException e) {
+                    result.completeExceptionally(e);
+                }
+            }
+        }
+    }
+}
@@ -15,6 +15,7 @@
  */
 package com.sdl.odata.client;
 
+import com.sdl.odata.api.edm.model.EntityDataModel;
 import com.sdl.odata.client.marshall.AtomEntityMarshaller;
 import com.sdl.odata.client.marshall.AtomEntityUnmarshaller;
 import org.slf4j.Logger;
@@ -37,9 +38,8 @@ public class ODataV4ClientComponentsProvider extends AbstractODataClientComponen
    }
 
     protected void initComponentsProvider(Iterable<String> edmEntityClasses) {
-        setEntityUnmarshaller(new AtomEntityUnmarshaller(
-                getClassesForNames(edmEntityClasses), getWebServiceUrl().toString()));
-        setEntityMarshaller(new AtomEntityMarshaller(getClassesForNames(edmEntityClasses),
-                getWebServiceUrl().toString()));
+        EntityDataModel entityDataModel = buildEntityDataModel(getClassesForNames(edmEntityClasses));
+        setEntityUnmarshaller(new AtomEntityUnmarshaller(entityDataModel, getWebServiceUrl().toString()));
+        setEntityMarshaller(new AtomEntityMarshaller(entityDataModel, getWebServiceUrl().toString()));
     }
 }
@@ -0,0 +1,39 @@
+/**
+ * Copyright (c) 2014-2024 All Rights Reserved by the RWS Group for and on behalf of its affiliates and subsidiaries.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.sdl.odata.client;
+
+import com.sdl.odata.api.edm.model.EntityDataModel;
+import com.sdl.odata.client.marshall.JsonEntityMarshaller;
+import com.sdl.odata.client.marshall.JsonEntityUnmarshaller;
+
+import java.util.Properties;
+
+/**
+ * Extends {@link AbstractODataClientComponentsProvider} for getting ODataV4 Client components which use the OData
+ * JSON format instead of Atom. Entities are requested with minimal metadata and read with a streaming unmarshaller.
+ */
+public class ODataV4JsonClientComponentsProvider extends AbstractODataClientComponentsProvider {
+
+    public ODataV4JsonClientComponentsProvider(Iterable<String> edmEntityClasses, Properties properties) {
+        super(edmEntityClasses, properties);
+    }
+
+    protected void initComponentsProvider(Iterable<String> edmEntityClasses) {
+        EntityDataModel entityDataModel = buildEntityDataModel(getClassesForNames(edmEntityClasses));
+        setEntityUnmarshaller(new JsonEntityUnmarshaller(entityDataModel));
+        setEntityMarshaller(new JsonEntityMarshaller(entityDataModel, getWebServiceUrl().toString()));
+    }
+}
@@ -0,0 +1,154 @@
+/**
+ * Copyright (c) 2014-2024 All Rights Reserved by the RWS Group for and on behalf of its affiliates and subsidiaries.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.sdl.odata.client;
+
+import com.sdl.odata.client.api.ODataClientQuery;
+import com.sdl.odata.client.api.exception.ODataClientException;
+import com.sdl.odata.client.api.exception.ODataClientRuntimeException;
+import com.sdl.odata.client.api.marshall.ODataEntityReader;
+import org.slf4j.Logger;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PushbackInputStream;
+import java.net.URL;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+import static com.sdl.odata.client.util.ODataClientUtils.defaultAcceptType;
+import static com.sdl.odata.client.util.ODataClientUtils.populateRequestProperties;
+import static java.text.MessageFormat.format;
+import static org.slf4j.LoggerFactory.getLogger;
+
+/**
+ * Iterates over the entities returned by the OData service for a query, reading them from the response stream one at
+ * a time. When a page has been read and the service returned a link to the next page, the next page is requested.
+ * Only a single page is open at any time; it is closed when its last entity has been read or the iterator is closed.
+ * A link to a page that was already read fails the iteration, as following it would never end.
+ */
+final class PagedEntityIterator implements Iterator<Object>, Closeable {
+
+    private static final Logger LOG = getLogger(PagedEntityIterator.class);
+
+    private final DefaultODataClient client;
+    private final Map<String, String> requestProperties;
+    private final ODataClientQuery query;
+    private final Set<String> readPageUrls = new HashSet<>();
+    private URL pageUrl;
+    private InputStream pageStream;
+    private ODataEntityReader page;
+    private Object next;
+
+    PagedEntityIterator(DefaultODataClient client, Map<String, String> requestProperties, ODataClientQuery query,
+                        URL firstPageUrl) {
+        this.client = client;
+        this.requestProperties = populateRequestProperties(requestProperties, -1, null,
+                defaultAcceptType(requestProperties, client.getAcceptType()));
+        this.query = query;
+        this.pageUrl = firstPageUrl;
+    }
+
+    @Override
+    public boolean hasNext() {
+        try {
+            while (next == null) {
+                if (page == null) {
+                    if (pageUrl == null) {
+                        return false;
+                    }
+                    openPage();
+                }
+                next = page.nextEntity();
+                if (next == null) {
+                    String nextLink = page.getNextLink();
+                    closePage();
+                    pageUrl = nextLink == null ? null : nextPageUrl(nextLink);
+                }
+            }
+            return true;
+        } catch (ODataClientException | IOException | RuntimeException e) {
+            URL failedUrl = pageUrl;
+            close();
+            throw e instanceof ODataClientRuntimeException ? (ODataClientRuntimeException) e :
+                    new ODataClientRuntimeException(format("Unable to read OData entities from \"{0}\"", failedUrl),
+                            e);
+        }
+    }
+
+    @Override
+    public Object next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        Object entity = next;
+        next = null;
+        return entity;
+    }
+
+    private URL nextPageUrl(String nextLink) throws IOException {
+        URL nextPageUrl = new URL(pageUrl, nextLink);
+        if (readPageUrls.contains(nextPageUrl.toExternalForm())) {
+            throw new ODataClientRuntimeException(format("The OData service returned a link from \"{0}\" to the " +
+                    "page \"{1}\", which was already read", pageUrl, nextPageUrl));
+        }
+        return nextPageUrl;
+    }
+
+    private void openPage() throws ODataClientException, IOException {
+        LOG.debug("Opening page of entities at {}", pageUrl);
+        readPageUrls.add(pageUrl.toExternalForm());
+        pageStream = client.getComponentsProvider().getEndpointCaller().getInputStream(requestProperties, pageUrl);
+        PushbackInputStream in = new PushbackInputStream(pageStream);
+        int first = in.read();
+        if (first == -1) {
+            page = ODataEntityReader.of(Collections.emptyList());
+        } else {
+            in.unread(first);
+            page = client.getComponentsProvider().getUnmarshaller().unmarshallStream(in, query);
+        }
+    }
+
+    private void closePage() throws IOException {
+        try {
+            if (page != null) {
+                page.close();
+            }
+        } finally {
+            page = null;
+            InputStream in = pageStream;
+            pageStream = null;
+            if (in != null) {
+                in.close();
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        pageUrl = null;
+        next = null;
+        try {
+            closePage();
+        } catch (IOException e) {
+            LOG.debug("Unable to close the OData service response", e);
+        }
+    }
+}
@@ -18,6 +18,7 @@ package com.sdl.odata.client.caller;
 import com.sdl.odata.api.service.MediaType;
 import com.sdl.odata.api.service.ODataRequest;
 import com.sdl.odata.client.api.caller.EndpointCaller;
+import com.sdl.odata.client.api.caller.EndpointResponse;
 import com.sdl.odata.client.api.exception.ODataClientException;
 import com.sdl.odata.client.api.exception.ODataClientRuntimeException;
 import com.sdl.odata.client.api.exception.ODataClientSocketException;
@@ -37,6 +38,7 @@ import java.net.Proxy;
 import java.net.SocketException;
 import java.net.URL;
 import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
 import java.util.Map;
 import java.util.Properties;
 import java.util.regex.Matcher;
@@ -55,6 +57,7 @@ import static com.sdl.odata.client.property.PropertyUtils.getIntegerProperty;
 import static com.sdl.odata.client.property.PropertyUtils.getStringProperty;
 import static com.sdl.odata.client.util.ODataClientUtils.buildException;
 import static com.sdl.odata.client.util.ODataClientUtils.closeIfNecessary;
+import static com.sdl.odata.client.util.ODataClientUtils.defaultAcceptType;
 import static com.sdl.odata.client.util.ODataClientUtils.populateRequestProperties;
 
 /**
@@ -84,8 +87,15 @@ public class BasicEndpointCaller implements EndpointCaller {
 
     @Override
     public String callEndpoint(Map<String, String> requestProperties, URL urlToCall) throws ODataClientException {
+        return callEndpointWithHeaders(requestProperties, urlToCall).getBody();
+    }
+
+    @Override
+    public EndpointResponse callEndpointWithHeaders(Map<String, String> requestProperties, URL urlToCall)
+            throws ODataClientException {
         LOG.debug("Preparing the call endpoint for given url: {}", urlToCall);
-        HttpURLConnection conn = getConnection(populateRequestProperties(requestProperties, -1, null, XML), urlToCall);
+        HttpURLConnection conn = getConnection(populateRequestProperties(requestProperties, -1, null,
+                defaultAcceptType(requestProperties, XML)), urlToCall);
         return getResponse(conn);
     }
 
@@ -145,7 +155,7 @@ public class BasicEndpointCaller implements EndpointCaller {
             closeIfNecessary(dataOutputStream);
         }
 
-        return getResponse(httpConnection);
+        return getResponse(httpConnection).getBody();
     }
 
     private HttpURLConnection getConnection(Map<String, String> requestProperties, URL url)
@@ -180,7 +190,7 @@ public class BasicEndpointCaller implements EndpointCaller {
         return urlConnection;
     }
 
-    private String getResponse(HttpURLConnection httpConnection) throws ODataClientException {
+    private EndpointResponse getResponse(HttpURLConnection httpConnection) throws ODataClientException {
         BufferedReader bufferedReader = null;
         try {
             int responseCode = httpConnection.getResponseCode();
@@ -216,7 +226,7 @@ public class BasicEndpointCaller implements EndpointCaller {
                 throw buildException(resultResponse, responseCode);
             }
 
-            return resultResponse;
+            return new EndpointResponse(responseCode, resultResponse, getHeaders(httpConnection));
         } catch (SocketException e) {
             throw new ODataClientSocketException("Could not initiate connection to the endpoint.", e);
         } catch (IOException e) {
@@ -227,6 +237,17 @@ public class BasicEndpointCaller implements EndpointCaller {
         }
     }
 
+    private static Map<String, String> getHeaders(HttpURLConnection httpConnection) {
+        Map<String, String> headers = new HashMap<>();
+        httpConnection.getHeaderFields().forEach((name, values) -> {
+            // The status line is returned with a null name
+            if (name != null) {
+                headers.put(name, String.join(", ", values));
+            }
+        });
+        return headers;
+    }
+
     private void logConfiguration() {
         if (LOG.isDebugEnabled()) {
             StringBuilder configLog = new StringBuilder("Client is initialized with following parameters: timeout = ")
@@ -0,0 +1,423 @@
+/**
+ * Copyright (c) 2014-2024 All Rights Reserved by the RWS Group for and on behalf of its affiliates and subsidiaries.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.sdl.odata.client.caller;
+
+import com.sdl.odata.api.service.MediaType;
+import com.sdl.odata.client.api.caller.EndpointCaller;
+import com.sdl.odata.client.api.caller.EndpointResponse;
+import com.sdl.odata.client.api.exception.ODataClientException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.InputStream;
+import java.net.URL;
+import java.time.Clock;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static com.sdl.odata.api.service.HeaderNames.CACHE_CONTROL;
+import static com.sdl.odata.api.service.HeaderNames.ETAG;
+import static com.sdl.odata.api.service.HeaderNames.IF_MODIFIED_SINCE;
+import static com.sdl.odata.api.service.HeaderNames.IF_NONE_MATCH;
+import static com.sdl.odata.api.service.HeaderNames.LAST_MODIFIED;
+import static java.net.HttpURLConnection.HTTP_NOT_MODIFIED;
+import static java.net.HttpURLConnection.HTTP_OK;
+
+/**
+ * {@link EndpointCaller} decorator which caches the responses of GET calls.
+ * <p>
+ * A response is kept as long as the {@code max-age} of its {@code Cache-Control} header, and is returned without
+ * calling the service in the meantime. Afterwards, or right away when the response has no max-age, the next call is
+ * sent as a conditional GET with {@code If-None-Match} and {@code If-Modified-Since}, so that the service only has to
+ * answer {@code 304 Not Modified} if the response did not change. Responses with {@code no-store}, or without
+ * {@code ETag}, {@code Last-Modified} or max-age, are not cached. The least recently used responses are evicted once
+ * the configured number of responses is cached.
+ * <p>
+ * Responses are cached per URL and request properties. Posts, puts and deletes through this caller remove the
+ * responses of the entity set they change. A response which was read while the entity set was written is not cached,
+ * because it may already be stale. Input streams are not cached.
+ */
+public class CachingEndpointCaller implements EndpointCaller {
+
+    private static final Logger LOG = LoggerFactory.getLogger(CachingEndpointCaller.class);
+
+    private static final Pattern MAX_AGE_PATTERN = Pattern.compile("max-age\\s*=\\s*\"?(\\d+)\"?");
+    private static final String NO_STORE = "no-store";
+    private static final String NO_CACHE = "no-cache";
+    private static final long MILLIS_PER_SECOND = 1000L;
+    private static final int INITIAL_CAPACITY = 16;
+    private static final float LOAD_FACTOR = 0.75f;
+
+    private final EndpointCaller delegate;
+    private final Clock clock;
+    private final Map<CacheKey, CachedResponse> cache;
+    // The number of writes per entity set URL, guarded by the cache like the cached responses
+    private final Map<String, Long> generations = new HashMap<>();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder revalidations = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    public CachingEndpointCaller(EndpointCaller delegate, int maxEntries) {
+        this(delegate, maxEntries, Clock.systemUTC());
+    }
+
+    CachingEndpointCaller(EndpointCaller delegate, int maxEntries, Clock clock) {
+        if (maxEntries < 1) {
+            throw new IllegalArgumentException("The maximum number of cached responses must be positive, but is: " +
+                    maxEntries);
+        }
+        this.delegate = Objects.requireNonNull(delegate);
+        this.clock = clock;
+        // An access ordered map evicts the least recently used response first
+        this.cache = new LinkedHashMap<CacheKey, CachedResponse>(INITIAL_CAPACITY, LOAD_FACTOR, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<CacheKey, CachedResponse> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    @Override
+    public String callEndpoint(Map<String, String> requestProperties, URL urlToCall) throws ODataClientException {
+        return callEndpointWithHeaders(requestProperties, urlToCall).getBody();
+    }
+
+    @Override
+    public EndpointResponse callEndpointWithHeaders(Map<String, String> requestProperties, URL urlToCall)
+            throws ODataClientException {
+        CacheKey key = new CacheKey(urlToCall, requestProperties);
+        CachedResponse cached;
+        long generation;
+        synchronized (cache) {
+            cached = cache.get(key);
+            generation = getGeneration(key.entitySetUrl);
+        }
+        if (cached != null && cached.expiresAt > clock.millis()) {
+            LOG.debug("Using cached response for url: {}", urlToCall);
+            hits.increment();
+            return cached.response;
+        }
+
+        EndpointResponse response = delegate.callEndpointWithHeaders(
+                cached == null ? requestProperties : cached.withValidators(requestProperties), urlToCall);
+        if (cached != null && response.getStatus() == HTTP_NOT_MODIFIED) {
+            LOG.debug("Cached response for url: {} has not been modified", urlToCall);
+            revalidations.increment();
+            put(key, cached.revalidate(response, clock.millis()), generation);
+            return cached.response;
+        }
+
+        misses.increment();
+        CachedResponse fresh = CachedResponse.of(response, clock.millis());
+        if (fresh == null) {
+            synchronized (cache) {
+                cache.remove(key);
+            }
+        } else {
+            put(key, fresh, generation);
+        }
+        return response;
+    }
+
+    @Override
+    public InputStream getInputStream(Map<String, String> requestProperties, URL url) throws ODataClientException {
+        return delegate.getInputStream(requestProperties, url);
+    }
+
+    @Override
+    public String doPostEntity(Map<String, String> requestProperties, URL urlToCall, String body,
+                               MediaType contentType, MediaType acceptType) throws ODataClientException {
+        try {
+            return delegate.doPostEntity(requestProperties, urlToCall, body, contentType, acceptType);
+        } finally {
+            invalidate(urlToCall);
+        }
+    }
+
+    @Override
+    public String doPutEntity(Map<String, String> requestProperties, URL urlToCall, String body,
+                              MediaType type) throws ODataClientException {
+        try {
+            return delegate.doPutEntity(requestProperties, urlToCall, body, type);
+        } finally {
+            invalidate(urlToCall);
+        }
+    }
+
+    @Override
+    public void doDeleteEntity(Map<String, String> requestProperties, URL urlToCall) throws ODataClientException {
+        try {
+            delegate.doDeleteEntity(requestProperties, urlToCall);
+        } finally {
+            invalidate(urlToCall);
+        }
+    }
+
+    /**
+     * Returns the number of calls answered from the cache without calling the service.
+     *
+     * @return The number of calls answered from the cache without calling the service.
+     */
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    /**
+     * Returns the number of calls answered from the cache after the service confirmed the cached response is still
+     * valid.
+     *
+     * @return The number of calls answered from the cache after a conditional request.
+     */
+    public long getRevalidationCount() {
+        return revalidations.sum();
+    }
+
+    /**
+     * Returns the number of calls for which the service returned a full response.
+     *
+     * @return The number of calls for which the service returned a full response.
+     */
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    /**
+     * Returns the fraction of calls answered from the cache without calling the service.
+     *
+     * @return The hit rate, between 0 and 1; 0 if no calls have been made.
+     */
+    public double getHitRate() {
+        return rate(getHitCount());
+    }
+
+    /**
+     * Returns the fraction of calls answered from the cache after a conditional request.
+     *
+     * @return The revalidation rate, between 0 and 1; 0 if no calls have been made.
+     */
+    public double getRevalidationRate() {
+        return rate(getRevalidationCount());
+    }
+
+    /**
+     * Returns the number of cached responses.
+     *
+     * @return The number of cached responses.
+     */
+    public int size() {
+        synchronized (cache) {
+            return cache.size();
+        }
+    }
+
+    /**
+     * Removes all cached responses.
+     */
+    public void clear() {
+        synchronized (cache) {
+            cache.clear();
+        }
+    }
+
+    private double rate(long count) {
+        long calls = getHitCount() + getRevalidationCount() + getMissCount();
+        return calls == 0 ? 0 : (double) count / calls;
+    }
+
+    /**
+     * Caches a response, unless its entity set was written since the response was requested.
+     *
+     * @param generation The generation of the entity set before the response was requested.
+     */
+    private void put(CacheKey key, CachedResponse response, long generation) {
+        synchronized (cache) {
+            if (generation == getGeneration(key.entitySetUrl)) {
+                cache.put(key, response);
+            } else {
+                LOG.debug("Not caching response for url: {}, its entity set was written meanwhile", key.url);
+                cache.remove(key);
+            }
+        }
+    }
+
+    private long getGeneration(String entitySetUrl) {
+        return generations.getOrDefault(entitySetUrl, 0L);
+    }
+
+    /**
+     * Removes the responses of the entity set of the given URL, which includes the responses for single entities,
+     * and starts a new generation of the entity set so that responses which are being read are not cached.
+     */
+    private void invalidate(URL url) {
+        String entitySetUrl = getEntitySetUrl(url);
+        synchronized (cache) {
+            generations.merge(entitySetUrl, 1L, Long::sum);
+            cache.keySet().removeIf(key -> isInEntitySet(key.url, entitySetUrl));
+        }
+    }
+
+    /**
+     * Checks if the URL is the given entity set URL, or one of its entities or queries. A URL of another entity set
+     * which only shares its prefix, such as {@code CustomersArchive} for {@code Customers}, is not.
+     */
+    private static boolean isInEntitySet(String url, String entitySetUrl) {
+        if (!url.startsWith(entitySetUrl)) {
+            return false;
+        }
+        if (url.length() == entitySetUrl.length()) {
+            return true;
+        }
+        char next = url.charAt(entitySetUrl.length());
+        return next == '(' || next == '/' || next == '?';
+    }
+
+    private static String getEntitySetUrl(URL url) {
+        String path = url.toString();
+        int query = path.indexOf('?');
+        if (query >= 0) {
+            path = path.substring(0, query);
+        }
+        int key = path.indexOf('(', path.lastIndexOf('/') + 1);
+        return key < 0 ? path : path.substring(0, key);
+    }
+
+    /**
+     * The URL and request properties of a call.
+     */
+    private static final class CacheKey {
+
+        private final String url;
+        private final String entitySetUrl;
+        private final Map<String, String> requestProperties;
+
+        private CacheKey(URL url, Map<String, String> requestProperties) {
+            // The string form is compared, because URL.equals resolves host names
+            this.url = url.toString();
+            this.entitySetUrl = getEntitySetUrl(url);
+            this.requestProperties = requestProperties == null ? Collections.emptyMap() :
+                    new HashMap<>(requestProperties);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof CacheKey)) {
+                return false;
+            }
+            CacheKey that = (CacheKey) o;
+            return url.equals(that.url) && requestProperties.equals(that.requestProperties);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(url, requestProperties);
+        }
+    }
+
+    /**
+     * A cached response with its validators and expiry time.
+     */
+    private static final class CachedResponse {
+
+        private final EndpointResponse response;
+        private final String eTag;
+        private final String lastModified;
+        private final long maxAgeMillis;
+        private final long expiresAt;
+
+        private CachedResponse(EndpointResponse response, String eTag, String lastModified, long maxAgeMillis,
+                               long now) {
+            this.response = response;
+            this.eTag = eTag;
+            this.lastModified = lastModified;
+            this.maxAgeMillis = maxAgeMillis;
+            this.expiresAt = now + maxAgeMillis;
+        }
+
+        /**
+         * Creates the cache entry for a full response.
+         *
+         * @return The entry, or {@code null} if the response can not be cached.
+         */
+        private static CachedResponse of(EndpointResponse response, long now) {
+            String cacheControl = getCacheControl(response);
+            if (response.getStatus() != HTTP_OK || cacheControl.contains(NO_STORE)) {
+                return null;
+            }
+            long maxAge = getMaxAgeMillis(cacheControl, 0);
+            String eTag = response.getHeader(ETAG);
+            String lastModified = response.getHeader(LAST_MODIFIED);
+            if (maxAge <= 0 && eTag == null && lastModified == null) {
+                return null;
+            }
+            return new CachedResponse(response, eTag, lastModified, maxAge, now);
+        }
+
+        /**
+         * Creates the cache entry after a {@code 304 Not Modified} response, which may update the validators and
+         * the max-age.
+         */
+        private CachedResponse revalidate(EndpointResponse notModified, long now) {
+            String newETag = notModified.getHeader(ETAG);
+            String newLastModified = notModified.getHeader(LAST_MODIFIED);
+            return new CachedResponse(response, newETag == null ? eTag : newETag,
+                    newLastModified == null ? lastModified : newLastModified,
+                    getMaxAgeMillis(getCacheControl(notModified), maxAgeMillis), now);
+        }
+
+        private Map<String, String> withValidators(Map<String, String> requestProperties) {
+            Map<String, String> properties = requestProperties == null ? new HashMap<>() :
+                    new HashMap<>(requestProperties);
+            if (eTag != null) {
+                properties.put(IF_NONE_MATCH, eTag);
+            }
+            if (lastModified != null) {
+                properties.put(IF_MODIFIED_SINCE, lastModified);
+            }
+            return properties;
+        }
+
+        private static String getCacheControl(EndpointResponse response) {
+            String cacheControl = response.getHeader(CACHE_CONTROL);
+            return cacheControl == null ? "" : cacheControl.toLowerCase(Locale.ENGLISH);
+        }
+
+        private static long getMaxAgeMillis(String cacheControl, long defaultMaxAge) {
+            if (cacheControl.contains(NO_CACHE)) {
+                return 0;
+            }
+            Matcher matcher = MAX_AGE_PATTERN.matcher(cacheControl);
+            if (!matcher.find()) {
+                return defaultMaxAge;
+            }
+            try {
+                return Long.parseLong(matcher.group(1)) * MILLIS_PER_SECOND;
+            } catch (NumberFormatException e) {
+                return 0;
+            }
+        }
+    }
+}
@@ -0,0 +1,353 @@
+/**
+ * Copyright (c) 2014-2024 All Rights Reserved by the RWS Group for and on behalf of its affiliates and subsidiaries.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.sdl.odata.client.caller;
+
+import com.sdl.odata.api.service.MediaType;
+import com.sdl.odata.api.service.ODataRequest;
+import com.sdl.odata.client.api.caller.AsyncEndpointCaller;
+import com.sdl.odata.client.api.caller.EndpointResponse;
+import com.sdl.odata.client.api.exception.ODataClientException;
+import com.sdl.odata.client.api.exception.ODataClientRuntimeException;
+import com.sdl.odata.client.api.exception.ODataClientSocketException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetSocketAddress;
+import java.net.ProxySelector;
+import java.net.SocketException;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.GZIPInputStream;
+
+import static com.sdl.odata.api.service.HeaderNames.ACCEPT_ENCODING;
+import static com.sdl.odata.api.service.HeaderNames.CONTENT_ENCODING;
+import static com.sdl.odata.api.service.HeaderNames.CONTENT_LENGTH;
+import static com.sdl.odata.api.service.HeaderNames.ODATA_CHUNKED_ERROR_MESSAGE_PROPERTY;
+import static com.sdl.odata.api.service.MediaType.ATOM_XML;
+import static com.sdl.odata.api.service.MediaType.XML;
+import static com.sdl.odata.client.ODataClientConstants.DefaultValues.CLIENT_ACCEPT_GZIP_DEFAULT;
+import static com.sdl.odata.client.ODataClientConstants.DefaultValues.CLIENT_HTTP_VERSION_DEFAULT;
+import static com.sdl.odata.client.ODataClientConstants.DefaultValues.CLIENT_PROXY_PORT_DEFAULT;
+import static com.sdl.odata.client.ODataClientConstants.DefaultValues.CLIENT_TIMEOUT_DEFAULT;
+import static com.sdl.odata.client.ODataClientConstants.WebService.CLIENT_ACCEPT_GZIP;
+import static com.sdl.odata.client.ODataClientConstants.WebService.CLIENT_CONNECTION_TIMEOUT;
+import static com.sdl.odata.client.ODataClientConstants.WebService.CLIENT_HTTP_VERSION;
+import static com.sdl.odata.client.ODataClientConstants.WebService.CLIENT_SERVICE_PROXY_HOST_NAME;
+import static com.sdl.odata.client.ODataClientConstants.WebService.CLIENT_SERVICE_PROXY_PORT;
+import static com.sdl.odata.client.property.PropertyUtils.getBooleanProperty;
+import static com.sdl.odata.client.property.PropertyUtils.getIntegerProperty;
+import static com.sdl.odata.client.property.PropertyUtils.getStringProperty;
+import static com.sdl.odata.client.util.ODataClientUtils.buildException;
+import static com.sdl.odata.client.util.ODataClientUtils.defaultAcceptType;
+import static com.sdl.odata.client.util.ODataClientUtils.populateRequestProperties;
+import static java.net.HttpURLConnection.HTTP_BAD_REQUEST;
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Endpoint Caller built on a single, pooled {@link HttpClient}. Where {@link BasicEndpointCaller} opens a new
+ * connection for every call, this caller keeps connections alive and reuses them, negotiates HTTP/2 when the service
+ * supports it, accepts gzip compressed responses and reads and writes bodies as bytes instead of line by line.
+ * Calls can also be made without blocking, see {@link AsyncEndpointCaller}.
+ * <p>
+ * The connection pool size and the keep-alive timeout can not be set per client: the JDK HTTP client reads them once
+ * for the whole JVM from the system properties {@code jdk.httpclient.connectionPoolSize} and
+ * {@code jdk.httpclient.keepalive.timeout} (in seconds), which have to be set on the command line of the JVM.
+ */
+public class HttpClientEndpointCaller implements AsyncEndpointCaller {
+
+    private static final Logger LOG = LoggerFactory.getLogger(HttpClientEndpointCaller.class);
+
+    private static final Pattern ODATA_CHUNKED_ERROR_MESSAGE_PATTERN = Pattern
+            .compile(ODATA_CHUNKED_ERROR_MESSAGE_PROPERTY + ":(.*)");
+
+    private static final String GZIP = "gzip";
+
+    // Headers which are managed by the HTTP client and cannot be set on a request
+    private static final Set<String> RESTRICTED_HEADERS = new HashSet<>(Arrays.asList(
+            "connection", "content-length", "expect", "host", "upgrade"));
+
+    private final HttpClient httpClient;
+    private final Duration timeout;
+    private final boolean acceptGzip;
+
+    public HttpClientEndpointCaller(Properties properties) {
+        LOG.trace("Starting to inject client with properties");
+
+        String proxyServerHostName = getStringProperty(properties, CLIENT_SERVICE_PROXY_HOST_NAME);
+        int proxyServerPort = getIntegerProperty(properties, CLIENT_SERVICE_PROXY_PORT, CLIENT_PROXY_PORT_DEFAULT);
+        timeout = Duration.ofMillis(getIntegerProperty(properties, CLIENT_CONNECTION_TIMEOUT, CLIENT_TIMEOUT_DEFAULT));
+        acceptGzip = getBooleanProperty(properties, CLIENT_ACCEPT_GZIP, CLIENT_ACCEPT_GZIP_DEFAULT);
+        HttpClient.Version version = getHttpVersion(properties);
+
+        HttpClient.Builder builder = HttpClient.newBuilder()
+                .version(version)
+                .connectTimeout(timeout)
+                .followRedirects(HttpClient.Redirect.NORMAL);
+        if (proxyServerHostName != null) {
+            builder.proxy(ProxySelector.of(new InetSocketAddress(proxyServerHostName, proxyServerPort)));
+        }
+        httpClient = builder.build();
+
+        LOG.debug("Client is initialized with following parameters: timeout = {}, version = {}, gzip = {}" +
+                ", proxyServerHostName = '{}', proxyServerPort = {}", timeout.toMillis(), version, acceptGzip,
+                proxyServerHostName, proxyServerPort);
+    }
+
+    @Override
+    public String callEndpoint(Map<String, String> requestProperties, URL urlToCall) throws ODataClientException {
+        return callEndpointWithHeaders(requestProperties, urlToCall).getBody();
+    }
+
+    @Override
+    public EndpointResponse callEndpointWithHeaders(Map<String, String> requestProperties, URL urlToCall)
+            throws ODataClientException {
+        LOG.debug("Preparing the call endpoint for given url: {}", urlToCall);
+        HttpRequest request = buildRequest(populateRequestProperties(requestProperties, -1, null,
+                defaultAcceptType(requestProperties, XML)), urlToCall)
+                .GET()
+                .build();
+        return getResponse(request);
+    }
+
+    @Override
+    public InputStream getInputStream(Map<String, String> requestProperties, URL url)
+            throws ODataClientRuntimeException {
+        HttpRequest request = buildRequest(requestProperties, url).GET().build();
+        try {
+            HttpResponse<InputStream> response = httpClient.send(request, HttpResponse.BodyHandlers.ofInputStream());
+            if (response.statusCode() >= HTTP_BAD_REQUEST) {
+                response.body().close();
+                throw new ODataClientRuntimeException("Unable to get connection input stream for url: " + url +
+                        ", the service responded with status code " + response.statusCode());
+            }
+            return getBody(response);
+        } catch (IOException e) {
+            throw new ODataClientRuntimeException("Unable to get connection input stream for url: " + url, e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ODataClientRuntimeException("Interrupted while getting connection input stream for url: " +
+                    url, e);
+        }
+    }
+
+    @Override
+    public String doPostEntity(Map<String, String> requestProperties, URL urlToCall, String body,
+                               MediaType contentType, MediaType acceptType)
+            throws ODataClientException {
+        return sendRequest(populateRequestProperties(requestProperties, -1, contentType, acceptType),
+                urlToCall, body, ODataRequest.Method.POST.name());
+    }
+
+    @Override
+    public String doPutEntity(Map<String, String> requestProperties, URL urlToCall, String body,
+                              MediaType type) throws ODataClientException {
+        return sendRequest(populateRequestProperties(requestProperties, -1, type, type),
+                urlToCall, body, ODataRequest.Method.PUT.name());
+    }
+
+    @Override
+    public void doDeleteEntity(Map<String, String> requestProperties, URL urlToCall) throws ODataClientException {
+        sendRequest(populateRequestProperties(requestProperties, -1, ATOM_XML, ATOM_XML), urlToCall, "",
+                ODataRequest.Method.DELETE.name());
+    }
+
+    @Override
+    public CompletableFuture<String> callEndpointAsync(Map<String, String> requestProperties, URL urlToCall) {
+        LOG.debug("Preparing the asynchronous call endpoint for given url: {}", urlToCall);
+        HttpRequest request = buildRequest(populateRequestProperties(requestProperties, -1, null,
+                defaultAcceptType(requestProperties, XML)), urlToCall)
+                .GET()
+                .build();
+        return getResponseAsync(request);
+    }
+
+    @Override
+    public CompletableFuture<String> doPostEntityAsync(Map<String, String> requestProperties, URL urlToCall,
+                                                       String body, MediaType contentType, MediaType acceptType) {
+        return getResponseAsync(buildRequest(
+                populateRequestProperties(requestProperties, -1, contentType, acceptType), urlToCall, body,
+                ODataRequest.Method.POST.name()));
+    }
+
+    @Override
+    public CompletableFuture<String> doPutEntityAsync(Map<String, String> requestProperties, URL urlToCall,
+                                                      String body, MediaType type) {
+        return getResponseAsync(buildRequest(populateRequestProperties(requestProperties, -1, type, type),
+                urlToCall, body, ODataRequest.Method.PUT.name()));
+    }
+
+    @Override
+    public CompletableFuture<Void> doDeleteEntityAsync(Map<String, String> requestProperties, URL urlToCall) {
+        return getResponseAsync(buildRequest(populateRequestProperties(requestProperties, -1, ATOM_XML, ATOM_XML),
+                urlToCall, "", ODataRequest.Method.DELETE.name()))
+                .thenApply(response -> null);
+    }
+
+    private String sendRequest(Map<String, String> properties, URL urlToCall, String body, String requestMethod)
+            throws ODataClientException {
+        return getResponse(buildRequest(properties, urlToCall, body, requestMethod)).getBody();
+    }
+
+    private HttpRequest buildRequest(Map<String, String> properties, URL urlToCall, String body,
+                                     String requestMethod) {
+        // The body is encoded to bytes once; the client sets the content length from them
+        return buildRequest(properties, urlToCall)
+                .method(requestMethod, HttpRequest.BodyPublishers.ofByteArray(body.getBytes(UTF_8)))
+                .build();
+    }
+
+    private HttpRequest.Builder buildRequest(Map<String, String> requestProperties, URL url) {
+        HttpRequest.Builder builder;
+        try {
+            builder = HttpRequest.newBuilder(url.toURI()).timeout(timeout);
+        } catch (URISyntaxException | IllegalArgumentException e) {
+            throw new ODataClientRuntimeException("Could not create a request for the service endpoint: " + url, e);
+        }
+
+        if (acceptGzip) {
+            builder.setHeader(ACCEPT_ENCODING, GZIP);
+        }
+        if (requestProperties != null) {
+            for (Map.Entry<String, String> entry : requestProperties.entrySet()) {
+                if (entry.getValue() != null &&
+                        !RESTRICTED_HEADERS.contains(entry.getKey().toLowerCase(Locale.ROOT))) {
+                    builder.setHeader(entry.getKey(), entry.getValue());
+                }
+            }
+        }
+        return builder;
+    }
+
+    private EndpointResponse getResponse(HttpRequest request) throws ODataClientException {
+        try {
+            return readResponse(httpClient.send(request, HttpResponse.BodyHandlers.ofByteArray()));
+        } catch (SocketException e) {
+            throw new ODataClientSocketException("Could not initiate connection to the endpoint.", e);
+        } catch (IOException e) {
+            throw new ODataClientException("Unable to process response from OData service.", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ODataClientException("Interrupted while waiting for response from OData service.", e);
+        }
+    }
+
+    private CompletableFuture<String> getResponseAsync(HttpRequest request) {
+        return httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofByteArray()).handle((response, error) -> {
+            try {
+                if (error == null) {
+                    return readResponse(response).getBody();
+                }
+                Throwable cause = error instanceof CompletionException && error.getCause() != null ?
+                        error.getCause() : error;
+                if (cause instanceof SocketException) {
+                    throw new ODataClientSocketException("Could not initiate connection to the endpoint.", cause);
+                }
+                if (cause instanceof IOException) {
+                    throw new ODataClientException("Unable to process response from OData service.", cause);
+                }
+                throw new CompletionException(cause);
+            } catch (ODataClientException e) {
+                throw new CompletionException(e);
+            }
+        });
+    }
+
+    private EndpointResponse readResponse(HttpResponse<byte[]> response) throws ODataClientException {
+        int responseCode = response.statusCode();
+        boolean isError = responseCode >= HTTP_BAD_REQUEST;
+        LOG.debug("Request ended with {} status code.", responseCode);
+
+        String body;
+        try {
+            body = new String(decode(response), UTF_8);
+        } catch (IOException e) {
+            throw new ODataClientException("Unable to process response from OData service.", e);
+        }
+
+        String resultResponse = body;
+        if (isError) {
+            resultResponse = "Unable to get response from OData service: " +
+                    (body.isEmpty() ? "No Response." : body);
+        } else if (response.headers().firstValue(CONTENT_LENGTH).isEmpty()) {
+            // A streamed response reports an error that occurred while streaming on its last line
+            Matcher matcher = ODATA_CHUNKED_ERROR_MESSAGE_PATTERN.matcher(getLastLine(body));
+            if (matcher.matches()) {
+                resultResponse = "Unable to get response from OData service: " + matcher.group(1);
+                isError = true;
+            }
+        }
+
+        if (isError) {
+            throw buildException(resultResponse, responseCode);
+        }
+
+        Map<String, String> headers = new HashMap<>();
+        response.headers().map().forEach((name, values) -> headers.put(name, String.join(", ", values)));
+        return new EndpointResponse(responseCode, resultResponse, headers);
+    }
+
+    private static byte[] decode(HttpResponse<byte[]> response) throws IOException {
+        if (!isGzipped(response)) {
+            return response.body();
+        }
+        try (InputStream inputStream = new GZIPInputStream(new ByteArrayInputStream(response.body()))) {
+            return inputStream.readAllBytes();
+        }
+    }
+
+    private static InputStream getBody(HttpResponse<InputStream> response) throws IOException {
+        return isGzipped(response) ? new GZIPInputStream(response.body()) : response.body();
+    }
+
+    private static boolean isGzipped(HttpResponse<?> response) {
+        return response.headers().firstValue(CONTENT_ENCODING)
+                .map(encoding -> GZIP.equalsIgnoreCase(encoding.trim()))
+                .orElse(false);
+    }
+
+    private static String getLastLine(String body) {
+        String trimmed = body.stripTrailing();
+        return trimmed.substring(trimmed.lastIndexOf('\n') + 1).trim();
+    }
+
+    private static HttpClient.Version getHttpVersion(Properties properties) {
+        String version = getStringProperty(properties, CLIENT_HTTP_VERSION);
+        try {
+            return HttpClient.Version.valueOf(version == null ? CLIENT_HTTP_VERSION_DEFAULT : version.trim());
+        } catch (IllegalArgumentException e) {
+            throw new ODataClientRuntimeException("Unable to parse property. " + version, e);
+        }
+    }
+
+}
@@ -27,7 +27,6 @@ import com.sdl.odata.client.api.ODataClientQuery;
 import com.sdl.odata.client.api.exception.ODataClientException;
 import com.sdl.odata.client.api.exception.ODataClientRuntimeException;
 import com.sdl.odata.client.api.marshall.ODataEntityMarshaller;
-import com.sdl.odata.edm.factory.annotations.AnnotationEntityDataModelFactory;
 import com.sdl.odata.parser.ODataParserImpl;
 import com.sdl.odata.renderer.AbstractAtomRenderer;
 import com.sdl.odata.renderer.atom.AtomRenderer;
@@ -58,6 +57,19 @@ public class AtomEntityMarshaller implements ODataEntityMarshaller {
         this(edmEntityClasses, url, new AtomRenderer());
     }
 
+    /**
+     * Creates a marshaller for an entity data model that is already built, for example to share it with the
+     * unmarshaller.
+     *
+     * @param entityDataModel The entity data model.
+     * @param url             The URL of the OData service.
+     */
+    public AtomEntityMarshaller(EntityDataModel entityDataModel, String url) {
+        this.url = url;
+        this.atomRenderer = new AtomRenderer();
+        this.entityDataModel = entityDataModel;
+    }
+
     protected AtomEntityMarshaller(Iterable<Class<?>> edmEntityClasses, String url, AbstractAtomRenderer atomRenderer) {
         this.url = url;
         this.atomRenderer = atomRenderer;
@@ -106,8 +118,7 @@ public class AtomEntityMarshaller implements ODataEntityMarshaller {
     }
 
     private EntityDataModel buildEntityDataModel(Iterable<Class<?>> edmEntityClasses) throws ODataEdmException {
-        AnnotationEntityDataModelFactory factory = new AnnotationEntityDataModelFactory();
-        return factory.addClasses(edmEntityClasses).buildEntityDataModel();
+        return EntityDataModelCache.getEntityDataModel(edmEntityClasses);
     }
 
 }
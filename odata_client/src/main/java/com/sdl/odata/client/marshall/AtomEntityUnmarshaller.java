@@ -25,17 +25,21 @@ import com.sdl.odata.api.parser.QueryOption;
 import com.sdl.odata.api.parser.ResourcePathUri;
 import com.sdl.odata.api.service.ODataRequest;
 import com.sdl.odata.api.service.ODataRequestContext;
+import com.sdl.odata.api.unmarshaller.ODataUnmarshallingException;
 import com.sdl.odata.client.api.ODataClientQuery;
 import com.sdl.odata.client.api.exception.ODataClientException;
 import com.sdl.odata.client.api.exception.ODataClientParserException;
 import com.sdl.odata.client.api.exception.ODataClientRuntimeException;
+import com.sdl.odata.client.api.marshall.ODataEntityReader;
 import com.sdl.odata.client.api.marshall.ODataEntityUnmarshaller;
-import com.sdl.odata.edm.factory.annotations.AnnotationEntityDataModelFactory;
 import com.sdl.odata.parser.ODataParserImpl;
+import com.sdl.odata.unmarshaller.atom.AtomFeedReader;
 import com.sdl.odata.unmarshaller.atom.ODataAtomParser;
 import org.slf4j.Logger;
 import scala.Option;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.io.UnsupportedEncodingException;
 import java.util.ArrayList;
 import java.util.List;
@@ -79,6 +83,18 @@ public class AtomEntityUnmarshaller implements ODataEntityUnmarshaller {
         }
     }
 
+    /**
+     * Creates an unmarshaller for an entity data model that is already built, for example to share it with the
+     * marshaller.
+     *
+     * @param entityDataModel The entity data model.
+     * @param url             The URL of the OData service.
+     */
+    public AtomEntityUnmarshaller(EntityDataModel entityDataModel, String url) {
+        this.url = url;
+        this.entityDataModel = entityDataModel;
+    }
+
     @Override
     public Object unmarshallEntity(String odataServiceResponse, ODataClientQuery query) throws ODataClientException {
         LOG.trace("Unmarshalling entity for query: {}", query.getQuery());
@@ -122,6 +138,20 @@ public class AtomEntityUnmarshaller implements ODataEntityUnmarshaller {
         }
     }
 
+    @Override
+    public ODataEntityReader unmarshallStream(InputStream odataServiceResponse, ODataClientQuery query)
+            throws ODataClientException {
+        LOG.trace("Opening entities stream for query: {}", query.getQuery());
+        try {
+            ODataRequest request = buildODataRequestFromString("", query);
+            ODataUri oDataUri = createODataUri(url, query.getEdmEntityName());
+            ODataRequestContext requestContext = new ODataRequestContext(request, oDataUri, entityDataModel);
+            return new AtomEntityReader(getODataAtomParser(requestContext).openFeed(odataServiceResponse));
+        } catch (UnsupportedEncodingException | ODataException e) {
+            throw new ODataClientException(e);
+        }
+    }
+
     protected ODataAtomParser getODataAtomParser(ODataRequestContext requestContext) {
         return new ODataAtomParser(requestContext, new ODataParserImpl());
     }
@@ -162,8 +192,7 @@ public class AtomEntityUnmarshaller implements ODataEntityUnmarshaller {
     }
 
     public EntityDataModel buildEntityDataModel(Iterable<Class<?>> edmEntityClasses) throws ODataEdmException {
-        AnnotationEntityDataModelFactory factory = new AnnotationEntityDataModelFactory();
-        return factory.addClasses(edmEntityClasses).buildEntityDataModel();
+        return EntityDataModelCache.getEntityDataModel(edmEntityClasses);
     }
 
     private String getTestServiceRoot(String serviceRoot, String entitySetName) {
@@ -177,4 +206,39 @@ public class AtomEntityUnmarshaller implements ODataEntityUnmarshaller {
 
         return new ODataUri(serviceRoot, resourcePathUri);
     }
+
+    /**
+     * Reads the entries of an Atom feed one at a time.
+     */
+    private static final class AtomEntityReader implements ODataEntityReader {
+
+        private final AtomFeedReader feed;
+
+        private AtomEntityReader(AtomFeedReader feed) {
+            this.feed = feed;
+        }
+
+        @Override
+        public Object nextEntity() throws ODataClientException {
+            try {
+                return feed.nextEntity();
+            } catch (ODataException | RuntimeException e) {
+                throw new ODataClientException("Cannot parse response from OData service", e);
+            }
+        }
+
+        @Override
+        public String getNextLink() {
+            return feed.getNextLink();
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                feed.close();
+            } catch (ODataUnmarshallingException e) {
+                throw new IOException(e.getMessage(), e);
+            }
+        }
+    }
 }
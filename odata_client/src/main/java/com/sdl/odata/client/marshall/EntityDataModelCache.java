@@ -0,0 +1,107 @@
+/**
+ * Copyright (c) 2014-2024 All Rights Reserved by the RWS Group for and on behalf of its affiliates and subsidiaries.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.sdl.odata.client.marshall;
+
+import com.sdl.odata.api.edm.ODataEdmException;
+import com.sdl.odata.api.edm.model.EntityDataModel;
+import com.sdl.odata.edm.factory.annotations.AnnotationEntityDataModelFactory;
+import org.slf4j.Logger;
+
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.slf4j.LoggerFactory.getLogger;
+
+/**
+ * Process-wide cache of the entity data models which are built by the client components.
+ * <p>
+ * Models are keyed by the set of entity classes they are built from, so all clients for the same classes share a
+ * single model and the annotations of those classes are scanned only once. Entity data models are immutable once
+ * built, so they can safely be shared between threads.
+ * <p>
+ * The models of a class set are held through a {@link ClassValue} of the first class of the set by name, rather than
+ * in a static map. A class value does not keep its class from being unloaded, so a cached model does not pin the
+ * classloader of its entity classes, which normally all come from the same classloader.
+ */
+public final class EntityDataModelCache {
+
+    private static final Logger LOG = getLogger(EntityDataModelCache.class);
+
+    private static final ClassValue<Map<Set<Class<?>>, EntityDataModel>> MODELS =
+            new ClassValue<Map<Set<Class<?>>, EntityDataModel>>() {
+                @Override
+                protected Map<Set<Class<?>>, EntityDataModel> computeValue(Class<?> type) {
+                    return new ConcurrentHashMap<>();
+                }
+            };
+
+    private EntityDataModelCache() {
+    }
+
+    /**
+     * Gets the entity data model for the given entity classes. The model is built on first use; concurrent callers
+     * for the same classes wait for it instead of building it again.
+     *
+     * @param edmEntityClasses The entity classes. Their order and duplicates do not matter.
+     * @return The entity data model for the given classes.
+     * @throws ODataEdmException If the model cannot be built.
+     */
+    public static EntityDataModel getEntityDataModel(Iterable<Class<?>> edmEntityClasses) throws ODataEdmException {
+        Set<Class<?>> classes = new LinkedHashSet<>();
+        edmEntityClasses.forEach(classes::add);
+        if (classes.isEmpty()) {
+            return newEntityDataModel(classes);
+        }
+        Class<?> owner = Collections.min(classes, Comparator.comparing(Class::getName));
+        try {
+            return MODELS.get(owner).computeIfAbsent(Collections.unmodifiableSet(classes), EntityDataModelCache::build);
+        } catch (BuildException e) {
+            throw e.getCause();
+        }
+    }
+
+    private static EntityDataModel build(Set<Class<?>> classes) {
+        try {
+            return newEntityDataModel(classes);
+        } catch (ODataEdmException e) {
+            throw new BuildException(e);
+        }
+    }
+
+    private static EntityDataModel newEntityDataModel(Set<Class<?>> classes) throws ODataEdmException {
+        LOG.debug("Building entity data model for {} classes...", classes.size());
+        return new AnnotationEntityDataModelFactory().addClasses(classes).buildEntityDataModel();
+    }
+
+    /**
+     * Carries a checked exception out of {@link Map#computeIfAbsent}.
+     */
+    private static final class BuildException extends RuntimeException {
+
+        private BuildException(ODataEdmException cause) {
+            super(cause);
+        }
+
+        @Override
+        public synchronized ODataEdmException getCause() {
+            return (ODataEdmException) super.getCause();
+        }
+    }
+}
@@ -0,0 +1,435 @@
+/**
+ * Copyright (c) 2014-2024 All Rights Reserved by the RWS Group for and on behalf of its affiliates and subsidiaries.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.sdl.odata.client.marshall;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.sdl.odata.api.ODataException;
+import com.sdl.odata.api.edm.ODataEdmException;
+import com.sdl.odata.api.edm.model.EntityDataModel;
+import com.sdl.odata.api.edm.model.StructuralProperty;
+import com.sdl.odata.api.edm.model.StructuredType;
+import com.sdl.odata.api.edm.model.Type;
+import com.sdl.odata.api.service.MediaType;
+import com.sdl.odata.api.unmarshaller.ODataUnmarshallingException;
+import com.sdl.odata.client.api.ODataClientQuery;
+import com.sdl.odata.client.api.exception.ODataClientException;
+import com.sdl.odata.client.api.exception.ODataClientParserException;
+import com.sdl.odata.client.api.exception.ODataClientRuntimeException;
+import com.sdl.odata.client.api.marshall.ODataEntityReader;
+import com.sdl.odata.client.api.marshall.ODataEntityUnmarshaller;
+import com.sdl.odata.util.PrimitiveUtil;
+import org.slf4j.Logger;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static com.sdl.odata.JsonConstants.NEXT_LINK;
+import static com.sdl.odata.JsonConstants.TYPE;
+import static com.sdl.odata.JsonConstants.VALUE;
+import static com.sdl.odata.client.marshall.AtomEntityUnmarshaller.PRIMITIVE_CLASSES;
+import static com.sdl.odata.unmarshaller.json.core.JsonParserUtils.getAllProperties;
+import static com.sdl.odata.unmarshaller.json.core.JsonParserUtils.getAppropriateFieldValue;
+import static java.util.Collections.singletonMap;
+import static org.slf4j.LoggerFactory.getLogger;
+
+/**
+ * A class which can unmarshall an OData Service JSON Response back to it's original Entity objects.
+ * <p>
+ * The response is read token by token with a Jackson {@link JsonParser}. Entities are filled in while reading, guided
+ * by the entity data model, without building a tree of the response first. Annotations and properties which are not
+ * in the entity data model are skipped.
+ */
+public class JsonEntityUnmarshaller implements ODataEntityUnmarshaller {
+
+    /**
+     * JSON with minimal metadata, the media type requested from the OData service.
+     */
+    public static final MediaType JSON_MINIMAL_METADATA =
+            new MediaType("application", "json", singletonMap("odata.metadata", "minimal"));
+
+    private static final Logger LOG = getLogger(JsonEntityUnmarshaller.class);
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    private final EntityDataModel entityDataModel;
+    private final Map<StructuredType, Map<String, StructuralProperty>> propertiesByType = new ConcurrentHashMap<>();
+
+    public JsonEntityUnmarshaller(Iterable<Class<?>> edmEntityClasses) {
+        try {
+            LOG.trace("Building entity data model...");
+            this.entityDataModel = buildEntityDataModel(edmEntityClasses);
+        } catch (ODataEdmException | RuntimeException e) {
+            throw new ODataClientRuntimeException("Cannot build OData entity model", e);
+        }
+    }
+
+    /**
+     * Creates an unmarshaller for an entity data model that is already built, for example to share it with the
+     * marshaller.
+     *
+     * @param entityDataModel The entity data model.
+     */
+    public JsonEntityUnmarshaller(EntityDataModel entityDataModel) {
+        this.entityDataModel = entityDataModel;
+    }
+
+    @Override
+    public MediaType getMediaType() {
+        return JSON_MINIMAL_METADATA;
+    }
+
+    @Override
+    public Object unmarshallEntity(String odataServiceResponse, ODataClientQuery query) throws ODataClientException {
+        LOG.trace("Unmarshalling entity for query: {}", query.getQuery());
+        Class<?> entityType = query.getEntityType();
+        try (JsonParser parser = startParsing(odataServiceResponse)) {
+            if (List.class.getSimpleName().equals(entityType.getSimpleName())) {
+                return readPrimitiveValues(parser);
+            } else if (PRIMITIVE_CLASSES.contains(entityType)) {
+                return readPrimitiveValue(parser);
+            } else {
+                return readEntity(parser, getStructuredType(entityType), null);
+            }
+        } catch (IOException | ODataException | RuntimeException e) {
+            throw new ODataClientParserException("Cannot parse response from OData service", e, odataServiceResponse);
+        }
+    }
+
+    @Override
+    public List<?> unmarshall(String odataServiceResponse, ODataClientQuery query) throws ODataClientException {
+        LOG.trace("Unmarshalling entities for query: {}", query.getQuery());
+        try (JsonParser parser = startParsing(odataServiceResponse)) {
+            List<Object> entities = new ArrayList<>();
+            Object entity = readEntity(parser, getStructuredType(query.getEntityType()), entities);
+            // A response with a single entity instead of a collection
+            if (entity != null) {
+                entities.add(entity);
+            }
+            return entities;
+        } catch (IOException | ODataException | RuntimeException e) {
+            throw new ODataClientParserException("Cannot parse response from OData service", e, odataServiceResponse);
+        }
+    }
+
+    @Override
+    public ODataEntityReader unmarshallStream(InputStream odataServiceResponse, ODataClientQuery query)
+            throws ODataClientException {
+        LOG.trace("Opening entities stream for query: {}", query.getQuery());
+        JsonParser parser = null;
+        try {
+            parser = JSON_FACTORY.createParser(odataServiceResponse);
+            // the stream belongs to the caller
+            parser.configure(JsonParser.Feature.AUTO_CLOSE_SOURCE, false);
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new ODataUnmarshallingException("The response is not a JSON object");
+            }
+            return new JsonEntityReader(parser, getStructuredType(query.getEntityType()));
+        } catch (IOException | ODataException | RuntimeException e) {
+            closeQuietly(parser);
+            throw new ODataClientException("Cannot parse response from OData service", e);
+        }
+    }
+
+    private JsonParser startParsing(String odataServiceResponse) throws IOException, ODataException {
+        JsonParser parser = JSON_FACTORY.createParser(odataServiceResponse);
+        if (parser.nextToken() != JsonToken.START_OBJECT) {
+            parser.close();
+            throw new ODataUnmarshallingException("The response is not a JSON object");
+        }
+        return parser;
+    }
+
+    private Object readPrimitiveValue(JsonParser parser) throws IOException {
+        Object value = null;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String name = parser.getCurrentName();
+            JsonToken token = parser.nextToken();
+            if (VALUE.equals(name) && token.isScalarValue()) {
+                value = token == JsonToken.VALUE_NULL ? null : parser.getText();
+            } else {
+                parser.skipChildren();
+            }
+        }
+        return value;
+    }
+
+    private List<Object> readPrimitiveValues(JsonParser parser) throws IOException {
+        List<Object> values = new ArrayList<>();
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String name = parser.getCurrentName();
+            JsonToken token = parser.nextToken();
+            if (VALUE.equals(name) && token == JsonToken.START_ARRAY) {
+                while (parser.nextToken() != JsonToken.END_ARRAY) {
+                    if (parser.getCurrentToken().isScalarValue()) {
+                        values.add(parser.getCurrentToken() == JsonToken.VALUE_NULL ? null : parser.getText());
+                    } else {
+                        parser.skipChildren();
+                    }
+                }
+            } else {
+                parser.skipChildren();
+            }
+        }
+        return values;
+    }
+
+    /**
+     * Reads the JSON object the parser is positioned on into an entity or complex value.
+     *
+     * @param parser The parser, positioned on the start of the object; afterwards it is positioned on its end.
+     * @param type   The expected type; a derived type can be specified with an {@code @odata.type} annotation.
+     * @param feed   If not {@code null}, the entities in a {@code value} array are read into this list.
+     * @return The entity, or {@code null} if a feed was read and the object has no properties of its own.
+     */
+    private Object readEntity(JsonParser parser, StructuredType type, List<Object> feed)
+            throws IOException, ODataException {
+        StructuredType actualType = type;
+        Object entity = null;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String name = parser.getCurrentName();
+            JsonToken token = parser.nextToken();
+            StructuralProperty property = name.indexOf('@') >= 0 ? null : getProperties(actualType).get(name);
+
+            if (TYPE.equals(name) && entity == null) {
+                actualType = getDerivedType(parser.getText(), type);
+            } else if (property == null && feed != null && VALUE.equals(name) && token == JsonToken.START_ARRAY) {
+                while (parser.nextToken() != JsonToken.END_ARRAY) {
+                    if (parser.getCurrentToken() == JsonToken.START_OBJECT) {
+                        feed.add(readEntity(parser, type, null));
+                    } else {
+                        parser.skipChildren();
+                    }
+                }
+            } else if (property == null) {
+                parser.skipChildren();
+            } else {
+                if (entity == null) {
+                    entity = newInstance(actualType);
+                }
+                property.getPropertyAccessor().set(entity, readValue(parser, property));
+            }
+        }
+        return entity == null && feed == null ? newInstance(actualType) : entity;
+    }
+
+    private Object readValue(JsonParser parser, StructuralProperty property) throws IOException, ODataException {
+        if (parser.getCurrentToken() == JsonToken.VALUE_NULL) {
+            return null;
+        }
+        if (!property.isCollection()) {
+            return readSingleValue(parser, property.getTypeName(), property.getJavaField().getType());
+        }
+        if (parser.getCurrentToken() != JsonToken.START_ARRAY) {
+            throw new ODataUnmarshallingException("Expected an array for property: " + property.getName());
+        }
+
+        Collection<Object> values = Set.class.isAssignableFrom(property.getJavaField().getType()) ?
+                new HashSet<>() : new ArrayList<>();
+        while (parser.nextToken() != JsonToken.END_ARRAY) {
+            Object value = readSingleValue(parser, property.getElementTypeName(), null);
+            if (value != null) {
+                values.add(value);
+            }
+        }
+        return values;
+    }
+
+    private Object readSingleValue(JsonParser parser, String typeName, Class<?> javaType)
+            throws IOException, ODataException {
+        if (parser.getCurrentToken() == JsonToken.VALUE_NULL) {
+            return null;
+        }
+        Type type = entityDataModel.getType(typeName);
+        if (type == null) {
+            throw new ODataUnmarshallingException("OData type not found: " + typeName);
+        }
+        switch (type.getMetaType()) {
+            case PRIMITIVE:
+            case ENUM:
+                return readPrimitive(parser, javaType != null ? javaType : type.getJavaType());
+            case ENTITY:
+            case COMPLEX:
+                if (parser.getCurrentToken() != JsonToken.START_OBJECT) {
+                    throw new ODataUnmarshallingException("Expected an object for type: " + typeName);
+                }
+                return readEntity(parser, (StructuredType) type, null);
+            default:
+                LOG.warn("Unsupported type {}.", type.getMetaType().name());
+                parser.skipChildren();
+                return null;
+        }
+    }
+
+    private Object readPrimitive(JsonParser parser, Class<?> javaType) throws IOException, ODataException {
+        JsonToken token = parser.getCurrentToken();
+        if (!token.isScalarValue()) {
+            throw new ODataUnmarshallingException("Expected a primitive value of type: " + javaType.getName());
+        }
+        Class<?> wrappedType = PrimitiveUtil.wrap(javaType);
+        if (wrappedType == String.class) {
+            return parser.getText();
+        }
+        if (token.isNumeric()) {
+            if (wrappedType == Integer.class) {
+                return parser.getIntValue();
+            } else if (wrappedType == Long.class) {
+                return parser.getLongValue();
+            } else if (wrappedType == Double.class) {
+                return parser.getDoubleValue();
+            } else if (wrappedType == Float.class) {
+                return parser.getFloatValue();
+            } else if (wrappedType == BigDecimal.class) {
+                return parser.getDecimalValue();
+            } else if (wrappedType == Short.class) {
+                return parser.getShortValue();
+            } else if (wrappedType == Byte.class) {
+                return parser.getByteValue();
+            }
+        } else if (token.isBoolean() && wrappedType == Boolean.class) {
+            return parser.getBooleanValue();
+        }
+        return getAppropriateFieldValue(javaType, parser.getText());
+    }
+
+    private StructuredType getStructuredType(Class<?> javaType) throws ODataUnmarshallingException {
+        Type type = entityDataModel.getType(javaType);
+        if (!(type instanceof StructuredType)) {
+            throw new ODataUnmarshallingException("Given type '" + javaType.getName() +
+                    "' is not an entity or complex type of the entity data model.");
+        }
+        return (StructuredType) type;
+    }
+
+    private StructuredType getDerivedType(String odataType, StructuredType defaultType) {
+        String typeName = odataType.startsWith("#") ? odataType.substring(1) : odataType;
+        Type type = entityDataModel.getType(typeName);
+        return type instanceof StructuredType ? (StructuredType) type : defaultType;
+    }
+
+    private Map<String, StructuralProperty> getProperties(StructuredType type) throws ODataException {
+        Map<String, StructuralProperty> properties = propertiesByType.get(type);
+        if (properties == null) {
+            properties = new HashMap<>();
+            for (StructuralProperty property : getAllProperties(type, entityDataModel)) {
+                properties.put(property.getName(), property);
+            }
+            propertiesByType.put(type, properties);
+        }
+        return properties;
+    }
+
+    private Object newInstance(StructuredType type) throws ODataUnmarshallingException {
+        try {
+            return type.getJavaType().getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException e) {
+            throw new ODataUnmarshallingException("Cannot instantiate entity of type: " + type.getName(), e);
+        }
+    }
+
+    private static void closeQuietly(JsonParser parser) {
+        if (parser != null) {
+            try {
+                parser.close();
+            } catch (IOException e) {
+                LOG.debug("Cannot close JSON parser", e);
+            }
+        }
+    }
+
+    private EntityDataModel buildEntityDataModel(Iterable<Class<?>> edmEntityClasses) throws ODataEdmException {
+        return EntityDataModelCache.getEntityDataModel(edmEntityClasses);
+    }
+
+    /**
+     * Reads the entities in the {@code value} array of a JSON response one at a time. The annotations of the
+     * response, such as the next link, are read when the parser passes them.
+     */
+    private final class JsonEntityReader implements ODataEntityReader {
+
+        private final JsonParser parser;
+        private final StructuredType type;
+        private String nextLink;
+        private boolean inFeed;
+
+        private JsonEntityReader(JsonParser parser, StructuredType type) throws IOException {
+            this.parser = parser;
+            this.type = type;
+            this.inFeed = readToFeed();
+        }
+
+        @Override
+        public Object nextEntity() throws ODataClientException {
+            try {
+                while (inFeed) {
+                    JsonToken token = parser.nextToken();
+                    if (token == JsonToken.START_OBJECT) {
+                        return readEntity(parser, type, null);
+                    } else if (token == JsonToken.END_ARRAY) {
+                        inFeed = readToFeed();
+                    } else if (token == null) {
+                        throw new ODataUnmarshallingException("Unexpected end of the response");
+                    } else {
+                        parser.skipChildren();
+                    }
+                }
+                return null;
+            } catch (IOException | ODataException | RuntimeException e) {
+                throw new ODataClientException("Cannot parse response from OData service", e);
+            }
+        }
+
+        /**
+         * Reads the fields of the response object up to the start of the {@code value} array.
+         *
+         * @return {@code true} if the parser is on the start of the array, {@code false} if the end of the response
+         * object has been reached.
+         */
+        private boolean readToFeed() throws IOException {
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String name = parser.getCurrentName();
+                JsonToken token = parser.nextToken();
+                if (VALUE.equals(name) && token == JsonToken.START_ARRAY) {
+                    return true;
+                } else if (NEXT_LINK.equals(name) && token == JsonToken.VALUE_STRING) {
+                    nextLink = parser.getText();
+                } else {
+                    parser.skipChildren();
+                }
+            }
+            return false;
+        }
+
+        @Override
+        public String getNextLink() {
+            return nextLink;
+        }
+
+        @Override
+        public void close() throws IOException {
+            parser.close();
+        }
+    }
+}
@@ -0,0 +1,117 @@
+/**
+ * Copyright (c) 2014-2024 All Rights Reserved by the RWS Group for and on behalf of its affiliates and subsidiaries.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.sdl.odata.client;
+
+import com.sdl.odata.client.BatchResponseParser.HttpPart;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Batch Response Parser Test.
+ */
+public class BatchResponseParserTest {
+
+    private static final String RESPONSE = String.join("\n",
+            "--batch_1",
+            "Content-Type: application/http",
+            "Content-Transfer-Encoding: binary",
+            "",
+            "HTTP/1.1 OK",
+            "Content-Type: application/atom+xml",
+            "Content-Length: 123",
+            "",
+            "<?xml version=\"1.0\" encoding=\"UTF-8\"?><entry>1</entry>",
+            "",
+            "--batch_1",
+            "Content-Type: multipart/mixed;boundary=changeset_1",
+            "",
+            "--changeset_1",
+            "Content-Type: application/http",
+            "Content-Transfer-Encoding: binary",
+            "Content-ID: 1",
+            "",
+            "HTTP/1.1 201 Created",
+            "Content-Type: application/atom+xml",
+            "",
+            "<?xml version=\"1.0\" encoding=\"UTF-8\"?><entry>2</entry>",
+            "--changeset_1",
+            "Content-Type: application/http",
+            "Content-Transfer-Encoding: binary",
+            "Content-ID: 2",
+            "",
+            "HTTP/1.1 NO CONTENT",
+            "",
+            "",
+            "--changeset_1--",
+            "--batch_1",
+            "Content-Type: application/http",
+            "Content-Transfer-Encoding: binary",
+            "",
+            "HTTP/1.1 NOT FOUND",
+            "Content-Type: http",
+            "",
+            "Entity not found",
+            "--batch_1--",
+            "");
+
+    @Test
+    public void testParse() {
+        assertParsed(BatchResponseParser.parse(RESPONSE, "batch_1"));
+    }
+
+    @Test
+    public void testParseWithCrLf() {
+        assertParsed(BatchResponseParser.parse(RESPONSE.replace("\n", "\r\n"), "batch_1"));
+    }
+
+    @Test
+    public void testParseStatus() {
+        assertEquals(200, BatchResponseParser.parseStatus("HTTP/1.1 200 OK"));
+        assertEquals(200, BatchResponseParser.parseStatus("HTTP/1.1 OK"));
+        assertEquals(404, BatchResponseParser.parseStatus("HTTP/1.1 NOT FOUND"));
+        assertEquals(500, BatchResponseParser.parseStatus("HTTP/1.1 500"));
+        assertEquals(0, BatchResponseParser.parseStatus("HTTP/1.1 UNKNOWN"));
+    }
+
+    private void assertParsed(List<List<HttpPart>> parts) {
+        assertEquals(3, parts.size());
+
+        HttpPart query = parts.get(0).get(0);
+        assertEquals(200, query.getStatus());
+        assertFalse(query.isError());
+        assertEquals("application/atom+xml", query.getHeader("Content-Type"));
+        assertEquals("<?xml version=\"1.0\" encoding=\"UTF-8\"?><entry>1</entry>", query.getBody());
+
+        List<HttpPart> changeSet = parts.get(1);
+        assertEquals(2, changeSet.size());
+        assertEquals(201, changeSet.get(0).getStatus());
+        assertEquals("1", changeSet.get(0).getContentId());
+        assertEquals("<?xml version=\"1.0\" encoding=\"UTF-8\"?><entry>2</entry>", changeSet.get(0).getBody());
+        assertEquals(204, changeSet.get(1).getStatus());
+        assertEquals("2", changeSet.get(1).getContentId());
+        assertEquals("", changeSet.get(1).getBody());
+
+        HttpPart error = parts.get(2).get(0);
+        assertEquals(404, error.getStatus());
+        assertTrue(error.isError());
+        assertEquals("Entity not found", error.getBody());
+    }
+}
@@ -0,0 +1,238 @@
+/**
+ * Copyright (c) 2014-2024 All Rights Reserved by the RWS Group for and on behalf of its affiliates and subsidiaries.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.sdl.odata.client;
+
+import com.sdl.odata.api.ODataException;
+import com.sdl.odata.client.api.ODataClientComponentsProvider;
+import com.sdl.odata.client.api.ODataClientQuery;
+import com.sdl.odata.client.api.caller.AsyncEndpointCaller;
+import com.sdl.odata.client.api.caller.EndpointCaller;
+import com.sdl.odata.client.api.exception.ODataClientException;
+import com.sdl.odata.client.api.exception.ODataClientRuntimeException;
+import com.sdl.odata.client.api.exception.ODataClientTimeout;
+import com.sdl.odata.client.marshall.AtomEntityUnmarshaller;
+import com.sdl.odata.test.model.Product;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+
+import java.io.UnsupportedEncodingException;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.sdl.odata.client.util.MarshallingTestUtilities.atomMarshall;
+import static com.sdl.odata.client.util.MarshallingTestUtilities.createODataUri;
+import static com.sdl.odata.test.model.Category.BOOKS;
+import static com.sdl.odata.test.util.TestUtils.getEdmEntityClasses;
+import static java.util.Collections.emptyMap;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * The Default Async OData Client Test.
+ */
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+public class DefaultAsyncODataClientTest {
+
+    private static final String SERVICE_URL = "http://mock/odata.svc";
+
+    @Mock
+    private ODataClientComponentsProvider componentsProvider;
+    @Mock
+    private AsyncEndpointCaller endpointCaller;
+
+    private final ODataClientQuery query = new BasicODataClientQuery.Builder().withEntityType(Product.class).build();
+
+    @BeforeEach
+    public void setup() throws MalformedURLException {
+        when(componentsProvider.getEndpointCaller()).thenReturn(endpointCaller);
+        when(componentsProvider.getUnmarshaller()).thenReturn(
+                new AtomEntityUnmarshaller(getEdmEntityClasses(), SERVICE_URL));
+        when(componentsProvider.getWebServiceUrl()).thenReturn(new URL(SERVICE_URL));
+    }
+
+    @Test
+    public void testGetEntities() throws ODataException, MalformedURLException, UnsupportedEncodingException,
+            ExecutionException, InterruptedException {
+        Product product = new Product().setId(11).setName("Book 11").setCategory(BOOKS);
+        List<Product> products = new ArrayList<>();
+        products.add(product);
+        String marshalledProducts = atomMarshall(products, createODataUri("http://mock/odata.svc/Products"));
+        when(endpointCaller.callEndpointAsync(emptyMap(), new URL(SERVICE_URL + "/" + query.getQuery())))
+                .thenReturn(CompletableFuture.completedFuture(marshalledProducts));
+
+        List<?> entities = createClient(1, Duration.ofSeconds(1)).getEntities(emptyMap(), query).get();
+
+        assertEquals(products, entities);
+    }
+
+    @Test
+    public void testLimitsConcurrentCalls() {
+        List<CompletableFuture<String>> responses = new ArrayList<>();
+        when(endpointCaller.callEndpointAsync(anyMap(), any(URL.class))).thenAnswer(invocation -> {
+            CompletableFuture<String> response = new CompletableFuture<>();
+            responses.add(response);
+            return response;
+        });
+        DefaultAsyncODataClient client = createClient(2, Duration.ofSeconds(10));
+
+        List<CompletableFuture<List<?>>> results = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            results.add(client.getEntities(emptyMap(), query));
+        }
+        verify(endpointCaller, times(2)).callEndpointAsync(anyMap(), any(URL.class));
+
+        responses.get(0).complete("");
+        verify(endpointCaller, times(3)).callEndpointAsync(anyMap(), any(URL.class));
+        assertTrue(results.get(0).isDone());
+        assertFalse(results.get(2).isDone());
+    }
+
+    @Test
+    public void testTimedOutCallsStayInFlightUntilTheirExchangeEnds() {
+        List<CompletableFuture<String>> exchanges = new ArrayList<>();
+        AtomicLong maxInFlight = new AtomicLong();
+        when(endpointCaller.callEndpointAsync(anyMap(), any(URL.class))).thenAnswer(invocation -> {
+            long inFlight = exchanges.stream().filter(exchange -> !exchange.isDone()).count() + 1;
+            maxInFlight.accumulateAndGet(inFlight, Math::max);
+            CompletableFuture<String> exchange = new CompletableFuture<>();
+            exchanges.add(exchange);
+            return exchange;
+        });
+        DefaultAsyncODataClient client = createClient(2, Duration.ofMillis(200));
+
+        List<CompletableFuture<List<?>>> results = new ArrayList<>();
+        for (int i = 0; i < 2; i++) {
+            results.add(client.getEntities(emptyMap(), query));
+        }
+
+        // The results of the first two calls time out while their exchanges are still running
+        for (int i = 0; i < 2; i++) {
+            ExecutionException e = assertThrows(ExecutionException.class, results.get(i)::get);
+            assertTrue(e.getCause() instanceof ODataClientTimeout);
+        }
+        CompletableFuture<List<?>> next = client.getEntities(emptyMap(), query);
+        verify(endpointCaller, times(2)).callEndpointAsync(anyMap(), any(URL.class));
+
+        exchanges.get(0).completeExceptionally(new ODataClientException("Exchange timed out"));
+        verify(endpointCaller, times(3)).callEndpointAsync(anyMap(), any(URL.class));
+        assertFalse(next.isDone());
+        assertEquals(2, maxInFlight.get());
+    }
+
+    @Test
+    public void testQueuedCallsTimeOutAndAreNotStarted() {
+        CompletableFuture<String> exchange = new CompletableFuture<>();
+        when(endpointCaller.callEndpointAsync(anyMap(), any(URL.class))).thenReturn(exchange);
+        DefaultAsyncODataClient client = createClient(1, Duration.ofMillis(50));
+
+        client.getEntities(emptyMap(), query);
+        CompletableFuture<List<?>> queued = client.getEntities(emptyMap(), query);
+
+        // The time spent waiting for the first call counts toward the timeout of the queued call
+        ExecutionException e = assertThrows(ExecutionException.class, queued::get);
+        assertTrue(e.getCause() instanceof ODataClientTimeout);
+
+        exchange.complete("");
+        verify(endpointCaller, times(1)).callEndpointAsync(anyMap(), any(URL.class));
+    }
+
+    @Test
+    public void testCancelledQueuedCallsAreNotStarted() {
+        CompletableFuture<String> exchange = new CompletableFuture<>();
+        when(endpointCaller.callEndpointAsync(anyMap(), any(URL.class))).thenReturn(exchange);
+        DefaultAsyncODataClient client = createClient(1, Duration.ofSeconds(10));
+
+        client.getEntities(emptyMap(), query);
+        assertTrue(client.getEntities(emptyMap(), query).cancel(false));
+
+        exchange.complete("");
+        verify(endpointCaller, times(1)).callEndpointAsync(anyMap(), any(URL.class));
+    }
+
+    @Test
+    public void testCallsWhichCompleteRightAwayAreStartedWithoutRecursion() {
+        CompletableFuture<String> first = new CompletableFuture<>();
+        when(endpointCaller.callEndpointAsync(anyMap(), any(URL.class)))
+                .thenReturn(first)
+                .thenReturn(CompletableFuture.completedFuture(""));
+        DefaultAsyncODataClient client = createClient(1, Duration.ofSeconds(10));
+
+        client.getEntities(emptyMap(), query);
+        List<CompletableFuture<List<?>>> results = new ArrayList<>();
+        for (int i = 0; i < 20000; i++) {
+            results.add(client.getEntities(emptyMap(), query));
+        }
+        first.complete("");
+
+        assertTrue(results.stream().allMatch(CompletableFuture::isDone));
+    }
+
+    @Test
+    public void testTimeout() {
+        when(endpointCaller.callEndpointAsync(anyMap(), any(URL.class))).thenReturn(new CompletableFuture<>());
+
+        CompletableFuture<Object> result = createClient(1, Duration.ofMillis(10)).getEntity(emptyMap(), query);
+
+        ExecutionException e = assertThrows(ExecutionException.class, result::get);
+        assertTrue(e.getCause() instanceof ODataClientTimeout);
+    }
+
+    @Test
+    public void testFailedCall() {
+        when(endpointCaller.callEndpointAsync(anyMap(), any(URL.class)))
+                .thenReturn(CompletableFuture.failedFuture(new ODataClientException("Service unavailable")));
+
+        CompletableFuture<Object> result = createClient(1, Duration.ofSeconds(1)).getEntity(emptyMap(), query);
+
+        ExecutionException e = assertThrows(ExecutionException.class, result::get);
+        assertEquals(ODataClientRuntimeException.class, e.getCause().getClass());
+    }
+
+    @Test
+    public void testBlockingEndpointCallerIsRejected() {
+        when(componentsProvider.getEndpointCaller()).thenReturn(mock(EndpointCaller.class));
+
+        assertThrows(ODataClientRuntimeException.class, () ->
+                new DefaultAsyncODataClient().configure(componentsProvider)
+        );
+    }
+
+    private DefaultAsyncODataClient createClient(int maxConcurrentRequests, Duration timeout) {
+        DefaultAsyncODataClient client = new DefaultAsyncODataClient(maxConcurrentRequests, timeout);
+        client.configure(componentsProvider);
+        return client;
+    }
+}
@@ -21,15 +21,18 @@ import com.sdl.odata.api.edm.annotations.EdmEntitySet;
 import com.sdl.odata.api.edm.annotations.EdmProperty;
 import com.sdl.odata.api.edm.annotations.EdmPropertyRef;
 import com.sdl.odata.api.service.MediaType;
+import com.sdl.odata.client.api.ODataClient;
 import com.sdl.odata.client.api.ODataClientComponentsProvider;
 import com.sdl.odata.client.api.ODataClientQuery;
 import com.sdl.odata.client.api.caller.EndpointCaller;
 import com.sdl.odata.client.api.exception.ODataClientException;
+import com.sdl.odata.client.api.exception.ODataClientRuntimeException;
 import com.sdl.odata.client.api.exception.ODataNotImplementedException;
 import com.sdl.odata.client.api.marshall.ODataEntityMarshaller;
 import com.sdl.odata.client.api.marshall.ODataEntityUnmarshaller;
 import com.sdl.odata.client.api.model.ODataIdAwareEntity;
 import com.sdl.odata.client.marshall.AtomEntityUnmarshaller;
+import com.sdl.odata.client.marshall.JsonEntityUnmarshaller;
 import com.sdl.odata.test.model.Category;
 import com.sdl.odata.test.model.Product;
 import org.junit.jupiter.api.BeforeEach;
@@ -40,6 +43,7 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import org.mockito.junit.jupiter.MockitoSettings;
 import org.mockito.quality.Strictness;
 
+import java.io.ByteArrayInputStream;
 import java.io.UnsupportedEncodingException;
 import java.net.MalformedURLException;
 import java.net.URL;
@@ -52,6 +56,7 @@ import static com.sdl.odata.client.util.MarshallingTestUtilities.createODataUri;
 import static com.sdl.odata.test.model.Category.BOOKS;
 import static com.sdl.odata.test.model.Category.ELECTRONICS;
 import static com.sdl.odata.test.util.TestUtils.getEdmEntityClasses;
+import static java.nio.charset.StandardCharsets.UTF_8;
 import static java.util.Collections.emptyMap;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
@@ -59,6 +64,8 @@ import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyMap;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
 /**
@@ -191,6 +198,82 @@ public class DefaultODataClientTest {
         );
     }
 
+    @Test
+    public void testStreamEntities() throws MalformedURLException, ODataClientException, ODataException,
+            UnsupportedEncodingException {
+        List<Product> products = Stream.of(
+                        createProduct(11, "Book 11", BOOKS),
+                        createProduct(12, "Electronics 12", ELECTRONICS))
+                .collect(Collectors.toList());
+        String marshalledProduct = atomMarshall(
+                products, createODataUri("http://mock/odata.svc/Products"));
+        ODataClientQuery query = new BasicODataClientQuery.Builder().withEntityType(Product.class).build();
+        when(endpointCaller.getInputStream(anyMap(), eq(new URL(SERVICE_URL + "/" + query.getQuery()))))
+                .thenReturn(new ByteArrayInputStream(marshalledProduct.getBytes(UTF_8)));
+
+        try (Stream<?> entities = client.streamEntities(emptyMap(), query)) {
+            assertEquals(products, entities.collect(Collectors.toList()));
+        }
+    }
+
+    @Test
+    public void testDefaultStreamEntitiesStreamsAllEntities() {
+        ODataClient otherClient = mock(ODataClient.class);
+        ODataClientQuery query = new BasicODataClientQuery.Builder().withEntityType(Product.class).build();
+        List<Product> products = Stream.of(
+                        createProduct(11, "Book 11", BOOKS),
+                        createProduct(12, "Electronics 12", ELECTRONICS))
+                .collect(Collectors.toList());
+        doReturn(products).when(otherClient).getEntities(emptyMap(), query);
+        when(otherClient.streamEntities(emptyMap(), query)).thenCallRealMethod();
+
+        try (Stream<?> entities = otherClient.streamEntities(emptyMap(), query)) {
+            assertEquals(products, entities.collect(Collectors.toList()));
+        }
+    }
+
+    @Test
+    public void testStreamEntitiesFollowsNextLinks() throws MalformedURLException, ODataClientException {
+        when(componentsProvider.getUnmarshaller()).thenReturn(new JsonEntityUnmarshaller(getEdmEntityClasses()));
+        ODataClientQuery query = new BasicODataClientQuery.Builder().withEntityType(Product.class).build();
+        String firstPage = "{\"value\":[{\"id\":11,\"name\":\"Book 11\",\"category\":\"BOOKS\"}]," +
+                "\"@odata.nextLink\":\"http://mock/odata.svc/Products?$skiptoken=11\"}";
+        String secondPage = "{\"@odata.nextLink\":\"Products?$skiptoken=12\"," +
+                "\"value\":[{\"id\":12,\"name\":\"Electronics 12\",\"category\":\"ELECTRONICS\"}]}";
+        String lastPage = "{\"value\":[]}";
+        when(endpointCaller.getInputStream(anyMap(), eq(new URL(SERVICE_URL + "/" + query.getQuery()))))
+                .thenReturn(new ByteArrayInputStream(firstPage.getBytes(UTF_8)));
+        when(endpointCaller.getInputStream(anyMap(), eq(new URL(SERVICE_URL + "/Products?$skiptoken=11"))))
+                .thenReturn(new ByteArrayInputStream(secondPage.getBytes(UTF_8)));
+        when(endpointCaller.getInputStream(anyMap(), eq(new URL(SERVICE_URL + "/Products?$skiptoken=12"))))
+                .thenReturn(new ByteArrayInputStream(lastPage.getBytes(UTF_8)));
+
+        try (Stream<?> entities = client.streamEntities(emptyMap(), query)) {
+            assertEquals(Stream.of(
+                            createProduct(11, "Book 11", BOOKS),
+                            createProduct(12, "Electronics 12", ELECTRONICS))
+                    .collect(Collectors.toList()), entities.collect(Collectors.toList()));
+        }
+    }
+
+    @Test
+    public void testStreamEntitiesFailsOnNextLinkToPageThatWasRead() throws MalformedURLException {
+        when(componentsProvider.getUnmarshaller()).thenReturn(new JsonEntityUnmarshaller(getEdmEntityClasses()));
+        ODataClientQuery query = new BasicODataClientQuery.Builder().withEntityType(Product.class).build();
+        String firstPage = "{\"value\":[{\"id\":11,\"name\":\"Book 11\",\"category\":\"BOOKS\"}]," +
+                "\"@odata.nextLink\":\"Products?$skiptoken=11\"}";
+        String secondPage = "{\"value\":[{\"id\":12,\"name\":\"Electronics 12\",\"category\":\"ELECTRONICS\"}]," +
+                "\"@odata.nextLink\":\"" + SERVICE_URL + "/" + query.getQuery() + "\"}";
+        when(endpointCaller.getInputStream(anyMap(), eq(new URL(SERVICE_URL + "/" + query.getQuery()))))
+                .thenReturn(new ByteArrayInputStream(firstPage.getBytes(UTF_8)));
+        when(endpointCaller.getInputStream(anyMap(), eq(new URL(SERVICE_URL + "/Products?$skiptoken=11"))))
+                .thenReturn(new ByteArrayInputStream(secondPage.getBytes(UTF_8)));
+
+        try (Stream<?> entities = client.streamEntities(emptyMap(), query)) {
+            assertThrows(ODataClientRuntimeException.class, () -> entities.collect(Collectors.toList()));
+        }
+    }
+
     private Product createProduct(int id, String name, Category category) {
         return new Product()
                 .setId(id)
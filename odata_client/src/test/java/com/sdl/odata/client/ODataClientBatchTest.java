@@ -0,0 +1,371 @@
+/**
+ * Copyright (c) 2014-2024 All Rights Reserved by the RWS Group for and on behalf of its affiliates and subsidiaries.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.sdl.odata.client;
+
+import com.sdl.odata.api.edm.model.EntityDataModel;
+import com.sdl.odata.api.processor.ProcessorResult;
+import com.sdl.odata.api.processor.query.QueryResult;
+import com.sdl.odata.api.service.MediaType;
+import com.sdl.odata.api.service.ODataRequestContext;
+import com.sdl.odata.api.service.ODataResponse;
+import com.sdl.odata.client.api.ODataClientComponentsProvider;
+import com.sdl.odata.client.api.ODataClientQuery;
+import com.sdl.odata.client.api.caller.EndpointCaller;
+import com.sdl.odata.client.api.exception.ODataClientException;
+import com.sdl.odata.client.api.exception.ODataClientRuntimeException;
+import com.sdl.odata.client.api.marshall.ODataEntityMarshaller;
+import com.sdl.odata.client.marshall.AtomEntityUnmarshaller;
+import com.sdl.odata.renderer.batch.ODataBatchRequestRenderer;
+import com.sdl.odata.test.model.Category;
+import com.sdl.odata.test.model.Product;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static com.sdl.odata.api.service.HeaderNames.CONTENT_TYPE;
+import static com.sdl.odata.api.service.ODataRequest.Method.GET;
+import static com.sdl.odata.api.service.ODataRequest.Method.POST;
+import static com.sdl.odata.api.service.ODataResponse.Status.OK;
+import static com.sdl.odata.client.util.MarshallingTestUtilities.atomMarshall;
+import static com.sdl.odata.client.util.MarshallingTestUtilities.buildEntityDataModel;
+import static com.sdl.odata.client.util.MarshallingTestUtilities.createODataUri;
+import static com.sdl.odata.test.model.Category.BOOKS;
+import static com.sdl.odata.test.model.Category.ELECTRONICS;
+import static com.sdl.odata.test.util.TestUtils.createODataRequestContext;
+import static com.sdl.odata.test.util.TestUtils.getEdmEntityClasses;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.Collections.emptyMap;
+import static java.util.Collections.singletonMap;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * OData Client Batch Test.
+ */
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+public class ODataClientBatchTest {
+
+    private static final String SERVICE_URL = "http://mock/odata.svc";
+    private static final String MARSHALLED_MOCKED_ENTITY_CONTENT =
+            "<?xml version=\"1.0\" encoding=\"UTF-8\"?><entry>XML_CONTENT_TO_POST</entry>";
+
+    @Mock
+    private ODataClientComponentsProvider componentsProvider;
+    @Mock
+    private EndpointCaller endpointCaller;
+    @Mock
+    private ODataEntityMarshaller marshaller;
+
+    private DefaultODataClient client;
+
+    @BeforeEach
+    public void setup() throws ODataClientException, MalformedURLException {
+        client = new DefaultODataClient();
+        client.configure(componentsProvider);
+        when(componentsProvider.getEndpointCaller()).thenReturn(endpointCaller);
+        when(componentsProvider.getUnmarshaller()).thenReturn(
+                new AtomEntityUnmarshaller(getEdmEntityClasses(), SERVICE_URL));
+        when(componentsProvider.getWebServiceUrl()).thenReturn(new URL(SERVICE_URL));
+        when(componentsProvider.getMarshaller()).thenReturn(marshaller);
+        when(marshaller.marshallEntity(any(), any(ODataClientQuery.class)))
+                .thenReturn(MARSHALLED_MOCKED_ENTITY_CONTENT);
+    }
+
+    @Test
+    public void testExecute() throws Exception {
+        Product book = createProduct(11, "Book 11", BOOKS);
+        Product created = createProduct(12, "Electronics 12", ELECTRONICS);
+        String marshalledBook = atomMarshall(book, createODataUri(SERVICE_URL + "/Products(11)"));
+        String marshalledCreated = atomMarshall(created, createODataUri(SERVICE_URL + "/Products"));
+        when(endpointCaller.doPostEntity(anyMap(), eq(new URL(SERVICE_URL + "/$batch")), anyString(),
+                any(MediaType.class), eq(MediaType.MULTIPART))).thenAnswer(invocation -> {
+                    String boundary = invocation.<MediaType>getArgument(3).getParameter("boundary");
+                    return batchResponse(boundary,
+                            part("HTTP/1.1 OK", marshalledBook),
+                            changeSet(part("Content-ID: 1", "HTTP/1.1 CREATED", marshalledCreated)),
+                            part("HTTP/1.1 NOT FOUND", "Entity not found"));
+                });
+
+        ODataClientBatch batch = new ODataClientBatch(client);
+        ODataClientQuery bookQuery = query(11);
+        CompletableFuture<Object> bookResult = batch.getEntity(bookQuery);
+        CompletableFuture<Object> createResult = batch.changeSet().createEntity(created);
+        CompletableFuture<Object> missingResult = batch.getEntity(query(99));
+        batch.execute(emptyMap());
+
+        assertEquals(book, bookResult.get());
+        assertEquals(created, createResult.get());
+        ExecutionException e = assertThrows(ExecutionException.class, missingResult::get);
+        assertInstanceOf(ODataClientRuntimeException.class, e.getCause());
+        assertTrue(e.getCause().getMessage().contains("Entity not found"));
+
+        ArgumentCaptor<String> body = ArgumentCaptor.forClass(String.class);
+        ArgumentCaptor<MediaType> contentType = ArgumentCaptor.forClass(MediaType.class);
+        verify(endpointCaller).doPostEntity(anyMap(), any(URL.class), body.capture(), contentType.capture(),
+                eq(MediaType.MULTIPART));
+        String boundary = contentType.getValue().getParameter("boundary");
+        assertTrue(boundary.startsWith("batch_"));
+        String request = body.getValue();
+        assertTrue(request.startsWith("--" + boundary + "\r\n"));
+        assertTrue(request.endsWith("--" + boundary + "--\r\n"));
+        assertTrue(request.contains("GET " + client.buildQueryPath(bookQuery) + " HTTP/1.1\r\n"));
+        assertTrue(request.contains("Content-ID: 1\r\n"));
+        assertTrue(request.contains("POST Products HTTP/1.1\r\n"));
+        assertTrue(request.contains(MARSHALLED_MOCKED_ENTITY_CONTENT + "\r\n"));
+    }
+
+    @Test
+    public void testExecuteWithFailedChangeSet() throws Exception {
+        when(endpointCaller.doPostEntity(anyMap(), any(URL.class), anyString(), any(MediaType.class),
+                any(MediaType.class))).thenAnswer(invocation -> batchResponse(
+                        invocation.<MediaType>getArgument(3).getParameter("boundary"),
+                        part("HTTP/1.1 BAD REQUEST", "Invalid entity")));
+
+        ODataClientBatch batch = new ODataClientBatch(client);
+        ODataClientBatch.ChangeSet changeSet = batch.changeSet();
+        List<CompletableFuture<Object>> results = Arrays.asList(
+                changeSet.createEntity(createProduct(1, "Book 1", BOOKS)),
+                changeSet.createEntity(createProduct(2, "Book 2", BOOKS)));
+        batch.execute(emptyMap());
+
+        for (CompletableFuture<Object> result : results) {
+            ExecutionException e = assertThrows(ExecutionException.class, result::get);
+            assertTrue(e.getCause().getMessage().contains("Invalid entity"));
+        }
+    }
+
+    @Test
+    public void testExecuteWithFailedRequest() throws Exception {
+        when(endpointCaller.doPostEntity(anyMap(), any(URL.class), anyString(), any(MediaType.class),
+                any(MediaType.class))).thenThrow(new ODataClientException("Service unavailable"));
+
+        ODataClientBatch batch = new ODataClientBatch(client);
+        CompletableFuture<Object> result = batch.getEntity(query(1));
+
+        assertThrows(ODataClientRuntimeException.class, () -> batch.execute(emptyMap()));
+        assertTrue(result.isCompletedExceptionally());
+        assertThrows(IllegalStateException.class, () -> batch.execute(emptyMap()));
+    }
+
+    @Test
+    public void testExecuteEmptyBatch() throws ODataClientException {
+        new ODataClientBatch(client).execute(emptyMap());
+
+        verify(endpointCaller, never()).doPostEntity(anyMap(), any(URL.class), anyString(), any(MediaType.class),
+                any(MediaType.class));
+    }
+
+    @Test
+    public void testBatchingEntityLoader() throws Exception {
+        Product first = createProduct(1, "Book 1", BOOKS);
+        Product second = createProduct(2, "Book 2", BOOKS);
+        String marshalledFirst = atomMarshall(first, createODataUri(SERVICE_URL + "/Products(1)"));
+        String marshalledSecond = atomMarshall(second, createODataUri(SERVICE_URL + "/Products(2)"));
+        when(endpointCaller.doPostEntity(anyMap(), any(URL.class), anyString(), any(MediaType.class),
+                any(MediaType.class))).thenAnswer(invocation -> batchResponse(
+                        invocation.<MediaType>getArgument(3).getParameter("boundary"),
+                        part("HTTP/1.1 200 OK", marshalledFirst), part("HTTP/1.1 200 OK", marshalledSecond)));
+
+        // The window is long enough that only the maximum batch size sends the lookups
+        try (BatchingEntityLoader loader = new BatchingEntityLoader(client, emptyMap(), Duration.ofMinutes(1), 2)) {
+            CompletableFuture<Object> firstResult = loader.getEntity(query(1));
+            CompletableFuture<Object> secondResult = loader.getEntity(query(2));
+
+            assertEquals(first, firstResult.get(10, TimeUnit.SECONDS));
+            assertEquals(second, secondResult.get(10, TimeUnit.SECONDS));
+        }
+        verify(endpointCaller, times(1)).doPostEntity(anyMap(), any(URL.class), anyString(), any(MediaType.class),
+                any(MediaType.class));
+    }
+
+    @Test
+    public void testBatchingEntityLoaderSendsAfterWindow() throws Exception {
+        Product product = createProduct(1, "Book 1", BOOKS);
+        String marshalledProduct = atomMarshall(product, createODataUri(SERVICE_URL + "/Products(1)"));
+        when(endpointCaller.doPostEntity(anyMap(), any(URL.class), anyString(), any(MediaType.class),
+                any(MediaType.class))).thenAnswer(invocation -> batchResponse(
+                        invocation.<MediaType>getArgument(3).getParameter("boundary"),
+                        part("HTTP/1.1 200 OK", marshalledProduct)));
+
+        try (BatchingEntityLoader loader = new BatchingEntityLoader(client, emptyMap(), Duration.ofMillis(5), 100)) {
+            assertEquals(product, loader.getEntity(query(1)).get(10, TimeUnit.SECONDS));
+        }
+    }
+
+    @Test
+    public void testBatchingEntityLoaderSendsBatchesConcurrently() throws Exception {
+        Product first = createProduct(1, "Book 1", BOOKS);
+        Product second = createProduct(2, "Book 2", BOOKS);
+        String marshalledFirst = atomMarshall(first, createODataUri(SERVICE_URL + "/Products(1)"));
+        String marshalledSecond = atomMarshall(second, createODataUri(SERVICE_URL + "/Products(2)"));
+        String firstPath = client.buildQueryPath(query(1));
+        CountDownLatch secondSent = new CountDownLatch(1);
+        when(endpointCaller.doPostEntity(anyMap(), any(URL.class), anyString(), any(MediaType.class),
+                any(MediaType.class))).thenAnswer(invocation -> {
+                    String boundary = invocation.<MediaType>getArgument(3).getParameter("boundary");
+                    if (invocation.<String>getArgument(2).contains("GET " + firstPath + " HTTP/1.1")) {
+                        // The first batch only completes once the second one has been sent alongside it
+                        if (!secondSent.await(10, TimeUnit.SECONDS)) {
+                            throw new ODataClientException("The second batch was not sent");
+                        }
+                        return batchResponse(boundary, part("HTTP/1.1 200 OK", marshalledFirst));
+                    }
+                    secondSent.countDown();
+                    return batchResponse(boundary, part("HTTP/1.1 200 OK", marshalledSecond));
+                });
+
+        try (BatchingEntityLoader loader = new BatchingEntityLoader(client, emptyMap(), Duration.ofMinutes(1), 1)) {
+            CompletableFuture<Object> firstResult = loader.getEntity(query(1));
+            CompletableFuture<Object> secondResult = loader.getEntity(query(2));
+
+            assertEquals(second, secondResult.get(10, TimeUnit.SECONDS));
+            assertEquals(first, firstResult.get(10, TimeUnit.SECONDS));
+        }
+    }
+
+    @Test
+    public void testBatchingEntityLoaderRejectsBatchesBeyondTheMaximumInFlight() throws Exception {
+        Product product = createProduct(1, "Book 1", BOOKS);
+        String marshalledProduct = atomMarshall(product, createODataUri(SERVICE_URL + "/Products(1)"));
+        CountDownLatch sent = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(endpointCaller.doPostEntity(anyMap(), any(URL.class), anyString(), any(MediaType.class),
+                any(MediaType.class))).thenAnswer(invocation -> {
+                    sent.countDown();
+                    release.await(10, TimeUnit.SECONDS);
+                    return batchResponse(invocation.<MediaType>getArgument(3).getParameter("boundary"),
+                            part("HTTP/1.1 200 OK", marshalledProduct));
+                });
+
+        // One batch is sent, one waits for the sender thread and the third one is rejected
+        try (BatchingEntityLoader loader =
+                     new BatchingEntityLoader(client, emptyMap(), Duration.ofMinutes(1), 1, 1)) {
+            CompletableFuture<Object> sentResult = loader.getEntity(query(1));
+            assertTrue(sent.await(10, TimeUnit.SECONDS));
+            CompletableFuture<Object> queuedResult = loader.getEntity(query(1));
+            CompletableFuture<Object> rejectedResult = loader.getEntity(query(1));
+
+            ExecutionException e = assertThrows(ExecutionException.class, rejectedResult::get);
+            assertInstanceOf(ODataClientRuntimeException.class, e.getCause());
+
+            release.countDown();
+            assertEquals(product, sentResult.get(10, TimeUnit.SECONDS));
+            assertEquals(product, queuedResult.get(10, TimeUnit.SECONDS));
+        }
+    }
+
+    @Test
+    public void testBatchingEntityLoaderReadsRenderedBatchResponse() throws Exception {
+        Product first = createProduct(1, "Book 1", BOOKS);
+        Product second = createProduct(2, "Book 2", BOOKS);
+        Product third = createProduct(3, "Electronics 3", ELECTRONICS);
+        when(endpointCaller.doPostEntity(anyMap(), any(URL.class), anyString(), any(MediaType.class),
+                any(MediaType.class))).thenAnswer(invocation -> renderBatchResponse(
+                        invocation.<MediaType>getArgument(3).getParameter("boundary"), first, second, third));
+
+        // The response is rendered by the service's own batch renderer, which puts every query in a part of its own
+        try (BatchingEntityLoader loader = new BatchingEntityLoader(client, emptyMap(), Duration.ofMinutes(1), 3)) {
+            CompletableFuture<Object> firstResult = loader.getEntity(query(1));
+            CompletableFuture<Object> secondResult = loader.getEntity(query(2));
+            CompletableFuture<Object> thirdResult = loader.getEntity(query(3));
+
+            assertEquals(first, firstResult.get(10, TimeUnit.SECONDS));
+            assertEquals(second, secondResult.get(10, TimeUnit.SECONDS));
+            assertEquals(third, thirdResult.get(10, TimeUnit.SECONDS));
+        }
+    }
+
+    private static String renderBatchResponse(String boundary, Product... products) throws Exception {
+        EntityDataModel entityDataModel = buildEntityDataModel();
+        List<ProcessorResult> results = new ArrayList<>();
+        for (Product product : products) {
+            ODataRequestContext getContext = createODataRequestContext(GET,
+                    createODataUri(SERVICE_URL + "/Products(" + product.getId() + ")"), entityDataModel);
+            results.add(new ProcessorResult(OK, QueryResult.from(product), emptyMap(), getContext));
+        }
+        ODataRequestContext batchContext = createODataRequestContext(POST, createODataUri(SERVICE_URL + "/Products"),
+                entityDataModel, singletonMap(CONTENT_TYPE, "multipart/mixed;boundary=" + boundary));
+
+        ODataResponse.Builder responseBuilder = new ODataResponse.Builder();
+        new ODataBatchRequestRenderer().render(batchContext, QueryResult.from(results), responseBuilder);
+        return responseBuilder.build().getBodyText(UTF_8.name());
+    }
+
+    private static ODataClientQuery query(long id) {
+        return new BasicODataClientQuery.Builder().withEntityType(Product.class).withEntityKey(Long.toString(id))
+                .build();
+    }
+
+    private static String batchResponse(String boundary, String... parts) {
+        StringBuilder response = new StringBuilder();
+        for (String part : parts) {
+            response.append("--").append(boundary).append("\n").append(part);
+        }
+        return response.append("--").append(boundary).append("--\n").toString();
+    }
+
+    private static String changeSet(String... parts) {
+        StringBuilder changeSet = new StringBuilder("Content-Type: multipart/mixed;boundary=changeset_1\n\n");
+        for (String part : parts) {
+            changeSet.append("--changeset_1\n").append(part);
+        }
+        return changeSet.append("--changeset_1--\n").toString();
+    }
+
+    private static String part(String... lines) {
+        StringBuilder part = new StringBuilder("Content-Type: application/http\nContent-Transfer-Encoding: binary\n");
+        int statusLine = lines[0].startsWith("HTTP/") ? 0 : 1;
+        for (int i = 0; i < statusLine; i++) {
+            part.append(lines[i]).append("\n");
+        }
+        part.append("\n").append(lines[statusLine]).append("\n\n");
+        for (int i = statusLine + 1; i < lines.length; i++) {
+            part.append(lines[i]).append("\n");
+        }
+        return part.toString();
+    }
+
+    private static Product createProduct(int id, String name, Category category) {
+        return new Product().setId(id).setName(name).setCategory(category);
+    }
+}
@@ -0,0 +1,227 @@
+/**
+ * Copyright (c) 2014-2024 All Rights Reserved by the RWS Group for and on behalf of its affiliates and subsidiaries.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.sdl.odata.client.caller;
+
+import com.sdl.odata.api.service.MediaType;
+import com.sdl.odata.client.api.caller.EndpointCaller;
+import com.sdl.odata.client.api.caller.EndpointResponse;
+import com.sdl.odata.client.api.exception.ODataClientException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.time.Clock;
+import java.util.HashMap;
+import java.util.Map;
+
+import static com.sdl.odata.api.service.HeaderNames.CACHE_CONTROL;
+import static com.sdl.odata.api.service.HeaderNames.ETAG;
+import static com.sdl.odata.api.service.HeaderNames.IF_NONE_MATCH;
+import static java.net.HttpURLConnection.HTTP_NOT_MODIFIED;
+import static java.net.HttpURLConnection.HTTP_OK;
+import static java.util.Collections.emptyMap;
+import static java.util.Collections.singletonMap;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Caching Endpoint Caller Test.
+ */
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+public class CachingEndpointCallerTest {
+
+    private static final String BODY = "<?xml version=\"1.0\" encoding=\"UTF-8\"?><entry>1</entry>";
+
+    @Mock
+    private EndpointCaller delegate;
+    @Mock
+    private Clock clock;
+
+    private CachingEndpointCaller caller;
+    private URL productUrl;
+    private URL productsUrl;
+
+    @BeforeEach
+    public void setup() throws MalformedURLException {
+        caller = new CachingEndpointCaller(delegate, 10, clock);
+        productUrl = new URL("http://mock/odata.svc/Products(1)");
+        productsUrl = new URL("http://mock/odata.svc/Products");
+        when(clock.millis()).thenReturn(0L);
+    }
+
+    @Test
+    public void testFreshResponseIsServedFromCache() throws ODataClientException {
+        when(delegate.callEndpointWithHeaders(anyMap(), eq(productUrl)))
+                .thenReturn(response(HTTP_OK, BODY, CACHE_CONTROL, "max-age=60"));
+
+        assertEquals(BODY, caller.callEndpoint(emptyMap(), productUrl));
+        when(clock.millis()).thenReturn(59_000L);
+        assertEquals(BODY, caller.callEndpoint(emptyMap(), productUrl));
+
+        verify(delegate, times(1)).callEndpointWithHeaders(anyMap(), eq(productUrl));
+        assertEquals(1, caller.getHitCount());
+        assertEquals(1, caller.getMissCount());
+        assertEquals(0.5, caller.getHitRate());
+    }
+
+    @Test
+    public void testStaleResponseIsRevalidated() throws ODataClientException {
+        when(delegate.callEndpointWithHeaders(anyMap(), eq(productUrl)))
+                .thenReturn(response(HTTP_OK, BODY, ETAG, "W/\"1\"", CACHE_CONTROL, "max-age=60"))
+                .thenReturn(response(HTTP_NOT_MODIFIED, "", ETAG, "W/\"1\""));
+
+        assertEquals(BODY, caller.callEndpoint(emptyMap(), productUrl));
+        when(clock.millis()).thenReturn(61_000L);
+        assertEquals(BODY, caller.callEndpoint(emptyMap(), productUrl));
+
+        ArgumentCaptor<Map<String, String>> properties = ArgumentCaptor.forClass(Map.class);
+        verify(delegate, times(2)).callEndpointWithHeaders(properties.capture(), eq(productUrl));
+        assertNull(properties.getAllValues().get(0).get(IF_NONE_MATCH));
+        assertEquals("W/\"1\"", properties.getAllValues().get(1).get(IF_NONE_MATCH));
+        assertEquals(1, caller.getRevalidationCount());
+        assertEquals(0.5, caller.getRevalidationRate());
+
+        // The revalidated response is fresh again for its max-age
+        when(clock.millis()).thenReturn(120_000L);
+        assertEquals(BODY, caller.callEndpoint(emptyMap(), productUrl));
+        assertEquals(1, caller.getHitCount());
+    }
+
+    @Test
+    public void testChangedResponseReplacesCachedResponse() throws ODataClientException {
+        when(delegate.callEndpointWithHeaders(anyMap(), eq(productUrl)))
+                .thenReturn(response(HTTP_OK, BODY, ETAG, "\"1\""))
+                .thenReturn(response(HTTP_OK, "changed", ETAG, "\"2\""));
+
+        assertEquals(BODY, caller.callEndpoint(emptyMap(), productUrl));
+        assertEquals("changed", caller.callEndpoint(emptyMap(), productUrl));
+
+        assertEquals(2, caller.getMissCount());
+        assertEquals(1, caller.size());
+    }
+
+    @Test
+    public void testResponsesWithoutValidatorsOrNoStoreAreNotCached() throws ODataClientException {
+        when(delegate.callEndpointWithHeaders(anyMap(), eq(productUrl)))
+                .thenReturn(response(HTTP_OK, BODY, CACHE_CONTROL, "no-store, max-age=60"));
+        when(delegate.callEndpointWithHeaders(anyMap(), eq(productsUrl)))
+                .thenReturn(response(HTTP_OK, BODY));
+
+        caller.callEndpoint(emptyMap(), productUrl);
+        caller.callEndpoint(emptyMap(), productsUrl);
+
+        assertEquals(0, caller.size());
+    }
+
+    @Test
+    public void testResponsesAreCachedPerRequestProperties() throws ODataClientException {
+        when(delegate.callEndpointWithHeaders(anyMap(), eq(productUrl)))
+                .thenReturn(response(HTTP_OK, BODY, CACHE_CONTROL, "max-age=60"));
+
+        caller.callEndpoint(singletonMap("Accept", "application/atom+xml"), productUrl);
+        caller.callEndpoint(singletonMap("Accept", "application/json"), productUrl);
+
+        assertEquals(2, caller.size());
+        assertEquals(0, caller.getHitCount());
+    }
+
+    @Test
+    public void testLeastRecentlyUsedResponseIsEvicted() throws ODataClientException, MalformedURLException {
+        caller = new CachingEndpointCaller(delegate, 2, clock);
+        when(delegate.callEndpointWithHeaders(anyMap(), any(URL.class)))
+                .thenReturn(response(HTTP_OK, BODY, CACHE_CONTROL, "max-age=60"));
+        URL first = new URL("http://mock/odata.svc/Products(1)");
+        URL second = new URL("http://mock/odata.svc/Products(2)");
+        URL third = new URL("http://mock/odata.svc/Products(3)");
+
+        caller.callEndpoint(emptyMap(), first);
+        caller.callEndpoint(emptyMap(), second);
+        caller.callEndpoint(emptyMap(), first);
+        caller.callEndpoint(emptyMap(), third);
+        caller.callEndpoint(emptyMap(), first);
+        caller.callEndpoint(emptyMap(), second);
+
+        assertEquals(2, caller.getHitCount());
+        assertEquals(4, caller.getMissCount());
+        assertEquals(2, caller.size());
+    }
+
+    @Test
+    public void testWritesInvalidateEntitySet() throws ODataClientException, MalformedURLException {
+        when(delegate.callEndpointWithHeaders(anyMap(), any(URL.class)))
+                .thenReturn(response(HTTP_OK, BODY, CACHE_CONTROL, "max-age=60"));
+        caller.callEndpoint(emptyMap(), productUrl);
+        caller.callEndpoint(emptyMap(), productsUrl);
+        caller.callEndpoint(emptyMap(), new URL("http://mock/odata.svc/Categories"));
+
+        caller.doPutEntity(emptyMap(), new URL("http://mock/odata.svc/Products('1')"), BODY, MediaType.ATOM_XML);
+
+        assertEquals(1, caller.size());
+    }
+
+    @Test
+    public void testWritesKeepEntitySetsSharingThePrefix() throws ODataClientException, MalformedURLException {
+        when(delegate.callEndpointWithHeaders(anyMap(), any(URL.class)))
+                .thenReturn(response(HTTP_OK, BODY, CACHE_CONTROL, "max-age=60"));
+        caller.callEndpoint(emptyMap(), new URL("http://mock/odata.svc/Customers?$top=10"));
+        caller.callEndpoint(emptyMap(), new URL("http://mock/odata.svc/Customers(1)/Orders"));
+        caller.callEndpoint(emptyMap(), new URL("http://mock/odata.svc/CustomersArchive"));
+        caller.callEndpoint(emptyMap(), new URL("http://mock/odata.svc/CustomersArchive(1)"));
+
+        caller.doPutEntity(emptyMap(), new URL("http://mock/odata.svc/Customers(1)"), BODY, MediaType.ATOM_XML);
+
+        assertEquals(2, caller.size());
+    }
+
+    @Test
+    public void testResponseReadDuringWriteIsNotCached() throws ODataClientException {
+        when(delegate.callEndpointWithHeaders(anyMap(), any(URL.class))).thenAnswer(invocation -> {
+            // The entity is updated while the response with its old state is on its way
+            caller.doPutEntity(emptyMap(), productUrl, BODY, MediaType.ATOM_XML);
+            return response(HTTP_OK, BODY, CACHE_CONTROL, "max-age=60");
+        }).thenReturn(response(HTTP_OK, BODY, CACHE_CONTROL, "max-age=60"));
+
+        caller.callEndpoint(emptyMap(), productsUrl);
+        assertEquals(0, caller.size());
+
+        caller.callEndpoint(emptyMap(), productsUrl);
+        caller.callEndpoint(emptyMap(), productsUrl);
+        assertEquals(1, caller.size());
+        verify(delegate, times(2)).callEndpointWithHeaders(anyMap(), any(URL.class));
+    }
+
+    private static EndpointResponse response(int status, String body, String... headers) {
+        Map<String, String> headerMap = new HashMap<>();
+        for (int i = 0; i < headers.length; i += 2) {
+            headerMap.put(headers[i], headers[i + 1]);
+        }
+        return new EndpointResponse(status, body, headerMap);
+    }
+}
@@ -0,0 +1,229 @@
+/**
+ * Copyright (c) 2014-2024 All Rights Reserved by the RWS Group for and on behalf of its affiliates and subsidiaries.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.sdl.odata.client.caller;
+
+import com.sdl.odata.client.ODataV4ClientComponentsProvider;
+import com.sdl.odata.client.api.exception.ODataClientException;
+import com.sdl.odata.client.api.exception.ODataClientHttpError;
+import com.sdl.odata.client.api.exception.ODataClientNotAuthorized;
+import com.sdl.odata.client.api.exception.ODataClientRuntimeException;
+import com.sdl.odata.client.api.exception.ODataClientTimeout;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Properties;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+import static com.sdl.odata.api.service.MediaType.JSON;
+import static com.sdl.odata.client.ODataClientConstants.WebService.CLIENT_ACCEPT_GZIP;
+import static com.sdl.odata.client.ODataClientConstants.WebService.CLIENT_ENDPOINT_CALLER;
+import static com.sdl.odata.client.ODataClientConstants.WebService.CLIENT_HTTP_VERSION;
+import static com.sdl.odata.client.ODataClientConstants.WebService.CLIENT_SERVICE_URI;
+import static java.net.HttpURLConnection.HTTP_CLIENT_TIMEOUT;
+import static java.net.HttpURLConnection.HTTP_FORBIDDEN;
+import static java.net.HttpURLConnection.HTTP_UNAUTHORIZED;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.Collections.emptyMap;
+import static java.util.Collections.singletonMap;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.http.MediaType.APPLICATION_JSON_VALUE;
+
+/**
+ * Integration test for {@link HttpClientEndpointCaller}.
+ */
+@ExtendWith(SpringExtension.class)
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, classes = TestConfiguration.class)
+@DirtiesContext
+public class HttpClientEndpointCallerTest {
+
+    private static final String RESPONSE = "/response.xml";
+    private final HttpClientEndpointCaller caller = new HttpClientEndpointCaller(new Properties());
+
+    @Value("${local.server.port}")
+    private int port;
+
+    private String basePath;
+
+    @BeforeEach
+    public void init() {
+        basePath = "http://127.0.0.1:" + port;
+    }
+
+    @Test
+    public void callEndpoint() throws ODataClientException, IOException {
+        String response = caller.callEndpoint(singletonMap("Accept", APPLICATION_JSON_VALUE),
+                new URL(basePath + RESPONSE));
+        assertEquals(loadResponse(), response);
+    }
+
+    @Test
+    public void callEndpointWithoutResponse() {
+        assertThrows(ODataClientHttpError.class, () ->
+                caller.callEndpoint(singletonMap("Accept", APPLICATION_JSON_VALUE), new URL(basePath))
+        );
+    }
+
+    @Test
+    public void callEndpointWithGzippedResponse() throws ODataClientException, IOException {
+        String response = caller.callEndpoint(emptyMap(), new URL(basePath + "/gzip" + RESPONSE));
+        assertEquals(loadResponse(), response);
+    }
+
+    @Test
+    public void callEndpointWithoutGzip() {
+        Properties properties = new Properties();
+        properties.setProperty(CLIENT_ACCEPT_GZIP, "false");
+        HttpClientEndpointCaller plainCaller = new HttpClientEndpointCaller(properties);
+
+        assertThrows(ODataClientHttpError.class, () ->
+                plainCaller.callEndpoint(singletonMap("Accept-Encoding", "identity"),
+                        new URL(basePath + "/gzip" + RESPONSE))
+        );
+    }
+
+    @Test
+    public void reusesConnections() throws ODataClientException, MalformedURLException {
+        Properties properties = new Properties();
+        properties.setProperty(CLIENT_HTTP_VERSION, "HTTP_1_1");
+        HttpClientEndpointCaller pooledCaller = new HttpClientEndpointCaller(properties);
+
+        String firstPort = pooledCaller.callEndpoint(emptyMap(), new URL(basePath + "/port"));
+        String secondPort = pooledCaller.callEndpoint(emptyMap(), new URL(basePath + "/port"));
+
+        assertEquals(firstPort, secondPort);
+    }
+
+    @Test
+    public void getInputStream() throws IOException {
+        URL url = new URL(basePath + RESPONSE);
+        try (InputStream stream = caller.getInputStream(singletonMap("Accept", APPLICATION_JSON_VALUE), url)) {
+            assertEquals(loadResponse(), new String(stream.readAllBytes(), UTF_8));
+        }
+    }
+
+    @Test
+    public void getInputStreamWithGzippedResponse() throws IOException {
+        URL url = new URL(basePath + "/gzip" + RESPONSE);
+        try (InputStream stream = caller.getInputStream(emptyMap(), url)) {
+            assertEquals(loadResponse(), new String(stream.readAllBytes(), UTF_8));
+        }
+    }
+
+    @Test
+    public void getInputStreamWithErrorResponse() {
+        assertThrows(ODataClientRuntimeException.class, () ->
+                caller.getInputStream(emptyMap(), buildUrlToCall(HTTP_FORBIDDEN))
+        );
+    }
+
+    @Test
+    public void postEntity() throws ODataClientException, MalformedURLException {
+        String body = "{\"Name\":\"Zoë\"}";
+        assertEquals(body, caller.doPostEntity(new HashMap<>(), new URL(basePath + "/echo"), body, JSON, JSON));
+    }
+
+    @Test
+    public void putEntity() throws ODataClientException, MalformedURLException {
+        String body = "{\"Name\":\"Zoë\"}";
+        assertEquals(body, caller.doPutEntity(Collections.emptyMap(), new URL(basePath + "/echo"), body, JSON));
+    }
+
+    @Test
+    public void unauthorizedPostEntity() {
+        assertThrows(ODataClientNotAuthorized.class, () ->
+                caller.doPostEntity(new HashMap<>(), buildUrlToCall(HTTP_UNAUTHORIZED), "", JSON, JSON)
+        );
+    }
+
+    @Test
+    public void forbiddenPutEntity() {
+        assertThrows(ODataClientHttpError.class, () ->
+                caller.doPutEntity(new HashMap<>(), buildUrlToCall(HTTP_FORBIDDEN), "", JSON)
+        );
+    }
+
+    @Test
+    public void timeoutDeleteEntity() {
+        assertThrows(ODataClientTimeout.class, () ->
+                caller.doDeleteEntity(new HashMap<>(), buildUrlToCall(HTTP_CLIENT_TIMEOUT))
+        );
+    }
+
+    @Test
+    public void unauthorizedGet() {
+        assertThrows(ODataClientNotAuthorized.class, () ->
+                caller.callEndpoint(new HashMap<>(), buildUrlToCall(HTTP_UNAUTHORIZED))
+        );
+    }
+
+    @Test
+    public void callEndpointAsync() throws Exception {
+        String response = caller.callEndpointAsync(emptyMap(), new URL(basePath + RESPONSE)).get();
+        assertEquals(loadResponse(), response);
+    }
+
+    @Test
+    public void unauthorizedGetAsync() throws MalformedURLException {
+        CompletableFuture<String> response = caller.callEndpointAsync(emptyMap(), buildUrlToCall(HTTP_UNAUTHORIZED));
+
+        ExecutionException e = assertThrows(ExecutionException.class, response::get);
+        assertTrue(e.getCause() instanceof ODataClientNotAuthorized);
+    }
+
+    @Test
+    public void invalidHttpVersion() {
+        Properties properties = new Properties();
+        properties.setProperty(CLIENT_HTTP_VERSION, "HTTP_3");
+
+        assertThrows(ODataClientRuntimeException.class, () -> new HttpClientEndpointCaller(properties));
+    }
+
+    @Test
+    public void selectedThroughComponentsProvider() {
+        Properties properties = new Properties();
+        properties.setProperty(CLIENT_SERVICE_URI, basePath);
+        properties.setProperty(CLIENT_ENDPOINT_CALLER, HttpClientEndpointCaller.class.getName());
+
+        ODataV4ClientComponentsProvider provider =
+                new ODataV4ClientComponentsProvider(Collections.emptyList(), properties);
+
+        assertTrue(provider.getEndpointCaller() instanceof HttpClientEndpointCaller);
+    }
+
+    private URL buildUrlToCall(int code) throws MalformedURLException {
+        return new URL(basePath + "/" + code);
+    }
+
+    private static String loadResponse() throws IOException {
+        try (InputStream stream = HttpClientEndpointCallerTest.class.getResourceAsStream(RESPONSE)) {
+            return new String(stream.readAllBytes(), UTF_8);
+        }
+    }
+}
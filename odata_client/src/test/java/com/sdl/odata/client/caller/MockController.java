@@ -15,15 +15,23 @@
  */
 package com.sdl.odata.client.caller;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.zip.GZIPOutputStream;
+import javax.servlet.http.HttpServletRequest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Component;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestMethod;
 
 import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.springframework.util.StreamUtils.copyToByteArray;
 import static org.springframework.util.StreamUtils.copyToString;
 
 /**
@@ -49,4 +57,27 @@ class MockController {
         }
     }
 
+    @RequestMapping(value = "gzip/" + RESPONSE)
+    ResponseEntity<?> respondWithGzippedXML(@RequestHeader(HttpHeaders.ACCEPT_ENCODING) String acceptEncoding)
+            throws IOException {
+        if (!acceptEncoding.contains("gzip")) {
+            return ResponseEntity.badRequest().build();
+        }
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (InputStream stream = getClass().getResourceAsStream("/" + RESPONSE);
+             GZIPOutputStream gzip = new GZIPOutputStream(bytes)) {
+            gzip.write(copyToByteArray(stream));
+        }
+        return ResponseEntity.ok().header(HttpHeaders.CONTENT_ENCODING, "gzip").body(bytes.toByteArray());
+    }
+
+    @RequestMapping(value = "port")
+    ResponseEntity<?> respondWithClientPort(HttpServletRequest request) {
+        return ResponseEntity.ok().body(String.valueOf(request.getRemotePort()));
+    }
+
+    @RequestMapping(value = "echo", method = {RequestMethod.POST, RequestMethod.PUT})
+    ResponseEntity<?> respondWithRequestBody(@RequestBody String body) {
+        return ResponseEntity.ok().body(body);
+    }
 }
@@ -0,0 +1,89 @@
+/**
+ * Copyright (c) 2014-2024 All Rights Reserved by the RWS Group for and on behalf of its affiliates and subsidiaries.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.sdl.odata.client.marshall;
+
+import com.sdl.odata.api.edm.ODataEdmException;
+import com.sdl.odata.api.edm.model.EntityDataModel;
+import com.sdl.odata.test.model.Category;
+import com.sdl.odata.test.model.Product;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static com.sdl.odata.test.util.TestUtils.getEdmEntityClasses;
+import static java.util.Arrays.asList;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Unit test for {@link EntityDataModelCache}.
+ */
+public class EntityDataModelCacheTest {
+
+    @Test
+    public void testSameClassesShareModel() throws ODataEdmException {
+        List<Class<?>> reversedClasses = new ArrayList<>();
+        getEdmEntityClasses().forEach(reversedClasses::add);
+        Collections.reverse(reversedClasses);
+
+        EntityDataModel model = EntityDataModelCache.getEntityDataModel(getEdmEntityClasses());
+
+        assertNotNull(model);
+        assertSame(model, EntityDataModelCache.getEntityDataModel(getEdmEntityClasses()));
+        assertSame(model, EntityDataModelCache.getEntityDataModel(reversedClasses));
+    }
+
+    @Test
+    public void testDifferentClassesHaveOwnModel() throws ODataEdmException {
+        EntityDataModel model = EntityDataModelCache.getEntityDataModel(getEdmEntityClasses());
+
+        assertNotSame(model, EntityDataModelCache.getEntityDataModel(asList(Product.class, Category.class)));
+    }
+
+    @Test
+    public void testConcurrentBuildsShareModel() throws Exception {
+        int threads = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<EntityDataModel>> models = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                models.add(executor.submit(() -> {
+                    start.await();
+                    return EntityDataModelCache.getEntityDataModel(asList(Product.class, Category.class));
+                }));
+            }
+            start.countDown();
+
+            EntityDataModel model = models.get(0).get(10, TimeUnit.SECONDS);
+            for (Future<EntityDataModel> other : models) {
+                assertSame(model, other.get(10, TimeUnit.SECONDS));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+    }
+}
@@ -0,0 +1,175 @@
+/**
+ * Copyright (c) 2014-2024 All Rights Reserved by the RWS Group for and on behalf of its affiliates and subsidiaries.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.sdl.odata.client.marshall;
+
+import com.sdl.odata.client.BasicODataClientQuery;
+import com.sdl.odata.client.FunctionImportClientQuery;
+import com.sdl.odata.client.api.exception.ODataClientException;
+import com.sdl.odata.client.api.exception.ODataClientParserException;
+import com.sdl.odata.client.api.marshall.ODataEntityMarshaller;
+import com.sdl.odata.client.api.marshall.ODataEntityUnmarshaller;
+import com.sdl.odata.test.model.Product;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.sdl.odata.test.model.Category.BOOKS;
+import static com.sdl.odata.test.model.Category.ELECTRONICS;
+import static com.sdl.odata.test.util.TestUtils.getEdmEntityClasses;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.Arrays.asList;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Unit test for {@link JsonEntityUnmarshaller}.
+ */
+public class JsonEntityUnmarshallerTest {
+
+    private static final Logger LOG = LoggerFactory.getLogger(JsonEntityUnmarshallerTest.class);
+
+    private static final String ODATA_SERVICE_MOCK_URL = "http://mock.com/odata.svc";
+    private static final int FEED_SIZE = 1000;
+    private static final int DECODE_ROUNDS = 20;
+
+    private final BasicODataClientQuery productQuery = new BasicODataClientQuery.Builder()
+            .withEntityType(Product.class)
+            .build();
+
+    private ODataEntityMarshaller marshaller;
+    private ODataEntityUnmarshaller unmarshaller;
+
+    @BeforeEach
+    public void setup() {
+        marshaller = new JsonEntityMarshaller(getEdmEntityClasses(), ODATA_SERVICE_MOCK_URL);
+        unmarshaller = new JsonEntityUnmarshaller(getEdmEntityClasses());
+    }
+
+    @Test
+    public void testUnmarshallEntity() throws ODataClientException {
+        Product product = new Product().setId(11).setName("The Lord of the Rings").setCategory(BOOKS);
+
+        String marshalledEntity = marshaller.marshallEntity(product, productQuery);
+
+        assertEquals(product, unmarshaller.unmarshallEntity(marshalledEntity, productQuery));
+    }
+
+    @Test
+    public void testUnmarshallEntities() throws ODataClientException {
+        List<Product> products = asList(
+                new Product().setId(11).setName("The Lord of the Rings").setCategory(BOOKS),
+                new Product().setId(12).setName("Phone").setCategory(ELECTRONICS));
+
+        String marshalledEntities = marshaller.marshallEntities(products, productQuery);
+
+        assertEquals(products, unmarshaller.unmarshall(marshalledEntities, productQuery));
+    }
+
+    @Test
+    public void testUnmarshallSkipsAnnotationsAndUnknownProperties() throws ODataClientException {
+        String response = "{\"@odata.context\":\"http://mock.com/odata.svc/$metadata#Products\"," +
+                "\"@odata.nextLink\":\"http://mock.com/odata.svc/Products?$skiptoken=2\"," +
+                "\"value\":[" +
+                "{\"@odata.id\":\"Products(11)\",\"id\":11,\"name\":\"Book\",\"category\":\"BOOKS\"," +
+                "\"unknown\":{\"nested\":[1,2,{\"deep\":true}]}}," +
+                "{\"id\":12,\"name@odata.type\":\"#String\",\"name\":\"Phone\",\"category\":null}]}";
+
+        List<?> products = unmarshaller.unmarshall(response, productQuery);
+
+        assertEquals(asList(
+                new Product().setId(11).setName("Book").setCategory(BOOKS),
+                new Product().setId(12).setName("Phone")), products);
+    }
+
+    @Test
+    public void testUnmarshallEmptyFeed() throws ODataClientException {
+        String response = "{\"@odata.context\":\"http://mock.com/odata.svc/$metadata#Products\",\"value\":[]}";
+
+        assertTrue(unmarshaller.unmarshall(response, productQuery).isEmpty());
+    }
+
+    @Test
+    public void testUnmarshallPrimitiveValue() throws ODataClientException {
+        String response = "{\"@odata.context\":\"http://mock.com/odata.svc/$metadata#Edm.String\"," +
+                "\"value\":\"This is ComponentPresentation content.\"}";
+        Object result = unmarshaller.unmarshallEntity(response, new FunctionImportClientQuery.Builder()
+                .withEntityType(String.class)
+                .withFunctionName("SomeFakeFunction")
+                .build());
+
+        assertEquals("This is ComponentPresentation content.", result);
+    }
+
+    @Test
+    public void testUnmarshallPrimitiveCollection() throws ODataClientException {
+        String response = "{\"@odata.context\":\"http://mock.com/odata.svc/$metadata#Collection(Edm.String)\"," +
+                "\"value\":[\"test1\",\"test2\",\"test3\"]}";
+        Object result = unmarshaller.unmarshallEntity(response,
+                new BasicODataClientQuery.Builder().withEntityType(List.class).build());
+
+        assertEquals(asList("test1", "test2", "test3"), result);
+    }
+
+    @Test
+    public void testCompareWithAtom() throws ODataClientException {
+        List<Product> products = new ArrayList<>(FEED_SIZE);
+        for (int i = 0; i < FEED_SIZE; i++) {
+            products.add(new Product().setId(i).setName("Product " + i).setCategory(i % 2 == 0 ? BOOKS : ELECTRONICS));
+        }
+        String json = marshaller.marshallEntities(products, productQuery);
+        String atom = new AtomEntityMarshaller(getEdmEntityClasses(), ODATA_SERVICE_MOCK_URL)
+                .marshallEntities(products, productQuery);
+        ODataEntityUnmarshaller atomUnmarshaller =
+                new AtomEntityUnmarshaller(getEdmEntityClasses(), ODATA_SERVICE_MOCK_URL);
+
+        assertEquals(products, unmarshaller.unmarshall(json, productQuery));
+        assertEquals(products, atomUnmarshaller.unmarshall(atom, productQuery));
+
+        long jsonNanos = decodeNanos(unmarshaller, json);
+        long atomNanos = decodeNanos(atomUnmarshaller, atom);
+        int jsonBytes = json.getBytes(UTF_8).length;
+        int atomBytes = atom.getBytes(UTF_8).length;
+        LOG.info("Feed of {} entities: JSON is {} bytes decoded in {} us, Atom is {} bytes decoded in {} us",
+                FEED_SIZE, jsonBytes, jsonNanos / 1000, atomBytes, atomNanos / 1000);
+
+        // Decode times depend on the machine and are only reported; the payload sizes do not
+        assertTrue(jsonBytes < atomBytes, "JSON payload of " + jsonBytes + " bytes is not smaller than the Atom " +
+                "payload of " + atomBytes + " bytes");
+    }
+
+    // The fastest of several rounds, so that the first rounds can warm up the code
+    private long decodeNanos(ODataEntityUnmarshaller entityUnmarshaller, String response)
+            throws ODataClientException {
+        long fastest = Long.MAX_VALUE;
+        for (int i = 0; i < DECODE_ROUNDS; i++) {
+            long start = System.nanoTime();
+            entityUnmarshaller.unmarshall(response, productQuery);
+            fastest = Math.min(fastest, System.nanoTime() - start);
+        }
+        return fastest;
+    }
+
+    @Test
+    public void testUnmarshallInvalidResponse() {
+        assertThrows(ODataClientParserException.class,
+                () -> unmarshaller.unmarshall("unmarshalling response", productQuery));
+    }
+}
@@ -20,7 +20,9 @@ import org.junit.jupiter.api.Test;
 import java.util.Properties;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 /**
  * Unit test for {@link PropertyUtils} class.
@@ -45,6 +47,14 @@ public class PropertyUtilsTest {
         assertNull(PropertyUtils.getIntegerProperty(new Properties(), PROPERTY_NAME));
     }
 
+    @Test
+    public void testGetBooleanProperty() {
+        Properties properties = new Properties();
+        properties.setProperty(PROPERTY_NAME, "false");
+        assertFalse(PropertyUtils.getBooleanProperty(properties, PROPERTY_NAME, true));
+        assertTrue(PropertyUtils.getBooleanProperty(new Properties(), PROPERTY_NAME, true));
+    }
+
     @Test
     public void testGetStringProperty() {
         Properties properties = new Properties();
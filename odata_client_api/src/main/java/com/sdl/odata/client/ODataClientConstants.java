@@ -50,6 +50,36 @@ public final class ODataClientConstants {
          * Client default connection retries.
          */
         public static final int CLIENT_CONNECTION_MAX_RETRIES_DEFAULT = 10;
+
+        /**
+         * Client default HTTP version of the pooled endpoint caller.
+         */
+        public static final String CLIENT_HTTP_VERSION_DEFAULT = "HTTP_2";
+
+        /**
+         * Client default for accepting gzip compressed responses in the pooled endpoint caller.
+         */
+        public static final boolean CLIENT_ACCEPT_GZIP_DEFAULT = true;
+
+        /**
+         * Client default maximum number of concurrent calls of an asynchronous client.
+         */
+        public static final int CLIENT_MAX_CONCURRENT_REQUESTS_DEFAULT = 256;
+
+        /**
+         * Client default time window in milliseconds in which entity lookups are coalesced into a single batch.
+         */
+        public static final int CLIENT_BATCH_WINDOW_DEFAULT = 10;
+
+        /**
+         * Client default maximum number of entity lookups which are coalesced into a single batch.
+         */
+        public static final int CLIENT_MAX_BATCH_SIZE_DEFAULT = 100;
+
+        /**
+         * Client default maximum number of coalesced batches which are sent at the same time.
+         */
+        public static final int CLIENT_MAX_CONCURRENT_BATCHES_DEFAULT = 8;
     }
 
     /**
@@ -84,6 +114,28 @@ public final class ODataClientConstants {
          * Web service maximum connection retry count property.
          */
         public static final String CLIENT_CONNECTION_MAX_RETRIES = "ConnectionMaxRetries";
+
+        /**
+         * Fully qualified class name of the endpoint caller to use property. The class must have a public constructor
+         * taking the client properties.
+         */
+        public static final String CLIENT_ENDPOINT_CALLER = "EndpointCaller";
+
+        /**
+         * HTTP version (HTTP_1_1 or HTTP_2) of the pooled endpoint caller property.
+         */
+        public static final String CLIENT_HTTP_VERSION = "HttpVersion";
+
+        /**
+         * Whether the pooled endpoint caller accepts gzip compressed responses property.
+         */
+        public static final String CLIENT_ACCEPT_GZIP = "AcceptGzip";
+
+        /**
+         * Maximum number of GET responses cached by the endpoint caller property. Responses are not cached if it is
+         * not set or not positive.
+         */
+        public static final String CLIENT_RESPONSE_CACHE_SIZE = "ResponseCacheSize";
     }
 
     /**
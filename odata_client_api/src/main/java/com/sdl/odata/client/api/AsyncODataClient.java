@@ -0,0 +1,105 @@
+/**
+ * Copyright (c) 2014-2024 All Rights Reserved by the RWS Group for and on behalf of its affiliates and subsidiaries.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.sdl.odata.client.api;
+
+import com.sdl.odata.client.api.model.ODataIdAwareEntity;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * <p>
+ * Non-blocking counterpart of {@link ODataClient}. Every call returns immediately with a future of its result, so a
+ * single thread can drive many concurrent calls to the OData service.
+ * </p>
+ * <p>
+ * The futures complete exceptionally with the exception the corresponding {@link ODataClient} method would have
+ * thrown, or with {@link com.sdl.odata.client.api.exception.ODataClientTimeout} if the call does not complete in
+ * time.
+ * </p>
+ */
+public interface AsyncODataClient {
+
+    /**
+     * Configure the 'OData Client' by using the given 'OData Components Provider'. Its endpoint caller must be an
+     * {@link com.sdl.odata.client.api.caller.AsyncEndpointCaller}.
+     *
+     * @param clientComponentsProvider The given 'OData Components Provider'.
+     */
+    void configure(ODataClientComponentsProvider clientComponentsProvider);
+
+    /**
+     * Enables/Disables URL encoding for API calls. URLEncoding to be enabled by default.
+     *
+     * @param encode whether URLs are encoded
+     */
+    void encodeURL(boolean encode);
+
+    /**
+     * Gets the specific entity.
+     *
+     * @param requestProperties request related properties
+     * @param query ODataClientQuery
+     * @return future of the target entity
+     */
+    CompletableFuture<Object> getEntity(Map<String, String> requestProperties, ODataClientQuery query);
+
+    /**
+     * Gets all possible entities of a specific entity.
+     *
+     * @param requestProperties request related properties
+     * @param query ODataClientQuery
+     * @return future of the collection of entities
+     */
+    CompletableFuture<List<?>> getEntities(Map<String, String> requestProperties, ODataClientQuery query);
+
+    /**
+     * Performs an action execution and retrieves the result back.
+     *
+     * @param requestProperties request related properties
+     * @param query ODataClientQuery
+     * @return future of the executed action result
+     */
+    CompletableFuture<Object> performAction(Map<String, String> requestProperties, ODataActionClientQuery query);
+
+    /**
+     * Create an entity using POST request to a service.
+     *
+     * @param requestProperties request related properties
+     * @param entity    entity to save
+     * @return future of the created entity
+     */
+    CompletableFuture<Object> createEntity(Map<String, String> requestProperties, Object entity);
+
+    /**
+     * Update an existing entity using PUT request to a service.
+     *
+     * @param requestProperties request related properties
+     * @param entity    entity to update
+     * @return future of the updated entity
+     */
+    CompletableFuture<Object> updateEntity(Map<String, String> requestProperties, ODataIdAwareEntity entity);
+
+    /**
+     * Delete an existing entity using DELETE request to a service.
+     *
+     * @param requestProperties request related properties
+     * @param entity entity to delete
+     * @return future which completes when the entity is deleted
+     */
+    CompletableFuture<Void> deleteEntity(Map<String, String> requestProperties, ODataIdAwareEntity entity);
+}
@@ -22,6 +22,7 @@ import java.io.InputStream;
 import java.net.URL;
 import java.util.List;
 import java.util.Map;
+import java.util.stream.Stream;
 
 /**
  * <p>
@@ -70,6 +71,25 @@ public interface ODataClient {
      */
     List<?> getEntities(Map<String, String> requestProperties, ODataClientQuery query);
 
+    /**
+     * Streams all possible entities of a specific entity. Unlike {@link #getEntities(Map, ODataClientQuery)} the
+     * entities are unmarshalled one at a time while the stream is consumed, and further pages are requested when the
+     * service returns a link to the next page, so at most a single page is held in memory.
+     * <p>
+     * The stream holds the connection to the service until all entities are consumed, so it should be closed after
+     * use, for example with a try-with-resources statement.
+     * <p>
+     * The default implementation can not read the response page by page: it streams the entities which are returned
+     * by {@link #getEntities(Map, ODataClientQuery)}. Clients which can read the response as it arrives override it.
+     *
+     * @param requestProperties request related properties
+     * @param query ODataClientQuery
+     * @return stream of entities
+     */
+    default Stream<?> streamEntities(Map<String, String> requestProperties, ODataClientQuery query) {
+        return getEntities(requestProperties, query).stream();
+    }
+
     /**
      * Performs an action execution and retrieves the result back.
      *
@@ -0,0 +1,73 @@
+/**
+ * Copyright (c) 2014-2024 All Rights Reserved by the RWS Group for and on behalf of its affiliates and subsidiaries.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.sdl.odata.client.api.caller;
+
+import com.sdl.odata.api.service.MediaType;
+
+import java.net.URL;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * An {@link EndpointCaller} which can also call the provided URL without blocking the calling thread. The returned
+ * futures complete with the response, or complete exceptionally with the exception the blocking method of the
+ * {@link EndpointCaller} would have thrown.
+ */
+public interface AsyncEndpointCaller extends EndpointCaller {
+
+    /**
+     * Performs the call endpoint for the given url without blocking.
+     *
+     * @param requestProperties request properties
+     * @param urlToCall url to call
+     * @return future of the response
+     */
+    CompletableFuture<String> callEndpointAsync(Map<String, String> requestProperties, URL urlToCall);
+
+    /**
+     * Post an entity to OData web service without blocking.
+     *
+     * @param requestProperties request properties
+     * @param urlToCall The url to call
+     * @param body The body to post
+     * @param contentType content type
+     * @param acceptType accept media type
+     * @return future of the response
+     */
+    CompletableFuture<String> doPostEntityAsync(Map<String, String> requestProperties, URL urlToCall, String body,
+                                                MediaType contentType, MediaType acceptType);
+
+    /**
+     * Put an entity to OData web service without blocking.
+     *
+     * @param requestProperties request properties
+     * @param urlToCall The url to call
+     * @param body The body to put
+     * @param type media type
+     * @return future of the response
+     */
+    CompletableFuture<String> doPutEntityAsync(Map<String, String> requestProperties, URL urlToCall, String body,
+                                               MediaType type);
+
+    /**
+     * Delete an entity from OData web service without blocking.
+     *
+     * @param requestProperties request properties
+     * @param urlToCall The url of the entity.
+     * @return future which completes when the entity is deleted
+     */
+    CompletableFuture<Void> doDeleteEntityAsync(Map<String, String> requestProperties, URL urlToCall);
+}
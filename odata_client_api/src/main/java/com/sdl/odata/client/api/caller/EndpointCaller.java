@@ -19,7 +19,9 @@ import com.sdl.odata.api.service.MediaType;
 import com.sdl.odata.client.api.exception.ODataClientException;
 
 import java.io.InputStream;
+import java.net.HttpURLConnection;
 import java.net.URL;
+import java.util.Collections;
 import java.util.Map;
 
 /**
@@ -37,6 +39,23 @@ public interface EndpointCaller {
      */
     String callEndpoint(Map<String, String> requestProperties, URL urlToCall) throws ODataClientException;
 
+    /**
+     * Performs the call endpoint for the given url like {@link #callEndpoint(Map, URL)}, but returns the status and
+     * headers of the response along with its body. A {@code 304 Not Modified} response to a conditional request is
+     * returned instead of failing. The default implementation returns the body of {@link #callEndpoint(Map, URL)}
+     * as a {@code 200 OK} response without headers.
+     *
+     * @param requestProperties request properties
+     * @param urlToCall url to call
+     * @return response
+     * @throws ODataClientException
+     */
+    default EndpointResponse callEndpointWithHeaders(Map<String, String> requestProperties, URL urlToCall)
+            throws ODataClientException {
+        return new EndpointResponse(HttpURLConnection.HTTP_OK, callEndpoint(requestProperties, urlToCall),
+                Collections.emptyMap());
+    }
+
     /**
      * Get input stream with applied OData settings (proxy connection, OAuth, timeout settings).
      *
@@ -0,0 +1,67 @@
+/**
+ * Copyright (c) 2014-2024 All Rights Reserved by the RWS Group for and on behalf of its affiliates and subsidiaries.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.sdl.odata.client.api.caller;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * The response of a call to the OData service: its status code, headers and body.
+ */
+public final class EndpointResponse {
+
+    private final int status;
+    private final String body;
+    private final Map<String, String> headers;
+
+    /**
+     * Creates a response.
+     *
+     * @param status  The HTTP status code.
+     * @param body    The body, which is empty if the response has no content.
+     * @param headers The headers; multiple values of a header are joined with commas.
+     */
+    public EndpointResponse(int status, String body, Map<String, String> headers) {
+        this.status = status;
+        this.body = body == null ? "" : body;
+        Map<String, String> caseInsensitiveHeaders = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        caseInsensitiveHeaders.putAll(headers);
+        this.headers = Collections.unmodifiableMap(caseInsensitiveHeaders);
+    }
+
+    public int getStatus() {
+        return status;
+    }
+
+    public String getBody() {
+        return body;
+    }
+
+    /**
+     * Gets a header of the response.
+     *
+     * @param name The name of the header, in any case.
+     * @return The value of the header, or {@code null} if the response does not have it.
+     */
+    public String getHeader(String name) {
+        return headers.get(name);
+    }
+
+    public Map<String, String> getHeaders() {
+        return headers;
+    }
+}
@@ -15,6 +15,7 @@
  */
 package com.sdl.odata.client.api.marshall;
 
+import com.sdl.odata.api.service.MediaType;
 import com.sdl.odata.client.api.ODataClientQuery;
 import com.sdl.odata.client.api.exception.ODataClientException;
 
@@ -46,4 +47,13 @@ public interface ODataEntityMarshaller {
      * @throws ODataClientException
      */
     String marshallEntities(List<?> oDataEntities, ODataClientQuery query) throws ODataClientException;
+
+    /**
+     * Returns the media type of the marshalled entities, which is sent as the content type of the request.
+     *
+     * @return the media type, or {@code null} for the default Atom format
+     */
+    default MediaType getMediaType() {
+        return null;
+    }
 }
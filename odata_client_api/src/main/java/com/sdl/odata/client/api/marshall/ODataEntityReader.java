@@ -0,0 +1,71 @@
+/**
+ * Copyright (c) 2014-2024 All Rights Reserved by the RWS Group for and on behalf of its affiliates and subsidiaries.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.sdl.odata.client.api.marshall;
+
+import com.sdl.odata.client.api.exception.ODataClientException;
+
+import java.io.Closeable;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Reads the entities of a single page of an OData Service Response one at a time, so that entities which have been
+ * read do not need to be kept in memory while the rest of the response is read.
+ */
+public interface ODataEntityReader extends Closeable {
+
+    /**
+     * Reads the next entity of the response.
+     *
+     * @return the next OData entity, or {@code null} if there are no more entities in the response
+     * @throws ODataClientException if the response cannot be read
+     */
+    Object nextEntity() throws ODataClientException;
+
+    /**
+     * Gets the link to the next page of the entities, which the OData service returns when it pages its responses.
+     * The link may follow the entities in the response, so it is only known after all entities have been read.
+     *
+     * @return the link to the next page, or {@code null} if this is the last page
+     */
+    String getNextLink();
+
+    /**
+     * Creates a reader over entities which have already been unmarshalled.
+     *
+     * @param entities the OData entities
+     * @return the reader, which returns the given entities and has no next page
+     */
+    static ODataEntityReader of(List<?> entities) {
+        Iterator<?> iterator = entities.iterator();
+        return new ODataEntityReader() {
+            @Override
+            public Object nextEntity() {
+                return iterator.hasNext() ? iterator.next() : null;
+            }
+
+            @Override
+            public String getNextLink() {
+                return null;
+            }
+
+            @Override
+            public void close() {
+                // nothing to release
+            }
+        };
+    }
+}
@@ -15,11 +15,16 @@
  */
 package com.sdl.odata.client.api.marshall;
 
+import com.sdl.odata.api.service.MediaType;
 import com.sdl.odata.client.api.ODataClientQuery;
 import com.sdl.odata.client.api.exception.ODataClientException;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
 
+import static java.nio.charset.StandardCharsets.UTF_8;
+
 /**
  * A class which can unmarshall an Odata Service Response back to it's original Entity object.
  */
@@ -40,4 +45,33 @@ public interface ODataEntityUnmarshaller {
      * @throws ODataClientException a client exception
      */
    List<?> unmarshall(String odataServiceResponse, ODataClientQuery query) throws ODataClientException;
+
+    /**
+     * Opens a response (which contains a collection of entities) for reading its entities one at a time. By default
+     * the whole response is read and unmarshalled at once; unmarshallers which can read the entities incrementally
+     * should override this.
+     * @param odataServiceResponse a response stream which contains a collection of OData entities; the stream is not
+     *                             closed by the returned reader
+     * @param query the query the response belongs to
+     * @return the reader for the entities, which must be closed after use
+     * @throws ODataClientException a client exception
+     */
+    default ODataEntityReader unmarshallStream(InputStream odataServiceResponse, ODataClientQuery query)
+            throws ODataClientException {
+        String response;
+        try {
+            response = new String(odataServiceResponse.readAllBytes(), UTF_8);
+        } catch (IOException e) {
+            throw new ODataClientException("Unable to read OData service response", e);
+        }
+        return ODataEntityReader.of(response.isEmpty() ? List.of() : unmarshall(response, query));
+    }
+
+    /**
+     * Returns the media type of the responses this unmarshaller can read, which is requested from the OData service.
+     * @return the media type, or {@code null} for the default Atom format
+     */
+    default MediaType getMediaType() {
+        return null;
+    }
 }
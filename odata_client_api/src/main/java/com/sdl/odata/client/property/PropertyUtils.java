@@ -58,6 +58,19 @@ public final class PropertyUtils {
         return property == null ? defaultValue : property;
     }
 
+    /**
+     * Get a boolean property from the properties.
+     *
+     * @param properties   the provided properties
+     * @param key          the key of the property
+     * @param defaultValue the value if the property is not set
+     * @return the boolean property
+     */
+    public static boolean getBooleanProperty(Properties properties, String key, boolean defaultValue) {
+        String property = getStringProperty(properties, key);
+        return property == null ? defaultValue : Boolean.parseBoolean(property.trim());
+    }
+
     /**
      * Get a string property from the properties.
      *
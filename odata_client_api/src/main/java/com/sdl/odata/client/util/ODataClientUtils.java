@@ -84,6 +84,24 @@ public final class ODataClientUtils {
         return properties;
     }
 
+    /**
+     * Returns the accept type to populate the request properties with, unless they already specify one.
+     *
+     * @param requestProperties request properties, may be null
+     * @param acceptType        the accept type to use if the request properties do not specify one
+     * @return the accept type, or {@code null} if the request properties already contain an accept header
+     */
+    public static MediaType defaultAcceptType(Map<String, String> requestProperties, MediaType acceptType) {
+        if (requestProperties != null) {
+            for (String name : requestProperties.keySet()) {
+                if (HeaderNames.ACCEPT.equalsIgnoreCase(name)) {
+                    return null;
+                }
+            }
+        }
+        return acceptType;
+    }
+
     public static ODataClientRuntimeException buildException(String errorMessage, int responseCode) {
         if (responseCode == HttpURLConnection.HTTP_CLIENT_TIMEOUT) {
             return new ODataClientTimeout(errorMessage);
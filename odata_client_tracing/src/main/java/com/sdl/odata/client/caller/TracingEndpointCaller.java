@@ -23,8 +23,10 @@ import com.sdl.odata.api.service.HeaderNames;
 import com.sdl.odata.api.service.MediaType;
 import com.sdl.odata.api.service.ODataRequest;
 import com.sdl.odata.client.api.caller.EndpointCaller;
+import com.sdl.odata.client.api.caller.EndpointResponse;
 import com.sdl.odata.client.api.exception.ODataClientException;
 import com.sdl.odata.client.api.exception.ODataClientRuntimeException;
+import org.apache.http.Header;
 import org.apache.http.HttpHost;
 import org.apache.http.client.config.RequestConfig;
 import org.apache.http.client.methods.CloseableHttpResponse;
@@ -44,6 +46,7 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.net.URISyntaxException;
 import java.net.URL;
+import java.util.HashMap;
 import java.util.Map;
 import java.util.Properties;
 
@@ -58,6 +61,7 @@ import static com.sdl.odata.client.property.PropertyUtils.getIntegerProperty;
 import static com.sdl.odata.client.property.PropertyUtils.getStringProperty;
 import static com.sdl.odata.client.util.ODataClientUtils.buildException;
 import static com.sdl.odata.client.util.ODataClientUtils.closeIfNecessary;
+import static com.sdl.odata.client.util.ODataClientUtils.defaultAcceptType;
 import static com.sdl.odata.client.util.ODataClientUtils.populateRequestProperties;
 import static java.net.HttpURLConnection.HTTP_BAD_REQUEST;
 import static org.apache.http.util.TextUtils.isBlank;
@@ -126,21 +130,35 @@ public class TracingEndpointCaller implements EndpointCaller {
 
     @Override
     public String callEndpoint(Map<String, String> requestProperties, URL url) throws ODataClientException {
+        return callEndpointWithHeaders(requestProperties, url).getBody();
+    }
+
+    @Override
+    public EndpointResponse callEndpointWithHeaders(Map<String, String> requestProperties, URL url)
+            throws ODataClientException {
         LOG.debug("Preparing the call endpoint for given url: {}", url);
 
         CloseableHttpResponse closeableResponse = null;
         try {
             RequestBuilder requestBuilder = RequestBuilder.get()
                     .setUri(url.toURI());
-            getRequestHeaders(requestProperties, -1, null, XML).entrySet().stream()
+            getRequestHeaders(requestProperties, -1, null, defaultAcceptType(requestProperties, XML))
+                    .entrySet().stream()
                     .forEach(entry -> requestBuilder.addHeader(entry.getKey(), entry.getValue()));
             closeableResponse = closeableHttpClient.execute(requestBuilder.build());
-            String response = EntityUtils.toString(closeableResponse.getEntity(), "UTF-8");
+            // A 304 Not Modified response has no entity
+            String response = closeableResponse.getEntity() == null ? "" :
+                    EntityUtils.toString(closeableResponse.getEntity(), "UTF-8");
 
-            if (closeableResponse.getStatusLine().getStatusCode() >= HTTP_BAD_REQUEST) {
-                throw buildException(response, closeableResponse.getStatusLine().getStatusCode());
+            int statusCode = closeableResponse.getStatusLine().getStatusCode();
+            if (statusCode >= HTTP_BAD_REQUEST) {
+                throw buildException(response, statusCode);
             }
-            return response;
+            Map<String, String> headers = new HashMap<>();
+            for (Header header : closeableResponse.getAllHeaders()) {
+                headers.merge(header.getName(), header.getValue(), (first, second) -> first + ", " + second);
+            }
+            return new EndpointResponse(statusCode, response, headers);
         } catch (URISyntaxException e) {
             throw new ODataClientException(WRONG_URL_MESSAGE, e);
         } catch (IOException e) {
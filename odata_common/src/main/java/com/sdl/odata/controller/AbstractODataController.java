@@ -16,6 +16,7 @@
 package com.sdl.odata.controller;
 
 import com.sdl.odata.api.ODataException;
+import com.sdl.odata.api.ODataRequestTimeoutException;
 import com.sdl.odata.api.service.ODataRequest;
 import com.sdl.odata.api.service.ODataResponse;
 import com.sdl.odata.api.service.ODataService;
@@ -24,16 +25,17 @@ import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.web.bind.annotation.RequestMapping;
 
+import javax.servlet.AsyncContext;
 import javax.servlet.ServletException;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
-import java.io.InputStream;
 import java.io.OutputStream;
 import java.io.UnsupportedEncodingException;
 import java.util.Enumeration;
 import java.util.Map;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeoutException;
 
 import static com.sdl.odata.util.ReferenceUtil.isNullOrEmpty;
 import static java.nio.charset.StandardCharsets.UTF_8;
@@ -49,7 +51,6 @@ import static org.springframework.web.bind.annotation.RequestMethod.PUT;
 public abstract class AbstractODataController {
     private static final Logger LOG = LoggerFactory.getLogger(AbstractODataController.class);
 
-    private static final int BUFFER_SIZE = 1024;
     private static final int DEFAULT_PORT_NUMBER = 80;
     private static final int DEFAULT_SSL_PORT_NUMBER = 443;
 
@@ -69,6 +70,10 @@ public abstract class AbstractODataController {
         try {
             ODataRequest oDataRequest = buildODataRequest(servletRequest);
             doWireLogging(oDataRequest);
+            if (servletRequest.isAsyncSupported()) {
+                serviceAsync(oDataRequest, servletRequest);
+                return;
+            }
             oDataResponse = oDataService.handleRequest(oDataRequest);
             fillServletResponse(oDataResponse, servletResponse);
         } catch (ODataException e) {
@@ -80,6 +85,67 @@ public abstract class AbstractODataController {
         }
     }
 
+    /**
+     * Hands the request over to the service and releases the container thread. The service completes its response on
+     * one of its own threads, such as an actor dispatcher thread, which must not be held up by writing to a slow
+     * client. So the response is written and the asynchronous context completed on a container thread, through
+     * {@link AsyncContext#start}. Request deadlines are enforced by the service, so the container's own async timeout
+     * is disabled.
+     * <p>
+     * Failures are rendered as OData errors by the service itself, exactly as for the synchronous path. Only when
+     * even that fails is a bare error status sent: 503 (service unavailable) for a timeout, 500 otherwise.
+     *
+     * @param oDataRequest   The {@code ODataRequest} to handle.
+     * @param servletRequest The {@code HttpServletRequest} to put in asynchronous mode.
+     */
+    private void serviceAsync(ODataRequest oDataRequest, HttpServletRequest servletRequest) {
+        AsyncContext asyncContext = servletRequest.startAsync();
+        asyncContext.setTimeout(0);
+        String remoteAddr = servletRequest.getRemoteAddr();
+
+        oDataService.handleRequestAsync(oDataRequest).whenComplete((oDataResponse, error) ->
+                asyncContext.start(() -> writeAsyncResponse(asyncContext, remoteAddr, oDataResponse, error)));
+    }
+
+    private void writeAsyncResponse(AsyncContext asyncContext, String remoteAddr, ODataResponse oDataResponse,
+                                    Throwable error) {
+        HttpServletResponse servletResponse = (HttpServletResponse) asyncContext.getResponse();
+        try {
+            if (error == null) {
+                fillServletResponse(oDataResponse, servletResponse);
+            } else {
+                Throwable cause = error instanceof CompletionException ? error.getCause() : error;
+                LOG.error("Error while processing request from: " + remoteAddr, cause);
+                if (!servletResponse.isCommitted()) {
+                    servletResponse.sendError(getErrorStatus(cause));
+                }
+            }
+        } catch (IOException | ODataException | RuntimeException e) {
+            LOG.error("Error while writing response for request from: " + remoteAddr, e);
+        } finally {
+            asyncContext.complete();
+        }
+
+        if (LOG.isTraceEnabled()) {
+            LOG.trace("Finished processing request from: {}", remoteAddr);
+        }
+    }
+
+    /**
+     * Determines the status for a request which could not be answered with a rendered error response.
+     *
+     * @param cause The failure of the service response.
+     * @return 503 (service unavailable) when the request timed out, 500 (internal server error) otherwise.
+     */
+    private static int getErrorStatus(Throwable cause) {
+        for (Throwable t = cause; t != null; t = t.getCause()) {
+            if (t instanceof TimeoutException || t instanceof ODataRequestTimeoutException) {
+                return HttpServletResponse.SC_SERVICE_UNAVAILABLE;
+            }
+        }
+        return HttpServletResponse.SC_INTERNAL_SERVER_ERROR;
+    }
+
     /**
      * Converts an {@code HttpServletRequest} to an {@code ODataRequest}.
      *
@@ -108,15 +174,8 @@ public abstract class AbstractODataController {
             builder.setHeader(name, value);
         }
 
-        // Read the request body
-        InputStream in = servletRequest.getInputStream();
-        ByteArrayOutputStream out = new ByteArrayOutputStream();
-        int count;
-        byte[] buffer = new byte[BUFFER_SIZE];
-        while ((count = in.read(buffer)) != -1) {
-            out.write(buffer, 0, count);
-        }
-        builder.setBody(out.toByteArray());
+        // The request body is consumed lazily by the unmarshallers, straight from the servlet stream
+        builder.setBodyStream(servletRequest.getInputStream());
 
         return builder.build();
     }
@@ -0,0 +1,219 @@
+/**
+ * Copyright (c) 2014-2024 All Rights Reserved by the RWS Group for and on behalf of its affiliates and subsidiaries.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.sdl.odata.controller;
+
+import com.sdl.odata.api.ODataRequestTimeoutException;
+import com.sdl.odata.api.service.ODataRequest;
+import com.sdl.odata.api.service.ODataResponse;
+import com.sdl.odata.api.service.ODataService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+
+import javax.servlet.AsyncContext;
+import javax.servlet.ServletOutputStream;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.Collections.emptyEnumeration;
+import static org.mockito.ArgumentMatchers.any;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests the asynchronous request path of {@link AbstractODataController}.
+ */
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+public class AbstractODataControllerTest {
+
+    @Mock
+    private ODataService oDataService;
+
+    @Mock
+    private HttpServletRequest servletRequest;
+
+    @Mock
+    private HttpServletResponse servletResponse;
+
+    @Mock
+    private ServletOutputStream outputStream;
+
+    @Mock
+    private AsyncContext asyncContext;
+
+    @InjectMocks
+    private TestController controller;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        when(servletRequest.getMethod()).thenReturn("GET");
+        when(servletRequest.getScheme()).thenReturn("http");
+        when(servletRequest.getServerName()).thenReturn("localhost");
+        when(servletRequest.getServerPort()).thenReturn(80);
+        when(servletRequest.getRequestURI()).thenReturn("/odata.svc/Customers");
+        when(servletRequest.getHeaderNames()).thenReturn(emptyEnumeration());
+        when(servletRequest.isAsyncSupported()).thenReturn(true);
+        when(servletRequest.startAsync()).thenReturn(asyncContext);
+        when(asyncContext.getResponse()).thenReturn(servletResponse);
+        when(servletResponse.getOutputStream()).thenReturn(outputStream);
+        // Run the work handed to the container on the calling thread, unless a test says otherwise
+        doAnswer(invocation -> {
+            invocation.<Runnable>getArgument(0).run();
+            return null;
+        }).when(asyncContext).start(any(Runnable.class));
+    }
+
+    @Test
+    public void testResponseIsWrittenOnContainerThread() throws Exception {
+        ExecutorService container = Executors.newSingleThreadExecutor(runnable -> new Thread(runnable, "container"));
+        ExecutorService dispatcher = Executors.newSingleThreadExecutor(runnable -> new Thread(runnable, "dispatcher"));
+        try {
+            doAnswer(invocation -> {
+                container.execute(invocation.<Runnable>getArgument(0));
+                return null;
+            }).when(asyncContext).start(any(Runnable.class));
+            AtomicReference<String> writingThread = new AtomicReference<>();
+            CountDownLatch completed = new CountDownLatch(1);
+            doAnswer(invocation -> {
+                writingThread.set(Thread.currentThread().getName());
+                return null;
+            }).when(servletResponse).setStatus(anyInt());
+            doAnswer(invocation -> {
+                completed.countDown();
+                return null;
+            }).when(asyncContext).complete();
+            CompletableFuture<ODataResponse> future = new CompletableFuture<>();
+            when(oDataService.handleRequestAsync(any(ODataRequest.class))).thenReturn(future);
+
+            controller.service(servletRequest, servletResponse);
+            dispatcher.execute(() ->
+                    future.complete(new ODataResponse.Builder().setStatus(ODataResponse.Status.NO_CONTENT).build()));
+
+            assertTrue(completed.await(10, TimeUnit.SECONDS));
+            assertEquals("container", writingThread.get());
+        } finally {
+            container.shutdownNow();
+            dispatcher.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testRenderedErrorResponseIsWritten() throws Exception {
+        byte[] body = "{\"error\":{\"code\":\"ENTITY_NOT_FOUND_ERROR\"}}".getBytes(UTF_8);
+        ODataResponse response = new ODataResponse.Builder()
+                .setStatus(ODataResponse.Status.NOT_FOUND)
+                .setBody(body)
+                .build();
+        when(oDataService.handleRequestAsync(any(ODataRequest.class)))
+                .thenReturn(CompletableFuture.completedFuture(response));
+
+        controller.service(servletRequest, servletResponse);
+
+        verify(servletResponse).setStatus(404);
+        verify(outputStream).write(body);
+        verify(servletResponse, never()).sendError(anyInt());
+        verify(asyncContext).complete();
+    }
+
+    @Test
+    public void testResponseIsWrittenWhenServiceCompletes() throws Exception {
+        CompletableFuture<ODataResponse> future = new CompletableFuture<>();
+        when(oDataService.handleRequestAsync(any(ODataRequest.class))).thenReturn(future);
+
+        controller.service(servletRequest, servletResponse);
+        verify(asyncContext, never()).complete();
+
+        future.complete(new ODataResponse.Builder().setStatus(ODataResponse.Status.NO_CONTENT).build());
+
+        verify(servletResponse).setStatus(204);
+        verify(asyncContext).complete();
+    }
+
+    @Test
+    public void testTimeoutIsServiceUnavailable() throws Exception {
+        CompletableFuture<ODataResponse> future = new CompletableFuture<>();
+        future.completeExceptionally(new CompletionException(new TimeoutException("Ask timed out")));
+        when(oDataService.handleRequestAsync(any(ODataRequest.class))).thenReturn(future);
+
+        controller.service(servletRequest, servletResponse);
+
+        verify(servletResponse).sendError(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+        verify(asyncContext).complete();
+    }
+
+    @Test
+    public void testRequestTimeoutExceptionIsServiceUnavailable() throws Exception {
+        CompletableFuture<ODataResponse> future = new CompletableFuture<>();
+        future.completeExceptionally(new ODataRequestTimeoutException("Request did not complete within 10 ms"));
+        when(oDataService.handleRequestAsync(any(ODataRequest.class))).thenReturn(future);
+
+        controller.service(servletRequest, servletResponse);
+
+        verify(servletResponse).sendError(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+        verify(asyncContext).complete();
+    }
+
+    @Test
+    public void testFailureIsInternalServerError() throws Exception {
+        CompletableFuture<ODataResponse> future = new CompletableFuture<>();
+        future.completeExceptionally(new IllegalStateException("Renderer failed"));
+        when(oDataService.handleRequestAsync(any(ODataRequest.class))).thenReturn(future);
+
+        controller.service(servletRequest, servletResponse);
+
+        verify(servletResponse).sendError(HttpServletResponse.SC_INTERNAL_SERVER_ERROR);
+        verify(asyncContext).complete();
+    }
+
+    @Test
+    public void testNoErrorIsSentOnCommittedResponse() throws Exception {
+        CompletableFuture<ODataResponse> future = new CompletableFuture<>();
+        future.completeExceptionally(new IllegalStateException("Renderer failed"));
+        when(oDataService.handleRequestAsync(any(ODataRequest.class))).thenReturn(future);
+        when(servletResponse.isCommitted()).thenReturn(true);
+
+        controller.service(servletRequest, servletResponse);
+
+        verify(servletResponse, never()).sendError(anyInt());
+        verify(asyncContext).complete();
+    }
+
+    /**
+     * Concrete controller under test.
+     */
+    static class TestController extends AbstractODataController {
+    }
+}
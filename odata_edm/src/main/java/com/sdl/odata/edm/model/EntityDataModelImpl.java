@@ -24,15 +24,21 @@ import com.sdl.odata.api.edm.model.Type;
 
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 
 import static com.sdl.odata.util.ReferenceUtil.isNullOrEmpty;
 
 /**
  * Implementation of {@link com.sdl.odata.api.edm.model.EntityDataModel}.
- *
+ * <p>
+ * Looking up the type for a Java class happens for every entity and value that is rendered. The types defined in the
+ * schemas are therefore indexed by their Java class when the model is created, and the result of each lookup is kept
+ * per class in a {@link ClassValue}, so that after the first lookup it does not depend on the number of schemas or
+ * types anymore.
  */
 public final class EntityDataModelImpl implements EntityDataModel {
 
@@ -58,15 +64,30 @@ public final class EntityDataModelImpl implements EntityDataModel {
 
     private final Map<String, Schema> schemasByNamespace;
     private final Map<String, Schema> schemasByAlias;
+    private final Map<Class<?>, Type> typesByJavaType;
+
+    private final ClassValue<Optional<Type>> javaTypeToType = new ClassValue<Optional<Type>>() {
+        @Override
+        protected Optional<Type> computeValue(Class<?> javaType) {
+            return Optional.ofNullable(resolveType(javaType));
+        }
+    };
 
     public EntityDataModelImpl(EntityContainer entityContainer, Iterable<Schema> schemas) {
         this.entityContainer = entityContainer;
 
         Map<String, Schema> schemasByNamespaceBuilder = new LinkedHashMap<>();
         Map<String, Schema> schemasByAliasBuilder = new LinkedHashMap<>();
+        Map<Class<?>, Type> typesByJavaTypeBuilder = new HashMap<>();
 
         for (Schema schema : schemas) {
             schemasByNamespaceBuilder.put(schema.getNamespace(), schema);
+            for (Type type : schema.getTypes()) {
+                // The first schema and type defining a Java class wins, like in the schema-by-schema search
+                if (type.getJavaType() != null) {
+                    typesByJavaTypeBuilder.putIfAbsent(type.getJavaType(), type);
+                }
+            }
 
             String alias = schema.getAlias();
             if (!isNullOrEmpty(alias)) {
@@ -76,6 +97,7 @@ public final class EntityDataModelImpl implements EntityDataModel {
 
         this.schemasByNamespace = Collections.unmodifiableMap(schemasByNamespaceBuilder);
         this.schemasByAlias = Collections.unmodifiableMap(schemasByAliasBuilder);
+        this.typesByJavaType = typesByJavaTypeBuilder;
     }
 
     @Override
@@ -121,14 +143,20 @@ public final class EntityDataModelImpl implements EntityDataModel {
 
     @Override
     public Type getType(Class<?> javaType) {
+        return javaTypeToType.get(javaType).orElse(null);
+    }
+
+    private Type resolveType(Class<?> javaType) {
         // First check if the Java type matches an OData primitive type
         String primitiveTypeName = PRIMITIVE_TYPE_NAME_RESOLVER.resolveTypeName(javaType);
         if (!isNullOrEmpty(primitiveTypeName)) {
             return PrimitiveType.forName(primitiveTypeName);
         }
 
-        for (Schema schema : schemasByNamespace.values()) {
-            Type type = schema.getType(javaType);
+        // A subclass that is not a type of its own (for example a proxy) gets the type of its closest superclass
+        // which is; a derived entity type such as a subclass of an entity is always found before its base type
+        for (Class<?> cls = javaType; cls != null; cls = cls.getSuperclass()) {
+            Type type = typesByJavaType.get(cls);
             if (type != null) {
                 return type;
             }
@@ -15,6 +15,7 @@
  */
 package com.sdl.odata.edm.model;
 
+import com.sdl.odata.api.edm.model.PropertyAccessor;
 import com.sdl.odata.api.edm.model.StructuralProperty;
 import com.sdl.odata.api.edm.model.Type;
 
@@ -126,6 +127,7 @@ public abstract class StructuralPropertyImpl implements StructuralProperty {
     private final boolean isCollection;
     private final boolean isNullable;
     private final Field javaField;
+    private final PropertyAccessor propertyAccessor;
 
     protected StructuralPropertyImpl(Builder builder) {
         this.name = builder.name;
@@ -133,6 +135,7 @@ public abstract class StructuralPropertyImpl implements StructuralProperty {
         this.isCollection = builder.isCollection;
         this.isNullable = builder.isNullable;
         this.javaField = builder.javaField;
+        this.propertyAccessor = javaField != null ? PropertyAccessor.forField(javaField) : null;
     }
 
     public String getName() {
@@ -159,6 +162,11 @@ public abstract class StructuralPropertyImpl implements StructuralProperty {
         return javaField;
     }
 
+    @Override
+    public PropertyAccessor getPropertyAccessor() {
+        return propertyAccessor;
+    }
+
     @Override
     public String toString() {
         return name;
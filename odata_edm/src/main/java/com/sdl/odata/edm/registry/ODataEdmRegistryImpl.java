@@ -28,6 +28,10 @@ import java.util.List;
 
 /**
  * Implementation of {@link com.sdl.odata.api.edm.registry.ODataEdmRegistry}.
+ * <p>
+ * The entity data model is published as an immutable snapshot through a volatile field, so that reading it does not
+ * take a lock. Registering classes discards the snapshot; the model is built again when it is next requested, so
+ * classes can be registered in several steps without building incomplete models in between.
  */
 @Component
 public class ODataEdmRegistryImpl implements ODataEdmRegistry {
@@ -35,7 +39,7 @@ public class ODataEdmRegistryImpl implements ODataEdmRegistry {
 
     private final List<Class<?>> classes = new ArrayList<>();
 
-    private EntityDataModel entityDataModel;
+    private volatile EntityDataModel entityDataModel;
 
     @Override
     public synchronized void registerClasses(List<Class<?>> registerClasses) {
@@ -45,7 +49,12 @@ public class ODataEdmRegistryImpl implements ODataEdmRegistry {
     }
 
     @Override
-    public synchronized EntityDataModel getEntityDataModel() throws ODataException {
+    public EntityDataModel getEntityDataModel() throws ODataException {
+        EntityDataModel snapshot = entityDataModel;
+        return snapshot != null ? snapshot : getOrBuildEntityDataModel();
+    }
+
+    private synchronized EntityDataModel getOrBuildEntityDataModel() throws ODataException {
         if (entityDataModel == null) {
             AnnotationEntityDataModelFactory factory = new AnnotationEntityDataModelFactory();
             classes.forEach(factory::addClass);
@@ -53,7 +62,6 @@ public class ODataEdmRegistryImpl implements ODataEdmRegistry {
             LOG.info("Building EntityDataModel");
             entityDataModel = factory.buildEntityDataModel();
         }
-
         return entityDataModel;
     }
 }
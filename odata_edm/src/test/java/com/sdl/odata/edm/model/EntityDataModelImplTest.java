@@ -0,0 +1,187 @@
+/**
+ * Copyright (c) 2014-2024 All Rights Reserved by the RWS Group for and on behalf of its affiliates and subsidiaries.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.sdl.odata.edm.model;
+
+import com.sdl.odata.api.edm.model.EntityDataModel;
+import com.sdl.odata.api.edm.model.PrimitiveType;
+import com.sdl.odata.api.edm.model.Schema;
+import com.sdl.odata.api.edm.model.StructuralProperty;
+import com.sdl.odata.api.edm.model.StructuredType;
+import com.sdl.odata.api.edm.model.Type;
+import com.sdl.odata.edm.factory.annotations.AnnotationEntityDataModelFactory;
+import com.sdl.odata.test.model.Address;
+import com.sdl.odata.test.model.Category;
+import com.sdl.odata.test.model.Customer;
+import com.sdl.odata.test.model.Order;
+import com.sdl.odata.test.model.OrderLine;
+import com.sdl.odata.test.model.Product;
+import com.sdl.odata.test.model.VIPCustomer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.reflect.Field;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static com.sdl.odata.test.util.Timing.fastestNanos;
+import static com.sdl.odata.util.ReferenceUtil.isNullOrEmpty;
+import static java.util.Collections.singletonList;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * Unit tests for {@link EntityDataModelImpl}.
+ *
+ */
+public class EntityDataModelImplTest {
+
+    private static final Logger LOG = LoggerFactory.getLogger(EntityDataModelImplTest.class);
+    private static final int ENTITY_COUNT = 10000;
+    private static final int READ_ROUNDS = 10;
+    private static final int LOOKUP_COUNT = 100000;
+    private static final PrimitiveTypeNameResolver PRIMITIVE_TYPE_NAME_RESOLVER = new PrimitiveTypeNameResolver();
+
+    private EntityDataModel model;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        AnnotationEntityDataModelFactory factory = new AnnotationEntityDataModelFactory();
+        factory.addClass(Address.class);
+        factory.addClass(Category.class);
+        factory.addClass(Customer.class);
+        factory.addClass(VIPCustomer.class);
+        factory.addClass(Order.class);
+        factory.addClass(OrderLine.class);
+        factory.addClass(Product.class);
+        model = factory.buildEntityDataModel();
+    }
+
+    @Test
+    public void testGetTypeByJavaType() {
+        assertEquals("ODataDemo.Customer", model.getType(Customer.class).getFullyQualifiedName());
+        assertEquals("ODataDemo.Address", model.getType(Address.class).getFullyQualifiedName());
+        assertEquals(PrimitiveType.STRING, model.getType(String.class));
+        assertEquals(PrimitiveType.INT64, model.getType(Long.class));
+        assertEquals(PrimitiveType.INT64, model.getType(long.class));
+        assertNull(model.getType(Object.class));
+    }
+
+    @Test
+    public void testGetTypeOfDerivedEntityType() {
+        assertEquals("ODataDemo.VIPCustomer", model.getType(VIPCustomer.class).getFullyQualifiedName());
+        // Repeated lookups are answered from the index
+        assertEquals(model.getType(VIPCustomer.class), model.getType(VIPCustomer.class));
+    }
+
+    @Test
+    public void testGetTypeOfSubclassWithoutType() {
+        Customer proxy = new Customer() { };
+        VIPCustomer vipProxy = new VIPCustomer() { };
+
+        assertEquals(model.getType(Customer.class), model.getType(proxy.getClass()));
+        assertEquals(model.getType(VIPCustomer.class), model.getType(vipProxy.getClass()));
+    }
+
+    @Test
+    public void testCompareAccessorReadsWithReflectiveReads() throws Exception {
+        List<StructuralProperty> properties = ((StructuredType) model.getType(Customer.class))
+                .getStructuralProperties();
+        List<Customer> customers = new ArrayList<>();
+        for (int i = 0; i < ENTITY_COUNT; i++) {
+            customers.add(new Customer().setId(i).setName("Customer " + i)
+                    .setPhoneNumbers(singletonList("+31 20 " + i)).setDateTime(ZonedDateTime.now()));
+        }
+        for (Customer customer : customers) {
+            for (StructuralProperty property : properties) {
+                assertEquals(readReflectively(property, customer), property.getPropertyAccessor().get(customer));
+            }
+        }
+
+        long accessorNanos = fastestNanos(READ_ROUNDS, () -> {
+            for (Customer customer : customers) {
+                for (StructuralProperty property : properties) {
+                    property.getPropertyAccessor().get(customer);
+                }
+            }
+        });
+        long reflectiveNanos = fastestNanos(READ_ROUNDS, () -> {
+            for (Customer customer : customers) {
+                for (StructuralProperty property : properties) {
+                    readReflectively(property, customer);
+                }
+            }
+        });
+
+        // Read times depend on the machine and are only reported
+        LOG.info("Read {} properties of {} entities: through accessors in {} us, through reflection in {} us",
+                properties.size(), ENTITY_COUNT, accessorNanos / 1000, reflectiveNanos / 1000);
+    }
+
+    /**
+     * Reads a property value the way it was read before property accessors, making the field accessible every time.
+     */
+    private static Object readReflectively(StructuralProperty property, Object entity) throws IllegalAccessException {
+        Field field = property.getJavaField();
+        field.setAccessible(true);
+        return field.get(entity);
+    }
+
+    @Test
+    public void testCompareIndexedTypeLookupsWithSchemaScans() throws Exception {
+        // The Java types looked up while rendering a feed of customers with their orders
+        List<Class<?>> javaTypes = Arrays.asList(Customer.class, VIPCustomer.class, Address.class, Order.class,
+                OrderLine.class, Product.class, Category.class, String.class, Long.class, long.class);
+        for (Class<?> javaType : javaTypes) {
+            assertEquals(lookUpBySchemaScan(javaType), model.getType(javaType));
+        }
+
+        long indexedNanos = fastestNanos(READ_ROUNDS, () -> {
+            for (int i = 0; i < LOOKUP_COUNT; i++) {
+                model.getType(javaTypes.get(i % javaTypes.size()));
+            }
+        });
+        long scanNanos = fastestNanos(READ_ROUNDS, () -> {
+            for (int i = 0; i < LOOKUP_COUNT; i++) {
+                lookUpBySchemaScan(javaTypes.get(i % javaTypes.size()));
+            }
+        });
+
+        // Lookup times depend on the machine and are only reported
+        LOG.info("{} type lookups: from the index in {} us, by scanning the schemas in {} us",
+                LOOKUP_COUNT, indexedNanos / 1000, scanNanos / 1000);
+    }
+
+    /**
+     * Looks up the type of a Java class the way it was looked up before the index, by asking every schema in turn.
+     */
+    private Type lookUpBySchemaScan(Class<?> javaType) {
+        String primitiveTypeName = PRIMITIVE_TYPE_NAME_RESOLVER.resolveTypeName(javaType);
+        if (!isNullOrEmpty(primitiveTypeName)) {
+            return PrimitiveType.forName(primitiveTypeName);
+        }
+        for (Schema schema : model.getSchemas()) {
+            Type type = schema.getType(javaType);
+            if (type != null) {
+                return type;
+            }
+        }
+        return null;
+    }
+}
@@ -28,17 +28,34 @@ import com.sdl.odata.test.model.OrderLine;
 import com.sdl.odata.test.model.Product;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
+import static com.sdl.odata.test.util.Timing.fastestNanos;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 
 /**
  * Unit tests for {@code ODataEdmRegistryImpl}.
  */
 public class ODataEdmRegistryImplTest {
 
+    private static final Logger LOG = LoggerFactory.getLogger(ODataEdmRegistryImplTest.class);
+    private static final int READER_THREADS = 64;
+    private static final int READS_PER_THREAD = 10000;
+    private static final int READ_ROUNDS = 5;
+
     private ODataEdmRegistry registry;
 
     @BeforeEach
@@ -58,4 +75,80 @@ public class ODataEdmRegistryImplTest {
         assertNotNull(schema);
         assertEquals(6, schema.getTypes().size());
     }
+
+    @Test
+    public void testModelSnapshotIsReplacedOnRegistration() throws ODataException {
+        registry.registerClasses(Arrays.asList(Address.class, Category.class, Customer.class, Order.class,
+                OrderLine.class));
+
+        EntityDataModel first = registry.getEntityDataModel();
+        assertSame(first, registry.getEntityDataModel());
+        assertNull(first.getType("ODataDemo.Product"));
+
+        registry.registerClasses(Arrays.asList(ExampleFlags.class, Product.class));
+
+        EntityDataModel second = registry.getEntityDataModel();
+        assertNotSame(first, second);
+        assertNotNull(second.getType("ODataDemo.Product"));
+        assertNull(first.getType("ODataDemo.Product"));
+    }
+
+    @Test
+    public void testClassesCanBeRegisteredInSeveralSteps() throws ODataException {
+        registry.registerClasses(Arrays.asList(Customer.class, Order.class));
+        registry.registerClasses(Arrays.asList(Address.class, Category.class, ExampleFlags.class, OrderLine.class,
+                Product.class));
+
+        EntityDataModel entityDataModel = registry.getEntityDataModel();
+        assertNotNull(entityDataModel.getType("ODataDemo.Customer"));
+        assertNotNull(entityDataModel.getType("ODataDemo.Product"));
+    }
+
+    @Test
+    public void testCompareSnapshotReadsWithSynchronizedReads() throws Exception {
+        registry.registerClasses(Arrays.asList(Address.class, Category.class, Customer.class, ExampleFlags.class,
+                Order.class, OrderLine.class, Product.class));
+        EntityDataModel model = registry.getEntityDataModel();
+
+        ExecutorService readers = Executors.newFixedThreadPool(READER_THREADS);
+        try {
+            long snapshotNanos = fastestNanos(READ_ROUNDS, () ->
+                    assertSame(model, readConcurrently(readers, registry::getEntityDataModel)));
+            // Before the snapshot every read took the monitor of the registry
+            long synchronizedNanos = fastestNanos(READ_ROUNDS, () ->
+                    assertSame(model, readConcurrently(readers, () -> {
+                        synchronized (registry) {
+                            return registry.getEntityDataModel();
+                        }
+                    })));
+
+            // Read times depend on the machine and are only reported
+            LOG.info("{} threads reading the model {} times each: from the snapshot in {} us, synchronized in {} us",
+                    READER_THREADS, READS_PER_THREAD, snapshotNanos / 1000, synchronizedNanos / 1000);
+        } finally {
+            readers.shutdownNow();
+        }
+    }
+
+    /**
+     * Reads the model on all reader threads at once, and returns the model if every read returned the same one.
+     */
+    private static EntityDataModel readConcurrently(ExecutorService readers, Callable<EntityDataModel> read)
+            throws Exception {
+        List<Future<EntityDataModel>> results = new ArrayList<>();
+        for (int i = 0; i < READER_THREADS; i++) {
+            results.add(readers.submit(() -> {
+                EntityDataModel first = read.call();
+                for (int j = 1; j < READS_PER_THREAD; j++) {
+                    assertSame(first, read.call());
+                }
+                return first;
+            }));
+        }
+        EntityDataModel model = results.get(0).get();
+        for (Future<EntityDataModel> result : results) {
+            assertSame(model, result.get());
+        }
+        return model;
+    }
 }
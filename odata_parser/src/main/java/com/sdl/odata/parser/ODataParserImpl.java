@@ -22,7 +22,9 @@ import com.sdl.odata.api.parser.ODataUriParseException;
 import com.sdl.odata.api.parser.ResourcePath;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
+import scala.Option;
 
 /**
  * OData parser implementation.
@@ -31,14 +33,72 @@ import org.springframework.stereotype.Component;
 public class ODataParserImpl implements ODataParser {
     private static final Logger LOG = LoggerFactory.getLogger(ODataParserImpl.class);
 
+    /**
+     * Default maximum number of parsed URIs kept in the URI cache.
+     */
+    public static final int DEFAULT_URI_CACHE_SIZE = 1000;
+
+    private ODataUriCache uriCache = new ODataUriCache(DEFAULT_URI_CACHE_SIZE);
+
+    private boolean singlePass;
+
+    /**
+     * Sets the maximum number of parsed URIs kept in the URI cache; {@code 0} disables the cache.
+     *
+     * @param maxSize The maximum number of parsed URIs.
+     */
+    @Value("${odata.parser.uri-cache.max-size:" + DEFAULT_URI_CACHE_SIZE + "}")
+    public void setUriCacheMaxSize(int maxSize) {
+        this.uriCache = new ODataUriCache(maxSize);
+    }
+
+    public ODataUriCache getUriCache() {
+        return uriCache;
+    }
+
+    /**
+     * Enables the single-pass URI parser. URIs which it does not support are still parsed by the combinator parser.
+     *
+     * @param singlePass {@code true} to try the single-pass parser first.
+     */
+    @Value("${odata.parser.single-pass:false}")
+    public void setSinglePass(boolean singlePass) {
+        this.singlePass = singlePass;
+    }
+
+    public boolean isSinglePass() {
+        return singlePass;
+    }
+
     @Override
     public ODataUri parseUri(String uri, EntityDataModel entityDataModel) throws ODataUriParseException {
+        ODataUri parsedUri = uriCache.get(uri, entityDataModel);
+        if (parsedUri != null) {
+            LOG.debug("Found parsed URI in cache: {}", uri);
+            return parsedUri;
+        }
         LOG.debug("Parsing URI: {}", uri);
-        ODataUri parsedUri = new ODataUriParser(entityDataModel).parseUri(uri);
+        parsedUri = parse(uri, entityDataModel);
         LOG.debug("Parse result: {}", parsedUri);
+        uriCache.put(uri, entityDataModel, parsedUri);
+        if (LOG.isTraceEnabled()) {
+            LOG.trace("URI cache size: {}, hits: {}, misses: {}", uriCache.size(), uriCache.getHitCount(),
+                    uriCache.getMissCount());
+        }
         return parsedUri;
     }
 
+    private ODataUri parse(String uri, EntityDataModel entityDataModel) throws ODataUriParseException {
+        if (singlePass) {
+            Option<ODataUri> parsedUri = new SinglePassODataUriParser(entityDataModel).parseUri(uri);
+            if (parsedUri.isDefined()) {
+                return parsedUri.get();
+            }
+            LOG.debug("URI not supported by the single-pass parser: {}", uri);
+        }
+        return new ODataUriParser(entityDataModel).parseUri(uri);
+    }
+
     @Override
     public ResourcePath parseResourcePath(String resourcePath, EntityDataModel entityDataModel)
             throws ODataUriParseException {
@@ -0,0 +1,198 @@
+/**
+ * Copyright (c) 2014-2024 All Rights Reserved by the RWS Group for and on behalf of its affiliates and subsidiaries.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.sdl.odata.parser;
+
+import com.sdl.odata.api.edm.model.EntityDataModel;
+import com.sdl.odata.api.parser.ODataUri;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Bounded cache of parsed URIs with least-recently-used eviction.
+ * <p>
+ * Lookups and stores do not take a lock: entries live in a {@code ConcurrentHashMap} and every lookup stamps its
+ * own entry with the current {@link System#nanoTime()}, so lookups of different entries do not contend. When the
+ * cache grows beyond its maximum size, one thread at a time evicts the least recently used tenth of the entries,
+ * which spreads the cost of ordering the entries over the stores which follow.
+ * <p>
+ * A parsed URI is only valid for the entity data model it was parsed against, so all entries belong to a single
+ * model. As soon as a different model instance is used (for example because new classes were registered in the
+ * {@code ODataEdmRegistry}, which builds a new model), the cache is cleared.
+ */
+public class ODataUriCache {
+    private static final int EVICTION_FRACTION = 10;
+
+    private final int maxSize;
+    private final AtomicReference<Generation> generation = new AtomicReference<>(new Generation(null));
+    private final Lock evictionLock = new ReentrantLock();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    /**
+     * Creates a cache.
+     *
+     * @param maxSize The maximum number of parsed URIs to keep; {@code 0} disables caching.
+     */
+    public ODataUriCache(int maxSize) {
+        if (maxSize < 0) {
+            throw new IllegalArgumentException("Maximum size of the URI cache must not be negative: " + maxSize);
+        }
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * Gets the cached result of parsing a URI against an entity data model.
+     *
+     * @param uri   The URI.
+     * @param model The entity data model.
+     * @return The parsed URI, or {@code null} if it is not in the cache.
+     */
+    public ODataUri get(String uri, EntityDataModel model) {
+        ODataUri result = null;
+        if (maxSize > 0) {
+            Generation current = generation.get();
+            if (model == current.entityDataModel) {
+                CachedUri cached = current.uris.get(uri);
+                if (cached != null) {
+                    cached.lastAccess = System.nanoTime();
+                    result = cached.parsedUri;
+                }
+            }
+        }
+        if (result != null) {
+            hits.increment();
+        } else {
+            misses.increment();
+        }
+        return result;
+    }
+
+    /**
+     * Stores the result of parsing a URI against an entity data model. If the model differs from the model of
+     * the entries which are already cached, these entries are discarded first.
+     *
+     * @param uri       The URI.
+     * @param model     The entity data model.
+     * @param parsedUri The parsed URI.
+     */
+    public void put(String uri, EntityDataModel model, ODataUri parsedUri) {
+        if (maxSize == 0) {
+            return;
+        }
+        Generation current = generation.updateAndGet(g -> g.entityDataModel == model ? g : new Generation(model));
+        current.uris.put(uri, new CachedUri(parsedUri, System.nanoTime()));
+        if (current.uris.size() > maxSize) {
+            evict(current.uris);
+        }
+    }
+
+    /**
+     * Evicts the least recently used entries until the cache is a tenth below its maximum size. Threads which find
+     * the cache too large at the same time wait for the eviction in progress instead of evicting entries as well.
+     */
+    private void evict(Map<String, CachedUri> uris) {
+        evictionLock.lock();
+        try {
+            if (uris.size() <= maxSize) {
+                return;
+            }
+            // Lookups keep stamping the entries, so they are ordered by a snapshot of their access times
+            List<EvictionCandidate> candidates = new ArrayList<>(uris.size());
+            for (Map.Entry<String, CachedUri> entry : uris.entrySet()) {
+                candidates.add(new EvictionCandidate(entry.getKey(), entry.getValue()));
+            }
+            candidates.sort(Comparator.comparingLong(candidate -> candidate.lastAccess));
+            int excess = candidates.size() - (maxSize - maxSize / EVICTION_FRACTION);
+            for (int i = 0; i < excess; i++) {
+                EvictionCandidate candidate = candidates.get(i);
+                uris.remove(candidate.uri, candidate.cached);
+            }
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+
+    /**
+     * Discards all cached entries. The hit and miss counts are not reset.
+     */
+    public void clear() {
+        generation.set(new Generation(null));
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    public int size() {
+        return generation.get().uris.size();
+    }
+
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    /**
+     * The entries which were parsed against one entity data model.
+     */
+    private static final class Generation {
+        private final EntityDataModel entityDataModel;
+        private final Map<String, CachedUri> uris = new ConcurrentHashMap<>();
+
+        private Generation(EntityDataModel entityDataModel) {
+            this.entityDataModel = entityDataModel;
+        }
+    }
+
+    /**
+     * A parsed URI and the time at which it was last used.
+     */
+    private static final class CachedUri {
+        private final ODataUri parsedUri;
+        private volatile long lastAccess;
+
+        private CachedUri(ODataUri parsedUri, long lastAccess) {
+            this.parsedUri = parsedUri;
+            this.lastAccess = lastAccess;
+        }
+    }
+
+    /**
+     * A cached entry with the time at which it was last used when the eviction started.
+     */
+    private static final class EvictionCandidate {
+        private final String uri;
+        private final CachedUri cached;
+        private final long lastAccess;
+
+        private EvictionCandidate(String uri, CachedUri cached) {
+            this.uri = uri;
+            this.cached = cached;
+            this.lastAccess = cached.lastAccess;
+        }
+    }
+}
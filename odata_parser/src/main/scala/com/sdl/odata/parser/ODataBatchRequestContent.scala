@@ -18,7 +18,7 @@ package com.sdl.odata.parser
 /**
  * ODataBatchRequestContent.
  */
-case class ODataBatchRequestContent(requestComponents:List[ODataRequestComponent])
+case class ODataBatchRequestContent(requestComponents: Seq[ODataRequestComponent])
 
 case class BatchRequestHeaders(headers : Map[String, String], headerType: BatchHeaderType)
 
@@ -15,9 +15,12 @@
  */
 package com.sdl.odata.parser
 
+import java.io.{BufferedReader, IOException, Reader, StringReader}
+
+import com.sdl.odata.api.ODataSystemException
 import com.sdl.odata.api.parser.ODataBatchParseException
 
-import scala.util.parsing.combinator.RegexParsers
+import scala.collection.mutable
 
 /**
  * ODataBatchRequestParser.
@@ -30,95 +33,31 @@ import scala.util.parsing.combinator.RegexParsers
  *       - ChangeSets
  *            - Headers
  *            - List<Individual Requests>
+ *
+ * The body is read line by line in a single pass. Request contents are parsed lazily: the content returned by
+ * `parseBatch` holds a stream of which only the first request content is parsed up front, and each next one is
+ * parsed when it is first accessed, so an invalid request content is only reported when it is reached. Callers
+ * that must not execute any part of an invalid batch request have to read the whole stream before executing the
+ * first part, as the batch processor does.
+ *
+ * The batch boundary is taken from the first delimiter line. Only lines which are exactly `--boundary` or
+ * `--boundary--` for the batch boundary, or for the boundary of the enclosing change set, delimit the parts; any
+ * other line, also one starting with `--`, is part of the body of a request.
  */
-class ODataBatchRequestParser extends RegexParsers {
+class ODataBatchRequestParser {
   // Note that the current implementation does not support the odata.continue-on-error preference
   private val lineSeparator = sys.props("line.separator")
 
-  override def skipWhitespace = false
-
-  var contentIds: Set[Int] = Set[Int]()
-  var batchId: String = ""
   val ContentIdHeader = "Content-ID"
   val ContentTransferEncodingHeader = "Content-Transfer-Encoding"
   val ContentTransferEncodingHeaderValue = "binary"
 
-  // Main parser class for ODataBatchRequest
-  def parseBatch(input: String): ODataBatchRequestContent = parseAll(parseBatchRequest, trimRedundantTrailingSpaces(input)) match {
-    case Success(result, _) => result
-    case NoSuccess(msg, _) => throw new ODataBatchParseException(msg)
-  }
-
-  // Trim redundant trailing spaces and trailing request line separators
-  def trimRedundantTrailingSpaces(input: String): String = {
-    input.split(lineSeparator).map(_.trim).reverse.dropWhile(_.isEmpty).reverse.mkString(lineSeparator.toString)
-  }
-
-  def parseBatchRequest: Parser[ODataBatchRequestContent] = parseRequestContent ^^ {
-    case requestContent => ODataBatchRequestContent(requestContent)
-  }
-
-  // Step1: Parse the request content which can contain Individual requests for change sets
-  def parseRequestContent: Parser[List[ODataRequestComponent]] = rep(parseQueryOrChangeSet) <~ "--" + batchId + "--".r ^^ {
-    res => {
-      val requestComponents = res
-
-      if (requestComponents.isEmpty) throw new ODataBatchParseException("Batch request is empty.")
-      requestComponents
-    }
-  }
-
-  // Step2: check if the request content is an individual query or changeset and parse accordingly
-  def parseQueryOrChangeSet: Parser[ODataRequestComponent] = parserBatchId ~> chooseRequest
-
-  def parserBatchId =  "--.+_.+\r*\n".r ^^ {
-    case parsedBatchId => {
-      batchId = parsedBatchId.replaceFirst("--","").trim
-    }
-
-  }
-  //application -> Query Request , multipart -> changeSet Request
-  def chooseRequest: Parser[ODataRequestComponent] =
-    ("Content-Type:\\s*application/.+\r*\n".r ~> parseIndividualBatchRequest) |
-      ("Content-Type:\\s*multipart/mixed;\\s*boundary=".r ~> parseChangeSetRequestComponent)
-
-  def parseIndividualBatchRequest: Parser[BatchRequestComponent] = parseRequestComponent ^^ {
-    case requestComponent => {
-      if (!requestComponent.getRequestDetails().get("RequestType").get.equals("GET")) throw new ODataBatchParseException("Only GET is supported in Individual requests of batch.")
-      requestComponent
-    }
-  }
-
-  // Step2a: If the content is individual request, extract data to BatchRequestComponent
-  def parseRequestComponent: Parser[BatchRequestComponent] = parseIndividualRequestTopHeaders ~ getRequestURIComponents ~ parseQueryRequestHeaders into {
-    case headerMap ~ requestContent ~ queryRequestHeaders =>
-      (if (queryRequestHeaders.isEmpty) parseQueryBody else lineSeparator ~> parseQueryBody) ^^ {
-        case requestBody => BatchRequestComponent(BatchRequestHeaders(headerMap ++ queryRequestHeaders, IndividualRequestHeader), requestContent ++ requestBody)
-      }
-  }
-
-  // Step2b: If the content is a change set, extract data to ChangeSetRequestContent
-  def parseChangeSetRequestComponent: Parser[ChangeSetRequestComponent] = parseChangeSetId ~ parseChangeSetHeader ~ parseChangeSetComponents <~ ("--.+_.+--" + lineSeparator).r ^^ {
-    case  changesetId ~ header ~ res => ChangeSetRequestComponent(BatchRequestHeaders(header, ChangeSetRequestHeader), res, changesetId)
-  }
-
-  def parseChangeSetId: Parser[String] = ".+\r*\n".r ^^ { case changesetId => changesetId.trim}
-
-  // Parse and validate top level headers of Individual Request
-  def parseIndividualRequestTopHeaders: Parser[Map[String, String]] = parseHeaders <~ lineSeparator ^^ {
-    case headerMap => {
-      if (headerMap.isEmpty || !headerMap.contains(ContentTransferEncodingHeader)) {
-        throw new ODataBatchParseException("An individual request of a batch request must contain Content-Transfer-Encoding header")
-      }
-
-      if (!headerMap.get(ContentTransferEncodingHeader).get.equals(ContentTransferEncodingHeaderValue))
-        throw new ODataBatchParseException("Each operation of a batch request must contain Content-Transfer-Encoding with value binary")
-
-      headerMap
-    }
-  }
+  private val IndividualRequestContentType = """Content-Type:\s*application/.+""".r
+  private val ChangeSetContentType = """Content-Type:\s*multipart/mixed;\s*boundary=(.+)""".r
+  private val HeaderNameValuePair = """([-\w.]+):\s*(.*)""".r
+  private val RequestLine = """(GET|POST|PATCH|PUT|DELETE)\s+(\S+)(?:\s+HTTP/\d\.\d)?""".r
 
-  //Parsing Individual request component
+  //Parsing Individual request URI
   // Formats that needs to be supported
   // 1. Absolute URI with schema, host, port, and absolute resource path.
   //      Ex: GET https://host:1234/path/service/People(1) HTTP/1.1
@@ -127,79 +66,206 @@ class ODataBatchRequestParser extends RegexParsers {
   //            Host: myserver.mydomain.org:1234
   // 3. Resource path relative to the batch request URI.
   //      Ex:   GET People(1) HTTP/1.1
-  def getRequestURIComponents: Parser[Map[String, String]] = ("GET " | "POST " | "PATCH " | "PUT " | "DELETE ") ~ getRequestURI ^^ {
-    case requestType ~ relativeURL => Map("RequestType" -> requestType.trim) ++ relativeURL
-  }
+  private val RequestHost = """(http|https)://[^/]*""".r
+  private val RelativePath = """/.+/(?=[a-zA-Z])""".r
+  private val ContentId = """\$.d{0,5}/""".r
 
-  // TODO: Validations
-  // Must not include authentication or authorization related HTTP headers and Expect, From, Max-Forwards, Range, or TE headers
-  def parseQueryRequestHeaders: Parser[Map[String, String]] = parseHeaders
+  // Main parser method for ODataBatchRequest
+  def parseBatch(input: String): ODataBatchRequestContent = parseBatch(new StringReader(input))
 
-  def parseQueryBody: Parser[Map[String, String]] = getEntityData ^^ {
-    case entityData => Map("RequestBody" -> entityData.trim)
+  def parseBatch(input: Reader): ODataBatchRequestContent = {
+    val requestComponents = new RequestComponentIterator(new BufferedReader(input)).toStream
+    if (requestComponents.isEmpty) throw new ODataBatchParseException("Batch request is empty.")
+    ODataBatchRequestContent(requestComponents)
   }
 
-  def getEntityData: Parser[String] = ("<?xml" ~> parseAtom) | ("{" ~> parseJson) | (lineSeparator.withFailureMessage("Request body must contain an empty line or entity data.") ~> "")
+  /**
+   * Parses the request contents of one batch request, one at a time. Every line is trimmed before it is parsed,
+   * and both CRLF and LF line endings are accepted.
+   */
+  private class RequestComponentIterator(reader: BufferedReader) extends Iterator[ODataRequestComponent] {
+    private val contentIds = mutable.Set[String]()
+
+    // The current line, or null at the end of the body
+    private var line: String = readLine()
+    while (line != null && line.isEmpty) line = readLine()
+    if (line != null && (!line.startsWith("--") || line.length <= 2)) {
+      throw new ODataBatchParseException("Batch request must start with a boundary delimiter line.")
+    }
+    // A batch request of only a close delimiter has no request contents
+    private val batchBoundary: String = if (line == null) "" else line.substring(2).stripSuffix("--")
+
+    override def hasNext: Boolean = line != null && !isCloseDelimiter(line, batchBoundary)
+
+    // Step1: The current line is a boundary delimiter; check if the request content after it is an individual
+    // query or a change set and parse accordingly
+    override def next(): ODataRequestComponent = {
+      if (!hasNext) throw new NoSuchElementException("No more request contents in batch request")
+      advance()
+      val requestComponent = current match {
+        case IndividualRequestContentType() =>
+          advance()
+          parseIndividualBatchRequest()
+        case ChangeSetContentType(changesetId) =>
+          advance()
+          parseChangeSetRequestComponent(changesetId.trim)
+        case _ => throw new ODataBatchParseException("Each part of a batch request must start with a Content-Type " +
+          "header of application/http or multipart/mixed with a boundary.")
+      }
+      expectDelimiter(batchBoundary)
+      requestComponent
+    }
 
-  def parseAtom: Parser[String] = """(?s)((.+?)(?=--|$))""".r ^^ { case data => "<?xml" + data}
+    // Step2a: If the content is individual request, it must be a query
+    private def parseIndividualBatchRequest(): BatchRequestComponent = {
+      val headerMap = parseIndividualRequestTopHeaders()
+      val requestContent = parseRequestLine()
+      if (requestContent("RequestType") != "GET") {
+        throw new ODataBatchParseException("Only GET is supported in Individual requests of batch.")
+      }
+      parseRequestComponent(headerMap, requestContent, batchBoundary)
+    }
 
-  def parseJson: Parser[String] = """(?s)((.+?)(?=--|$))""".r ^^ { case data => "{" + data}
+    // Step2b: If the content is a change set, parse the individual requests up to its close delimiter
+    private def parseChangeSetRequestComponent(changesetId: String): ChangeSetRequestComponent = {
+      val boundary = changesetId.stripPrefix("\"").stripSuffix("\"")
+      val header = parseHeaders()
+      val changesetRequests = mutable.ListBuffer[BatchRequestComponent]()
+      expectDelimiter(boundary)
+      while (!isCloseDelimiter(current, boundary)) {
+        advance()
+        changesetRequests += parseChangeSetComponent(boundary)
+        expectDelimiter(boundary)
+      }
+      advance()
+      ChangeSetRequestComponent(BatchRequestHeaders(header, ChangeSetRequestHeader), changesetRequests.toList,
+        changesetId)
+    }
 
-  // Parse and validate top level headers of Change set Request
-  def parseChangeSetHeader: Parser[Map[String, String]] = parseHeaders
+    private def parseChangeSetComponent(boundary: String): BatchRequestComponent = {
+      val headerMap = parseIndividualRequestTopHeaders()
+      val requestContent = parseRequestLine()
+      if (requestContent("RequestType") == "GET") {
+        throw new ODataBatchParseException("ChangeSets must not contain GET requests.")
+      }
+      val requestComponent = parseRequestComponent(headerMap, requestContent, boundary)
 
-  // Parse recursively Individual requests inside a change set
-  def parseChangeSetComponents: Parser[List[BatchRequestComponent]] = rep(parseChangeSetComponent) ^^ {
-    case res => res.toList
-  }
+      val contentId = requestComponent.getHeaders().headers.getOrElse(ContentIdHeader,
+        throw new ODataBatchParseException("Each request within a change set MUST specify a Content-ID header"))
+      if (!contentIds.add(contentId)) {
+        throw new ODataBatchParseException("Value of Content-ID header within a change set must be unique")
+      }
+      requestComponent
+    }
 
-  def parseChangeSetComponent: Parser[BatchRequestComponent] = ("--changeset_.+[^-]" + lineSeparator).r ~> parseRequestComponent ^^ {
-    case requestComponent => {
-      if (requestComponent.getRequestDetails().get("RequestType").get.equals("GET")) throw new ODataBatchParseException("ChangeSets must not contain GET requests.")
-      val changeSetRequestComponentHeaders = requestComponent.getHeaders().headers
+    // Parse the headers and the body that follow the request line, within the part of the given boundary
+    private def parseRequestComponent(headerMap: Map[String, String], requestContent: Map[String, String],
+                                      boundary: String): BatchRequestComponent = {
+      val queryRequestHeaders = parseHeaders()
+      val requestBody = parseQueryBody(boundary)
+      BatchRequestComponent(BatchRequestHeaders(headerMap ++ queryRequestHeaders, IndividualRequestHeader),
+        requestContent + ("RequestBody" -> requestBody))
+    }
 
-      if (!changeSetRequestComponentHeaders.contains(ContentIdHeader)) throw new ODataBatchParseException("Each request within a change set MUST specify a Content-ID header")
+    // Parse and validate top level headers of Individual Request
+    private def parseIndividualRequestTopHeaders(): Map[String, String] = {
+      val headerMap = parseHeaders()
+      headerMap.get(ContentTransferEncodingHeader) match {
+        case None => throw new ODataBatchParseException(
+          "An individual request of a batch request must contain Content-Transfer-Encoding header")
+        case Some(ContentTransferEncodingHeaderValue) => headerMap
+        case Some(_) => throw new ODataBatchParseException(
+          "Each operation of a batch request must contain Content-Transfer-Encoding with value binary")
+      }
+    }
 
-      val contentID = changeSetRequestComponentHeaders.get(ContentIdHeader).get.toInt
-      if (contentIds.contains(contentID)) throw new ODataBatchParseException("Value of Content-ID header within a change set must be unique")
-      contentIds += contentID
-      requestComponent
+    // TODO: Validations
+    // Must not include authentication or authorization related HTTP headers and Expect, From, Max-Forwards, Range,
+    // or TE headers
+    private def parseRequestLine(): Map[String, String] = {
+      val requestContent = current match {
+        case RequestLine(requestType, requestUri) => parseRequestUri(requestUri) + ("RequestType" -> requestType)
+        case other => throw new ODataBatchParseException(s"Expected a request line in batch request, found: $other")
+      }
+      advance()
+      requestContent
     }
-  }
 
-def getRequestURI: Parser[Map[String, String]] = opt("^(http|https):\\/\\/[^\\/]*[:\\d{0,5}]?".r) ~ opt("\\/.+\\/(?=[a-zA-Z])".r) ~ opt("\\$.d{0,5}\\/".r) ~
-    ("[^\\s]+".r <~ opt(" HTTP/\\d\\.\\d".r)) <~ lineSeparator ^^ {
-  case hostComponent ~ relativePath ~ contentId ~ reqUri => {
-      var components = Map("RequestEntity" -> reqUri)
-      relativePath match {
-        case Some(relPath) => components += ("RelativePath" -> relPath)
-        case None =>
+    private def parseRequestUri(requestUri: String): Map[String, String] = {
+      var components = Map[String, String]()
+      var remaining = requestUri
+      for ((name, pattern) <- Seq("RequestHost" -> RequestHost, "RelativePath" -> RelativePath,
+        "ContentId" -> ContentId)) {
+        pattern.findPrefixOf(remaining).foreach { value =>
+          components += (name -> value)
+          remaining = remaining.substring(value.length)
+        }
       }
-      hostComponent match {
-        case Some(host) => components += ("RequestHost" -> host)
-        case None =>
+      components + ("RequestEntity" -> remaining)
+    }
+
+    // The body is either empty, which takes one empty line, or entity data up to the next boundary delimiter
+    private def parseQueryBody(boundary: String): String = current match {
+      case "" =>
+        advance()
+        ""
+      case data if data.startsWith("<?xml") || data.startsWith("{") =>
+        val entityData = new StringBuilder
+        while (line != null && !isBoundaryLine(line, boundary)) {
+          entityData.append(line).append(lineSeparator)
+          advance()
+        }
+        entityData.toString.trim
+      case _ => throw new ODataBatchParseException("Request body must contain an empty line or entity data.")
+    }
+
+    // Generic header parsing, parsed as name-value pairs up to and including the empty line after them
+    private def parseHeaders(): Map[String, String] = {
+      var headers = Map[String, String]()
+      while (current.nonEmpty) {
+        current match {
+          case HeaderNameValuePair(name, value) => headers += (name -> value)
+          case other => throw new ODataBatchParseException(
+            s"Expected a header or an empty line in batch request, found: $other")
+        }
+        advance()
       }
+      advance()
+      headers
+    }
 
-      contentId match {
-        case Some(id) => components += ("ContentId" -> id)
-        case None =>
+    private def expectDelimiter(boundary: String): Unit =
+      if (!isDelimiter(current, boundary) && !isCloseDelimiter(current, boundary)) {
+        throw new ODataBatchParseException(
+          s"Expected a delimiter line of boundary '$boundary' in batch request, found: $line")
       }
 
-      components
-    }
+    private def isDelimiter(delimiter: String, boundary: String): Boolean =
+      delimiter.length == boundary.length + 2 && delimiter.startsWith("--") && delimiter.endsWith(boundary)
 
-  }
+    private def isCloseDelimiter(delimiter: String, boundary: String): Boolean =
+      delimiter.length == boundary.length + 4 && delimiter.startsWith("--") && delimiter.endsWith("--") &&
+        delimiter.regionMatches(2, boundary, 0, boundary.length)
 
-  def parseChangeSetRequestComponentHeader: Parser[Map[String, String]] = parseHeaders <~ lineSeparator
+    // A line of either the enclosing boundary or the batch boundary ends the body of a request
+    private def isBoundaryLine(text: String, boundary: String): Boolean =
+      isDelimiter(text, boundary) || isCloseDelimiter(text, boundary) ||
+        isDelimiter(text, batchBoundary) || isCloseDelimiter(text, batchBoundary)
 
-  // Generic header parsing, parsed as name-value pairs
-  def parseHeaders: Parser[Map[String, String]] = repsep(requestHeaderNameValuePair, lineSeparator) <~ lineSeparator ^^ {
-    res => res.map(s => (s._1, s._2)).toMap
-  }
+    private def current: String = {
+      if (line == null) throw new ODataBatchParseException("Unexpected end of batch request.")
+      line
+    }
 
-  def requestHeaderNameValuePair: Parser[(String, String)] = (("""(?s)[-\w.]*|\n""".r <~ ":") ~
-    (opt("\\s*".r) ~> """[\w\:\+/,_; \[\].\-\"\'\?=]*""".r)) ^^ {
-    case name ~ value => (name, value)
-  }
+    private def advance(): Unit = line = readLine()
 
+    private def readLine(): String = {
+      try {
+        val next = reader.readLine()
+        if (next == null) null else next.trim
+      } catch {
+        case e: IOException => throw new ODataSystemException("Could not read batch request", e)
+      }
+    }
+  }
 }
@@ -0,0 +1,694 @@
+/**
+ * Copyright (c) 2014-2024 All Rights Reserved by the RWS Group for and on behalf of its affiliates and subsidiaries.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.sdl.odata.parser
+
+import com.sdl.odata.api.edm.model.EntityDataModel
+import com.sdl.odata.api.parser._
+import com.sdl.odata.api.service.MediaType
+import java.net.URLDecoder
+import java.util.UUID
+import scala.collection.mutable.ListBuffer
+import scala.util.control.ControlThrowable
+
+/**
+ * Hand-written recursive-descent parser for the most common OData URIs: a path into an entity set through key
+ * predicates and properties, followed by the $filter, $orderby, $select, $expand, $top, $skip, $count and $format
+ * query options and custom query options.
+ *
+ * The URI is read from left to right and the result is exactly the same ODataUri that ODataUriParser produces.
+ * Backtracking is limited to two places in $filter expressions: a word is re-read as a literal when it turns out to
+ * be null, true or false, and an operand starting with '(' is first parsed as the left side of a comparison and
+ * re-read as a parenthesized boolean expression when no comparison operator follows. Nested parentheses can thus be
+ * read more than once, unlike everything else in the URI. When the URI contains anything outside of this subset, or anything that ODataUriParser
+ * would reject, the result is None; the URI must then be parsed by ODataUriParser, which also produces the error
+ * message for invalid URIs.
+ */
+class SinglePassODataUriParser(val entityDataModel: EntityDataModel) extends EntityDataModelHelpers {
+  import SinglePassODataUriParser._
+
+  def parseUri(input: String): Option[ODataUri] =
+    try {
+      Some(new UriReader(URLDecoder.decode(input, "UTF-8")).odataUri())
+    } catch {
+      case Unsupported | NoMatch => None
+      case _: IllegalArgumentException => None
+    }
+
+  private class UriReader(input: String) {
+    private var pos = 0
+
+    // Type of the target of the resource path, which is the context for the query options
+    private var resourceTypeName: String = _
+
+    def odataUri(): ODataUri = {
+      if (input.exists(c => Character.isSurrogate(c) || isLineTerminator(c))) throw Unsupported
+
+      // Everything up to the last ".svc" (case-insensitive) is considered to be part of the service root
+      pos = input.length - SvcSuffix.length
+      while (pos >= 0 && !isSvcSuffixAt(pos)) pos -= 1
+      if (pos < 0) throw Unsupported
+      pos += SvcSuffix.length
+      val serviceRoot = input.substring(0, pos)
+      accept('/')
+
+      if (atEnd) ODataUri(serviceRoot, ServiceRootUri(None)) else ODataUri(serviceRoot, resourcePathUri())
+    }
+
+    // ---- Resource path ----
+
+    private def resourcePathUri(): ResourcePathUri = {
+      val entitySetName = identifier()
+      if (!isEntitySet(entitySetName)) throw Unsupported
+
+      resourceTypeName = getEntitySetTypeName(entitySetName).get
+      val resourcePath = EntitySetPath(entitySetName, collectionNavigation())
+      val options = if (accept('?')) queryOptions(resourceTypeName) else List.empty
+
+      if (!atEnd) throw Unsupported
+      ResourcePathUri(resourcePath, options)
+    }
+
+    private def collectionNavigation(): Option[EntityCollectionPath] =
+      if (peek == '(') {
+        val keyPredicate = keyPredicateValue()
+        Some(EntityCollectionPath(None, Some(KeyPredicatePath(keyPredicate, singleNavigation()))))
+      } else if (acceptText("/$count")) {
+        Some(EntityCollectionPath(None, Some(CountPath)))
+      } else if (acceptText("/$ref")) {
+        Some(EntityCollectionPath(None, Some(RefPath)))
+      } else if (peek == '/') {
+        throw Unsupported
+      } else {
+        None
+      }
+
+    private def singleNavigation(): Option[EntityPath] =
+      if (acceptText("/$ref")) {
+        Some(EntityPath(None, Some(RefPath)))
+      } else if (acceptText("/$value")) {
+        Some(EntityPath(None, Some(ValuePath)))
+      } else if (accept('/')) {
+        Some(EntityPath(None, Some(propertyPath())))
+      } else {
+        None
+      }
+
+    private def propertyPath(): PropertyPath = {
+      val propertyName = identifier()
+      if (peek == '.') throw Unsupported
+
+      val contextTypeName = resourceTypeName
+      val property = getStructuralProperty(contextTypeName, propertyName).getOrElse(throw Unsupported)
+      resourceTypeName = getSinglePropertyTypeName(contextTypeName, propertyName)
+        .orElse(getPropertyElementTypeName(contextTypeName, propertyName)).get
+
+      val subPath: Option[PathSegment] =
+        if (isEntitySingleNavigationProperty(property)) {
+          singleNavigation()
+        } else if (isEntityCollectionNavigationProperty(property)) {
+          collectionNavigation()
+        } else if (isPrimitiveSingleProperty(property)) {
+          if (acceptText("/$value")) Some(ValuePath) else None
+        } else if (isPrimitiveCollectionProperty(property) || isComplexCollectionProperty(property)) {
+          if (acceptText("/$count")) Some(CountPath) else None
+        } else if (isComplexSingleProperty(property)) {
+          None
+        } else {
+          throw Unsupported
+        }
+
+      if (peek == '/') throw Unsupported
+      PropertyPath(propertyName, subPath)
+    }
+
+    private def keyPredicateValue(): KeyPredicate = {
+      expect('(')
+      val keyPredicate = if (isIdentifierStart(peek) && charAt(identifierEnd(pos)) == '=') {
+        val values = ListBuffer.empty[(String, Literal)]
+        do {
+          val name = identifier()
+          expect('=')
+          values += name -> literal()
+        } while (accept(','))
+        CompoundKeyPredicate(values.toMap)
+      } else {
+        SimpleKeyPredicate(literal())
+      }
+      expect(')')
+      keyPredicate
+    }
+
+    // ---- Query options ----
+
+    private def queryOptions(contextTypeName: String): List[QueryOption] = {
+      val options = ListBuffer.empty[QueryOption]
+      do {
+        options += queryOption(contextTypeName)
+      } while (accept('&'))
+      options.toList
+    }
+
+    private def queryOption(contextTypeName: String): QueryOption =
+      if (acceptText("$filter=")) {
+        FilterOption(boolCommonExpr(contextTypeName))
+      } else if (acceptText("$orderby=")) {
+        OrderByOption(orderbyItems(contextTypeName))
+      } else if (acceptText("$select=")) {
+        SelectOption(selectItems(contextTypeName))
+      } else if (acceptText("$expand=")) {
+        ExpandOption(expandItems(contextTypeName))
+      } else if (acceptText("$top=")) {
+        TopOption(integer())
+      } else if (acceptText("$skip=")) {
+        SkipOption(integer())
+      } else if (acceptText("$count=")) {
+        CountOption(booleanValue().getOrElse(throw Unsupported))
+      } else if (acceptText("$format=")) {
+        FormatOption(formatMediaType())
+      } else if (peek == '$' || peek == '@') {
+        throw Unsupported
+      } else {
+        customQueryOption()
+      }
+
+    private def orderbyItems(contextTypeName: String): List[OrderByItem] = {
+      val items = ListBuffer.empty[OrderByItem]
+      do {
+        val expression = commonExpr(contextTypeName)
+        val directionStart = whitespaceEnd(pos)
+        items += {
+          if (directionStart > pos && input.startsWith("asc", directionStart)) {
+            pos = directionStart + "asc".length
+            AscendingOrderByItem(expression)
+          } else if (directionStart > pos && input.startsWith("desc", directionStart)) {
+            pos = directionStart + "desc".length
+            DescendingOrderByItem(expression)
+          } else {
+            AscendingOrderByItem(expression)
+          }
+        }
+      } while (accept(','))
+      items.toList
+    }
+
+    private def selectItems(contextTypeName: String): List[SelectItem] = {
+      val items = ListBuffer.empty[SelectItem]
+      do {
+        items += (if (accept('*')) AllSelectItem else PathSelectItem(None, selectPathSegment(contextTypeName)))
+      } while (accept(','))
+      items.toList
+    }
+
+    private def selectPathSegment(contextTypeName: String): SelectPathSegment = {
+      val propertyName = identifier()
+      if (peek == '.' || peek == '/') throw Unsupported
+
+      val property = getStructuralProperty(contextTypeName, propertyName).getOrElse(throw Unsupported)
+      if (isComplexSingleProperty(property) || isComplexCollectionProperty(property)) {
+        ComplexPropertySelectPathSegment(propertyName, None, None)
+      } else if (isPrimitiveSingleProperty(property) || isPrimitiveCollectionProperty(property) ||
+        isEntityNavigationProperty(property)) {
+        TerminalPropertySelectPathSegment(propertyName)
+      } else {
+        throw Unsupported
+      }
+    }
+
+    private def expandItems(contextTypeName: String): List[ExpandItem] = {
+      val items = ListBuffer.empty[ExpandItem]
+      do {
+        items += {
+          if (accept('*')) {
+            if (peek == '/' || peek == '(') throw Unsupported
+            AllExpandItem(List.empty)
+          } else {
+            val propertyName = identifier()
+            if (peek == '.' || peek == '/' || peek == '(') throw Unsupported
+            if (!isEntityNavigationPropertyOf(contextTypeName)(propertyName)) throw Unsupported
+            PathExpandItem(None, NavigationPropertyExpandPathSegment(propertyName, None), List.empty)
+          }
+        }
+      } while (accept(','))
+      items.toList
+    }
+
+    private def integer(): Int = {
+      val start = pos
+      while (isDigit(peek)) pos += 1
+      if (pos == start || pos - start > MaxIntDigits) throw Unsupported
+      input.substring(start, pos).toInt
+    }
+
+    private def booleanValue(): Option[Boolean] =
+      if (acceptWordIgnoreCase("true")) Some(true) else if (acceptWordIgnoreCase("false")) Some(false) else None
+
+    private def formatMediaType(): MediaType =
+      if (acceptWordIgnoreCase("atom")) MediaType.ATOM_XML
+      else if (acceptWordIgnoreCase("json")) MediaType.JSON
+      else if (acceptWordIgnoreCase("xml")) MediaType.XML
+      else throw Unsupported
+
+    private def customQueryOption(): CustomOption = {
+      val nameStart = pos
+      if (atEnd || !isCustomNameStart(peek)) throw Unsupported
+      pos += 1
+      while (!atEnd && isCustomNamePart(peek)) pos += 1
+      val name = input.substring(nameStart, pos)
+
+      val value = if (accept('=')) {
+        val valueStart = pos
+        while (!atEnd && isCustomValuePart(peek)) pos += 1
+        Some(input.substring(valueStart, pos))
+      } else {
+        None
+      }
+      CustomOption(name, value)
+    }
+
+    // ---- Expressions ----
+
+    private def boolCommonExpr(contextTypeName: String): BooleanExpr = {
+      val left = boolCommonExprPart1(contextTypeName)
+      if (infix("or")) OrExpr(left, boolCommonExpr(contextTypeName)) else left
+    }
+
+    private def boolCommonExprPart1(contextTypeName: String): BooleanExpr = {
+      val left = boolCommonExprPart2(contextTypeName)
+      if (infix("and")) AndExpr(left, boolCommonExprPart1(contextTypeName)) else left
+    }
+
+    private def boolCommonExprPart2(contextTypeName: String): BooleanExpr = {
+      val start = pos
+      val word = if (isIdentifierStart(peek)) identifier() else ""
+
+      if (word == "isof" && peek == '(') {
+        throw Unsupported
+      } else if (BooleanMethodNames.contains(word) && peek == '(') {
+        BooleanMethodCallExpr(word, methodCallArgs(contextTypeName))
+      } else if (word == "not" && isWhitespace(peek)) {
+        pos = whitespaceEnd(pos)
+        NotExpr(boolCommonExprPart2(contextTypeName))
+      } else {
+        pos = start
+        try {
+          comparisonExpr(contextTypeName, commonExpr(contextTypeName))
+        } catch {
+          case NoMatch =>
+            pos = start
+            boolParenExpr(contextTypeName)
+        }
+      }
+    }
+
+    private def comparisonExpr(contextTypeName: String, left: Expression): ComparisonExpr =
+      if (infix("eq")) EqExpr(left, commonExpr(contextTypeName))
+      else if (infix("ne")) NeExpr(left, commonExpr(contextTypeName))
+      else if (infix("lt")) LtExpr(left, commonExpr(contextTypeName))
+      else if (infix("le")) LeExpr(left, commonExpr(contextTypeName))
+      else if (infix("gt")) GtExpr(left, commonExpr(contextTypeName))
+      else if (infix("ge")) GeExpr(left, commonExpr(contextTypeName))
+      else if (infix("has")) HasExpr(left, commonExpr(contextTypeName))
+      else throw NoMatch
+
+    private def boolParenExpr(contextTypeName: String): BooleanExpr = {
+      if (!accept('(')) throw NoMatch
+      pos = whitespaceEnd(pos)
+      val expression = boolCommonExpr(contextTypeName)
+      pos = whitespaceEnd(pos)
+      if (!accept(')')) throw NoMatch
+      expression
+    }
+
+    private def commonExpr(contextTypeName: String): Expression = {
+      val left = commonExprPart1(contextTypeName)
+      if (infix("add")) AddExpr(left, commonExpr(contextTypeName))
+      else if (infix("sub")) SubExpr(left, commonExpr(contextTypeName))
+      else left
+    }
+
+    private def commonExprPart1(contextTypeName: String): Expression = {
+      val left = commonExprPart2(contextTypeName)
+      if (infix("mul")) MulExpr(left, commonExprPart1(contextTypeName))
+      else if (infix("div")) DivExpr(left, commonExprPart1(contextTypeName))
+      else if (infix("mod")) ModExpr(left, commonExprPart1(contextTypeName))
+      else left
+    }
+
+    private def commonExprPart2(contextTypeName: String): Expression =
+      if (atEnd) {
+        throw Unsupported
+      } else if (peek == '\'' || isDigit(peek) || ((peek == '+' || peek == '-') && isDigit(charAt(pos + 1)))) {
+        LiteralExpr(literal())
+      } else if (peek == '(') {
+        parenExpr(contextTypeName)
+      } else if (isIdentifierStart(peek)) {
+        identifierExpr(contextTypeName)
+      } else {
+        throw Unsupported
+      }
+
+    private def parenExpr(contextTypeName: String): Expression = {
+      expect('(')
+      pos = whitespaceEnd(pos)
+      val expression = commonExpr(contextTypeName)
+      pos = whitespaceEnd(pos)
+      if (!accept(')')) throw NoMatch
+      expression
+    }
+
+    private def identifierExpr(contextTypeName: String): Expression = {
+      val start = pos
+      if (isGuidAt(start)) {
+        LiteralExpr(literal())
+      } else {
+        val word = identifier()
+        if (peek == '.' || peek == '\'') {
+          throw Unsupported
+        } else if (word.startsWith("null") || startsWithIgnoreCase(word, "true") ||
+          startsWithIgnoreCase(word, "false")) {
+          pos = start
+          LiteralExpr(literal())
+        } else if (peek == '(') {
+          if (MethodNames.contains(word)) {
+            MethodCallExpr(word, methodCallArgs(contextTypeName))
+          } else if (word == "cast" || getStructuralProperty(contextTypeName, word).isDefined) {
+            throw Unsupported
+          } else {
+            // Neither a method call nor a member expression
+            throw NoMatch
+          }
+        } else {
+          EntityPathExpr(None, Some(propertyPathExpr(contextTypeName, word)))
+        }
+      }
+    }
+
+    private def methodCallArgs(contextTypeName: String): List[Expression] =
+      try {
+        expect('(')
+        pos = whitespaceEnd(pos)
+        val args = ListBuffer.empty[Expression]
+        if (peek != ')') {
+          args += commonExpr(contextTypeName)
+          while (acceptArgumentSeparator()) args += commonExpr(contextTypeName)
+        }
+        pos = whitespaceEnd(pos)
+        expect(')')
+        args.toList
+      } catch {
+        case NoMatch => throw Unsupported
+      }
+
+    private def memberExpr(contextTypeName: String): EntityPathExpr = {
+      val propertyName = identifier()
+      if (peek == '.') throw Unsupported
+      EntityPathExpr(None, Some(propertyPathExpr(contextTypeName, propertyName)))
+    }
+
+    private def propertyPathExpr(contextTypeName: String, propertyName: String): PropertyPathExpr = {
+      val property = getStructuralProperty(contextTypeName, propertyName).getOrElse(throw Unsupported)
+
+      if (isEntitySingleNavigationProperty(property)) {
+        val subPath = if (accept('/')) {
+          Some(memberExpr(getSinglePropertyTypeName(contextTypeName, propertyName).get))
+        } else {
+          None
+        }
+        PropertyPathExpr(propertyName, subPath)
+      } else if (isComplexSingleProperty(property)) {
+        val subPath = if (accept('/')) {
+          val complexTypeName = getSinglePropertyTypeName(contextTypeName, propertyName).get
+          val subPropertyName = identifier()
+          if (peek == '.') throw Unsupported
+          Some(ComplexPathExpr(None, Some(propertyPathExpr(complexTypeName, subPropertyName))))
+        } else {
+          None
+        }
+        PropertyPathExpr(propertyName, subPath)
+      } else if (isPrimitiveSingleProperty(property) || isPrimitiveCollectionProperty(property) ||
+        isComplexCollectionProperty(property) || isEntityCollectionNavigationProperty(property)) {
+        if (peek == '/' || peek == '(') throw Unsupported
+        PropertyPathExpr(propertyName, None)
+      } else {
+        throw Unsupported
+      }
+    }
+
+    // ---- Literals ----
+
+    private def literal(): Literal =
+      if (isGuidAt(pos)) {
+        val value = input.substring(pos, pos + GuidLength)
+        pos += GuidLength
+        GuidLiteral(UUID.fromString(value))
+      } else if (peek == '\'') {
+        StringLiteral(stringValue())
+      } else if (isDigit(peek) || ((peek == '+' || peek == '-') && isDigit(charAt(pos + 1)))) {
+        numberLiteral()
+      } else if (isIdentifierStart(peek)) {
+        val word = identifier()
+        if (peek == '\'' || peek == '.') throw Unsupported
+        if (word == "null") NullLiteral
+        else if (equalsIgnoreCase(word, "true")) TrueLiteral
+        else if (equalsIgnoreCase(word, "false")) FalseLiteral
+        else throw Unsupported
+      } else {
+        throw Unsupported
+      }
+
+    private def stringValue(): String = {
+      val value = new java.lang.StringBuilder
+      pos += 1
+      var end = input.indexOf('\'', pos)
+      while (end >= 0 && charAt(end + 1) == '\'') {
+        value.append(input, pos, end + 1)
+        pos = end + 2
+        end = input.indexOf('\'', pos)
+      }
+      if (end < 0) throw Unsupported
+      value.append(input, pos, end)
+      pos = end + 1
+      value.toString
+    }
+
+    private def numberLiteral(): NumberLiteral = {
+      // Dates and times start with digits as well
+      if (isDateOrTimeAt(pos)) throw Unsupported
+
+      val start = pos
+      if (peek == '+' || peek == '-') pos += 1
+      skipDigits()
+      if (peek == '.' && isDigit(charAt(pos + 1))) {
+        pos += 1
+        skipDigits()
+      }
+      if (peek == 'e') {
+        val exponentStart = pos
+        pos += 1
+        if (peek == '+' || peek == '-') pos += 1
+        if (isDigit(peek)) skipDigits() else pos = exponentStart
+      }
+      NumberLiteral(BigDecimal(input.substring(start, pos)))
+    }
+
+    // ---- Scanning ----
+
+    private def atEnd: Boolean = pos >= input.length
+
+    private def charAt(index: Int): Char = if (index < input.length) input.charAt(index) else EndOfInput
+
+    private def peek: Char = charAt(pos)
+
+    private def accept(c: Char): Boolean =
+      if (!atEnd && input.charAt(pos) == c) {
+        pos += 1
+        true
+      } else {
+        false
+      }
+
+    private def expect(c: Char): Unit = if (!accept(c)) throw Unsupported
+
+    private def acceptText(text: String): Boolean =
+      if (input.startsWith(text, pos)) {
+        pos += text.length
+        true
+      } else {
+        false
+      }
+
+    private def acceptWordIgnoreCase(word: String): Boolean =
+      if (startsWithIgnoreCase(input, pos, word)) {
+        pos += word.length
+        true
+      } else {
+        false
+      }
+
+    // Matches """\s+operator\s+"""
+    private def infix(operator: String): Boolean = {
+      val operatorStart = whitespaceEnd(pos)
+      val operatorEnd = operatorStart + operator.length
+      if (operatorStart > pos && input.startsWith(operator, operatorStart) && whitespaceEnd(operatorEnd) > operatorEnd) {
+        pos = whitespaceEnd(operatorEnd)
+        true
+      } else {
+        false
+      }
+    }
+
+    // Matches """\s*,\s*"""
+    private def acceptArgumentSeparator(): Boolean = {
+      val separator = whitespaceEnd(pos)
+      if (charAt(separator) == ',' && separator < input.length) {
+        pos = whitespaceEnd(separator + 1)
+        true
+      } else {
+        false
+      }
+    }
+
+    private def whitespaceEnd(from: Int): Int = {
+      var index = from
+      while (index < input.length && isWhitespace(input.charAt(index))) index += 1
+      index
+    }
+
+    private def skipDigits(): Unit = while (isDigit(peek)) pos += 1
+
+    private def identifier(): String = {
+      if (atEnd || !isIdentifierStart(peek)) throw Unsupported
+      val start = pos
+      pos = identifierEnd(pos)
+      input.substring(start, pos)
+    }
+
+    private def identifierEnd(from: Int): Int = {
+      var index = from + 1
+      while (index < input.length && isIdentifierPart(input.charAt(index))) index += 1
+      index
+    }
+
+    private def isSvcSuffixAt(index: Int): Boolean =
+      startsWithIgnoreCase(input, index, SvcSuffix)
+
+    // Matches """[0-9A-Fa-f]{8}-[0-9A-Fa-f]{4}-[0-9A-Fa-f]{4}-[0-9A-Fa-f]{4}-[0-9A-Fa-f]{12}"""
+    private def isGuidAt(index: Int): Boolean =
+      index + GuidLength <= input.length && (0 until GuidLength).forall { i =>
+        val c = input.charAt(index + i)
+        if (GuidDashes.contains(i)) c == '-' else isHexDigit(c)
+      }
+
+    // Matches """\d{4}-\d{2}-\d{2}""" and """\d{2}:\d{2}"""
+    private def isDateOrTimeAt(index: Int): Boolean = {
+      def matches(pattern: String): Boolean = index + pattern.length <= input.length &&
+        pattern.indices.forall { i =>
+          val c = input.charAt(index + i)
+          if (pattern.charAt(i) == 'd') isDigit(c) else c == pattern.charAt(i)
+        }
+      matches("dddd-dd-dd") || matches("dd:dd")
+    }
+  }
+}
+
+object SinglePassODataUriParser {
+
+  /** Signals that the URI contains a construct which is not handled by the single-pass parser. */
+  private case object Unsupported extends ControlThrowable
+
+  /** Signals that ODataUriParser would not match the input at this position either. */
+  private case object NoMatch extends ControlThrowable
+
+  private val EndOfInput = 0.toChar
+
+  private val VerticalTab = 0x0B.toChar
+
+  private val NextLine = 0x85.toChar
+
+  private val LineSeparator = 0x2028.toChar
+
+  private val ParagraphSeparator = 0x2029.toChar
+
+  private val SvcSuffix = ".svc"
+
+  private val MaxIntDigits = 9
+
+  private val GuidLength = 36
+
+  private val GuidDashes = Set(8, 13, 18, 23)
+
+  // The same names as ExpressionsParser.methodName, except the ones with a namespace
+  private val MethodNames = Set("length", "indexof", "substring", "tolower", "toupper", "trim", "concat", "year",
+    "month", "day", "hour", "minute", "second", "fractionalseconds", "totalseconds", "date", "time",
+    "totaloffsetminutes", "mindatetime", "maxdatetime", "now", "round", "floor", "ceiling")
+
+  // The same names as ExpressionsParser.boolMethodName, except the ones with a namespace
+  private val BooleanMethodNames = Set("contains", "startswith", "endswith")
+
+  private val CustomNameStartChars = "-._~!()*+,;:/?'"
+
+  private val CustomNamePartChars = CustomNameStartChars + "@$"
+
+  private val CustomValuePartChars = CustomNamePartChars + "="
+
+  private def isDigit(c: Char): Boolean = c >= '0' && c <= '9'
+
+  private def isHexDigit(c: Char): Boolean = isDigit(c) || (c >= 'a' && c <= 'f') || (c >= 'A' && c <= 'F')
+
+  private def isAsciiLetterOrDigit(c: Char): Boolean = isDigit(c) || (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z')
+
+  // The characters matched by \s in a regular expression
+  private def isWhitespace(c: Char): Boolean =
+    c == ' ' || c == '\t' || c == '\n' || c == VerticalTab || c == '\f' || c == '\r'
+
+  // The characters not matched by . in a regular expression
+  private def isLineTerminator(c: Char): Boolean =
+    c == '\n' || c == '\r' || c == NextLine || c == LineSeparator || c == ParagraphSeparator
+
+  // [\p{L}\p{Nl}_]
+  private def isIdentifierStart(c: Char): Boolean =
+    Character.isLetter(c) || Character.getType(c) == Character.LETTER_NUMBER || c == '_'
+
+  // [\p{L}\p{Nl}\p{Nd}\p{Mn}\p{Mc}\p{Pc}\p{Cf}]
+  private def isIdentifierPart(c: Char): Boolean = {
+    val charType = Character.getType(c)
+    Character.isLetter(c) || charType == Character.LETTER_NUMBER || charType == Character.DECIMAL_DIGIT_NUMBER ||
+      charType == Character.NON_SPACING_MARK || charType == Character.COMBINING_SPACING_MARK ||
+      charType == Character.CONNECTOR_PUNCTUATION || charType == Character.FORMAT
+  }
+
+  private def isCustomNameStart(c: Char): Boolean =
+    isAsciiLetterOrDigit(c) || CustomNameStartChars.indexOf(c) >= 0
+
+  private def isCustomNamePart(c: Char): Boolean =
+    isAsciiLetterOrDigit(c) || CustomNamePartChars.indexOf(c) >= 0
+
+  private def isCustomValuePart(c: Char): Boolean =
+    isAsciiLetterOrDigit(c) || CustomValuePartChars.indexOf(c) >= 0
+
+  // Case-insensitive for ASCII letters only, like the (?i) flag in a regular expression; word must be lower case
+  private def startsWithIgnoreCase(s: String, offset: Int, word: String): Boolean =
+    offset + word.length <= s.length && word.indices.forall { i =>
+      val c = s.charAt(offset + i)
+      val w = word.charAt(i)
+      c == w || (w >= 'a' && w <= 'z' && c == Character.toUpperCase(w))
+    }
+
+  private def startsWithIgnoreCase(s: String, word: String): Boolean = startsWithIgnoreCase(s, 0, word)
+
+  private def equalsIgnoreCase(s: String, word: String): Boolean =
+    s.length == word.length && startsWithIgnoreCase(s, word)
+}
@@ -0,0 +1,142 @@
+/**
+ * Copyright (c) 2014-2024 All Rights Reserved by the RWS Group for and on behalf of its affiliates and subsidiaries.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.sdl.odata.parser;
+
+import com.sdl.odata.api.ODataException;
+import com.sdl.odata.api.edm.model.EntityDataModel;
+import com.sdl.odata.api.parser.ODataUri;
+import com.sdl.odata.api.parser.ODataUriParseException;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Unit tests for {@link ODataUriCache}.
+ */
+public class ODataUriCacheTest extends ParserTestSuite {
+
+    @Test
+    public void testParsedUriIsCached() throws ODataException {
+        ODataUri first = parser.parseUri(SERVICE_ROOT + "Customers?$top=10", model);
+        ODataUri second = parser.parseUri(SERVICE_ROOT + "Customers?$top=10", model);
+
+        assertSame(first, second);
+        assertEquals(1, parser.getUriCache().getHitCount());
+        assertEquals(1, parser.getUriCache().getMissCount());
+    }
+
+    @Test
+    public void testParseErrorsAreNotCached() {
+        assertThrows(ODataUriParseException.class, () ->
+                parser.parseUri(SERVICE_ROOT + "$metadata?$format=superman", model));
+        assertEquals(0, parser.getUriCache().size());
+    }
+
+    @Test
+    public void testCacheIsClearedForOtherModel() throws Exception {
+        ODataUri first = parser.parseUri(SERVICE_ROOT + "Customers", model);
+        EntityDataModel previous = model;
+        setUp();
+
+        ODataUri second = parser.parseUri(SERVICE_ROOT + "Customers", model);
+        assertNotSame(first, second);
+        assertEquals(1, parser.getUriCache().size());
+        assertNull(parser.getUriCache().get(SERVICE_ROOT + "Customers", previous));
+    }
+
+    @Test
+    public void testLeastRecentlyUsedEntryIsEvicted() throws ODataException {
+        parser.setUriCacheMaxSize(2);
+        parser.parseUri(SERVICE_ROOT + "Customers", model);
+        parser.parseUri(SERVICE_ROOT + "Orders", model);
+        parser.parseUri(SERVICE_ROOT + "Customers", model);
+        parser.parseUri(SERVICE_ROOT + "Products", model);
+
+        ODataUriCache cache = parser.getUriCache();
+        assertEquals(2, cache.size());
+        assertNull(cache.get(SERVICE_ROOT + "Orders", model));
+    }
+
+    @Test
+    public void testHotEntriesSurviveEviction() throws ODataException {
+        ODataUriCache cache = new ODataUriCache(100);
+        ODataUri parsedUri = parser.parseUri(SERVICE_ROOT + "Customers", model);
+        for (int i = 0; i < 10; i++) {
+            cache.put(SERVICE_ROOT + "Customers(" + i + ")", model, parsedUri);
+        }
+
+        for (int i = 0; i < 1000; i++) {
+            cache.put(SERVICE_ROOT + "Orders(" + i + ")", model, parsedUri);
+            for (int j = 0; j < 10; j++) {
+                assertSame(parsedUri, cache.get(SERVICE_ROOT + "Customers(" + j + ")", model),
+                        "Hot entry " + j + " was evicted after " + i + " stores");
+            }
+        }
+        assertTrue(cache.size() <= 100, "Cache exceeded its maximum size: " + cache.size());
+        assertNull(cache.get(SERVICE_ROOT + "Orders(0)", model));
+    }
+
+    @Test
+    public void testCacheCanBeDisabled() throws ODataException {
+        parser.setUriCacheMaxSize(0);
+        ODataUri first = parser.parseUri(SERVICE_ROOT + "Customers", model);
+        ODataUri second = parser.parseUri(SERVICE_ROOT + "Customers", model);
+
+        assertNotSame(first, second);
+        assertEquals(0, parser.getUriCache().size());
+    }
+
+    @Test
+    public void testConcurrentAccessStaysBounded() throws Exception {
+        ODataUriCache cache = new ODataUriCache(16);
+        ODataUri parsedUri = parser.parseUri(SERVICE_ROOT + "Customers", model);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < 8; t++) {
+                int thread = t;
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < 10000; i++) {
+                        String uri = SERVICE_ROOT + "Customers(" + ((i * 31 + thread) % 64) + ")";
+                        if (cache.get(uri, model) == null) {
+                            cache.put(uri, model, parsedUri);
+                        }
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertTrue(cache.size() <= 16, "Cache exceeded its maximum size: " + cache.size());
+        assertEquals(80000, cache.getHitCount() + cache.getMissCount());
+    }
+}
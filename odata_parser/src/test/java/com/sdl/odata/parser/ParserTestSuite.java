@@ -22,6 +22,7 @@ import com.sdl.odata.api.parser.FilterOption;
 import com.sdl.odata.api.parser.LiteralExpr;
 import com.sdl.odata.api.parser.NumberLiteral;
 import com.sdl.odata.api.parser.ODataUri;
+import com.sdl.odata.api.parser.ODataUriParseException;
 import com.sdl.odata.api.parser.PropertyPathExpr;
 import com.sdl.odata.api.parser.QueryOption;
 import com.sdl.odata.api.parser.ResourcePathUri;
@@ -43,10 +44,12 @@ import com.sdl.odata.test.model.UnboundFunctionSample;
 import org.junit.jupiter.api.BeforeEach;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import scala.Option;
 import scala.collection.immutable.List;
 import scala.math.BigDecimal;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 
 /**
  * Parser Test Suite.
@@ -59,7 +62,7 @@ public class ParserTestSuite {
     /**
      * OData Parser.
      */
-    public ODataParserImpl parser = new ODataParserImpl();
+    public ODataParserImpl parser = new CrossCheckingParser();
     /**
      * Service Root URL.
      */
@@ -108,4 +111,26 @@ public class ParserTestSuite {
         return (FilterOption) options.head();
     }
 
+    /**
+     * Parser which checks every URI parsed by the test cases against {@link SinglePassODataUriParser} as well: when
+     * the single-pass parser supports the URI, it must produce the same result, and it must not accept URIs which
+     * the combinator parser rejects.
+     */
+    private static class CrossCheckingParser extends ODataParserImpl {
+        @Override
+        public ODataUri parseUri(String uri, EntityDataModel entityDataModel) throws ODataUriParseException {
+            Option<ODataUri> singlePassUri = new SinglePassODataUriParser(entityDataModel).parseUri(uri);
+            ODataUri parsedUri;
+            try {
+                parsedUri = super.parseUri(uri, entityDataModel);
+            } catch (ODataUriParseException e) {
+                assertFalse(singlePassUri.isDefined(), "Single-pass parser accepts invalid URI: " + uri);
+                throw e;
+            }
+            if (singlePassUri.isDefined()) {
+                assertEquals(parsedUri, singlePassUri.get(), "Single-pass parser gives a different result for: " + uri);
+            }
+            return parsedUri;
+        }
+    }
 }
@@ -15,6 +15,8 @@
  */
 package com.sdl.odata.parser
 
+import java.io.StringReader
+
 import com.sdl.odata.api.parser.ODataBatchParseException
 import org.junit.jupiter.api.Assertions.assertEquals
 import org.scalatest.FunSuite
@@ -321,20 +323,6 @@ class ODataBatchRequestParserTest extends FunSuite {
     assert(indvRequestComponent.getHeaders().headers.get("Host").get == "http://localhost:8082/discovery-service/odata.svc")
   }
 
-  test("Input whitespace trimming") {
-    val requestBodyWithTrailingWhitespaces = "--batch_36522ad7-fc75-4b56-8c71-56071383e77b   " + newLine +
-      "headers and batch content   " + newLine +
-      "   " + newLine +
-      "--batch_36522ad7-fc75-4b56-8c71-56071383e77b--   "
-    val requestBodyWithoutTrailingWhitespaces = "--batch_36522ad7-fc75-4b56-8c71-56071383e77b" + newLine +
-      "headers and batch content" + newLine +
-      newLine +
-      "--batch_36522ad7-fc75-4b56-8c71-56071383e77b--"
-
-    assert(batchRequestParser.trimRedundantTrailingSpaces(requestBodyWithTrailingWhitespaces) ==
-      requestBodyWithoutTrailingWhitespaces)
-  }
-
   test("Batch request with no host defined with resource path only") {
     val testBatchRequestBody = "--batch_36522ad7-fc75-4b56-8c71-56071383e77b" + newLine +
       "Content-Type: application/http" + newLine +
@@ -433,8 +421,8 @@ class ODataBatchRequestParserTest extends FunSuite {
       "{\"@odata.type\":\"#Example.Application.Platform.Entity\",\"id\":\"Website2_RootWebApp\",\"ContextURL\":\"/\",\"BaseURLs@odata.type\":\"#Collection(Example.Application.Platform.Entity)\",\"BaseURLs\":[{\"@odata.type\":\"#Example.Application.Platform.Entity\",\"Protocol\":\"http\",\"Host\":\"localhost\",\"Port\":\"8080\"}],\"ExtensionProperties@odata.type\":\"#Collection(Example.Application.Platform.Entity)\",\"ExtensionProperties\":[],\"WebCapability@odata.bind\":\"http://localhost:8082/odata.svc/WebCapabilities('DefaultWeb')\"}\n \n--changeset_05118c88-8f0b-43da-be4d-c326e0133670--\n--batch_7aa6777a-f7f2-4a45-89ee-a3b72464f51d--\n" +
       "\n"
 
-    val whiteSpacesResult = batchRequestParser.trimRedundantTrailingSpaces(whiteSpacesBatchSource)
-    val noWhiteSpacesResult = batchRequestParser.trimRedundantTrailingSpaces(noWhiteSpacesBatchSource)
+    val whiteSpacesResult = batchRequestParser.parseBatch(whiteSpacesBatchSource).requestComponents.toList
+    val noWhiteSpacesResult = batchRequestParser.parseBatch(noWhiteSpacesBatchSource).requestComponents.toList
 
     assert(whiteSpacesResult != null)
     assert(noWhiteSpacesResult != null)
@@ -492,4 +480,152 @@ class ODataBatchRequestParserTest extends FunSuite {
     assert(changeSetOperation1.requestDetails.get("RequestHost").get == "https://secure-host")
     assert(changeSetOperation1.requestDetails.get("RequestBody").get == "{ \"some\" : \"content\" }")
   }
+
+  test("Batch request with CRLF line endings read from a reader") {
+    val testBatchRequestBody = "--batch_36522ad7-fc75-4b56-8c71-56071383e77b\r\n" +
+      "Content-Type: application/http\r\n" +
+      "Content-Transfer-Encoding:binary\r\n" +
+      "\r\n" +
+      "GET /service/Customers('ALFKI') HTTP/1.1\r\n" +
+      "Host: localhost\r\n" +
+      "\r\n" +
+      "\r\n" +
+      "--batch_36522ad7-fc75-4b56-8c71-56071383e77b--\r\n"
+
+    val parsedContent = batchRequestParser.parseBatch(new StringReader(testBatchRequestBody))
+
+    assert(parsedContent.requestComponents.size == 1)
+    val indvRequestComponent = parsedContent.requestComponents(0).asInstanceOf[BatchRequestComponent]
+    assert(indvRequestComponent.getRequestDetails().get("RequestEntity").get == "Customers('ALFKI')")
+    assert(indvRequestComponent.getRequestDetails().get("RelativePath").get == "/service/")
+    assert(indvRequestComponent.getRequestDetails().get("RequestBody").get == "")
+    assert(indvRequestComponent.getHeaders().headers.get("Host").get == "localhost")
+  }
+
+  test("Batch request parts are parsed when they are reached") {
+    val testBatchRequestBody = "--batch_36522ad7-fc75-4b56-8c71-56071383e77b" + newLine +
+      "Content-Type: application/http" + newLine +
+      "Content-Transfer-Encoding:binary" + newLine +
+      newLine +
+      "GET /service/Customers('ALFKI')" + newLine +
+      newLine +
+      newLine +
+      "--batch_36522ad7-fc75-4b56-8c71-56071383e77b" + newLine +
+      "Content-Type: application/http" + newLine +
+      "Content-Transfer-Encoding:binary" + newLine +
+      newLine +
+      "DELETE /service/Customers('ALFKI')" + newLine +
+      newLine +
+      newLine +
+      "--batch_36522ad7-fc75-4b56-8c71-56071383e77b--"
+
+    val parsedContent = batchRequestParser.parseBatch(testBatchRequestBody)
+    val requestComponents = parsedContent.requestComponents.iterator
+
+    val indvRequestComponent = requestComponents.next().asInstanceOf[BatchRequestComponent]
+    assert(indvRequestComponent.getRequestDetails().get("RequestType").get == "GET")
+
+    val exception = intercept[ODataBatchParseException] {
+      requestComponents.next()
+    }
+    assert(exception.getMessage == "Only GET is supported in Individual requests of batch.")
+  }
+
+  test("Batch request with change set request without Content-ID") {
+    val testBatchRequestBody = "--batch_36522ad7-fc75-4b56-8c71-56071383e77b" + newLine +
+      "Content-Type: multipart/mixed; boundary=changeset_77162fcd-b8da-41ac-a9f8-9357efbbd" + newLine +
+      newLine +
+      "--changeset_77162fcd-b8da-41ac-a9f8-9357efbbd" + newLine +
+      "Content-Type: application/http" + newLine +
+      "Content-Transfer-Encoding: binary" + newLine +
+      newLine +
+      "DELETE /service/Customers('ALFKI') HTTP/1.1" + newLine +
+      newLine +
+      newLine +
+      "--changeset_77162fcd-b8da-41ac-a9f8-9357efbbd--" + newLine +
+      "--batch_36522ad7-fc75-4b56-8c71-56071383e77b--"
+
+    val exception = intercept[ODataBatchParseException] {
+      batchRequestParser.parseBatch(testBatchRequestBody)
+    }
+    assert(exception.getMessage == "Each request within a change set MUST specify a Content-ID header")
+  }
+
+  test("Batch request with duplicate Content-ID") {
+    def deleteRequest(contentId: Int): String = "--changeset_77162fcd-b8da-41ac-a9f8-9357efbbd" + newLine +
+      "Content-Type: application/http" + newLine +
+      "Content-Transfer-Encoding: binary" + newLine +
+      "Content-ID: " + contentId + newLine +
+      newLine +
+      "DELETE /service/Customers('ALFKI') HTTP/1.1" + newLine +
+      newLine +
+      newLine
+
+    val testBatchRequestBody = "--batch_36522ad7-fc75-4b56-8c71-56071383e77b" + newLine +
+      "Content-Type: multipart/mixed; boundary=changeset_77162fcd-b8da-41ac-a9f8-9357efbbd" + newLine +
+      newLine +
+      deleteRequest(1) +
+      deleteRequest(1) +
+      "--changeset_77162fcd-b8da-41ac-a9f8-9357efbbd--" + newLine +
+      "--batch_36522ad7-fc75-4b56-8c71-56071383e77b--"
+
+    val exception = intercept[ODataBatchParseException] {
+      batchRequestParser.parseBatch(testBatchRequestBody)
+    }
+    assert(exception.getMessage == "Value of Content-ID header within a change set must be unique")
+  }
+
+  test("Lines starting with -- which are not a delimiter of the batch or change set are part of the body") {
+    val testBatchRequestBody = "--batch_36522ad7-fc75-4b56-8c71-56071383e77b" + newLine +
+      "Content-Type: multipart/mixed; boundary=changeset_77162fcd-b8da-41ac-a9f8-9357efbbd" + newLine +
+      newLine +
+      "--changeset_77162fcd-b8da-41ac-a9f8-9357efbbd" + newLine +
+      "Content-Type: application/http" + newLine +
+      "Content-Transfer-Encoding: binary" + newLine +
+      "Content-ID: 1" + newLine +
+      newLine +
+      "POST /service/Customers HTTP/1.1" + newLine +
+      "Content-Type: application/atom+xml;type=entry" + newLine +
+      newLine +
+      "<?xml version=\"1.0\"?>" + newLine +
+      "<entry><![CDATA[" + newLine +
+      "--changeset_77162fcd-b8da-41ac-a9f8-9357efbbd-other" + newLine +
+      "--batch--" + newLine +
+      "]]></entry>" + newLine +
+      "--changeset_77162fcd-b8da-41ac-a9f8-9357efbbd--" + newLine +
+      "--batch_36522ad7-fc75-4b56-8c71-56071383e77b--"
+
+    val parsedContent = batchRequestParser.parseBatch(testBatchRequestBody)
+
+    assert(parsedContent.requestComponents.size == 1)
+    val changeSet = parsedContent.requestComponents(0).asInstanceOf[ChangeSetRequestComponent]
+    assert(changeSet.changesetRequests.size == 1)
+    assert(changeSet.changesetRequests(0).requestDetails("RequestBody") == "<?xml version=\"1.0\"?>" + newLine +
+      "<entry><![CDATA[" + newLine +
+      "--changeset_77162fcd-b8da-41ac-a9f8-9357efbbd-other" + newLine +
+      "--batch--" + newLine +
+      "]]></entry>")
+  }
+
+  test("Change set parts must be delimited by the boundary of their change set") {
+    val testBatchRequestBody = "--batch_36522ad7-fc75-4b56-8c71-56071383e77b" + newLine +
+      "Content-Type: multipart/mixed; boundary=changeset_77162fcd-b8da-41ac-a9f8-9357efbbd" + newLine +
+      newLine +
+      "--changeset_other" + newLine +
+      "Content-Type: application/http" + newLine +
+      "Content-Transfer-Encoding: binary" + newLine +
+      "Content-ID: 1" + newLine +
+      newLine +
+      "DELETE /service/Customers('ALFKI') HTTP/1.1" + newLine +
+      newLine +
+      newLine +
+      "--changeset_other--" + newLine +
+      "--batch_36522ad7-fc75-4b56-8c71-56071383e77b--"
+
+    val exception = intercept[ODataBatchParseException] {
+      batchRequestParser.parseBatch(testBatchRequestBody)
+    }
+    assert(exception.getMessage == "Expected a delimiter line of boundary " +
+      "'changeset_77162fcd-b8da-41ac-a9f8-9357efbbd' in batch request, found: --changeset_other")
+  }
 }
@@ -0,0 +1,150 @@
+/**
+ * Copyright (c) 2014-2024 All Rights Reserved by the RWS Group for and on behalf of its affiliates and subsidiaries.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.sdl.odata.parser
+
+import org.scalatest.FunSuite
+import com.sdl.odata.api.parser._
+import com.sdl.odata.test.util.Timing
+
+class SinglePassODataUriParserTest extends FunSuite with ParserTestHelpers {
+
+  val singlePassParser = new SinglePassODataUriParser(parser.entityDataModel)
+
+  val serviceRoot = "http://localhost:8080/odata.svc"
+
+  private val logger = org.slf4j.LoggerFactory.getLogger(classOf[SinglePassODataUriParserTest])
+  private val Rounds = 5
+  private val Parses = 200
+
+  def testSameResult(uri: String) {
+    val expected = parser.parseUri(serviceRoot + uri)
+    assert(singlePassParser.parseUri(serviceRoot + uri) === Some(expected), s"Different result for: $uri")
+  }
+
+  def testUnsupported(uri: String) {
+    assert(singlePassParser.parseUri(serviceRoot + uri) === None, s"Expected no result for: $uri")
+  }
+
+  test("Service root") {
+    testSameResult("")
+    testSameResult("/")
+  }
+
+  test("Resource paths") {
+    testSameResult("/Customers")
+    testSameResult("/Customers/$count")
+    testSameResult("/Customers/$ref")
+    testSameResult("/Customers(1)")
+    testSameResult("/Customers(-1)")
+    testSameResult("/Customers('abc''def')")
+    testSameResult("/Customers(id=1)")
+    testSameResult("/Customers(1)/$ref")
+    testSameResult("/Customers(1)/name")
+    testSameResult("/Customers(1)/name/$value")
+    testSameResult("/Customers(1)/Phone")
+    testSameResult("/Customers(1)/Phone/$count")
+    testSameResult("/Customers(1)/address/$count")
+    testSameResult("/Customers(1)/Orders")
+    testSameResult("/Customers(1)/Orders/$count")
+    testSameResult("/Customers(1)/Orders(2)/customer/BankAccount")
+    testSameResult("/Orders(1)/customer/name")
+    testSameResult("/Customers(1)/Orders(2)/customer/Orders?$top=5")
+  }
+
+  test("Query options") {
+    testSameResult("/Customers?$top=10&$skip=20")
+    testSameResult("/Customers?$count=true&$format=json")
+    testSameResult("/Customers?$format=ATOM")
+    testSameResult("/Customers?$select=*")
+    testSameResult("/Customers?$select=id,name,Phone,address,Orders")
+    testSameResult("/Customers?$expand=*")
+    testSameResult("/Customers?$expand=Orders,BankAccount")
+    testSameResult("/Customers?$orderby=name")
+    testSameResult("/Customers?$orderby=name desc,id asc")
+    testSameResult("/Customers?custom=value&flag")
+    testSameResult("/Orders?$orderby=customer/name&$top=1")
+  }
+
+  test("Filter expressions") {
+    testSameResult("/Customers?$filter=name eq 'Bob'")
+    testSameResult("/Customers?$filter=id gt 10 and id le 20 or name ne null")
+    testSameResult("/Customers?$filter=not (id eq 1)")
+    testSameResult("/Customers?$filter=(id eq 1 or id eq 2) and name eq 'x'")
+    testSameResult("/Customers?$filter=((id eq 1))")
+    testSameResult("/Customers?$filter=(id add 1) mul 2 eq 4 sub 2")
+    testSameResult("/Customers?$filter=id mod 2 eq 0 and id div 2 ge 1.5e3")
+    testSameResult("/Customers?$filter=contains(name,'o') and startswith(name, 'B')")
+    testSameResult("/Customers?$filter=(contains(name,'o') or endswith(name,'b'))")
+    testSameResult("/Customers?$filter=tolower(name) eq 'bob' and length(name) lt 5")
+    testSameResult("/Customers?$filter=year(date) eq 2014 and now() ne null")
+    testSameResult("/Customers?$filter=BankAccount/iban eq 'NL00'")
+    testSameResult("/Orders?$filter=customer/BankAccount/iban eq 'NL00'")
+    testSameResult("/Customers?$filter=name eq TRUE or name eq false")
+    testSameResult("/Customers?$filter=name eq 01234567-89ab-cdef-0123-456789abcdef")
+    testSameResult("/Customers(1)/Orders?$filter=id eq 1&$orderby=id desc")
+    testSameResult("/Customers?$filter=name%20eq%20%27Bob%27")
+  }
+
+  test("Unsupported or invalid URIs") {
+    testUnsupported("/$metadata")
+    testUnsupported("/$batch")
+    testUnsupported("?$format=json")
+    testUnsupported("/Customers/ODataDemo.VIPCustomer")
+    testUnsupported("/Customers?$filter=date eq 2014-01-01T00:00:00Z")
+    testUnsupported("/Customers?$filter=Orders/any(o: o/id eq 1)")
+    testUnsupported("/Customers?$expand=Orders($select=id)")
+    testUnsupported("/Customers?$format=application/json")
+    testUnsupported("/Customers?$filter=name eq 'Bob'x")
+    testUnsupported("/Customers?$filter=unknown eq 1")
+    testUnsupported("/Customers?$filter=nullable eq 1")
+    testUnsupported("/Customers?$top=x")
+    testUnsupported("/Customers?")
+    testUnsupported("/Customers/")
+    testUnsupported("/Unknown")
+  }
+
+  test("Parser falls back to the combinator parser") {
+    val parserImpl = new ODataParserImpl
+    parserImpl.setSinglePass(true)
+
+    val uri = serviceRoot + "/$metadata"
+    assert(parserImpl.parseUri(uri, parser.entityDataModel) === parser.parseUri(uri))
+    intercept[ODataUriParseException] {
+      parserImpl.parseUri(serviceRoot + "/Unknown", parser.entityDataModel)
+    }
+  }
+
+  test("Single-pass parsing is compared with the combinator parser") {
+    val uris = Seq(
+      "/Customers?$filter=name eq 'Bob' and id gt 10&$orderby=name desc,id asc&$top=20&$skip=40",
+      "/Customers?$filter=contains(name,'o') or startswith(name,'B')&$expand=Orders,BankAccount&$count=true",
+      "/Customers(1)/Orders?$filter=id eq 1&$orderby=id desc&$select=id&$format=json",
+      "/Orders?$filter=customer/BankAccount/iban eq 'NL00' and (id add 1) mul 2 le 100&$orderby=customer/name",
+      "/Customers?$filter=tolower(name) eq 'bob' and year(date) eq 2014&$select=id,name,Phone&$expand=*"
+    ).map(serviceRoot + _)
+    uris.foreach(uri =>
+      assert(singlePassParser.parseUri(uri) === Some(parser.parseUri(uri)), s"Different result for: $uri"))
+
+    val singlePassNanos = Timing.fastestNanos(Rounds, () =>
+      (1 to Parses).foreach(_ => uris.foreach(singlePassParser.parseUri)))
+    val combinatorNanos = Timing.fastestNanos(Rounds, () =>
+      (1 to Parses).foreach(_ => uris.foreach(parser.parseUri)))
+
+    // Parse times depend on the machine and are only reported
+    logger.info(s"${uris.size * Parses} URIs: parsed in a single pass in ${singlePassNanos / 1000} us, " +
+      s"with the combinator parser in ${combinatorNanos / 1000} us")
+  }
+}
@@ -34,6 +34,8 @@ import com.sdl.odata.api.processor.query.ODataQuery;
 import com.sdl.odata.api.processor.query.QueryResult;
 import com.sdl.odata.api.processor.query.strategy.QueryOperationStrategy;
 import com.sdl.odata.api.service.ODataRequestContext;
+import com.sdl.odata.processor.cache.QueryResultCache;
+import com.sdl.odata.processor.paging.ServerDrivenPaging;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -54,6 +56,12 @@ public class ODataQueryProcessorImpl implements ODataQueryProcessor {
     @Autowired
     private DataSourceFactory dataSourceFactory;
 
+    @Autowired
+    private ServerDrivenPaging serverDrivenPaging;
+
+    @Autowired
+    private QueryResultCache queryResultCache;
+
     @Override
     public ProcessorResult query(ODataRequestContext requestContext, Object data) throws ODataException {
         if (LOG.isTraceEnabled()) {
@@ -76,24 +84,19 @@ public class ODataQueryProcessorImpl implements ODataQueryProcessor {
 
         TargetType targetType = targetTypeOption.get();
 
-        ODataQuery query = new QueryModelBuilder(requestContext.getEntityDataModel()).build(requestContext);
+        QueryModelBuilder queryModelBuilder = new QueryModelBuilder(requestContext.getEntityDataModel());
+        int pageSize = queryModelBuilder.supportsPaging(requestContext) ?
+                serverDrivenPaging.getPageSize(requestContext) : 0;
+        ODataQuery query = queryModelBuilder.build(requestContext, pageSize);
         LOG.trace("Query model: {}", query);
 
-        QueryOperationStrategy strategy = dataSourceFactory.getStrategy(requestContext, query.operation(), targetType);
-        if (strategy == null) {
-            throw new ODataNotImplementedException("This query is not supported: " +
-                    requestContext.getRequest().getUri());
-        }
-
-        QueryResult result;
-
-        try {
-            result = strategy.execute();
-        } catch (Exception e) {
-            LOG.error("Unexpected Exception when executing query " + query, e);
-            throw e;
-        }
+        QueryResult result = queryResultCache.get(entityDataModel, query.operation(),
+                () -> execute(requestContext, query, targetType));
         if (targetType.isCollection()) {
+            if (result.getType() == QueryResult.ResultType.COLLECTION && pageSize > 0) {
+                return new ProcessorResult(OK, serverDrivenPaging.page(requestContext, query, result, pageSize),
+                        serverDrivenPaging.getResponseHeaders(requestContext, pageSize));
+            }
             if (result.getType() == QueryResult.ResultType.COLLECTION ||
                     result.getType() == QueryResult.ResultType.RAW_JSON) {
                 return new ProcessorResult(OK, result);
@@ -118,6 +121,22 @@ public class ODataQueryProcessorImpl implements ODataQueryProcessor {
         }
     }
 
+    private QueryResult execute(ODataRequestContext requestContext, ODataQuery query, TargetType targetType)
+            throws ODataException {
+        QueryOperationStrategy strategy = dataSourceFactory.getStrategy(requestContext, query.operation(), targetType);
+        if (strategy == null) {
+            throw new ODataNotImplementedException("This query is not supported: " +
+                    requestContext.getRequest().getUri());
+        }
+
+        try {
+            return strategy.execute();
+        } catch (Exception e) {
+            LOG.error("Unexpected Exception when executing query " + query, e);
+            throw e;
+        }
+    }
+
     private boolean isMetadataUri(RelativeUri relativeUri) {
         return relativeUri instanceof MetadataUri;
     }
@@ -0,0 +1,260 @@
+/**
+ * Copyright (c) 2014-2024 All Rights Reserved by the RWS Group for and on behalf of its affiliates and subsidiaries.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.sdl.odata.processor.cache;
+
+import com.sdl.odata.api.ODataException;
+import com.sdl.odata.api.edm.model.EntityDataModel;
+import com.sdl.odata.api.parser.ODataUri;
+import com.sdl.odata.api.parser.ODataUriUtil;
+import com.sdl.odata.api.processor.datasource.DataSource;
+import com.sdl.odata.api.processor.datasource.TransactionalDataSource;
+import com.sdl.odata.api.processor.link.ODataLink;
+import scala.Option;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Data source which invalidates the cached query results of an entity type after each write. Writes in a
+ * transaction invalidate the cached results of the entity sets they were made to when the transaction is committed;
+ * a transaction can be shared by writes to several entity sets, for example in a batch request.
+ */
+public class CacheInvalidatingDataSource implements DataSource {
+
+    private final DataSource dataSource;
+    private final QueryResultCache queryResultCache;
+    private final EntityDataModel entityDataModel;
+    private final String entityTypeName;
+
+    /**
+     * Creates a data source which invalidates cached query results.
+     *
+     * @param dataSource       The data source to write to.
+     * @param queryResultCache The cache of query results.
+     * @param entityDataModel  The entity data model.
+     * @param entityTypeName   The fully qualified name of the entity type the data source is used for.
+     */
+    public CacheInvalidatingDataSource(DataSource dataSource, QueryResultCache queryResultCache,
+                                       EntityDataModel entityDataModel, String entityTypeName) {
+        this.dataSource = dataSource;
+        this.queryResultCache = queryResultCache;
+        this.entityDataModel = entityDataModel;
+        this.entityTypeName = entityTypeName;
+    }
+
+    /**
+     * Gets the data source which is written to.
+     *
+     * @return The data source which is written to.
+     */
+    public DataSource getDataSource() {
+        return dataSource;
+    }
+
+    @Override
+    public Object create(ODataUri uri, Object entity, EntityDataModel model) throws ODataException {
+        try {
+            return dataSource.create(uri, entity, model);
+        } finally {
+            invalidate();
+        }
+    }
+
+    @Override
+    public Object update(ODataUri uri, Object entity, EntityDataModel model) throws ODataException {
+        try {
+            return dataSource.update(uri, entity, model);
+        } finally {
+            invalidate();
+        }
+    }
+
+    @Override
+    public void delete(ODataUri uri, EntityDataModel model) throws ODataException {
+        try {
+            dataSource.delete(uri, model);
+        } finally {
+            invalidate();
+        }
+    }
+
+    @Override
+    public List<Object> createAll(ODataUri uri, List<?> entities, EntityDataModel model) throws ODataException {
+        try {
+            return dataSource.createAll(uri, entities, model);
+        } finally {
+            invalidate();
+        }
+    }
+
+    @Override
+    public List<Object> updateAll(List<ODataUri> uris, List<?> entities, EntityDataModel model)
+            throws ODataException {
+        try {
+            return dataSource.updateAll(uris, entities, model);
+        } finally {
+            invalidate();
+        }
+    }
+
+    @Override
+    public void deleteAll(List<ODataUri> uris, EntityDataModel model) throws ODataException {
+        try {
+            dataSource.deleteAll(uris, model);
+        } finally {
+            invalidate();
+        }
+    }
+
+    @Override
+    public void createLink(ODataUri uri, ODataLink link, EntityDataModel model) throws ODataException {
+        try {
+            dataSource.createLink(uri, link, model);
+        } finally {
+            invalidate();
+        }
+    }
+
+    @Override
+    public void deleteLink(ODataUri uri, ODataLink link, EntityDataModel model) throws ODataException {
+        try {
+            dataSource.deleteLink(uri, link, model);
+        } finally {
+            invalidate();
+        }
+    }
+
+    @Override
+    public TransactionalDataSource startTransaction() {
+        TransactionalDataSource transaction = dataSource.startTransaction();
+        return transaction != null ? new Transaction(transaction) : null;
+    }
+
+    private void invalidate() {
+        // Even a failed write may have changed part of the data
+        queryResultCache.invalidateEntityType(entityDataModel, entityTypeName);
+    }
+
+    /**
+     * Transaction which invalidates the cached query results when it is committed.
+     */
+    private final class Transaction implements TransactionalDataSource {
+        private final TransactionalDataSource transaction;
+        private final Set<String> entitySetNames = new HashSet<>();
+        private boolean unknownEntitySet;
+
+        private Transaction(TransactionalDataSource transaction) {
+            this.transaction = transaction;
+        }
+
+        @Override
+        public Object create(ODataUri uri, Object entity, EntityDataModel model) throws ODataException {
+            written(uri);
+            return transaction.create(uri, entity, model);
+        }
+
+        @Override
+        public Object update(ODataUri uri, Object entity, EntityDataModel model) throws ODataException {
+            written(uri);
+            return transaction.update(uri, entity, model);
+        }
+
+        @Override
+        public void delete(ODataUri uri, EntityDataModel model) throws ODataException {
+            written(uri);
+            transaction.delete(uri, model);
+        }
+
+        @Override
+        public List<Object> createAll(ODataUri uri, List<?> entities, EntityDataModel model) throws ODataException {
+            written(uri);
+            return transaction.createAll(uri, entities, model);
+        }
+
+        @Override
+        public List<Object> updateAll(List<ODataUri> uris, List<?> entities, EntityDataModel model)
+                throws ODataException {
+            uris.forEach(this::written);
+            return transaction.updateAll(uris, entities, model);
+        }
+
+        @Override
+        public void deleteAll(List<ODataUri> uris, EntityDataModel model) throws ODataException {
+            uris.forEach(this::written);
+            transaction.deleteAll(uris, model);
+        }
+
+        @Override
+        public void createLink(ODataUri uri, ODataLink link, EntityDataModel model) throws ODataException {
+            written(uri);
+            transaction.createLink(uri, link, model);
+        }
+
+        @Override
+        public void deleteLink(ODataUri uri, ODataLink link, EntityDataModel model) throws ODataException {
+            written(uri);
+            transaction.deleteLink(uri, link, model);
+        }
+
+        private synchronized void written(ODataUri uri) {
+            Option<String> name = ODataUriUtil.getEntitySetName(uri);
+            if (name.isEmpty()) {
+                name = ODataUriUtil.getSingletonName(uri);
+            }
+            if (name.isDefined()) {
+                entitySetNames.add(name.get());
+            } else {
+                unknownEntitySet = true;
+            }
+        }
+
+        @Override
+        public TransactionalDataSource startTransaction() {
+            return transaction.startTransaction();
+        }
+
+        @Override
+        public boolean commit() {
+            try {
+                return transaction.commit();
+            } finally {
+                invalidateWritten();
+            }
+        }
+
+        private synchronized void invalidateWritten() {
+            invalidate();
+            if (unknownEntitySet) {
+                queryResultCache.invalidateAll();
+            } else {
+                entitySetNames.forEach(queryResultCache::invalidate);
+            }
+            entitySetNames.clear();
+            unknownEntitySet = false;
+        }
+
+        @Override
+        public void rollback() {
+            transaction.rollback();
+        }
+
+        @Override
+        public boolean isActive() {
+            return transaction.isActive();
+        }
+    }
+}
@@ -0,0 +1,547 @@
+/**
+ * Copyright (c) 2014-2024 All Rights Reserved by the RWS Group for and on behalf of its affiliates and subsidiaries.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.sdl.odata.processor.cache;
+
+import com.sdl.odata.api.ODataException;
+import com.sdl.odata.api.edm.model.DerivableType;
+import com.sdl.odata.api.edm.model.EntityDataModel;
+import com.sdl.odata.api.edm.model.EntitySet;
+import com.sdl.odata.api.edm.model.Singleton;
+import com.sdl.odata.api.edm.model.Type;
+import com.sdl.odata.api.processor.query.ExpandOperation;
+import com.sdl.odata.api.processor.query.FilterOperation;
+import com.sdl.odata.api.processor.query.JoinOperation;
+import com.sdl.odata.api.processor.query.QueryOperation;
+import com.sdl.odata.api.processor.query.QueryResult;
+import com.sdl.odata.api.processor.query.SelectOperation;
+import com.sdl.odata.api.processor.query.TransformOperation;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Cache of query results, in front of the query operation strategies of the data sources.
+ * <p>
+ * Results are cached per entity set, keyed by the query operation tree, which is a tree of case classes and so can
+ * be compared structurally. Each entity set has its own least-recently-used region with a maximum size and a time to
+ * live, configured for all entity sets with {@code odata.query-cache.max-size} and {@code odata.query-cache.ttl-ms},
+ * and for specific entity sets with {@code odata.query-cache.max-sizes} and {@code odata.query-cache.ttls-ms}, for
+ * example {@code Countries=1000,Currencies=200}. A maximum size of {@code 0} (the default) disables caching.
+ * <p>
+ * A write to an entity set through a data source of the {@code DataSourceFactory} invalidates all results which
+ * were read from that entity set; results of queries with {@code $expand} are invalidated by any write. The cache
+ * is only suitable for entity sets of which all clients see the same data, because the request itself (for example
+ * its headers) is not part of the key.
+ * <p>
+ * A result is copied when it is cached and again for every hit, so that no two requests ever share (and can modify)
+ * the same entities; a result of which the entities can not be copied is not cached. The hit and miss counts and the
+ * size are available from the getters, like those of the other caches of the service, and are logged at trace
+ * level; {@link #getStatistics(String)} gives the statistics of a single entity set.
+ */
+@Component
+public class QueryResultCache {
+    private static final Logger LOG = LoggerFactory.getLogger(QueryResultCache.class);
+
+    private static final int INITIAL_CAPACITY = 16;
+    private static final float LOAD_FACTOR = 0.75f;
+    private static final long DEFAULT_TTL_MILLIS = 60000L;
+
+    /**
+     * Dependency of results that may contain entities of any entity set.
+     */
+    private static final String ALL_ENTITY_SETS = "*";
+
+    private int maxSize;
+    private long ttlMillis = DEFAULT_TTL_MILLIS;
+    private Map<String, Integer> maxSizes = Collections.emptyMap();
+    private Map<String, Long> ttlsMillis = Collections.emptyMap();
+
+    private final Map<String, Region> regions = new ConcurrentHashMap<>();
+    private final AtomicLong generation = new AtomicLong();
+    private volatile EntityDataModel entityDataModel;
+
+    /**
+     * Loads a query result when it is not in the cache.
+     */
+    public interface Loader {
+        /**
+         * Loads the query result.
+         *
+         * @return The query result.
+         * @throws ODataException If the query fails.
+         */
+        QueryResult load() throws ODataException;
+    }
+
+    /**
+     * Sets the maximum number of cached results for entity sets which have no maximum of their own; {@code 0}
+     * disables caching.
+     *
+     * @param maxSize The maximum number of cached results per entity set.
+     */
+    @Value("${odata.query-cache.max-size:0}")
+    public void setMaxSize(int maxSize) {
+        this.maxSize = (int) checkNotNegative(maxSize, "Maximum size of the query cache");
+    }
+
+    /**
+     * Sets the time to live of cached results for entity sets which have no time to live of their own.
+     *
+     * @param ttlMillis The time to live in milliseconds.
+     */
+    @Value("${odata.query-cache.ttl-ms:60000}")
+    public void setTtlMillis(long ttlMillis) {
+        this.ttlMillis = checkNotNegative(ttlMillis, "Time to live of the query cache");
+    }
+
+    /**
+     * Sets the maximum number of cached results of specific entity sets, as a comma separated list of
+     * {@code <entity set name>=<maximum size>}.
+     *
+     * @param entitySetMaxSizes The maximum sizes of specific entity sets.
+     */
+    @Value("${odata.query-cache.max-sizes:}")
+    public void setMaxSizes(String entitySetMaxSizes) {
+        Map<String, Integer> sizes = new HashMap<>();
+        parseEntitySetValues(entitySetMaxSizes).forEach((name, value) ->
+                sizes.put(name, (int) checkNotNegative(Integer.parseInt(value), "Maximum size of the query cache")));
+        this.maxSizes = sizes;
+    }
+
+    /**
+     * Sets the time to live of cached results of specific entity sets, as a comma separated list of
+     * {@code <entity set name>=<time to live in milliseconds>}.
+     *
+     * @param entitySetTtlsMillis The times to live of specific entity sets.
+     */
+    @Value("${odata.query-cache.ttls-ms:}")
+    public void setTtlsMillis(String entitySetTtlsMillis) {
+        Map<String, Long> ttls = new HashMap<>();
+        parseEntitySetValues(entitySetTtlsMillis).forEach((name, value) ->
+                ttls.put(name, checkNotNegative(Long.parseLong(value), "Time to live of the query cache")));
+        this.ttlsMillis = ttls;
+    }
+
+    /**
+     * Checks if results of an entity set are cached.
+     *
+     * @param entitySetName The name of the entity set.
+     * @return {@code true} if results of the entity set are cached, {@code false} otherwise.
+     */
+    public boolean isEnabled(String entitySetName) {
+        return maxSizes.getOrDefault(entitySetName, maxSize) > 0;
+    }
+
+    /**
+     * Checks if results of any entity set are cached.
+     *
+     * @return {@code true} if results of any entity set are cached, {@code false} otherwise.
+     */
+    public boolean isEnabled() {
+        return maxSize > 0 || maxSizes.values().stream().anyMatch(size -> size > 0);
+    }
+
+    /**
+     * Gets the result of a query from the cache, or loads it and caches it. Results of type {@code EXCEPTION} and
+     * {@code STREAM} are never cached.
+     *
+     * @param model     The entity data model the query is executed against.
+     * @param operation The query operation.
+     * @param loader    Loads the result when it is not in the cache.
+     * @return The result of the query.
+     * @throws ODataException If the query fails.
+     */
+    public QueryResult get(EntityDataModel model, QueryOperation operation, Loader loader) throws ODataException {
+        String entitySetName = operation.entitySetName();
+        if (!isEnabled(entitySetName)) {
+            return loader.load();
+        }
+        if (model != entityDataModel) {
+            // Results read through a different model may have different types, so start over
+            invalidateAll();
+            entityDataModel = model;
+        }
+
+        Region region = regions.computeIfAbsent(entitySetName, name -> new Region(
+                maxSizes.getOrDefault(name, maxSize), ttlsMillis.getOrDefault(name, ttlMillis)));
+        QueryResult cached = region.get(operation);
+        if (cached != null) {
+            LOG.trace("Query result cache hit for: {}", operation);
+            return QueryResultCopier.copy(model, cached);
+        }
+
+        long loadGeneration = generation.get();
+        long start = System.nanoTime();
+        QueryResult result = loader.load();
+        region.loaded(System.nanoTime() - start);
+
+        if (isCacheable(result)) {
+            QueryResult copy = copyForCache(model, operation, result);
+            if (copy != null) {
+                region.put(operation, new Entry(copy, getDependencies(operation), region.ttlNanos), loadGeneration);
+            }
+        }
+        if (LOG.isTraceEnabled()) {
+            LOG.trace("Query result cache size: {}, hits: {}, misses: {}", size(), getHitCount(), getMissCount());
+        }
+        return result;
+    }
+
+    private static QueryResult copyForCache(EntityDataModel model, QueryOperation operation, QueryResult result) {
+        try {
+            return QueryResultCopier.copy(model, result);
+        } catch (ODataException | RuntimeException e) {
+            LOG.debug("Not caching the result of a query, because it can not be copied: " + operation, e);
+            return null;
+        }
+    }
+
+    /**
+     * Invalidates all cached results which were read from the entity sets and singletons of an entity type or any of
+     * its base types.
+     *
+     * @param model          The entity data model.
+     * @param entityTypeName The fully qualified name of the entity type.
+     */
+    public void invalidateEntityType(EntityDataModel model, String entityTypeName) {
+        Set<String> typeNames = new HashSet<>();
+        String typeName = entityTypeName;
+        while (typeName != null && typeNames.add(typeName)) {
+            Type type = model.getType(typeName);
+            typeName = type instanceof DerivableType ? ((DerivableType) type).getBaseTypeName() : null;
+        }
+
+        for (EntitySet entitySet : model.getEntityContainer().getEntitySets()) {
+            if (typeNames.contains(entitySet.getTypeName())) {
+                invalidate(entitySet.getName());
+            }
+        }
+        for (Singleton singleton : model.getEntityContainer().getSingletons()) {
+            if (typeNames.contains(singleton.getTypeName())) {
+                invalidate(singleton.getName());
+            }
+        }
+    }
+
+    /**
+     * Invalidates all cached results which were read from an entity set.
+     *
+     * @param entitySetName The name of the entity set.
+     */
+    public void invalidate(String entitySetName) {
+        if (regions.isEmpty()) {
+            return;
+        }
+        generation.incrementAndGet();
+        LOG.debug("Invalidating query results of entity set: {}", entitySetName);
+        for (Region region : regions.values()) {
+            region.invalidate(entitySetName);
+        }
+    }
+
+    /**
+     * Invalidates all cached results.
+     */
+    public void invalidateAll() {
+        generation.incrementAndGet();
+        regions.values().forEach(Region::clear);
+    }
+
+    /**
+     * Gets the statistics of the cached results of an entity set.
+     *
+     * @param entitySetName The name of the entity set.
+     * @return The statistics, all zero if results of the entity set have not been cached.
+     */
+    public Statistics getStatistics(String entitySetName) {
+        Region region = regions.get(entitySetName);
+        return region != null ? region.getStatistics() : new Statistics(0, 0, 0, 0, 0, 0);
+    }
+
+    /**
+     * Gets the statistics of the cached results of all entity sets together.
+     *
+     * @return The statistics.
+     */
+    public Statistics getStatistics() {
+        Statistics total = new Statistics(0, 0, 0, 0, 0, 0);
+        for (Region region : regions.values()) {
+            total = total.plus(region.getStatistics());
+        }
+        return total;
+    }
+
+    public long getHitCount() {
+        return getStatistics().getHitCount();
+    }
+
+    public long getMissCount() {
+        return getStatistics().getMissCount();
+    }
+
+    public long size() {
+        return getStatistics().getSize();
+    }
+
+    private static boolean isCacheable(QueryResult result) {
+        return result != null && result.getType() != QueryResult.ResultType.EXCEPTION &&
+                result.getType() != QueryResult.ResultType.STREAM;
+    }
+
+    /**
+     * Gets the entity sets that a query reads from.
+     */
+    static Set<String> getDependencies(QueryOperation operation) {
+        Set<String> dependencies = new HashSet<>();
+        addDependencies(operation, dependencies);
+        return dependencies;
+    }
+
+    private static void addDependencies(QueryOperation operation, Set<String> dependencies) {
+        if (operation instanceof SelectOperation) {
+            dependencies.add(((SelectOperation) operation).getEntitySetName());
+        } else if (operation instanceof JoinOperation) {
+            addDependencies(((JoinOperation) operation).getLeftSource(), dependencies);
+            addDependencies(((JoinOperation) operation).getRightSource(), dependencies);
+        } else if (operation instanceof ExpandOperation) {
+            // Expanded entities may come from any entity set
+            dependencies.add(ALL_ENTITY_SETS);
+            addDependencies(((ExpandOperation) operation).getSource(), dependencies);
+        } else if (operation instanceof FilterOperation) {
+            addDependencies(((FilterOperation) operation).source(), dependencies);
+        } else if (operation instanceof TransformOperation) {
+            addDependencies(((TransformOperation) operation).source(), dependencies);
+        } else {
+            dependencies.add(ALL_ENTITY_SETS);
+        }
+    }
+
+    private static Map<String, String> parseEntitySetValues(String entitySetValues) {
+        Map<String, String> values = new HashMap<>();
+        for (String entry : entitySetValues.split(",")) {
+            if (entry.trim().isEmpty()) {
+                continue;
+            }
+            String[] nameAndValue = entry.split("=");
+            if (nameAndValue.length != 2) {
+                throw new IllegalArgumentException("Invalid query cache setting for entity set: " + entry);
+            }
+            values.put(nameAndValue[0].trim(), nameAndValue[1].trim());
+        }
+        return values;
+    }
+
+    private static long checkNotNegative(long value, String description) {
+        if (value < 0) {
+            throw new IllegalArgumentException(description + " must not be negative: " + value);
+        }
+        return value;
+    }
+
+    /**
+     * A cached result with the entity sets it was read from.
+     */
+    private static final class Entry {
+        private final QueryResult result;
+        private final Set<String> dependencies;
+        private final long expiresAt;
+
+        private Entry(QueryResult result, Set<String> dependencies, long ttlNanos) {
+            this.result = result;
+            this.dependencies = dependencies;
+            this.expiresAt = System.nanoTime() + ttlNanos;
+        }
+
+        private boolean isExpired(long now) {
+            return now - expiresAt >= 0;
+        }
+
+        private boolean dependsOn(String entitySetName) {
+            return dependencies.contains(entitySetName) || dependencies.contains(ALL_ENTITY_SETS);
+        }
+    }
+
+    /**
+     * The cached results of one entity set.
+     */
+    private final class Region {
+        private final int regionMaxSize;
+        private final long ttlNanos;
+        private final Map<QueryOperation, Entry> entries;
+        private final LongAdder hits = new LongAdder();
+        private final LongAdder misses = new LongAdder();
+        private final LongAdder evictions = new LongAdder();
+        private final LongAdder loads = new LongAdder();
+        private final LongAdder loadTimeNanos = new LongAdder();
+
+        private Region(int regionMaxSize, long ttlMillis) {
+            this.regionMaxSize = regionMaxSize;
+            this.ttlNanos = TimeUnit.MILLISECONDS.toNanos(ttlMillis);
+            this.entries = new LinkedHashMap<QueryOperation, Entry>(INITIAL_CAPACITY, LOAD_FACTOR, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<QueryOperation, Entry> eldest) {
+                    if (size() > Region.this.regionMaxSize) {
+                        evictions.increment();
+                        return true;
+                    }
+                    return false;
+                }
+            };
+        }
+
+        private QueryResult get(QueryOperation operation) {
+            Entry entry;
+            synchronized (this) {
+                entry = entries.get(operation);
+                if (entry != null && entry.isExpired(System.nanoTime())) {
+                    entries.remove(operation);
+                    evictions.increment();
+                    entry = null;
+                }
+            }
+            if (entry != null) {
+                hits.increment();
+                return entry.result;
+            }
+            misses.increment();
+            return null;
+        }
+
+        private void loaded(long nanos) {
+            loads.increment();
+            loadTimeNanos.add(nanos);
+        }
+
+        private synchronized void put(QueryOperation operation, Entry entry, long loadGeneration) {
+            // Do not cache a result which was loaded while the cache was invalidated, it may already be stale
+            if (loadGeneration == generation.get()) {
+                entries.put(operation, entry);
+            }
+        }
+
+        private synchronized void invalidate(String entitySetName) {
+            for (Iterator<Entry> iterator = entries.values().iterator(); iterator.hasNext();) {
+                if (iterator.next().dependsOn(entitySetName)) {
+                    iterator.remove();
+                }
+            }
+        }
+
+        private synchronized void clear() {
+            entries.clear();
+        }
+
+        private Statistics getStatistics() {
+            int size;
+            synchronized (this) {
+                size = entries.size();
+            }
+            return new Statistics(size, hits.sum(), misses.sum(), evictions.sum(), loads.sum(), loadTimeNanos.sum());
+        }
+    }
+
+    /**
+     * Statistics of the query result cache.
+     */
+    public static final class Statistics {
+        private final long size;
+        private final long hitCount;
+        private final long missCount;
+        private final long evictionCount;
+        private final long loadCount;
+        private final long totalLoadTimeNanos;
+
+        Statistics(long size, long hitCount, long missCount, long evictionCount, long loadCount,
+                   long totalLoadTimeNanos) {
+            this.size = size;
+            this.hitCount = hitCount;
+            this.missCount = missCount;
+            this.evictionCount = evictionCount;
+            this.loadCount = loadCount;
+            this.totalLoadTimeNanos = totalLoadTimeNanos;
+        }
+
+        private Statistics plus(Statistics other) {
+            return new Statistics(size + other.size, hitCount + other.hitCount, missCount + other.missCount,
+                    evictionCount + other.evictionCount, loadCount + other.loadCount,
+                    totalLoadTimeNanos + other.totalLoadTimeNanos);
+        }
+
+        public long getSize() {
+            return size;
+        }
+
+        public long getHitCount() {
+            return hitCount;
+        }
+
+        public long getMissCount() {
+            return missCount;
+        }
+
+        /**
+         * Gets the fraction of lookups which found a result in the cache.
+         *
+         * @return The hit ratio, {@code 1.0} if there were no lookups.
+         */
+        public double getHitRatio() {
+            long requests = hitCount + missCount;
+            return requests == 0 ? 1.0 : (double) hitCount / requests;
+        }
+
+        /**
+         * Gets the number of results which were removed because the cache was full or they were expired.
+         * Invalidated results are not counted.
+         *
+         * @return The eviction count.
+         */
+        public long getEvictionCount() {
+            return evictionCount;
+        }
+
+        public long getLoadCount() {
+            return loadCount;
+        }
+
+        public long getTotalLoadTimeNanos() {
+            return totalLoadTimeNanos;
+        }
+
+        public double getAverageLoadTimeNanos() {
+            return loadCount == 0 ? 0.0 : (double) totalLoadTimeNanos / loadCount;
+        }
+
+        @Override
+        public String toString() {
+            return "Statistics{size=" + size + ", hitCount=" + hitCount + ", missCount=" + missCount +
+                    ", evictionCount=" + evictionCount + ", loadCount=" + loadCount +
+                    ", totalLoadTimeNanos=" + totalLoadTimeNanos + "}";
+        }
+    }
+}
@@ -0,0 +1,110 @@
+/**
+ * Copyright (c) 2014-2024 All Rights Reserved by the RWS Group for and on behalf of its affiliates and subsidiaries.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.sdl.odata.processor.cache;
+
+import com.sdl.odata.api.ODataException;
+import com.sdl.odata.api.ODataSystemException;
+import com.sdl.odata.api.edm.model.EntityDataModel;
+import com.sdl.odata.api.edm.model.StructuredType;
+import com.sdl.odata.api.edm.model.Type;
+import com.sdl.odata.api.processor.query.QueryResult;
+
+import java.lang.reflect.Constructor;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static com.sdl.odata.util.edm.EntityDataModelUtil.createPropertyCollection;
+import static com.sdl.odata.util.edm.EntityDataModelUtil.getPropertyValue;
+import static com.sdl.odata.util.edm.EntityDataModelUtil.setPropertyValue;
+import static com.sdl.odata.util.edm.EntityDataModelUtil.visitProperties;
+
+/**
+ * Copies query results, so that a result kept in the {@link QueryResultCache} is never shared with the requests
+ * that use it. Entities and complex values are copied property by property, following the entity data model, and
+ * collections are copied into new collections. All other values, such as strings, numbers, dates and enums, are
+ * shared between the copies.
+ */
+final class QueryResultCopier {
+    private final EntityDataModel entityDataModel;
+    private final Map<Object, Object> copies = new IdentityHashMap<>();
+
+    private QueryResultCopier(EntityDataModel entityDataModel) {
+        this.entityDataModel = entityDataModel;
+    }
+
+    /**
+     * Copies a query result.
+     *
+     * @param entityDataModel The entity data model of the entities in the result.
+     * @param result          The query result.
+     * @return A copy of the query result, which shares no entities or collections with the original.
+     * @throws ODataException If an entity can not be copied.
+     */
+    static QueryResult copy(EntityDataModel entityDataModel, QueryResult result) throws ODataException {
+        return result.withData(new QueryResultCopier(entityDataModel).copyValue(result.getData()));
+    }
+
+    private Object copyValue(Object value) throws ODataException {
+        if (value == null) {
+            return null;
+        }
+        Object copy = copies.get(value);
+        if (copy != null) {
+            return copy;
+        }
+        if (value instanceof List) {
+            List<Object> list = new ArrayList<>();
+            copies.put(value, list);
+            for (Object element : (List<?>) value) {
+                list.add(copyValue(element));
+            }
+            return list;
+        }
+        Type type = entityDataModel.getType(value.getClass());
+        return type instanceof StructuredType ? copyStructuredValue((StructuredType) type, value) : value;
+    }
+
+    private Object copyStructuredValue(StructuredType type, Object value) throws ODataException {
+        Object copy = newInstance(value.getClass());
+        copies.put(value, copy);
+        visitProperties(entityDataModel, type, property -> {
+            Object propertyValue = getPropertyValue(property, value);
+            if (property.isCollection() && propertyValue instanceof Collection) {
+                Collection<Object> collection = createPropertyCollection(property);
+                for (Object element : (Collection<?>) propertyValue) {
+                    collection.add(copyValue(element));
+                }
+                setPropertyValue(property, copy, collection);
+            } else {
+                setPropertyValue(property, copy, copyValue(propertyValue));
+            }
+        });
+        return copy;
+    }
+
+    private static Object newInstance(Class<?> javaType) {
+        try {
+            Constructor<?> constructor = javaType.getDeclaredConstructor();
+            constructor.setAccessible(true);
+            return constructor.newInstance();
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            throw new ODataSystemException("Cannot copy instance of: " + javaType.getName(), e);
+        }
+    }
+}
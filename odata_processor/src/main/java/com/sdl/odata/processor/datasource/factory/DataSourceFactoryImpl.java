@@ -27,6 +27,8 @@ import com.sdl.odata.api.processor.datasource.factory.DataSourceFactory;
 import com.sdl.odata.api.processor.query.QueryOperation;
 import com.sdl.odata.api.processor.query.strategy.QueryOperationStrategy;
 import com.sdl.odata.api.service.ODataRequestContext;
+import com.sdl.odata.processor.cache.CacheInvalidatingDataSource;
+import com.sdl.odata.processor.cache.QueryResultCache;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -45,11 +47,18 @@ public class DataSourceFactoryImpl implements DataSourceFactory {
 
     private List<DataSourceProvider> dataSourceProviders = new ArrayList<>();
 
+    private QueryResultCache queryResultCache;
+
     @Autowired(required = false)
     void setDataSourceProviders(List<DataSourceProvider> dataSourceProviders) {
         this.dataSourceProviders = dataSourceProviders;
     }
 
+    @Autowired(required = false)
+    void setQueryResultCache(QueryResultCache queryResultCache) {
+        this.queryResultCache = queryResultCache;
+    }
+
     @Override
     public DataSource getDataSource(ODataRequestContext requestContext,
                                     final String entityType)
@@ -58,7 +67,13 @@ public class DataSourceFactoryImpl implements DataSourceFactory {
         for (DataSourceProvider dataSourceProvider : dataSourceProviders) {
             // Note: The first suitable data source provider wins
             if (dataSourceProvider.isSuitableFor(requestContext, entityType)) {
-                return dataSourceProvider.getDataSource(requestContext);
+                DataSource dataSource = dataSourceProvider.getDataSource(requestContext);
+                // Writes through the data source must invalidate cached query results
+                if (queryResultCache != null && queryResultCache.isEnabled() && dataSource != null) {
+                    return new CacheInvalidatingDataSource(dataSource, queryResultCache,
+                            requestContext.getEntityDataModel(), entityType);
+                }
+                return dataSource;
             }
         }
 
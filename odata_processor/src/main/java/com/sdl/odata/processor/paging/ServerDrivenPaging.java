@@ -0,0 +1,299 @@
+/**
+ * Copyright (c) 2014-2024 All Rights Reserved by the RWS Group for and on behalf of its affiliates and subsidiaries.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.sdl.odata.processor.paging;
+
+import com.sdl.odata.api.ODataBadRequestException;
+import com.sdl.odata.api.ODataException;
+import com.sdl.odata.api.ODataSystemException;
+import com.sdl.odata.api.edm.model.EntityDataModel;
+import com.sdl.odata.api.edm.model.StructuralProperty;
+import com.sdl.odata.api.edm.model.StructuredType;
+import com.sdl.odata.api.parser.ODataUriUtil;
+import com.sdl.odata.api.parser.QueryOption;
+import com.sdl.odata.api.parser.TopOption;
+import com.sdl.odata.api.processor.query.FilterOperation;
+import com.sdl.odata.api.processor.query.ODataQuery;
+import com.sdl.odata.api.processor.query.OrderByOperation;
+import com.sdl.odata.api.processor.query.OrderByProperty;
+import com.sdl.odata.api.processor.query.QueryOperation;
+import com.sdl.odata.api.processor.query.QueryResult;
+import com.sdl.odata.api.processor.query.TransformOperation;
+import com.sdl.odata.api.service.ODataRequest;
+import com.sdl.odata.api.service.ODataRequestContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import scala.Option;
+import scala.collection.JavaConverters;
+
+import java.io.UnsupportedEncodingException;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static com.sdl.odata.api.service.HeaderNames.PREFER;
+import static com.sdl.odata.api.service.HeaderNames.PREFERENCE_APPLIED;
+import static com.sdl.odata.util.edm.EntityDataModelUtil.getAndCheckStructuredType;
+import static com.sdl.odata.util.edm.EntityDataModelUtil.getPropertyValue;
+
+/**
+ * Server-driven paging of entity set queries.
+ * <p>
+ * When a maximum page size is configured for an entity set, a query on that entity set returns at most one page of
+ * entities, together with a next link that gets the following page. The next link contains an opaque '$skiptoken'
+ * with the position of the last entity of the page, so that the next page is selected with a
+ * {@link com.sdl.odata.api.processor.query.SkipTokenOperation} instead of skipping all previous pages.
+ * <p>
+ * The maximum page size is set for all entity sets with {@code odata.paging.max-page-size}, and for specific entity
+ * sets with {@code odata.paging.max-page-sizes}, for example {@code Customers=100,Orders=500}. A maximum page size of
+ * {@code 0} (the default) disables paging. Clients can ask for smaller pages with the
+ * {@code Prefer: odata.maxpagesize} header.
+ */
+@Component
+public class ServerDrivenPaging {
+    private static final Logger LOG = LoggerFactory.getLogger(ServerDrivenPaging.class);
+
+    private static final String MAX_PAGE_SIZE_PREFERENCE = "odata.maxpagesize";
+    private static final String MAX_PAGE_SIZE_PREFERENCE_WITHOUT_PREFIX = "maxpagesize";
+    private static final String SKIP_TOKEN = "$skiptoken";
+    private static final String SKIP = "$skip";
+    private static final String TOP = "$top";
+
+    private int maxPageSize;
+    private Map<String, Integer> maxPageSizes = Collections.emptyMap();
+
+    /**
+     * Sets the maximum page size for entity sets which have no maximum page size of their own; {@code 0} disables
+     * paging.
+     *
+     * @param maxPageSize The maximum page size.
+     */
+    @Value("${odata.paging.max-page-size:0}")
+    public void setMaxPageSize(int maxPageSize) {
+        if (maxPageSize < 0) {
+            throw new IllegalArgumentException("Maximum page size must not be negative: " + maxPageSize);
+        }
+        this.maxPageSize = maxPageSize;
+    }
+
+    /**
+     * Sets the maximum page sizes of specific entity sets, as a comma separated list of
+     * {@code <entity set name>=<maximum page size>}.
+     *
+     * @param entitySetMaxPageSizes The maximum page sizes of specific entity sets.
+     */
+    @Value("${odata.paging.max-page-sizes:}")
+    public void setMaxPageSizes(String entitySetMaxPageSizes) {
+        Map<String, Integer> sizes = new HashMap<>();
+        for (String entry : entitySetMaxPageSizes.split(",")) {
+            if (entry.trim().isEmpty()) {
+                continue;
+            }
+            String[] nameAndSize = entry.split("=");
+            if (nameAndSize.length != 2) {
+                throw new IllegalArgumentException("Invalid maximum page size for entity set: " + entry);
+            }
+            int size = Integer.parseInt(nameAndSize[1].trim());
+            if (size < 0) {
+                throw new IllegalArgumentException("Maximum page size must not be negative: " + entry);
+            }
+            sizes.put(nameAndSize[0].trim(), size);
+        }
+        this.maxPageSizes = sizes;
+    }
+
+    /**
+     * Gets the maximum page size of an entity set.
+     *
+     * @param entitySetName The name of the entity set.
+     * @return The maximum page size, {@code 0} if the entity set is not paged.
+     */
+    public int getMaxPageSize(String entitySetName) {
+        return maxPageSizes.getOrDefault(entitySetName, maxPageSize);
+    }
+
+    /**
+     * Gets the page size for a request: the maximum page size of the entity set, or the page size the client prefers
+     * if that is smaller.
+     *
+     * @param requestContext The request context.
+     * @return The page size, {@code 0} if the result of the request is not paged.
+     */
+    public int getPageSize(ODataRequestContext requestContext) {
+        Option<String> entitySetName = ODataUriUtil.getEntitySetName(requestContext.getUri());
+        if (entitySetName.isEmpty()) {
+            return 0;
+        }
+        int max = getMaxPageSize(entitySetName.get());
+        if (max == 0) {
+            return 0;
+        }
+        int preferred = getPreferredPageSize(requestContext.getRequest());
+        return preferred > 0 && preferred < max ? preferred : max;
+    }
+
+    /**
+     * Gets the headers to add to the response of a paged request.
+     *
+     * @param requestContext The request context.
+     * @param pageSize       The page size used for the request.
+     * @return The headers, which tell the client that its preferred page size was taken into account.
+     */
+    public Map<String, String> getResponseHeaders(ODataRequestContext requestContext, int pageSize) {
+        if (pageSize > 0 && getPreferredPageSize(requestContext.getRequest()) > 0) {
+            return Collections.singletonMap(PREFERENCE_APPLIED, MAX_PAGE_SIZE_PREFERENCE + "=" + pageSize);
+        }
+        return Collections.emptyMap();
+    }
+
+    /**
+     * Takes one page from the result of a query which was built for a page size. The query fetches one entity more
+     * than the page size; if it is there, the result is cut down to the page size and gets a next link with a
+     * '$skiptoken' for the position of the last entity of the page.
+     *
+     * @param requestContext The request context.
+     * @param query          The executed query.
+     * @param result         The result of the query, which must be a collection.
+     * @param pageSize       The page size the query was built for.
+     * @return The page.
+     * @throws ODataException If the position of the last entity of the page can not be put in a skip token.
+     */
+    public QueryResult page(ODataRequestContext requestContext, ODataQuery query, QueryResult result, int pageSize)
+            throws ODataException {
+        List<?> entities = (List<?>) result.getData();
+        if (entities.size() <= pageSize) {
+            return result;
+        }
+
+        List<Object> page = new ArrayList<>(entities.subList(0, pageSize));
+        Object lastEntity = page.get(pageSize - 1);
+        List<Object> lastValues = new ArrayList<>();
+        for (OrderByProperty orderByProperty : getOrderByProperties(query.operation())) {
+            lastValues.add(getValue(requestContext.getEntityDataModel(), lastEntity,
+                    orderByProperty.getPropertyName()));
+        }
+
+        String nextLink = buildNextLink(requestContext.getRequest().getUri(), SkipTokenCodec.encode(lastValues),
+                getRemainingTop(requestContext, pageSize));
+        LOG.debug("Returning page of {} entities with next link: {}", pageSize, nextLink);
+
+        QueryResult pageResult = QueryResult.from(page);
+        result.getMeta().forEach(pageResult::addMeta);
+        return pageResult.withNextLink(nextLink);
+    }
+
+    private int getRemainingTop(ODataRequestContext requestContext, int pageSize) {
+        for (QueryOption option : JavaConverters.seqAsJavaList(ODataUriUtil.getQueryOptions(requestContext.getUri()))) {
+            if (option instanceof TopOption) {
+                return ((TopOption) option).value() - pageSize;
+            }
+        }
+        return 0;
+    }
+
+    private static List<OrderByProperty> getOrderByProperties(QueryOperation operation) {
+        QueryOperation current = operation;
+        while (current != null) {
+            if (current instanceof OrderByOperation) {
+                return ((OrderByOperation) current).getOrderByPropertiesAsJava();
+            } else if (current instanceof FilterOperation) {
+                current = ((FilterOperation) current).source();
+            } else if (current instanceof TransformOperation) {
+                current = ((TransformOperation) current).source();
+            } else {
+                current = null;
+            }
+        }
+        throw new ODataSystemException("The query for a paged result has no order: " + operation);
+    }
+
+    private static Object getValue(EntityDataModel entityDataModel, Object entity, String propertyPath)
+            throws ODataBadRequestException {
+        Object value = entity;
+        for (String propertyName : propertyPath.split("\\.")) {
+            if (value == null) {
+                return null;
+            }
+            StructuredType type = getAndCheckStructuredType(entityDataModel, value.getClass());
+            StructuralProperty property = type.getStructuralProperty(propertyName);
+            if (property == null) {
+                throw new ODataBadRequestException("Property not found in type " + type + ": " + propertyName);
+            }
+            value = getPropertyValue(property, value);
+        }
+        return value;
+    }
+
+    /**
+     * Builds the next link from the request URI: '$skip' and '$skiptoken' are replaced by the new skip token, and
+     * '$top' by the number of entities that remain after this page.
+     */
+    static String buildNextLink(String requestUri, String skipToken, int remainingTop) {
+        int queryStart = requestUri.indexOf('?');
+        StringBuilder nextLink = new StringBuilder(queryStart < 0 ? requestUri : requestUri.substring(0, queryStart));
+        char separator = '?';
+        if (queryStart >= 0) {
+            for (String parameter : requestUri.substring(queryStart + 1).split("&")) {
+                if (!parameter.isEmpty() && !isPagingParameter(parameter)) {
+                    nextLink.append(separator).append(parameter);
+                    separator = '&';
+                }
+            }
+        }
+        if (remainingTop > 0) {
+            nextLink.append(separator).append(TOP).append('=').append(remainingTop);
+            separator = '&';
+        }
+        return nextLink.append(separator).append(SKIP_TOKEN).append('=').append(skipToken).toString();
+    }
+
+    private static boolean isPagingParameter(String parameter) {
+        int nameEnd = parameter.indexOf('=');
+        String name = nameEnd < 0 ? parameter : parameter.substring(0, nameEnd);
+        try {
+            name = URLDecoder.decode(name, StandardCharsets.UTF_8.name());
+        } catch (UnsupportedEncodingException | IllegalArgumentException e) {
+            return false;
+        }
+        return name.equals(SKIP_TOKEN) || name.equals(SKIP) || name.equals(TOP);
+    }
+
+    private static int getPreferredPageSize(ODataRequest request) {
+        String prefer = request != null ? request.getHeader(PREFER) : null;
+        if (prefer == null) {
+            return 0;
+        }
+        for (String preference : prefer.split(",")) {
+            String[] nameAndValue = preference.split("=", 2);
+            String name = nameAndValue[0].trim();
+            if (nameAndValue.length == 2 && (name.equalsIgnoreCase(MAX_PAGE_SIZE_PREFERENCE)
+                    || name.equalsIgnoreCase(MAX_PAGE_SIZE_PREFERENCE_WITHOUT_PREFIX))) {
+                try {
+                    return Integer.parseInt(nameAndValue[1].trim());
+                } catch (NumberFormatException e) {
+                    LOG.debug("Ignoring invalid preference: {}", preference);
+                    return 0;
+                }
+            }
+        }
+        return 0;
+    }
+}
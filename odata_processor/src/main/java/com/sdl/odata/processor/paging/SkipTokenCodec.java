@@ -0,0 +1,280 @@
+/**
+ * Copyright (c) 2014-2024 All Rights Reserved by the RWS Group for and on behalf of its affiliates and subsidiaries.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.sdl.odata.processor.paging;
+
+import com.sdl.odata.api.ODataBadRequestException;
+import com.sdl.odata.api.ODataNotImplementedException;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.Period;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Encodes and decodes the '$skiptoken' of server-driven paging. A token holds the values of the order by properties
+ * of the last entity of a page. It is opaque for clients: the values are written in a compact binary form, each
+ * tagged with its type, and the result is encoded as URL-safe base64.
+ * <p>
+ * A token is decoded against the Java types of the order by properties of the query. Enum values are resolved
+ * in the type of their property, and a token whose values do not match these types is rejected, so a client can
+ * never make the server load or instantiate classes of its choosing.
+ */
+public final class SkipTokenCodec {
+
+    private static final int VERSION = 2;
+    private static final int MAX_VALUES = 64;
+
+    private static final char NULL = 'N';
+    private static final char STRING = 'S';
+    private static final char BOOLEAN = 'B';
+    private static final char BYTE = 'b';
+    private static final char SHORT = 's';
+    private static final char INTEGER = 'i';
+    private static final char LONG = 'l';
+    private static final char FLOAT = 'f';
+    private static final char DOUBLE = 'd';
+    private static final char BIG_DECIMAL = 'M';
+    private static final char BIG_INTEGER = 'I';
+    private static final char GUID = 'G';
+    private static final char DATE = 'D';
+    private static final char TIME_OF_DAY = 'T';
+    private static final char LOCAL_DATE_TIME = 'L';
+    private static final char DATE_TIME_OFFSET = 'O';
+    private static final char DURATION = 'P';
+    private static final char LEGACY_DATE = 'U';
+    private static final char ENUM = 'E';
+
+    private SkipTokenCodec() {
+    }
+
+    /**
+     * Encodes the values of the order by properties of an entity into a skip token.
+     *
+     * @param values The values.
+     * @return The skip token.
+     * @throws ODataNotImplementedException If one of the values has a type which can not be put in a skip token.
+     */
+    public static String encode(List<?> values) throws ODataNotImplementedException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeByte(VERSION);
+            out.writeByte(values.size());
+            for (Object value : values) {
+                writeValue(out, value);
+            }
+        } catch (IOException e) {
+            // Only happens for strings which are too long to encode
+            throw new ODataNotImplementedException("Cannot create a skip token for values: " + values, e);
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes.toByteArray());
+    }
+
+    /**
+     * Decodes a skip token into the values of the order by properties of the last entity of the previous page.
+     *
+     * @param token The skip token.
+     * @param types The Java types of the order by properties.
+     * @return The values.
+     * @throws ODataBadRequestException If the skip token is not valid, or its values do not match the given types.
+     */
+    public static List<Object> decode(String token, List<Class<?>> types) throws ODataBadRequestException {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(Base64.getUrlDecoder().decode(token)))) {
+            if (in.readUnsignedByte() != VERSION) {
+                throw new ODataBadRequestException("Unsupported $skiptoken: " + token);
+            }
+            int count = in.readUnsignedByte();
+            if (count > MAX_VALUES) {
+                throw new ODataBadRequestException("Invalid $skiptoken: " + token);
+            }
+            if (count != types.size()) {
+                throw new ODataBadRequestException("The skip token does not match the order of the query: " + token);
+            }
+            List<Object> values = new ArrayList<>(count);
+            for (Class<?> type : types) {
+                Object value = readValue(in, type, token);
+                if (value != null && !boxed(type).isInstance(value)) {
+                    throw new ODataBadRequestException("The skip token does not match the order of the query: " +
+                            token);
+                }
+                values.add(value);
+            }
+            if (in.read() != -1) {
+                throw new ODataBadRequestException("Invalid $skiptoken: " + token);
+            }
+            return values;
+        } catch (IOException | IllegalArgumentException | DateTimeParseException e) {
+            throw new ODataBadRequestException("Invalid $skiptoken: " + token, e);
+        }
+    }
+
+    private static void writeValue(DataOutputStream out, Object value) throws IOException,
+            ODataNotImplementedException {
+        if (value == null) {
+            out.writeByte(NULL);
+        } else if (value instanceof String) {
+            out.writeByte(STRING);
+            out.writeUTF((String) value);
+        } else if (value instanceof Boolean) {
+            out.writeByte(BOOLEAN);
+            out.writeBoolean((Boolean) value);
+        } else if (value instanceof Byte) {
+            out.writeByte(BYTE);
+            out.writeByte((Byte) value);
+        } else if (value instanceof Short) {
+            out.writeByte(SHORT);
+            out.writeShort((Short) value);
+        } else if (value instanceof Integer) {
+            out.writeByte(INTEGER);
+            out.writeInt((Integer) value);
+        } else if (value instanceof Long) {
+            out.writeByte(LONG);
+            out.writeLong((Long) value);
+        } else if (value instanceof Float) {
+            out.writeByte(FLOAT);
+            out.writeFloat((Float) value);
+        } else if (value instanceof Double) {
+            out.writeByte(DOUBLE);
+            out.writeDouble((Double) value);
+        } else if (value instanceof Date) {
+            out.writeByte(LEGACY_DATE);
+            out.writeLong(((Date) value).getTime());
+        } else if (value instanceof Enum) {
+            out.writeByte(ENUM);
+            out.writeUTF(((Enum<?>) value).name());
+        } else {
+            writeTextValue(out, value);
+        }
+    }
+
+    private static void writeTextValue(DataOutputStream out, Object value) throws IOException,
+            ODataNotImplementedException {
+        char tag;
+        if (value instanceof BigDecimal) {
+            tag = BIG_DECIMAL;
+        } else if (value instanceof BigInteger) {
+            tag = BIG_INTEGER;
+        } else if (value instanceof UUID) {
+            tag = GUID;
+        } else if (value instanceof LocalDate) {
+            tag = DATE;
+        } else if (value instanceof LocalTime) {
+            tag = TIME_OF_DAY;
+        } else if (value instanceof LocalDateTime) {
+            tag = LOCAL_DATE_TIME;
+        } else if (value instanceof ZonedDateTime) {
+            tag = DATE_TIME_OFFSET;
+        } else if (value instanceof Period) {
+            tag = DURATION;
+        } else {
+            throw new ODataNotImplementedException("Server-driven paging is not supported for properties of type: " +
+                    value.getClass().getName());
+        }
+        out.writeByte(tag);
+        out.writeUTF(value.toString());
+    }
+
+    private static Object readValue(DataInputStream in, Class<?> type, String token) throws IOException,
+            ODataBadRequestException {
+        char tag = (char) in.readUnsignedByte();
+        switch (tag) {
+            case NULL:
+                return null;
+            case STRING:
+                return in.readUTF();
+            case BOOLEAN:
+                return in.readBoolean();
+            case BYTE:
+                return in.readByte();
+            case SHORT:
+                return in.readShort();
+            case INTEGER:
+                return in.readInt();
+            case LONG:
+                return in.readLong();
+            case FLOAT:
+                return in.readFloat();
+            case DOUBLE:
+                return in.readDouble();
+            case LEGACY_DATE:
+                return new Date(in.readLong());
+            case ENUM:
+                return readEnum(type, in.readUTF(), token);
+            case BIG_DECIMAL:
+                return new BigDecimal(in.readUTF());
+            case BIG_INTEGER:
+                return new BigInteger(in.readUTF());
+            case GUID:
+                return UUID.fromString(in.readUTF());
+            case DATE:
+                return LocalDate.parse(in.readUTF());
+            case TIME_OF_DAY:
+                return LocalTime.parse(in.readUTF());
+            case LOCAL_DATE_TIME:
+                return LocalDateTime.parse(in.readUTF());
+            case DATE_TIME_OFFSET:
+                return ZonedDateTime.parse(in.readUTF());
+            case DURATION:
+                return Period.parse(in.readUTF());
+            default:
+                throw new ODataBadRequestException("Invalid $skiptoken: " + token);
+        }
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Object readEnum(Class<?> type, String name, String token) throws ODataBadRequestException {
+        if (!type.isEnum()) {
+            throw new ODataBadRequestException("The skip token does not match the order of the query: " + token);
+        }
+        return Enum.valueOf((Class) type, name);
+    }
+
+    private static Class<?> boxed(Class<?> type) {
+        if (!type.isPrimitive()) {
+            return type;
+        } else if (type == boolean.class) {
+            return Boolean.class;
+        } else if (type == byte.class) {
+            return Byte.class;
+        } else if (type == short.class) {
+            return Short.class;
+        } else if (type == int.class) {
+            return Integer.class;
+        } else if (type == long.class) {
+            return Long.class;
+        } else if (type == float.class) {
+            return Float.class;
+        } else if (type == double.class) {
+            return Double.class;
+        } else if (type == char.class) {
+            return Character.class;
+        }
+        return type;
+    }
+}
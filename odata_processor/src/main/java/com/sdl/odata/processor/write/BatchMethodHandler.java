@@ -26,6 +26,7 @@ import com.sdl.odata.api.parser.ODataUriUtil;
 import com.sdl.odata.api.parser.TargetType;
 import com.sdl.odata.api.processor.ProcessorResult;
 import com.sdl.odata.api.processor.datasource.DataSource;
+import com.sdl.odata.api.processor.datasource.ODataDataSourceException;
 import com.sdl.odata.api.processor.datasource.ODataTargetTypeException;
 import com.sdl.odata.api.processor.datasource.TransactionalDataSource;
 import com.sdl.odata.api.processor.datasource.factory.DataSourceFactory;
@@ -33,12 +34,14 @@ import com.sdl.odata.api.service.ChangeSetEntity;
 import com.sdl.odata.api.service.ODataRequest;
 import com.sdl.odata.api.service.ODataRequestContext;
 import com.sdl.odata.api.service.ODataResponse;
+import com.sdl.odata.processor.cache.CacheInvalidatingDataSource;
 import com.sdl.odata.processor.write.util.WriteMethodUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import scala.Option;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -65,7 +68,8 @@ public class BatchMethodHandler {
     }
 
     /**
-     * Handles transactional operations for each parsed odata request.
+     * Handles transactional operations for each parsed odata request. Consecutive operations of the same kind on
+     * the same entity set and data source are written with a single bulk operation of the data source.
      *
      * @return processor results
      */
@@ -74,21 +78,32 @@ public class BatchMethodHandler {
         List<ProcessorResult> resultList = new ArrayList<>();
 
         try {
+            List<PendingWrite> group = new ArrayList<>();
             for (ChangeSetEntity changeSetEntity : changeSetEntities) {
                 ODataRequestContext odataRequestContext = changeSetEntity.getRequestContext();
                 ODataUri requestUri = odataRequestContext.getUri();
                 ODataRequest.Method method = odataRequestContext.getRequest().getMethod();
 
-                ProcessorResult result = null;
+                PendingWrite write = null;
                 if (method == ODataRequest.Method.POST) {
-                    result = handlePOST(odataRequestContext, requestUri, changeSetEntity);
+                    write = preparePOST(odataRequestContext, requestUri, changeSetEntity);
                 } else if (method == ODataRequest.Method.PUT || method == ODataRequest.Method.PATCH) {
-                    result = handlePutAndPatch(odataRequestContext, requestUri, changeSetEntity);
+                    write = preparePutAndPatch(odataRequestContext, requestUri, changeSetEntity);
                 } else if (method == ODataRequest.Method.DELETE) {
-                    result = handleDelete(odataRequestContext, requestUri, changeSetEntity);
+                    write = prepareDelete(odataRequestContext, requestUri, changeSetEntity);
+                }
+
+                if (!group.isEmpty() && (write == null || !group.get(0).canBeWrittenWith(write))) {
+                    resultList.addAll(writeGroup(group));
+                    group.clear();
+                }
+                if (write != null) {
+                    group.add(write);
+                } else {
+                    resultList.add(null);
                 }
-                resultList.add(result);
             }
+            resultList.addAll(writeGroup(group));
 
             commitTransactions();
         } catch (ODataException e) {
@@ -99,45 +114,43 @@ public class BatchMethodHandler {
         return resultList;
     }
 
-    private ProcessorResult handlePOST(ODataRequestContext oDataRequestContext,
-                                       ODataUri oDataUri, ChangeSetEntity changeSetEntity) throws ODataException {
+    private PendingWrite preparePOST(ODataRequestContext oDataRequestContext,
+                                     ODataUri oDataUri, ChangeSetEntity changeSetEntity) throws ODataException {
         LOG.debug("Handling POST operation");
         Object entityData = changeSetEntity.getOdataEntity();
         Map<String, String> headers = buildDefaultEntityHeaders(oDataRequestContext, changeSetEntity);
         ODataRequest oDataRequest = oDataRequestContext.getRequest();
 
         validateEntityData(oDataRequest, oDataUri, entityData);
-        DataSource dataSource = getTransactionalDataSource(oDataRequestContext, getRequestType(oDataRequest, oDataUri));
+        TransactionalDataSource dataSource = getTransactionalDataSource(oDataRequestContext,
+                getRequestType(oDataRequest, oDataUri));
         headers.putAll(oDataRequest.getHeaders());
         headers.put("changeSetId", changeSetEntity.getChangeSetId());
 
-        Object createdEntity = dataSource.create(oDataUri, entityData, entityDataModel);
-
-        if (WriteMethodUtil.isMinimalReturnPreferred(oDataRequest)) {
-            return new ProcessorResult(ODataResponse.Status.NO_CONTENT, headers);
-        }
-        return new ProcessorResult(ODataResponse.Status.CREATED, from(createdEntity), headers, oDataRequestContext);
+        // Entities are only created together when they are created through the same URI
+        return new PendingWrite(WriteOperation.CREATE, oDataRequestContext, oDataUri, oDataUri, entityData, headers,
+                dataSource);
     }
 
-    private ProcessorResult handleDelete(ODataRequestContext odataRequestContext,
-                                         ODataUri odataUri, ChangeSetEntity changeSetEntity) throws ODataException {
+    private PendingWrite prepareDelete(ODataRequestContext odataRequestContext,
+                                       ODataUri odataUri, ChangeSetEntity changeSetEntity) throws ODataException {
         LOG.debug("Handling DELETE operation");
         Map<String, String> headers = buildDefaultEntityHeaders(odataRequestContext, changeSetEntity);
 
         Option<String> singletonName = ODataUriUtil.getSingletonName(odataUri);
-        DataSource dataSource = getTransactionalDataSource(odataRequestContext,
+        TransactionalDataSource dataSource = getTransactionalDataSource(odataRequestContext,
                 getRequestType(odataRequestContext.getRequest(), odataUri));
         if (singletonName.isDefined()) {
             throw new ODataBadRequestException("The URI refers to the singleton '" + singletonName.get() +
                     "'. Singletons cannot be deleted.");
         }
-        dataSource.delete(odataUri, entityDataModel);
-        return new ProcessorResult(ODataResponse.Status.NO_CONTENT, null, headers, odataRequestContext);
+        return new PendingWrite(WriteOperation.DELETE, odataRequestContext, odataUri, getEntitySet(odataUri), null,
+                headers, dataSource);
     }
 
-    private ProcessorResult handlePutAndPatch(ODataRequestContext odataRequestContext,
-                                              ODataUri requestUri,
-                                              ChangeSetEntity changeSetEntity) throws ODataException {
+    private PendingWrite preparePutAndPatch(ODataRequestContext odataRequestContext,
+                                            ODataUri requestUri,
+                                            ChangeSetEntity changeSetEntity) throws ODataException {
         LOG.debug("Handling PUT or PATCH operation");
         Object entityData = changeSetEntity.getOdataEntity();
         ODataRequest oDataRequest = odataRequestContext.getRequest();
@@ -161,15 +174,87 @@ public class BatchMethodHandler {
         Type type = entityDataModel.getType(targetType.typeName());
         WriteMethodUtil.validateKeys(entityData, (EntityType) type, requestUri, entityDataModel);
 
-        DataSource dataSource = getTransactionalDataSource(odataRequestContext, type);
-        Object updatedEntity = dataSource.update(requestUri, entityData, entityDataModel);
+        TransactionalDataSource dataSource = getTransactionalDataSource(odataRequestContext, type);
 
         // add additional headers
         headers.putAll(oDataRequest.getHeaders());
-        if (WriteMethodUtil.isMinimalReturnPreferred(oDataRequest)) {
-            return new ProcessorResult(ODataResponse.Status.NO_CONTENT, headers);
+        return new PendingWrite(WriteOperation.UPDATE, odataRequestContext, requestUri, getEntitySet(requestUri),
+                entityData, headers, dataSource);
+    }
+
+    /**
+     * Writes a group of operations which can be written together with one bulk operation of their data source. A
+     * group of a single operation is written with the single entity operation of the data source. If the bulk
+     * operation fails, the whole change set fails with its error: the operations are not retried one by one, because
+     * the transaction of the data source may no longer be usable after the failure.
+     *
+     * @param group The operations.
+     * @return The results of the operations, in the order of the operations.
+     */
+    private List<ProcessorResult> writeGroup(List<PendingWrite> group) throws ODataException {
+        List<ProcessorResult> results = new ArrayList<>(group.size());
+        if (group.size() > 1) {
+            List<Object> writtenEntities = writeAll(group);
+            checkWrittenEntities(group, writtenEntities);
+            for (int i = 0; i < group.size(); i++) {
+                results.add(group.get(i).result(writtenEntities.get(i)));
+            }
+        } else {
+            for (PendingWrite write : group) {
+                results.add(write.result(writeOne(write)));
+            }
+        }
+        return results;
+    }
+
+    private List<Object> writeAll(List<PendingWrite> group) throws ODataException {
+        PendingWrite first = group.get(0);
+        List<ODataUri> uris = new ArrayList<>(group.size());
+        List<Object> entities = new ArrayList<>(group.size());
+        for (PendingWrite write : group) {
+            uris.add(write.uri);
+            entities.add(write.entity);
+        }
+
+        switch (first.operation) {
+            case CREATE:
+                return first.dataSource.createAll(first.uri, entities, entityDataModel);
+            case UPDATE:
+                return first.dataSource.updateAll(uris, entities, entityDataModel);
+            case DELETE:
+                first.dataSource.deleteAll(uris, entityDataModel);
+                return Collections.nCopies(group.size(), null);
+            default:
+                throw new IllegalStateException("Unknown write operation: " + first.operation);
+        }
+    }
+
+    private Object writeOne(PendingWrite write) throws ODataException {
+        switch (write.operation) {
+            case CREATE:
+                return write.dataSource.create(write.uri, write.entity, entityDataModel);
+            case UPDATE:
+                return write.dataSource.update(write.uri, write.entity, entityDataModel);
+            case DELETE:
+                write.dataSource.delete(write.uri, entityDataModel);
+                return null;
+            default:
+                throw new IllegalStateException("Unknown write operation: " + write.operation);
         }
-        return new ProcessorResult(ODataResponse.Status.OK, from(updatedEntity), headers, odataRequestContext);
+    }
+
+    private void checkWrittenEntities(List<PendingWrite> group, List<Object> writtenEntities)
+            throws ODataDataSourceException {
+        if (writtenEntities.size() != group.size()) {
+            throw new ODataDataSourceException("The data source returned " + writtenEntities.size() +
+                    " entities for a bulk write of " + group.size() + " entities");
+        }
+    }
+
+    // Entities are written together when they are in the same entity set; other targets only with the same URI
+    private Object getEntitySet(ODataUri oDataUri) {
+        Option<String> entitySetName = ODataUriUtil.getEntitySetName(oDataUri);
+        return entitySetName.isDefined() ? entitySetName.get() : oDataUri;
     }
 
     private Map<String, String> buildDefaultEntityHeaders(ODataRequestContext odataRequestContext,
@@ -210,7 +295,10 @@ public class BatchMethodHandler {
     private TransactionalDataSource getTransactionalDataSource(
             ODataRequestContext odataRequestContext, Type type) throws ODataException {
         DataSource dataSource = dataSourceFactory.getDataSource(odataRequestContext, type.getFullyQualifiedName());
-        String dataSourceKey = dataSource.getClass().toString();
+        // One transaction per data source implementation; look through the data source that maintains the query cache
+        DataSource keyDataSource = dataSource instanceof CacheInvalidatingDataSource ?
+                ((CacheInvalidatingDataSource) dataSource).getDataSource() : dataSource;
+        String dataSourceKey = keyDataSource.getClass().toString();
         if (dataSourceMap.containsKey(dataSourceKey)) {
             return dataSourceMap.get(dataSourceKey);
         } else {
@@ -230,4 +318,51 @@ public class BatchMethodHandler {
         }
         WriteMethodUtil.validateProperties(entityData, entityDataModel);
     }
+
+    /**
+     * The kinds of write operations which are written in bulk.
+     */
+    private enum WriteOperation {
+        CREATE, UPDATE, DELETE
+    }
+
+    /**
+     * A validated write operation of a change set, which is not yet written to its data source.
+     */
+    private static final class PendingWrite {
+        private final WriteOperation operation;
+        private final ODataRequestContext requestContext;
+        private final ODataUri uri;
+        private final Object target;
+        private final Object entity;
+        private final Map<String, String> headers;
+        private final TransactionalDataSource dataSource;
+
+        private PendingWrite(WriteOperation operation, ODataRequestContext requestContext, ODataUri uri, Object target,
+                             Object entity, Map<String, String> headers, TransactionalDataSource dataSource) {
+            this.operation = operation;
+            this.requestContext = requestContext;
+            this.uri = uri;
+            this.target = target;
+            this.entity = entity;
+            this.headers = headers;
+            this.dataSource = dataSource;
+        }
+
+        private boolean canBeWrittenWith(PendingWrite other) {
+            return operation == other.operation && dataSource == other.dataSource && target.equals(other.target);
+        }
+
+        private ProcessorResult result(Object writtenEntity) {
+            if (operation == WriteOperation.DELETE) {
+                return new ProcessorResult(ODataResponse.Status.NO_CONTENT, null, headers, requestContext);
+            }
+            if (WriteMethodUtil.isMinimalReturnPreferred(requestContext.getRequest())) {
+                return new ProcessorResult(ODataResponse.Status.NO_CONTENT, headers);
+            }
+            ODataResponse.Status status = operation == WriteOperation.CREATE ?
+                    ODataResponse.Status.CREATED : ODataResponse.Status.OK;
+            return new ProcessorResult(status, from(writtenEntity), headers, requestContext);
+        }
+    }
 }
@@ -23,18 +23,47 @@ import com.sdl.odata.api.processor.datasource.ODataDataSourceException
 import com.sdl.odata.api.processor.query._
 import com.sdl.odata.api.service.ODataRequestContext
 import com.sdl.odata.api.{ODataBadRequestException, ODataNotImplementedException}
+import com.sdl.odata.processor.paging.SkipTokenCodec
+
+import scala.collection.JavaConverters._
 
 class QueryModelBuilder(entityDataModel: EntityDataModel) {
 
-  def build(requestContext: ODataRequestContext): ODataQuery = requestContext.getUri match {
+  def build(requestContext: ODataRequestContext): ODataQuery = build(requestContext, 0)
+
+  /**
+   * Builds the query for a request, which returns one page of entities if `pageSize` is greater than zero. The query
+   * is then ordered on the key properties of the entity type (after the properties in `$orderby`), continues after
+   * the entity in the `$skiptoken` option, and returns at most `pageSize + 1` entities, so that the caller can see
+   * whether there is a next page.
+   *
+   * @param requestContext The request context.
+   * @param pageSize The page size, or 0 if the result must not be paged.
+   * @return The query.
+   */
+  def build(requestContext: ODataRequestContext, pageSize: Int): ODataQuery = requestContext.getUri match {
     case ODataUri(_, resourcePathUri: ResourcePathUri) =>
-      buildFromResourcePathUri(resourcePathUri)
+      buildFromResourcePathUri(resourcePathUri, pageSize)
 
     case _ =>
       throw new ODataDataSourceException("The URI does not represent a valid query: " + requestContext.getRequest.getUri)
   }
 
-  private def buildFromResourcePathUri(resourcePathUri: ResourcePathUri): ODataQuery = {
+  /**
+   * Checks if the result of a request can be paged: only queries on all entities of an entity set, which are not
+   * aggregated with `$apply`, are paged.
+   *
+   * @param requestContext The request context.
+   * @return `true` if the result of the request can be paged, `false` otherwise.
+   */
+  def supportsPaging(requestContext: ODataRequestContext): Boolean = requestContext.getUri match {
+    case ODataUri(_, ResourcePathUri(EntitySetPath(_, None | Some(EntityCollectionPath(_, None))), options)) =>
+      !options.exists(_.isInstanceOf[ApplyOption])
+
+    case _ => false
+  }
+
+  private def buildFromResourcePathUri(resourcePathUri: ResourcePathUri, pageSize: Int): ODataQuery = {
     // Build operation from resource path
     val operation = resourcePathUri match {
       case ResourcePathUri(EntitySetPath(entitySetName, subPath), _) =>
@@ -48,7 +77,11 @@ class QueryModelBuilder(entityDataModel: EntityDataModel) {
     }
 
     // Apply query options
-    ODataQuery(applyOptions(resourcePathUri.options, operation))
+    if (pageSize > 0) {
+      ODataQuery(applyPagedOptions(resourcePathUri.options, operation, pageSize))
+    } else {
+      ODataQuery(applyOptions(resourcePathUri.options, operation))
+    }
   }
 
   // NOTE: Derived type names are currently ignored. How this should be implemented depends on how class hierarchies
@@ -147,6 +180,64 @@ class QueryModelBuilder(entityDataModel: EntityDataModel) {
   private def applyOptions(options: List[QueryOption], operation: QueryOperation): QueryOperation =
     options.foldLeft(operation)(applyOption)
 
+  private def applyPagedOptions(options: List[QueryOption], operation: QueryOperation, pageSize: Int): QueryOperation = {
+    val (pagingOptions, otherOptions) = options.partition {
+      case _: OrderByOption | _: TopOption | _: SkipOption | _: SkipTokenOption => true
+      case _ => false
+    }
+
+    val source = applyOptions(otherOptions, operation)
+
+    // Order on the requested properties, followed by the key properties, so that every entity has a unique position
+    val requestedOrder = pagingOptions.collect { case OrderByOption(items) => toOrderByProperties(items) }.flatten
+    val keyOrder = getTargetType(source).getKey.getPropertyRefs.asScala.toList
+      .map(_.getPath)
+      .filterNot(path => requestedOrder.exists(_.propertyName == path))
+      .map(OrderByProperty.asc)
+    val orderByProperties = requestedOrder ++ keyOrder
+
+    val afterSkipToken = pagingOptions.collectFirst { case SkipTokenOption(token) => token } match {
+      case Some(token) =>
+        val targetType = getTargetType(source)
+        val types = orderByProperties.map(p => getPropertyJavaType(targetType, p.propertyName))
+        val lastValues = SkipTokenCodec.decode(token, types.asJava).asScala.toList
+        SkipTokenOperation(source, orderByProperties, lastValues)
+
+      case None => source
+    }
+
+    val ordered = OrderByOperation(afterSkipToken, orderByProperties)
+    val skipped = pagingOptions.collectFirst { case SkipOption(count) => count } match {
+      case Some(count) => SkipOperation(ordered, count)
+      case None => ordered
+    }
+
+    // Fetch one entity more than the page size to find out if there is a next page
+    pagingOptions.collectFirst { case TopOption(count) => count } match {
+      case Some(count) if count <= pageSize => LimitOperation(skipped, count)
+      case _ => LimitOperation(skipped, pageSize + 1)
+    }
+  }
+
+  /**
+   * Gets the Java type of the values of a (possibly nested) property, so that a skip token can be checked against
+   * the properties it is decoded for.
+   */
+  private def getPropertyJavaType(entityType: EntityType, propertyPath: String): Class[_] = {
+    val property = propertyPath.split("\\.").foldLeft[Option[StructuralProperty]](None) { (parent, propertyName) =>
+      val structuredType = parent match {
+        case None => entityType
+        case Some(parentProperty) => entityDataModel.getType(parentProperty.getTypeName) match {
+          case parentType: StructuredType => parentType
+          case _ => throw new ODataBadRequestException(s"Cannot order on property path: $propertyPath")
+        }
+      }
+      Some(Option(structuredType.getStructuralProperty(propertyName)).getOrElse(
+        throw new ODataBadRequestException(s"Property not found in type $structuredType: $propertyName")))
+    }
+    property.get.getJavaField.getType
+  }
+
   private def applyOption(source: QueryOperation, option: QueryOption): QueryOperation = option match {
     case FilterOption(expression) => applyFilterOption(source, expression)
     // ApplyOption
@@ -281,7 +372,10 @@ class QueryModelBuilder(entityDataModel: EntityDataModel) {
     ApplyOperation(source, applyExp.methodName, getApplyProperties(applyExp.args.properties), getApplyFunction(applyExp.args.function))
   }
 
-  private def applyOrderByOption(source: QueryOperation, items: List[OrderByItem]): QueryOperation = {
+  private def applyOrderByOption(source: QueryOperation, items: List[OrderByItem]): QueryOperation =
+    OrderByOperation(source, toOrderByProperties(items))
+
+  private def toOrderByProperties(items: List[OrderByItem]): List[OrderByProperty] = {
 
     def getOrderByPropertyPath(expr: Expression): String = getPropertyPath(expr) match {
       case Some(propertyPath) => propertyPath
@@ -289,12 +383,10 @@ class QueryModelBuilder(entityDataModel: EntityDataModel) {
         throw new ODataNotImplementedException("Unsupported expression type for 'orderby': " + expr)
     }
 
-    val orderByFields = items map {
+    items map {
       case AscendingOrderByItem(expr) => OrderByProperty.asc(getOrderByPropertyPath(expr))
       case DescendingOrderByItem(expr) => OrderByProperty.desc(getOrderByPropertyPath(expr))
     }
-
-    OrderByOperation(source, orderByFields)
   }
 
   private def getPropertyPath(expr: Expression): Option[String] = expr match {
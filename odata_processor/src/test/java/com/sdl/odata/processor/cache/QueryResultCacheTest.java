@@ -0,0 +1,219 @@
+/**
+ * Copyright (c) 2014-2024 All Rights Reserved by the RWS Group for and on behalf of its affiliates and subsidiaries.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.sdl.odata.processor.cache;
+
+import com.sdl.odata.api.ODataBadRequestException;
+import com.sdl.odata.api.ODataException;
+import com.sdl.odata.api.edm.model.EntityDataModel;
+import com.sdl.odata.api.processor.query.ExpandOperation;
+import com.sdl.odata.api.processor.query.JoinOperation;
+import com.sdl.odata.api.processor.query.JoinSelectRight$;
+import com.sdl.odata.api.processor.query.LimitOperation;
+import com.sdl.odata.api.processor.query.QueryOperation;
+import com.sdl.odata.api.processor.query.QueryResult;
+import com.sdl.odata.api.processor.query.SelectOperation;
+import com.sdl.odata.edm.factory.annotations.AnnotationEntityDataModelFactory;
+import com.sdl.odata.processor.model.ODataMobilePhone;
+import com.sdl.odata.processor.model.ODataPerson;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import scala.collection.JavaConverters;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * The Query Result Cache Test.
+ */
+public class QueryResultCacheTest {
+
+    private final EntityDataModel entityDataModel = new AnnotationEntityDataModelFactory()
+            .addClass(ODataPerson.class)
+            .addClass(ODataMobilePhone.class)
+            .buildEntityDataModel();
+
+    private final QueryOperation persons = new SelectOperation("Persons", true);
+    private final QueryOperation phones = new SelectOperation("MobilePhones", true);
+
+    private final AtomicInteger loads = new AtomicInteger();
+
+    private QueryResultCache cache;
+
+    @BeforeEach
+    public void setUp() {
+        cache = new QueryResultCache();
+        cache.setMaxSize(2);
+        cache.setMaxSizes("MobilePhones=0");
+    }
+
+    @Test
+    public void testHit() throws ODataException {
+        QueryResult first = get(persons);
+        QueryResult second = get(new SelectOperation("Persons", true));
+
+        assertNotSame(first, second);
+        assertEquals(2, ((List<?>) second.getData()).size());
+        assertEquals(1, loads.get());
+        assertEquals(1, cache.getStatistics("Persons").getHitCount());
+        assertEquals(1, cache.getStatistics("Persons").getMissCount());
+        assertEquals(0.5, cache.getStatistics().getHitRatio());
+    }
+
+    @Test
+    public void testCachedResultIsNotShared() throws ODataException {
+        QueryResult first = get(persons);
+        ODataPerson person = (ODataPerson) ((List<?>) first.getData()).get(0);
+        person.setFamilyName("Changed");
+        person.getMobilePhones().add(new ODataMobilePhone());
+        first.withCount(2);
+
+        QueryResult second = get(persons);
+        ODataPerson cachedPerson = (ODataPerson) ((List<?>) second.getData()).get(0);
+        assertNotSame(person, cachedPerson);
+        assertEquals("Smith", cachedPerson.getFamilyName());
+        assertTrue(cachedPerson.getMobilePhones().isEmpty());
+        assertFalse(second.getMeta().containsKey("count"));
+
+        cachedPerson.setFamilyName("Changed again");
+        QueryResult third = get(persons);
+        assertEquals("Smith", ((ODataPerson) ((List<?>) third.getData()).get(0)).getFamilyName());
+        assertEquals(1, loads.get());
+        assertEquals(2, cache.getHitCount());
+        assertEquals(1, cache.getMissCount());
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    public void testDisabledEntitySet() throws ODataException {
+        assertFalse(cache.isEnabled("MobilePhones"));
+        assertTrue(cache.isEnabled("Persons"));
+
+        get(phones);
+        get(phones);
+
+        assertEquals(2, loads.get());
+        assertEquals(0, cache.getStatistics().getSize());
+    }
+
+    @Test
+    public void testLeastRecentlyUsedEviction() throws ODataException {
+        QueryOperation first = new LimitOperation(persons, 1);
+        QueryOperation second = new LimitOperation(persons, 2);
+        QueryOperation third = new LimitOperation(persons, 3);
+
+        get(first);
+        get(second);
+        get(first);
+        get(third);
+
+        assertEquals(1, cache.getStatistics("Persons").getEvictionCount());
+        get(first);
+        assertEquals(3, loads.get());
+        get(second);
+        assertEquals(4, loads.get());
+    }
+
+    @Test
+    public void testExpiry() throws ODataException {
+        cache.setTtlsMillis("Persons=0");
+
+        get(persons);
+        get(persons);
+
+        assertEquals(2, loads.get());
+        assertEquals(1, cache.getStatistics("Persons").getEvictionCount());
+    }
+
+    @Test
+    public void testInvalidateEntityType() throws ODataException {
+        QueryOperation personPhones = new JoinOperation(persons, phones, "mobilePhones",
+                JoinSelectRight$.MODULE$, false);
+        QueryOperation expanded = new ExpandOperation(persons,
+                JavaConverters.asScalaBuffer(Collections.singletonList("primaryPhone")).toList());
+        cache.setMaxSize(10);
+        cache.setMaxSizes("");
+
+        get(persons);
+        get(personPhones);
+        get(expanded);
+
+        cache.invalidateEntityType(entityDataModel, "ODataTest.ODataMobilePhone");
+
+        get(persons);
+        assertEquals(3, loads.get());
+        get(personPhones);
+        get(expanded);
+        assertEquals(5, loads.get());
+    }
+
+    @Test
+    public void testExceptionResultsAreNotCached() throws ODataException {
+        cache.get(entityDataModel, persons, () -> {
+            loads.incrementAndGet();
+            return QueryResult.from(new ODataBadRequestException("Failed"));
+        });
+        get(persons);
+
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    public void testOtherModel() throws ODataException {
+        get(persons);
+
+        EntityDataModel otherModel = new AnnotationEntityDataModelFactory()
+                .addClass(ODataPerson.class)
+                .addClass(ODataMobilePhone.class)
+                .buildEntityDataModel();
+        cache.get(otherModel, persons, () -> {
+            loads.incrementAndGet();
+            return QueryResult.from(Collections.emptyList());
+        });
+
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    public void testStatistics() throws ODataException {
+        get(persons);
+
+        QueryResultCache.Statistics statistics = cache.getStatistics();
+        assertEquals(1, statistics.getSize());
+        assertEquals(1, statistics.getLoadCount());
+        assertTrue(statistics.getAverageLoadTimeNanos() >= 0);
+    }
+
+    private QueryResult get(QueryOperation operation) throws ODataException {
+        return cache.get(entityDataModel, operation, () -> {
+            loads.incrementAndGet();
+            return QueryResult.from(Arrays.asList(person("1"), person("2")));
+        });
+    }
+
+    private static ODataPerson person(String id) {
+        ODataPerson person = new ODataPerson();
+        person.setId(id);
+        person.setFamilyName("Smith");
+        return person;
+    }
+}
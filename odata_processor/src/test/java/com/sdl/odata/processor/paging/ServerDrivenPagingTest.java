@@ -0,0 +1,58 @@
+/**
+ * Copyright (c) 2014-2024 All Rights Reserved by the RWS Group for and on behalf of its affiliates and subsidiaries.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.sdl.odata.processor.paging;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * The Server Driven Paging Test.
+ */
+public class ServerDrivenPagingTest {
+
+    @Test
+    public void testMaxPageSizes() {
+        ServerDrivenPaging paging = new ServerDrivenPaging();
+        paging.setMaxPageSize(100);
+        paging.setMaxPageSizes("Customers=50, Orders = 0");
+
+        assertEquals(50, paging.getMaxPageSize("Customers"));
+        assertEquals(0, paging.getMaxPageSize("Orders"));
+        assertEquals(100, paging.getMaxPageSize("Products"));
+    }
+
+    @Test
+    public void testInvalidMaxPageSizes() {
+        ServerDrivenPaging paging = new ServerDrivenPaging();
+        assertThrows(IllegalArgumentException.class, () -> paging.setMaxPageSizes("Customers"));
+        assertThrows(IllegalArgumentException.class, () -> paging.setMaxPageSizes("Customers=-1"));
+        assertThrows(IllegalArgumentException.class, () -> paging.setMaxPageSize(-1));
+    }
+
+    @Test
+    public void testBuildNextLink() {
+        assertEquals("http://localhost/odata.svc/Customers?$skiptoken=abc",
+                ServerDrivenPaging.buildNextLink("http://localhost/odata.svc/Customers", "abc", 0));
+        assertEquals("http://localhost/odata.svc/Customers?$filter=name%20eq%20'x'&$orderby=name&$skiptoken=abc",
+                ServerDrivenPaging.buildNextLink("http://localhost/odata.svc/Customers?$filter=name%20eq%20'x'" +
+                        "&$skip=10&$orderby=name&$skiptoken=old", "abc", 0));
+        assertEquals("http://localhost/odata.svc/Customers?$count=true&$top=15&$skiptoken=abc",
+                ServerDrivenPaging.buildNextLink("http://localhost/odata.svc/Customers?%24top=25&$count=true",
+                        "abc", 15));
+    }
+}
@@ -0,0 +1,104 @@
+/**
+ * Copyright (c) 2014-2024 All Rights Reserved by the RWS Group for and on behalf of its affiliates and subsidiaries.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.sdl.odata.processor.paging;
+
+import com.sdl.odata.api.ODataBadRequestException;
+import com.sdl.odata.api.ODataNotImplementedException;
+import com.sdl.odata.api.edm.model.MetaType;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.Period;
+import java.time.ZonedDateTime;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * The Skip Token Codec Test.
+ */
+public class SkipTokenCodecTest {
+
+    @Test
+    public void testRoundTrip() throws Exception {
+        List<Object> values = Arrays.asList(null, "Smith", true, (byte) 1, (short) 2, 3, 4L, 5.5f, 6.5d,
+                new BigDecimal("7.25"), new BigInteger("12345678901234567890"), UUID.randomUUID(),
+                LocalDate.of(2024, 2, 29), LocalTime.of(12, 30, 15), LocalDateTime.of(2024, 2, 29, 12, 30),
+                ZonedDateTime.parse("2024-02-29T12:30:00+01:00"), Period.ofDays(3), new Date(1000L),
+                MetaType.ENTITY);
+
+        List<Class<?>> types = Arrays.asList(String.class, String.class, boolean.class, byte.class, short.class,
+                int.class, Long.class, float.class, Double.class, BigDecimal.class, BigInteger.class, UUID.class,
+                LocalDate.class, LocalTime.class, LocalDateTime.class, ZonedDateTime.class, Period.class, Date.class,
+                MetaType.class);
+
+        String token = SkipTokenCodec.encode(values);
+
+        assertTrue(token.matches("[A-Za-z0-9_\\-]+"), "Skip token must be URL safe: " + token);
+        assertEquals(values, SkipTokenCodec.decode(token, types));
+    }
+
+    @Test
+    public void testEmpty() throws Exception {
+        assertEquals(Collections.emptyList(),
+                SkipTokenCodec.decode(SkipTokenCodec.encode(Collections.emptyList()), Collections.emptyList()));
+    }
+
+    @Test
+    public void testEnumIsResolvedInPropertyType() throws Exception {
+        String token = SkipTokenCodec.encode(Collections.singletonList(MetaType.ENTITY));
+
+        assertEquals(Collections.singletonList(MetaType.ENTITY),
+                SkipTokenCodec.decode(token, Collections.singletonList(MetaType.class)));
+        assertThrows(ODataBadRequestException.class,
+                () -> SkipTokenCodec.decode(token, Collections.singletonList(String.class)));
+        assertThrows(ODataBadRequestException.class,
+                () -> SkipTokenCodec.decode(token, Collections.singletonList(Thread.State.class)));
+    }
+
+    @Test
+    public void testValuesMustMatchPropertyTypes() throws Exception {
+        String token = SkipTokenCodec.encode(Arrays.asList("Smith", 42L));
+
+        assertThrows(ODataBadRequestException.class,
+                () -> SkipTokenCodec.decode(token, Arrays.asList(String.class, Integer.class)));
+        assertThrows(ODataBadRequestException.class,
+                () -> SkipTokenCodec.decode(token, Collections.singletonList(String.class)));
+    }
+
+    @Test
+    public void testUnsupportedValue() {
+        assertThrows(ODataNotImplementedException.class,
+                () -> SkipTokenCodec.encode(Collections.singletonList(new Object())));
+    }
+
+    @Test
+    public void testInvalidToken() {
+        assertThrows(ODataBadRequestException.class,
+                () -> SkipTokenCodec.decode("not-a-token", Collections.emptyList()));
+        assertThrows(ODataBadRequestException.class, () -> SkipTokenCodec.decode("%%%", Collections.emptyList()));
+    }
+}
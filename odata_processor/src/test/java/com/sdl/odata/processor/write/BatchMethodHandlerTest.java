@@ -18,20 +18,30 @@ package com.sdl.odata.processor.write;
 import com.sdl.odata.api.ODataException;
 import com.sdl.odata.api.edm.model.EntityDataModel;
 import com.sdl.odata.api.parser.ODataUri;
+import com.sdl.odata.api.processor.ProcessorResult;
 import com.sdl.odata.api.processor.datasource.ODataDataSourceException;
 import com.sdl.odata.api.processor.datasource.TransactionalDataSource;
 import com.sdl.odata.api.service.ChangeSetEntity;
 import com.sdl.odata.api.service.ODataRequestContext;
+import com.sdl.odata.api.service.ODataResponse;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
 import java.io.UnsupportedEncodingException;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import static com.sdl.odata.api.service.ODataRequest.Method.POST;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 /**
@@ -77,7 +87,79 @@ public class BatchMethodHandlerTest extends MethodHandlerTest {
         getPostMethodHandler(entityDataModel, getEntity()).handleWrite();
     }
 
+    @Test
+    public void testCreatesEntitiesOfSameEntitySetTogether() throws Exception {
+        stubForTesting(getEntity());
+        TransactionalDataSource trxDataSourceMock = mock(TransactionalDataSource.class);
+        when(trxDataSourceMock.createAll(any(ODataUri.class), anyList(), any(EntityDataModel.class)))
+                .thenReturn(Arrays.asList(getEntity(), getEntity()));
+        when(dataSourceMock.startTransaction()).thenReturn(trxDataSourceMock);
+
+        EntityDataModel entityDataModel = getEntityDataModel();
+        ODataRequestContext requestContext = super.createRequestContext(POST, true, entityDataModel);
+        List<ChangeSetEntity> entities = Arrays.asList(new ChangeSetEntity("1", requestContext, getEntity()),
+                new ChangeSetEntity("1", requestContext, getEntity()));
+
+        List<ProcessorResult> results =
+                new BatchMethodHandler(requestContext, dataSourceFactoryMock, entities).handleWrite();
+
+        assertEquals(2, results.size());
+        assertEquals(ODataResponse.Status.CREATED, results.get(1).getStatus());
+        verify(trxDataSourceMock, times(1)).createAll(any(ODataUri.class), anyList(), any(EntityDataModel.class));
+        verify(trxDataSourceMock, never()).create(any(ODataUri.class), any(), any(EntityDataModel.class));
+        verify(trxDataSourceMock).commit();
+    }
+
+    @Test
+    public void testFailWhenBulkCreateReturnsWrongNumberOfEntities() throws Exception {
+        stubForTesting(getEntity());
+        TransactionalDataSource trxDataSourceMock = mock(TransactionalDataSource.class);
+        when(trxDataSourceMock.createAll(any(ODataUri.class), anyList(), any(EntityDataModel.class)))
+                .thenReturn(Collections.singletonList(getEntity()));
+        when(dataSourceMock.startTransaction()).thenReturn(trxDataSourceMock);
 
+        EntityDataModel entityDataModel = getEntityDataModel();
+        ODataRequestContext requestContext = super.createRequestContext(POST, true, entityDataModel);
+        List<ChangeSetEntity> entities = Arrays.asList(new ChangeSetEntity("1", requestContext, getEntity()),
+                new ChangeSetEntity("1", requestContext, getEntity()));
 
+        assertThrows(ODataDataSourceException.class, () ->
+                new BatchMethodHandler(requestContext, dataSourceFactoryMock, entities).handleWrite()
+        );
+        verify(trxDataSourceMock).rollback();
+    }
 
+    @Test
+    public void testFailChangeSetWithBulkErrorWhenBulkCreateFails() throws Exception {
+        stubForTesting(getEntity());
+        // Like a database which aborts the transaction on an error, the data source rejects any later write
+        AtomicBoolean transactionAborted = new AtomicBoolean();
+        TransactionalDataSource trxDataSourceMock = mock(TransactionalDataSource.class);
+        when(trxDataSourceMock.createAll(any(ODataUri.class), anyList(), any(EntityDataModel.class)))
+                .thenAnswer(invocation -> {
+                    transactionAborted.set(true);
+                    throw new ODataDataSourceException("bulk write failed");
+                });
+        when(trxDataSourceMock.create(any(ODataUri.class), any(), any(EntityDataModel.class)))
+                .thenAnswer(invocation -> {
+                    if (transactionAborted.get()) {
+                        throw new ODataDataSourceException("transaction is aborted");
+                    }
+                    return getEntity();
+                });
+        when(dataSourceMock.startTransaction()).thenReturn(trxDataSourceMock);
+
+        EntityDataModel entityDataModel = getEntityDataModel();
+        ODataRequestContext requestContext = super.createRequestContext(POST, true, entityDataModel);
+        List<ChangeSetEntity> entities = Arrays.asList(new ChangeSetEntity("1", requestContext, getEntity()),
+                new ChangeSetEntity("1", requestContext, getEntity()));
+
+        ODataDataSourceException exception = assertThrows(ODataDataSourceException.class, () ->
+                new BatchMethodHandler(requestContext, dataSourceFactoryMock, entities).handleWrite()
+        );
+        assertEquals("bulk write failed", exception.getMessage());
+        verify(trxDataSourceMock, never()).create(any(ODataUri.class), any(), any(EntityDataModel.class));
+        verify(trxDataSourceMock).rollback();
+        verify(trxDataSourceMock, never()).commit();
+    }
 }
@@ -19,9 +19,13 @@ import com.sdl.odata.api.parser._
 import com.sdl.odata.api.processor.query._
 import com.sdl.odata.api.service.{MediaType, ODataRequestContext}
 import com.sdl.odata.edm.factory.annotations.AnnotationEntityDataModelFactory
+import com.sdl.odata.api.ODataBadRequestException
 import com.sdl.odata.processor.model.{ODataMobilePhone, ODataPerson}
+import com.sdl.odata.processor.paging.SkipTokenCodec
 import org.scalatest.FunSuite
 
+import scala.collection.JavaConverters._
+
 class QueryModelBuilderTest extends FunSuite {
 
   private val entityDataModel = new AnnotationEntityDataModelFactory()
@@ -294,4 +298,91 @@ class QueryModelBuilderTest extends FunSuite {
     val expected = ODataQuery(CountOperation(SelectOperation("Persons", true), true))
     assert(query === expected)
   }
+
+  // Server-driven paging tests
+  test("paged /Persons") {
+    val uri = ODataUri("", ResourcePathUri(EntitySetPath("Persons", None), List()))
+    val query = new QueryModelBuilder(entityDataModel).build(new ODataRequestContext(null, uri, entityDataModel), 10)
+    val expected = ODataQuery(LimitOperation(
+      OrderByOperation(SelectOperation("Persons", true), List(OrderByProperty("id", Ascending))), 11))
+    assert(query === expected)
+  }
+
+  test("paged /Persons?$orderby=familyName desc&$top=5&$skip=3") {
+    val uri = ODataUri("", ResourcePathUri(EntitySetPath("Persons", None),
+      List(OrderByOption(List(DescendingOrderByItem(PropertyPathExpr("familyName", None)))), TopOption(5),
+        SkipOption(3))))
+    val query = new QueryModelBuilder(entityDataModel).build(new ODataRequestContext(null, uri, entityDataModel), 10)
+    val expected = ODataQuery(LimitOperation(SkipOperation(
+      OrderByOperation(SelectOperation("Persons", true),
+        List(OrderByProperty("familyName", Descending), OrderByProperty("id", Ascending))), 3), 5))
+    assert(query === expected)
+  }
+
+  test("paged /Persons?$filter=firstName eq 'John'&$skiptoken=...") {
+    val skipToken = SkipTokenCodec.encode(List("42").asJava)
+    val uri = ODataUri("", ResourcePathUri(EntitySetPath("Persons", None),
+      List(FilterOption(EqExpr(EntityPathExpr(None, Some(PropertyPathExpr("firstName", None))),
+        LiteralExpr(StringLiteral("John")))), SkipTokenOption(skipToken))))
+    val query = new QueryModelBuilder(entityDataModel).build(new ODataRequestContext(null, uri, entityDataModel), 10)
+
+    val filtered = CriteriaFilterOperation(SelectOperation("Persons", true),
+      PropertyCriteriaValue("firstName").eq(LiteralCriteriaValue("John")))
+    val orderBy = List(OrderByProperty("id", Ascending))
+    val expected = ODataQuery(LimitOperation(
+      OrderByOperation(SkipTokenOperation(filtered, orderBy, List("42")), orderBy), 11))
+    assert(query === expected)
+  }
+
+  test("paged /Persons with a skip token that does not match the order") {
+    val skipToken = SkipTokenCodec.encode(List("Smith", "42").asJava)
+    val uri = ODataUri("", ResourcePathUri(EntitySetPath("Persons", None), List(SkipTokenOption(skipToken))))
+    intercept[ODataBadRequestException] {
+      new QueryModelBuilder(entityDataModel).build(new ODataRequestContext(null, uri, entityDataModel), 10)
+    }
+  }
+
+  test("skip token criteria") {
+    val op = SkipTokenOperation(SelectOperation("Persons", true),
+      List(OrderByProperty("familyName", Descending), OrderByProperty("id", Ascending)), List("Smith", "42"))
+    val familyName = PropertyCriteriaValue("familyName")
+    val id = PropertyCriteriaValue("id")
+    val expected = familyName.lt(LiteralCriteriaValue("Smith")).or(familyName.eq(LiteralCriteriaValue(null)))
+      .or(familyName.eq(LiteralCriteriaValue("Smith")).and(id.gt(LiteralCriteriaValue("42"))))
+    assert(op.criteria === expected)
+  }
+
+  test("skip token criteria for null values") {
+    val familyName = PropertyCriteriaValue("familyName")
+    val id = PropertyCriteriaValue("id")
+
+    // Ascending: nulls come first, so all entities with a value come after a null value
+    val ascending = SkipTokenOperation(SelectOperation("Persons", true),
+      List(OrderByProperty("familyName", Ascending), OrderByProperty("id", Ascending)), List(null, "42"))
+    assert(ascending.criteria === familyName.ne(LiteralCriteriaValue(null))
+      .or(familyName.eq(LiteralCriteriaValue(null)).and(id.gt(LiteralCriteriaValue("42")))))
+
+    // Descending: nulls come last, so only other entities without a value come after a null value
+    val descending = SkipTokenOperation(SelectOperation("Persons", true),
+      List(OrderByProperty("familyName", Descending), OrderByProperty("id", Ascending)), List(null, "42"))
+    assert(descending.criteria ===
+      familyName.eq(LiteralCriteriaValue(null)).and(id.gt(LiteralCriteriaValue("42"))))
+  }
+
+  test("paged /Persons with a skip token that does not match the property types") {
+    val skipToken = SkipTokenCodec.encode(List[AnyRef](Integer.valueOf(42)).asJava)
+    val uri = ODataUri("", ResourcePathUri(EntitySetPath("Persons", None), List(SkipTokenOption(skipToken))))
+    intercept[ODataBadRequestException] {
+      new QueryModelBuilder(entityDataModel).build(new ODataRequestContext(null, uri, entityDataModel), 10)
+    }
+  }
+
+  test("supportsPaging") {
+    val builder = new QueryModelBuilder(entityDataModel)
+    val persons = ODataUri("", ResourcePathUri(EntitySetPath("Persons", None), List()))
+    val person = ODataUri("", ResourcePathUri(EntitySetPath("Persons",
+      Some(EntityCollectionPath(None, Some(KeyPredicatePath(SimpleKeyPredicate(StringLiteral("1")), None))))), List()))
+    assert(builder.supportsPaging(new ODataRequestContext(null, persons, entityDataModel)))
+    assert(!builder.supportsPaging(new ODataRequestContext(null, person, entityDataModel)))
+  }
 }
@@ -86,6 +86,10 @@ public final class AtomConstants {
      * Self.
      */
     public static final String SELF = "self";
+    /**
+     * Next.
+     */
+    public static final String NEXT = "next";
     /**
      * Metadata.
      */
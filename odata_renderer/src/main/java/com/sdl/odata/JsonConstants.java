@@ -39,6 +39,10 @@ public final class JsonConstants {
      * Type.
      */
     public static final String COUNT = "@odata.count";
+    /**
+     * Next link.
+     */
+    public static final String NEXT_LINK = "@odata.nextLink";
     /**
      * Value.
      */
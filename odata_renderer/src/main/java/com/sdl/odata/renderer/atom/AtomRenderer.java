@@ -68,6 +68,11 @@ public class AtomRenderer extends AbstractAtomRenderer {
         return returnScore;
     }
 
+    @Override
+    public boolean isScoreCacheable() {
+        return true;
+    }
+
     @Override
     public void render(ODataRequestContext requestContext, QueryResult result, ODataResponse.Builder responseBuilder)
             throws ODataException {
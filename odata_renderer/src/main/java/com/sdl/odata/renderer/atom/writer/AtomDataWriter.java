@@ -15,12 +15,14 @@
  */
 package com.sdl.odata.renderer.atom.writer;
 
+import com.sdl.odata.api.ODataSystemException;
 import com.sdl.odata.api.edm.model.EntityDataModel;
 import com.sdl.odata.api.edm.model.EntityType;
 import com.sdl.odata.api.edm.model.EnumType;
 import com.sdl.odata.api.edm.model.MetaType;
 import com.sdl.odata.api.edm.model.NavigationProperty;
 import com.sdl.odata.api.edm.model.PrimitiveType;
+import com.sdl.odata.api.edm.model.PropertyAccessor;
 import com.sdl.odata.api.edm.model.StructuralProperty;
 import com.sdl.odata.api.edm.model.StructuredType;
 import com.sdl.odata.api.edm.model.Type;
@@ -31,7 +33,6 @@ import org.slf4j.LoggerFactory;
 
 import javax.xml.stream.XMLStreamException;
 import javax.xml.stream.XMLStreamWriter;
-import java.lang.reflect.Field;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Iterator;
@@ -193,12 +194,12 @@ public class AtomDataWriter {
 
         // Get the property value through reflection
         Object propertyValue;
-        Field field = property.getJavaField();
+        PropertyAccessor accessor = property.getPropertyAccessor();
         try {
-            field.setAccessible(true);
-            propertyValue = field.get(object);
-        } catch (IllegalAccessException e) {
-            throw new ODataRenderException("Error getting field value of field: " + field.toGenericString());
+            propertyValue = accessor.get(object);
+        } catch (ODataSystemException e) {
+            throw new ODataRenderException("Error getting field value of field: " +
+                    accessor.getField().toGenericString());
         }
 
         // Collection properties and non-nullable properties should not be null
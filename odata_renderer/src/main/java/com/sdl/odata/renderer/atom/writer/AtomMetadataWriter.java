@@ -45,6 +45,7 @@ import static com.sdl.odata.AtomConstants.EDIT;
 import static com.sdl.odata.AtomConstants.HASH;
 import static com.sdl.odata.AtomConstants.HREF;
 import static com.sdl.odata.AtomConstants.METADATA;
+import static com.sdl.odata.AtomConstants.NEXT;
 import static com.sdl.odata.AtomConstants.ODATA_CONTEXT;
 import static com.sdl.odata.AtomConstants.ODATA_DATA;
 import static com.sdl.odata.AtomConstants.ODATA_SCHEME_NS;
@@ -320,4 +321,17 @@ public class AtomMetadataWriter {
         xmlWriter.writeCharacters(String.valueOf(count));
         xmlWriter.writeEndElement();
     }
+
+    /**
+     * Write the {@code <link rel="next">} element of a feed which is returned in pages.
+     *
+     * @param nextLink The URL of the next page.
+     * @throws XMLStreamException If unable to write to stream
+     */
+    public void writeNextLink(String nextLink) throws XMLStreamException {
+        xmlWriter.writeStartElement(ATOM_LINK);
+        xmlWriter.writeAttribute(REL, NEXT);
+        xmlWriter.writeAttribute(HREF, nextLink);
+        xmlWriter.writeEndElement();
+    }
 }
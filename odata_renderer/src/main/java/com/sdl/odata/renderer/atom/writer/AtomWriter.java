@@ -90,6 +90,7 @@ public class AtomWriter {
     // Note: At the moment only a list of comma-separated properties are supported in the $expand operation
     private final List<String> expandedProperties = new ArrayList<>();
     private String contextURL;
+    private String nextLink;
     private final boolean isWriteOperation;
     private final boolean isDeepInsert;
     private final boolean isActionCall;
@@ -235,6 +236,7 @@ public class AtomWriter {
             metadataWriter.writeTitle();
             metadataWriter.writeUpdate(dateTime);
             metadataWriter.writeFeedLink(null, null);
+            nextLink = meta != null ? (String) meta.get("nextLink") : null;
         } catch (XMLStreamException | ODataEdmException e) {
             LOG.error("Not possible to marshall feed stream XML", e);
             throw new ODataRenderException("Not possible to marshall feed stream XML: ", e);
@@ -266,6 +268,10 @@ public class AtomWriter {
      */
     public void writeEndFeed() throws ODataRenderException {
         try {
+            // The next link of a paged feed is written after the entries
+            if (nextLink != null) {
+                metadataWriter.writeNextLink(nextLink);
+            }
             endFeed();
         } catch (XMLStreamException e) {
             LOG.error("Not possible to marshall feed stream XML", e);
@@ -17,12 +17,15 @@ package com.sdl.odata.renderer.batch;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.sdl.odata.api.ODataException;
+import com.sdl.odata.api.ODataRequestTimeoutException;
+import com.sdl.odata.api.ODataServerException;
 import com.sdl.odata.api.ODataSystemException;
 import com.sdl.odata.api.parser.ODataBatchException;
 import com.sdl.odata.api.parser.ODataBatchRendererException;
 import com.sdl.odata.api.processor.ProcessorResult;
 import com.sdl.odata.api.processor.query.QueryResult;
 import com.sdl.odata.api.renderer.ChunkedActionRenderResult;
+import com.sdl.odata.api.renderer.ODataRenderException;
 import com.sdl.odata.api.service.MediaType;
 import com.sdl.odata.api.service.ODataRequest;
 import com.sdl.odata.api.service.ODataRequestContext;
@@ -54,6 +57,10 @@ import static java.lang.Math.max;
 /**
  * OData Batch Request Renderer.
  * The main class for creating batch response. Includes the batch error processing.
+ * <p>
+ * Besides rendering all results of a batch request in one go, the batch response can be rendered in chunks, one
+ * part at a time: {@link #renderBody} renders the results of one query or of one change set, so that each part can
+ * be written to the response as soon as it is done.
  */
 @Component
 public class ODataBatchRequestRenderer extends AbstractRenderer {
@@ -70,8 +77,6 @@ public class ODataBatchRequestRenderer extends AbstractRenderer {
     private static final String FORMAT = "format";
     private static final String BODY = "body";
 
-    private String contentLength;
-
     /**
      * Batch score mechanism exists not only for simple rendering, but also
      * for computing batch error scores.
@@ -98,6 +103,11 @@ public class ODataBatchRequestRenderer extends AbstractRenderer {
         return resultScore > 0 ? (resultScore + ERROR_EXTRA_SCORE) : DEFAULT_SCORE;
     }
 
+    @Override
+    public boolean isScoreCacheable() {
+        return true;
+    }
+
     @Override
     public void render(ODataRequestContext requestContext, QueryResult data, ODataResponse.Builder responseBuilder)
             throws ODataException {
@@ -107,36 +117,20 @@ public class ODataBatchRequestRenderer extends AbstractRenderer {
 
         StringBuilder sb = new StringBuilder();
 
-        contentLength = requestContext.getRequest().getHeader(CONTENT_LENGTH.toLowerCase());
-
-        if (contentLength == null) {
-            contentLength = requestContext.getRequest().getHeader(CONTENT_LENGTH);
-        }
+        String contentLength = getContentLength(requestContext);
         // building batchId (changeSetId are already provided in result headers
         String batchId = buildBatchId(requestContext);
 
-        // the start of batch
-        sb.append(batchId).append(NEW_LINE);
-        buildHTTPandBinary(sb);
-        sb.append(NEW_LINE);
-
         int changeSetCount = 0;
         if (data.getType() == QueryResult.ResultType.COLLECTION) {
             List<ProcessorResult> results = (List<ProcessorResult>) data.getData();
             int numberOfChangeSets = getNumberOfChangeSetsInResult(results);
             for (ProcessorResult result : results) {
 
-                Map<String, String> renderMap = buildRenderedData(result);
-
-                boolean isGET = result.getRequestContext().getRequest().getMethod().equals(ODataRequest.Method.GET);
-
                 // only batch can handle GET request
-                if (isGET) {
-                    if (!renderMap.isEmpty()) {
-                        buildObjectData(sb, result, renderMap);
-                    } else {
-                        buildException(new ODataBatchRendererException("Unable to render batch data"), sb, result);
-                    }
+                if (isGET(result)) {
+                    // every query is a part of its own, delimited by the batch boundary
+                    buildQueryPart(sb, batchId, result, contentLength);
                 } else {
                     changeSetCount++;
                     String changeSetId = result.getHeaders().get("changeSetId");
@@ -148,22 +142,7 @@ public class ODataBatchRequestRenderer extends AbstractRenderer {
                         sb.append(NEW_LINE);
                     }
 
-                    sb.append("--").append(changeSetId).append(NEW_LINE);
-                    buildHTTPandBinary(sb);
-                    if (result.getHeaders().get(CONTENT_ID) != null) {
-                        sb.append(CONTENT_ID + COLON).append(result.getHeaders().get(CONTENT_ID)).append(NEW_LINE);
-                    } else {
-                        // not such a good implementation, but we should somehow provide the Content-ID
-                        sb.append(CONTENT_ID + COLON).append(changeSetCount).append(NEW_LINE);
-                    }
-
-                    sb.append(NEW_LINE);
-
-                    if (!renderMap.isEmpty()) {
-                        buildObjectData(sb, result, renderMap);
-                    } else {
-                        buildException(new ODataBatchRendererException("Unable to render changeset data"), sb, result);
-                    }
+                    buildChangeSetResult(sb, result, changeSetId, changeSetCount, contentLength);
 
                     if (changeSetCount == numberOfChangeSets) {
                         sb.append("--").append(changeSetId).append("--").append(NEW_LINE);
@@ -172,7 +151,10 @@ public class ODataBatchRequestRenderer extends AbstractRenderer {
             }
 
         } else if (data.getType() == QueryResult.ResultType.EXCEPTION) {
-            buildException((ODataException) data.getData(), sb, null);
+            sb.append(batchId).append(NEW_LINE);
+            buildHTTPandBinary(sb);
+            sb.append(NEW_LINE);
+            buildException((ODataException) data.getData(), sb, null, contentLength);
         }
 
         // the end of batch
@@ -197,15 +179,113 @@ public class ODataBatchRequestRenderer extends AbstractRenderer {
         ChunkedActionRenderResult renderResult = super.renderStart(requestContext, result, outputStream);
         renderResult.setContentType(MediaType.MULTIPART);
         renderResult.addHeader("OData-Version", ODATA_VERSION_HEADER);
+        renderResult.setWriter(
+                new ChunkedBatchResponse(buildBatchId(requestContext), getContentLength(requestContext)));
 
         return renderResult;
     }
 
+    /**
+     * Renders one part of a chunked batch response. The data is the list of results of either a single query or
+     * a single change set, or the exception that ended the processing of the batch request.
+     * <p>
+     * {@inheritDoc}
+     */
+    @Override
+    public ChunkedActionRenderResult renderBody(ODataRequestContext requestContext, QueryResult result,
+                                                ChunkedActionRenderResult previousResult) throws ODataException {
+        ChunkedBatchResponse response = (ChunkedBatchResponse) previousResult.getWriter();
+        StringBuilder sb = new StringBuilder();
+
+        if (result.getType() == QueryResult.ResultType.COLLECTION) {
+            List<ProcessorResult> results = (List<ProcessorResult>) result.getData();
+            if (results.size() == 1 && isGET(results.get(0))) {
+                buildQueryPart(sb, response.batchId, results.get(0), response.contentLength);
+            } else if (!results.isEmpty()) {
+                String changeSetId = results.get(0).getHeaders().get("changeSetId");
+                sb.append(response.batchId).append(NEW_LINE);
+                sb.append(CONTENT_TYPE + COLON).append("multipart/mixed;boundary=")
+                        .append(changeSetId).append(NEW_LINE);
+                sb.append(NEW_LINE);
+                int changeSetCount = 0;
+                for (ProcessorResult changeSetResult : results) {
+                    buildChangeSetResult(sb, changeSetResult, changeSetId, ++changeSetCount, response.contentLength);
+                }
+                sb.append("--").append(changeSetId).append("--").append(NEW_LINE);
+            }
+        } else if (result.getType() == QueryResult.ResultType.EXCEPTION) {
+            sb.append(response.batchId).append(NEW_LINE);
+            buildHTTPandBinary(sb);
+            sb.append(NEW_LINE);
+            buildException((ODataException) result.getData(), sb, null, response.contentLength);
+        }
+
+        write(previousResult, sb);
+        return previousResult;
+    }
+
+    @Override
+    public void renderEnd(ODataRequestContext requestContext, QueryResult result,
+                          ChunkedActionRenderResult previousResult) throws ODataException {
+        ChunkedBatchResponse response = (ChunkedBatchResponse) previousResult.getWriter();
+        write(previousResult, new StringBuilder(response.batchId).append("--").append(NEW_LINE));
+    }
+
+    private void write(ChunkedActionRenderResult renderResult, StringBuilder sb) throws ODataRenderException {
+        try {
+            renderResult.getOutputStream().write(sb.toString().getBytes(StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            throw new ODataRenderException("Unable to write batch response part", e);
+        }
+    }
+
+    private boolean isGET(ProcessorResult result) {
+        return result.getRequestContext().getRequest().getMethod().equals(ODataRequest.Method.GET);
+    }
+
+    private void buildQueryPart(StringBuilder sb, String batchId, ProcessorResult result, String contentLength)
+            throws ODataException {
+        sb.append(batchId).append(NEW_LINE);
+        buildHTTPandBinary(sb);
+        sb.append(NEW_LINE);
+
+        Map<String, String> renderMap = buildRenderedData(result);
+        if (!renderMap.isEmpty()) {
+            buildObjectData(sb, result, renderMap, contentLength);
+        } else {
+            buildException(new ODataBatchRendererException("Unable to render batch data"), sb, result, contentLength);
+        }
+    }
+
+    private void buildChangeSetResult(StringBuilder sb, ProcessorResult result, String changeSetId,
+                                      int changeSetCount, String contentLength) throws ODataException {
+        Map<String, String> renderMap = buildRenderedData(result);
+
+        sb.append("--").append(changeSetId).append(NEW_LINE);
+        buildHTTPandBinary(sb);
+        if (result.getHeaders().get(CONTENT_ID) != null) {
+            sb.append(CONTENT_ID + COLON).append(result.getHeaders().get(CONTENT_ID)).append(NEW_LINE);
+        } else {
+            // not such a good implementation, but we should somehow provide the Content-ID
+            sb.append(CONTENT_ID + COLON).append(changeSetCount).append(NEW_LINE);
+        }
+
+        sb.append(NEW_LINE);
+
+        if (!renderMap.isEmpty()) {
+            buildObjectData(sb, result, renderMap, contentLength);
+        } else {
+            buildException(new ODataBatchRendererException("Unable to render changeset data"), sb, result,
+                    contentLength);
+        }
+    }
+
     private void buildHTTPandBinary(StringBuilder sb) {
         sb.append(CONTENT_TYPE_HTTP).append(NEW_LINE).append(CT_ENCODING_BINARY).append(NEW_LINE);
     }
 
-    private void buildObjectData(StringBuilder sb, ProcessorResult result, Map<String, String> renderMap) {
+    private void buildObjectData(StringBuilder sb, ProcessorResult result, Map<String, String> renderMap,
+                                 String contentLength) {
         String location = result.getHeaders().get(LOCATION);
 
         sb.append(HTTP_VERSION + " ").append(result.getStatus().toString().replace("_", " ")).append(NEW_LINE);
@@ -224,7 +304,8 @@ public class ODataBatchRequestRenderer extends AbstractRenderer {
         }
     }
 
-    private void buildException(ODataException ex, StringBuilder sb, ProcessorResult result) {
+    private void buildException(ODataException ex, StringBuilder sb, ProcessorResult result,
+                                String contentLength) {
         LOG.debug("{} was found. Start to create an error batch request");
         if (result != null) {
             sb.append(HTTP_VERSION + " ").append(result.getStatus().toString().replace("_", " ")).append(NEW_LINE);
@@ -233,6 +314,14 @@ public class ODataBatchRequestRenderer extends AbstractRenderer {
                 sb.append(HTTP_VERSION + " ")
                         .append(ODataResponse.Status.NOT_FOUND.toString().replace("_", " ")).append(NEW_LINE);
 
+            } else if (ex instanceof ODataRequestTimeoutException) {
+                sb.append(HTTP_VERSION + " ")
+                        .append(ODataResponse.Status.SERVICE_UNAVAILABLE.toString().replace("_", " "))
+                        .append(NEW_LINE);
+            } else if (ex instanceof ODataServerException) {
+                sb.append(HTTP_VERSION + " ")
+                        .append(ODataResponse.Status.INTERNAL_SERVER_ERROR.toString().replace("_", " "))
+                        .append(NEW_LINE);
             } else {
                 sb.append(HTTP_VERSION + " ")
                         .append(ODataResponse.Status.BAD_REQUEST.toString().replace("_", " ")).append(NEW_LINE);
@@ -315,6 +404,11 @@ public class ODataBatchRequestRenderer extends AbstractRenderer {
         return changeSets;
     }
 
+    private String getContentLength(ODataRequestContext requestContext) {
+        String contentLength = requestContext.getRequest().getHeader(CONTENT_LENGTH.toLowerCase());
+        return contentLength != null ? contentLength : requestContext.getRequest().getHeader(CONTENT_LENGTH);
+    }
+
     private String buildBatchId(ODataRequestContext requestContext) throws ODataBatchRendererException {
         StringBuilder sb = new StringBuilder();
         String contentType = requestContext.getRequest().getHeaders().get(CONTENT_TYPE.toLowerCase());
@@ -333,4 +427,17 @@ public class ODataBatchRequestRenderer extends AbstractRenderer {
         // substring existing batch id after "batch_" charset
         return sb.toString();
     }
+
+    /**
+     * The state of a batch response that is rendered in chunks.
+     */
+    private static final class ChunkedBatchResponse {
+        private final String batchId;
+        private final String contentLength;
+
+        private ChunkedBatchResponse(String batchId, String contentLength) {
+            this.batchId = batchId;
+            this.contentLength = contentLength;
+        }
+    }
 }
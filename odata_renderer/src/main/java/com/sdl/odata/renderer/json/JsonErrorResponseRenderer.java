@@ -69,6 +69,11 @@ public class JsonErrorResponseRenderer extends AbstractRenderer {
         return resultScore > 0 ? (resultScore + ERROR_EXTRA_SCORE) : DEFAULT_SCORE;
     }
 
+    @Override
+    public boolean isScoreCacheable() {
+        return true;
+    }
+
     @Override
     public void render(ODataRequestContext requestContext, QueryResult data, ODataResponse.Builder responseBuilder)
             throws ODataException {
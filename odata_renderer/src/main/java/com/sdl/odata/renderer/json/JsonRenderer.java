@@ -16,7 +16,6 @@
 package com.sdl.odata.renderer.json;
 
 import com.sdl.odata.api.ODataException;
-import com.sdl.odata.api.ODataSystemException;
 import com.sdl.odata.api.processor.query.QueryResult;
 import com.sdl.odata.api.renderer.ChunkedActionRenderResult;
 import com.sdl.odata.api.service.MediaType;
@@ -28,8 +27,8 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Component;
 
+import java.io.ByteArrayOutputStream;
 import java.io.OutputStream;
-import java.io.UnsupportedEncodingException;
 import java.nio.charset.StandardCharsets;
 import java.util.List;
 
@@ -60,6 +59,11 @@ public final class JsonRenderer extends AbstractJsonRenderer {
         return returnScore;
     }
 
+    @Override
+    public boolean isScoreCacheable() {
+        return true;
+    }
+
     @Override
     public void render(ODataRequestContext requestContext, QueryResult result, ODataResponse.Builder responseBuilder)
             throws ODataException {
@@ -69,35 +73,78 @@ public final class JsonRenderer extends AbstractJsonRenderer {
         JsonWriter writer = new JsonWriter(requestContext.getUri(), requestContext.getEntityDataModel());
 
         String contextUrl = buildContextURL(requestContext, result.getData());
-        String json;
+        byte[] json;
         if (result.getType() == COLLECTION) {
-            json = writer.writeFeed((List<?>) result.getData(), contextUrl, result.getMeta());
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            writer.writeFeed((List<?>) result.getData(), contextUrl, result.getMeta(), out);
+            json = out.toByteArray();
         } else if (result.getType() == RAW_JSON) {
-            json = writer.writeRawJson(result.getData().toString(), contextUrl);
+            json = writer.writeRawJson(result.getData().toString(), contextUrl).getBytes(StandardCharsets.UTF_8);
         } else {
-            json = writer.writeEntry(result.getData(), contextUrl);
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            writer.writeEntry(result.getData(), contextUrl, out);
+            json = out.toByteArray();
         }
         if (responseBuilder != null) {
-            try {
-                responseBuilder
-                        .setContentType(MediaType.JSON)
-                        .setHeader("OData-Version", ODATA_VERSION_HEADER)
-                        .setBodyText(json, StandardCharsets.UTF_8.name());
-            } catch (UnsupportedEncodingException e) {
-                throw new ODataSystemException(e);
-            }
+            responseBuilder
+                    .setContentType(MediaType.JSON)
+                    .setHeader("OData-Version", ODATA_VERSION_HEADER)
+                    .setBody(json);
         }
 
         LOG.debug("End rendering entity(es) for request: {}", requestContext);
     }
 
+    /**
+     * Starts rendering directly into the response stream. For a feed, the start of the feed is written here and
+     * the entities are written by {@link #renderBody}; a single entity is written completely by {@link #renderBody}.
+     * <p>
+     * {@inheritDoc}
+     */
     @Override
     public ChunkedActionRenderResult renderStart(ODataRequestContext requestContext, QueryResult result,
                                                  OutputStream outputStream) throws ODataException {
-        ChunkedActionRenderResult renderResult = super.renderStart(requestContext, result, outputStream);
+        LOG.debug("Start rendering response start content for request: {}", requestContext);
+
+        JsonWriter writer = new JsonWriter(requestContext.getUri(), requestContext.getEntityDataModel());
+        if (result.getType() == COLLECTION) {
+            writer.writeStartFeed(outputStream, (List<?>) result.getData(),
+                    buildContextURL(requestContext, result.getData()), result.getMeta());
+        }
+        ChunkedActionRenderResult renderResult = new ChunkedActionRenderResult(outputStream, writer);
         renderResult.setContentType(MediaType.JSON);
         renderResult.addHeader("OData-Version", ODATA_VERSION_HEADER);
 
         return renderResult;
     }
+
+    @Override
+    public ChunkedActionRenderResult renderBody(ODataRequestContext requestContext, QueryResult result,
+                                                ChunkedActionRenderResult previousResult) throws ODataException {
+        JsonWriter writer = (JsonWriter) previousResult.getWriter();
+        if (result.getType() == COLLECTION) {
+            writer.writeBodyFeed((List<?>) result.getData());
+        } else if (result.getType() == RAW_JSON) {
+            return super.renderBody(requestContext, result, previousResult);
+        } else {
+            writer.writeEntry(result.getData(), buildContextURL(requestContext, result.getData()),
+                    previousResult.getOutputStream());
+        }
+
+        return previousResult;
+    }
+
+    @Override
+    public void renderEnd(ODataRequestContext requestContext, QueryResult result,
+                          ChunkedActionRenderResult previousResult) throws ODataException {
+        if (result != null && result.getType() == COLLECTION) {
+            ((JsonWriter) previousResult.getWriter()).writeEndFeed();
+        }
+        LOG.debug("End rendering entity(es) for request: {}", requestContext);
+    }
+
+    @Override
+    public boolean supportsCollectionStreaming() {
+        return true;
+    }
 }
@@ -16,23 +16,22 @@
 package com.sdl.odata.renderer.json;
 
 import com.sdl.odata.api.ODataException;
-import com.sdl.odata.api.ODataSystemException;
 import com.sdl.odata.api.processor.query.QueryResult;
 import com.sdl.odata.api.renderer.ChunkedActionRenderResult;
 import com.sdl.odata.api.service.ODataRequestContext;
 import com.sdl.odata.api.service.ODataResponse;
 import com.sdl.odata.renderer.AbstractRenderer;
 import com.sdl.odata.renderer.json.writer.JsonServiceDocumentWriter;
+import com.sdl.odata.renderer.metadata.RenderedDocumentCache;
 import com.sdl.odata.renderer.metadata.ServiceDocumentRenderer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Component;
 
 import java.io.OutputStream;
-import java.io.UnsupportedEncodingException;
 
+import static com.sdl.odata.api.service.HeaderNames.ETAG;
 import static com.sdl.odata.api.service.MediaType.JSON;
-import static java.nio.charset.StandardCharsets.UTF_8;
 
 /**
  * JSON Service Root Renderer
@@ -56,24 +55,26 @@ public class JsonServiceDocumentRenderer extends ServiceDocumentRenderer {
         return score;
     }
 
+    @Override
+    public boolean isScoreCacheable() {
+        return true;
+    }
+
     @Override
     public void render(ODataRequestContext requestContext, QueryResult data, ODataResponse.Builder responseBuilder)
             throws ODataException {
 
         LOG.debug("Start rendering entity(es) for request: {}", requestContext);
 
-        JsonServiceDocumentWriter writer = new JsonServiceDocumentWriter(requestContext.getUri(),
-                requestContext.getEntityDataModel());
-        String json = writer.buildJson();
+        RenderedDocumentCache.Document json = getServiceDocument(requestContext, () ->
+                new JsonServiceDocumentWriter(requestContext.getUri(), requestContext.getEntityDataModel())
+                        .buildJson());
 
-        try {
-            responseBuilder
-                    .setContentType(JSON)
-                    .setHeader("OData-Version", AbstractRenderer.ODATA_VERSION_HEADER)
-                    .setBodyText(json, UTF_8.name());
-        } catch (UnsupportedEncodingException e) {
-            throw new ODataSystemException(e);
-        }
+        responseBuilder
+                .setContentType(JSON)
+                .setHeader("OData-Version", AbstractRenderer.ODATA_VERSION_HEADER)
+                .setHeader(ETAG, json.getETag())
+                .setBody(json.getBody());
 
         LOG.debug("End rendering entity(es) for request: {}", requestContext);
     }
@@ -62,6 +62,11 @@ public class JsonValueRenderer extends AbstractJsonRenderer {
         return returnScore;
     }
 
+    @Override
+    public boolean isScoreCacheable() {
+        return true;
+    }
+
     @Override
     public void render(ODataRequestContext requestContext, QueryResult data, ODataResponse.Builder responseBuilder)
             throws ODataException {
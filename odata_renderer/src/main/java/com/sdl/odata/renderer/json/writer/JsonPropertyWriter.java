@@ -254,8 +254,7 @@ public class JsonPropertyWriter extends AbstractPropertyWriter {
     private void handleProperty(Object data, StructuralProperty property, JsonGenerator generator)
             throws IllegalAccessException, IOException, ODataException {
         Field field = property.getJavaField();
-        field.setAccessible(true);
-        Object value = field.get(data);
+        Object value = property.getPropertyAccessor().get(data);
         LOG.trace("Property name is '{}' and its value is '{}'", property.getName(), value);
         Type type = getType(value);
         if (type == null) {
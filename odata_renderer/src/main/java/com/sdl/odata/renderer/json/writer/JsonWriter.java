@@ -18,6 +18,7 @@ package com.sdl.odata.renderer.json.writer;
 import com.fasterxml.jackson.core.JsonEncoding;
 import com.fasterxml.jackson.core.JsonFactory;
 import com.fasterxml.jackson.core.JsonGenerator;
+import com.sdl.odata.api.ODataSystemException;
 import com.sdl.odata.api.edm.ODataEdmException;
 import com.sdl.odata.api.edm.model.EntityDataModel;
 import com.sdl.odata.api.edm.model.EntitySet;
@@ -25,6 +26,7 @@ import com.sdl.odata.api.edm.model.EntityType;
 import com.sdl.odata.api.edm.model.EnumType;
 import com.sdl.odata.api.edm.model.NavigationProperty;
 import com.sdl.odata.api.edm.model.PrimitiveType;
+import com.sdl.odata.api.edm.model.PropertyAccessor;
 import com.sdl.odata.api.edm.model.StructuralProperty;
 import com.sdl.odata.api.edm.model.StructuredType;
 import com.sdl.odata.api.edm.model.Type;
@@ -37,7 +39,7 @@ import org.slf4j.LoggerFactory;
 
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
-import java.lang.reflect.Field;
+import java.io.OutputStream;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -50,6 +52,7 @@ import static com.sdl.odata.JsonConstants.CONTEXT;
 import static com.sdl.odata.JsonConstants.COUNT;
 import static com.sdl.odata.JsonConstants.ID;
 import static com.sdl.odata.JsonConstants.TYPE;
+import static com.sdl.odata.JsonConstants.NEXT_LINK;
 import static com.sdl.odata.JsonConstants.VALUE;
 import static com.sdl.odata.ODataRendererUtils.checkNotNull;
 import static com.sdl.odata.ODataRendererUtils.isForceExpandParamSet;
@@ -65,6 +68,10 @@ import static com.sdl.odata.util.edm.EntityDataModelUtil.visitProperties;
 /**
  * Writer capable of creating a JSON stream containing either
  * a single entity (entry) or a list of OData V4 entities (feed).
+ * <p>
+ * Besides rendering into a {@code String}, the writer can render straight into an {@code OutputStream}, either in
+ * one go or as a feed that is written in chunks ({@code writeStartFeed}, {@code writeBodyFeed},
+ * {@code writeEndFeed}). In that case only the generator's own buffer is held in memory.
  */
 public class JsonWriter {
 
@@ -77,6 +84,7 @@ public class JsonWriter {
     private EntitySet entitySet;
     private List<String> expandedProperties = new ArrayList<>();
     private String contextURL = null;
+    private String nextLink = null;
     private final boolean forceExpand;
 
     /**
@@ -114,6 +122,89 @@ public class JsonWriter {
         }
     }
 
+    /**
+     * Write a list of entities (feed) straight into the given output stream. The stream is flushed but not closed.
+     *
+     * @param entities     The list of entities to fill in the JSON stream.
+     * @param contextUrl   The 'Context URL' to write.
+     * @param meta         Additional metadata for the writer.
+     * @param outputStream The stream to write to.
+     * @throws ODataRenderException In case it is not possible to write to the JSON stream.
+     */
+    public void writeFeed(List<?> entities, String contextUrl, Map<String, Object> meta, OutputStream outputStream)
+            throws ODataRenderException {
+        this.contextURL = checkNotNull(contextUrl);
+
+        try {
+            writeJson(entities, meta, outputStream);
+        } catch (IOException | IllegalAccessException | NoSuchFieldException
+                | ODataEdmException | ODataRenderException e) {
+            LOG.error("Not possible to marshall feed stream JSON");
+            throw new ODataRenderException("Not possible to marshall feed stream JSON: ", e);
+        }
+    }
+
+    /**
+     * Start writing a feed into the given output stream, up to and including the start of the 'value' array.
+     * The entities are written by subsequent calls to {@link #writeBodyFeed(List)}, and the feed is completed by
+     * {@link #writeEndFeed()}.
+     *
+     * @param outputStream The stream to write to.
+     * @param entities     The first chunk of entities, used to determine the entity set. Its entities are not
+     *                     written.
+     * @param contextUrl   The 'Context URL' to write.
+     * @param meta         Additional metadata for the writer.
+     * @throws ODataRenderException In case it is not possible to write to the JSON stream.
+     */
+    public void writeStartFeed(OutputStream outputStream, List<?> entities, String contextUrl,
+                               Map<String, Object> meta) throws ODataRenderException {
+        this.contextURL = checkNotNull(contextUrl);
+
+        try {
+            jsonGenerator = createGenerator(outputStream);
+            writeStart(entities, meta);
+            jsonGenerator.writeArrayFieldStart(VALUE);
+            jsonGenerator.flush();
+        } catch (IOException | ODataEdmException e) {
+            LOG.error("Not possible to marshall feed stream JSON");
+            throw new ODataRenderException("Not possible to marshall feed stream JSON: ", e);
+        }
+    }
+
+    /**
+     * Write a chunk of entities of a feed started by {@link #writeStartFeed}.
+     *
+     * @param entities The entities to write.
+     * @throws ODataRenderException In case it is not possible to write to the JSON stream.
+     */
+    public void writeBodyFeed(List<?> entities) throws ODataRenderException {
+        try {
+            writeEntities(entities);
+            jsonGenerator.flush();
+        } catch (IOException | IllegalAccessException | NoSuchFieldException
+                | ODataEdmException | ODataRenderException e) {
+            LOG.error("Not possible to marshall feed stream JSON");
+            throw new ODataRenderException("Not possible to marshall feed stream JSON: ", e);
+        }
+    }
+
+    /**
+     * Complete a feed started by {@link #writeStartFeed}. The stream is flushed but not closed.
+     *
+     * @throws ODataRenderException In case it is not possible to write to the JSON stream.
+     */
+    public void writeEndFeed() throws ODataRenderException {
+        try {
+            jsonGenerator.writeEndArray();
+            writeNextLink();
+            jsonGenerator.writeEndObject();
+            jsonGenerator.close();
+        } catch (IOException e) {
+            LOG.error("Not possible to marshall feed stream JSON");
+            throw new ODataRenderException("Not possible to marshall feed stream JSON: ", e);
+        }
+    }
+
     /**
      * Write a single entity (entry) to the JSON stream.
      *
@@ -135,6 +226,26 @@ public class JsonWriter {
         }
     }
 
+    /**
+     * Write a single entity (entry) straight into the given output stream. The stream is flushed but not closed.
+     *
+     * @param entity       The entity to fill in the JSON stream. It can not be {@code null}.
+     * @param contextUrl   The 'Context URL' to write. It can not be {@code null}.
+     * @param outputStream The stream to write to.
+     * @throws ODataRenderException In case it is not possible to write to the JSON stream.
+     */
+    public void writeEntry(Object entity, String contextUrl, OutputStream outputStream) throws ODataRenderException {
+        this.contextURL = checkNotNull(contextUrl);
+
+        try {
+            writeJson(entity, null, outputStream);
+        } catch (IOException | IllegalAccessException | NoSuchFieldException |
+                ODataEdmException | ODataRenderException e) {
+            LOG.error("Not possible to marshall single entity stream JSON");
+            throw new ODataRenderException("Not possible to marshall single entity stream JSON: ", e);
+        }
+    }
+
     /**
      * Writes raw json to the JSON stream.
      *
@@ -169,8 +280,41 @@ public class JsonWriter {
             IllegalAccessException, ODataEdmException, ODataRenderException {
 
         ByteArrayOutputStream stream = new ByteArrayOutputStream();
-        jsonGenerator = JSON_FACTORY.createGenerator(stream, JsonEncoding.UTF8);
+        writeJson(data, meta, stream);
+        return stream.toString(StandardCharsets.UTF_8.name());
+    }
+
+    private void writeJson(Object data, Map<String, Object> meta, OutputStream outputStream) throws IOException,
+            NoSuchFieldException, IllegalAccessException, ODataEdmException, ODataRenderException {
+
+        jsonGenerator = createGenerator(outputStream);
+        writeStart(data, meta);
+
+        // Write feed
+        if (data instanceof List) {
+            marshallEntities((List<?>) data);
+            writeNextLink();
+        } else {
+            marshall(data, this.entityDataModel.getType(data.getClass()));
+        }
+
+        jsonGenerator.writeEndObject();
+        jsonGenerator.close();
+    }
 
+    /**
+     * Creates a generator for the given stream. The generator does not close the stream, so the same code path can
+     * be used for in-memory buffers and for response streams owned by the container.
+     */
+    private JsonGenerator createGenerator(OutputStream outputStream) throws IOException {
+        return JSON_FACTORY.createGenerator(outputStream, JsonEncoding.UTF8)
+                .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+    }
+
+    /**
+     * Write the start of the JSON object: the @odata annotations and, for a single entity, its id.
+     */
+    private void writeStart(Object data, Map<String, Object> meta) throws IOException, ODataEdmException {
         jsonGenerator.writeStartObject();
 
         // Write @odata constants
@@ -192,6 +336,9 @@ public class JsonWriter {
             jsonGenerator.writeNumberField(COUNT, count);
         }
 
+        // The next link of a paged feed is written after the entities
+        nextLink = data instanceof List && meta != null ? (String) meta.get("nextLink") : null;
+
         if (!(data instanceof List)) {
             if (entitySet != null) {
                 jsonGenerator.writeStringField(ID, String.format("%s(%s)", getEntityName(entityDataModel, data),
@@ -200,23 +347,23 @@ public class JsonWriter {
                 jsonGenerator.writeStringField(ID, String.format("%s", getEntityName(entityDataModel, data)));
             }
         }
+    }
 
-        // Write feed
-        if (data instanceof List) {
-            marshallEntities((List<?>) data);
-        } else {
-            marshall(data, this.entityDataModel.getType(data.getClass()));
+    private void writeNextLink() throws IOException {
+        if (nextLink != null) {
+            jsonGenerator.writeStringField(NEXT_LINK, nextLink);
         }
-
-        jsonGenerator.writeEndObject();
-        jsonGenerator.close();
-
-        return stream.toString(StandardCharsets.UTF_8.name());
     }
 
     private void marshallEntities(List<?> entities) throws IOException,
             ODataRenderException, ODataEdmException, NoSuchFieldException, IllegalAccessException {
         jsonGenerator.writeArrayFieldStart(VALUE);
+        writeEntities(entities);
+        jsonGenerator.writeEndArray();
+    }
+
+    private void writeEntities(List<?> entities) throws IOException,
+            ODataRenderException, ODataEdmException, NoSuchFieldException, IllegalAccessException {
         for (Object entity : entities) {
             jsonGenerator.writeStartObject();
             jsonGenerator.writeStringField(ID, String.format("%s(%s)", getEntityName(entityDataModel, entity),
@@ -224,7 +371,6 @@ public class JsonWriter {
             marshall(entity, entityDataModel.getType(entity.getClass()));
             jsonGenerator.writeEndObject();
         }
-        jsonGenerator.writeEndArray();
     }
 
     private void marshall(Object object, Type type)
@@ -338,13 +484,13 @@ public class JsonWriter {
 
         // Get the property value through reflection
         Object propertyValue;
-        Field field = property.getJavaField();
+        PropertyAccessor accessor = property.getPropertyAccessor();
         try {
-            field.setAccessible(true);
-            propertyValue = field.get(object);
-        } catch (IllegalAccessException e) {
-            LOG.error("Error getting field value of field: " + field.toGenericString());
-            throw new ODataRenderException("Error getting field value of field: " + field.toGenericString());
+            propertyValue = accessor.get(object);
+        } catch (ODataSystemException e) {
+            String field = accessor.getField().toGenericString();
+            LOG.error("Error getting field value of field: " + field);
+            throw new ODataRenderException("Error getting field value of field: " + field);
         }
 
         // Collection properties and non-nullable properties should not be null
@@ -455,10 +601,7 @@ public class JsonWriter {
     private Object getValueFromProperty(Object entity, NavigationProperty property)
             throws NoSuchFieldException, IllegalAccessException {
 
-        Field propertyField = property.getJavaField();
-        propertyField.setAccessible(true);
-
-        return propertyField.get(entity);
+        return property.getPropertyAccessor().get(entity);
     }
 
     private EntitySet getEntitySet(Object entity) {
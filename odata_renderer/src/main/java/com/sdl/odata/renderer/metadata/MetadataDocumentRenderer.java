@@ -16,7 +16,6 @@
 package com.sdl.odata.renderer.metadata;
 
 import com.sdl.odata.api.ODataException;
-import com.sdl.odata.api.ODataSystemException;
 import com.sdl.odata.api.parser.MetadataUri;
 import com.sdl.odata.api.parser.ODataUri;
 import com.sdl.odata.api.processor.query.QueryResult;
@@ -29,15 +28,16 @@ import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Component;
 
 import java.io.OutputStream;
-import java.io.UnsupportedEncodingException;
-import java.nio.charset.StandardCharsets;
 
+import static com.sdl.odata.api.service.HeaderNames.ETAG;
 import static com.sdl.odata.api.service.MediaType.XML;
 
 /**
  * <p>Renderer which renders the OData metadata document.</p>
  * <p>The metadata document is always in XML and conforms to the CSDL schema.</p>
  * <p>Reference: OData Version 4.0 Part 3: Common Schema Definition Language (CSDL).</p>
+ * <p>The document is rendered once per entity data model and then served from a cache, together with an entity tag
+ * computed from its content.</p>
  */
 @Component
 public final class MetadataDocumentRenderer extends AbstractRenderer {
@@ -49,32 +49,39 @@ public final class MetadataDocumentRenderer extends AbstractRenderer {
     public static final int MAX = 100;
     private static final String ODATA_VERSION_HEADER = "4.0";
 
+    private final RenderedDocumentCache documentCache = new RenderedDocumentCache();
+
     @Override
     public int score(ODataRequestContext requestContext, QueryResult data) {
         ODataUri uri = requestContext.getUri();
         return uri != null && uri.relativeUri() instanceof MetadataUri ? MAX : 0;
     }
 
+    @Override
+    public boolean isScoreCacheable() {
+        return true;
+    }
+
     @Override
     public void render(ODataRequestContext requestContext, QueryResult data, ODataResponse.Builder responseBuilder)
             throws ODataException {
 
         LOG.debug("Start rendering $metadata document for request: {}", requestContext);
 
-        MetadataDocumentWriter writer = new MetadataDocumentWriter(requestContext.getEntityDataModel());
-        writer.startDocument();
-        writer.writeMetadataDocument();
-        writer.endDocument();
+        RenderedDocumentCache.Document document = documentCache.get(requestContext.getEntityDataModel(), null, () -> {
+            MetadataDocumentWriter writer = new MetadataDocumentWriter(requestContext.getEntityDataModel());
+            writer.startDocument();
+            writer.writeMetadataDocument();
+            writer.endDocument();
+            return writer.getXml();
+        });
 
-        try {
-            responseBuilder
-                    .setStatus(ODataResponse.Status.OK)
-                    .setContentType(XML)
-                    .setHeader("OData-Version", ODATA_VERSION_HEADER)
-                    .setBodyText(writer.getXml(), StandardCharsets.UTF_8.name());
-        } catch (UnsupportedEncodingException e) {
-            throw new ODataSystemException(e);
-        }
+        responseBuilder
+                .setStatus(ODataResponse.Status.OK)
+                .setContentType(XML)
+                .setHeader("OData-Version", ODATA_VERSION_HEADER)
+                .setHeader(ETAG, document.getETag())
+                .setBody(document.getBody());
 
         LOG.debug("End rendering $metadata document for request: {}", requestContext);
     }
@@ -0,0 +1,140 @@
+/**
+ * Copyright (c) 2014-2024 All Rights Reserved by the RWS Group for and on behalf of its affiliates and subsidiaries.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.sdl.odata.renderer.metadata;
+
+import com.sdl.odata.api.ODataException;
+import com.sdl.odata.api.ODataSystemException;
+import com.sdl.odata.api.edm.model.EntityDataModel;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Cache of rendered documents which only depend on the entity data model and the service root, such as the
+ * metadata document and the service document. Each document is kept encoded in UTF-8, so that it can be written to
+ * responses without encoding it again, and comes with a strong entity tag computed from its content, so that
+ * clients can use conditional requests ('If-None-Match').
+ * <p>
+ * All entries belong to a single entity data model. The {@code ODataEdmRegistry} publishes a new model instance
+ * whenever classes are registered, so as soon as another model instance is used the cache is cleared.
+ */
+public class RenderedDocumentCache {
+    private static final int INITIAL_CAPACITY = 4;
+    private static final float LOAD_FACTOR = 0.75f;
+    private static final int MAX_SIZE = 32;
+
+    private final Map<String, Document> documents =
+            new LinkedHashMap<String, Document>(INITIAL_CAPACITY, LOAD_FACTOR, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, Document> eldest) {
+                    // The service root comes from the request, so keep the number of variants bounded
+                    return size() > MAX_SIZE;
+                }
+            };
+
+    private EntityDataModel entityDataModel;
+
+    /**
+     * Renders a document.
+     */
+    public interface DocumentRenderer {
+        /**
+         * Renders the document.
+         *
+         * @return The rendered document.
+         * @throws ODataException If unable to render the document.
+         */
+        String render() throws ODataException;
+    }
+
+    /**
+     * Gets a rendered document from the cache, or renders and caches it if it is not in the cache yet.
+     *
+     * @param model       The entity data model the document is rendered from.
+     * @param serviceRoot The service root the document is rendered for.
+     * @param renderer    Renders the document if it is not in the cache.
+     * @return The rendered document.
+     * @throws ODataException If unable to render the document.
+     */
+    public Document get(EntityDataModel model, String serviceRoot, DocumentRenderer renderer)
+            throws ODataException {
+        String key = serviceRoot == null ? "" : serviceRoot;
+        synchronized (documents) {
+            if (entityDataModel != model) {
+                documents.clear();
+                entityDataModel = model;
+            }
+            Document document = documents.get(key);
+            if (document != null) {
+                return document;
+            }
+        }
+
+        // Render outside of the lock; rendering the same document twice concurrently does no harm
+        Document document = new Document(renderer.render());
+        synchronized (documents) {
+            if (entityDataModel == model) {
+                documents.put(key, document);
+            }
+        }
+        return document;
+    }
+
+    /**
+     * A rendered document, encoded in UTF-8, with its entity tag.
+     */
+    public static final class Document {
+        private final byte[] body;
+        private final String eTag;
+
+        Document(String body) {
+            this.body = body.getBytes(StandardCharsets.UTF_8);
+            this.eTag = computeETag(this.body);
+        }
+
+        /**
+         * Gets the document encoded in UTF-8. The array is shared by all responses with this document, so it must
+         * not be modified.
+         *
+         * @return The document encoded in UTF-8.
+         */
+        public byte[] getBody() {
+            return body;
+        }
+
+        /**
+         * Gets the strong entity tag of the document, including the surrounding quotes.
+         *
+         * @return The entity tag.
+         */
+        public String getETag() {
+            return eTag;
+        }
+
+        private static String computeETag(byte[] body) {
+            try {
+                byte[] digest = MessageDigest.getInstance("SHA-256").digest(body);
+                return '"' + Base64.getUrlEncoder().withoutPadding().encodeToString(digest) + '"';
+            } catch (NoSuchAlgorithmException e) {
+                throw new ODataSystemException(e);
+            }
+        }
+    }
+}
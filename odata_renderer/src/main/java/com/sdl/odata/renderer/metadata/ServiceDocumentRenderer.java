@@ -15,6 +15,7 @@
  */
 package com.sdl.odata.renderer.metadata;
 
+import com.sdl.odata.api.ODataException;
 import com.sdl.odata.api.parser.ODataUri;
 import com.sdl.odata.api.parser.ServiceRootUri;
 import com.sdl.odata.api.service.MediaType;
@@ -27,9 +28,12 @@ import static java.lang.Math.max;
 /**
  * Renderer which renders the OData service document.
  * The service document can either be in XML or JSON.
+ * The service document is rendered once per entity data model and service root and then served from a cache.
  */
 public abstract class ServiceDocumentRenderer extends AbstractRenderer {
 
+    private final RenderedDocumentCache documentCache = new RenderedDocumentCache();
+
     /**
      * Check if the given OData URI describes a request to a 'Service Document'.
      *
@@ -57,4 +61,20 @@ public abstract class ServiceDocumentRenderer extends AbstractRenderer {
             return DEFAULT_SCORE;
         }
     }
+
+    /**
+     * Get the service document for the given OData request context from the cache, rendering it if needed.
+     *
+     * @param requestContext The given OData request context.
+     * @param renderer       Renders the service document if it is not in the cache.
+     * @return The rendered service document.
+     * @throws ODataException If unable to render the service document.
+     */
+    protected RenderedDocumentCache.Document getServiceDocument(ODataRequestContext requestContext,
+                                                                RenderedDocumentCache.DocumentRenderer renderer)
+            throws ODataException {
+        ODataUri uri = requestContext.getUri();
+        return documentCache.get(requestContext.getEntityDataModel(), uri != null ? uri.serviceRoot() : null,
+                renderer);
+    }
 }
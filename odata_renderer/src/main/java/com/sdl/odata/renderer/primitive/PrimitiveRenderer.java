@@ -56,6 +56,11 @@ public class PrimitiveRenderer extends AbstractRenderer {
         return operationScore;
     }
 
+    @Override
+    public boolean isScoreCacheable() {
+        return true;
+    }
+
     @Override
     public void render(ODataRequestContext requestContext, QueryResult data, ODataResponse.Builder responseBuilder)
             throws ODataException {
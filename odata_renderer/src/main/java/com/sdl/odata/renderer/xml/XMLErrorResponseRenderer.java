@@ -79,6 +79,11 @@ public class XMLErrorResponseRenderer extends AbstractRenderer {
         return totalScore > 0 ? (totalScore + ERROR_EXTRA_SCORE) : DEFAULT_SCORE;
     }
 
+    @Override
+    public boolean isScoreCacheable() {
+        return true;
+    }
+
     @Override
     public void render(ODataRequestContext requestContext, QueryResult data, ODataResponse.Builder responseBuilder)
             throws ODataException {
@@ -16,12 +16,12 @@
 package com.sdl.odata.renderer.xml;
 
 import com.sdl.odata.api.ODataException;
-import com.sdl.odata.api.ODataSystemException;
 import com.sdl.odata.api.parser.ODataUri;
 import com.sdl.odata.api.processor.query.QueryResult;
 import com.sdl.odata.api.renderer.ChunkedActionRenderResult;
 import com.sdl.odata.api.service.ODataRequestContext;
 import com.sdl.odata.api.service.ODataResponse;
+import com.sdl.odata.renderer.metadata.RenderedDocumentCache;
 import com.sdl.odata.renderer.metadata.ServiceDocumentRenderer;
 import com.sdl.odata.renderer.xml.writer.XMLServiceDocumentWriter;
 import org.slf4j.Logger;
@@ -29,9 +29,8 @@ import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Component;
 
 import java.io.OutputStream;
-import java.io.UnsupportedEncodingException;
-import java.nio.charset.StandardCharsets;
 
+import static com.sdl.odata.api.service.HeaderNames.ETAG;
 import static com.sdl.odata.api.service.MediaType.XML;
 
 /**
@@ -53,23 +52,25 @@ public class XMLServiceDocumentRenderer extends ServiceDocumentRenderer {
         return score;
     }
 
+    @Override
+    public boolean isScoreCacheable() {
+        return true;
+    }
+
     @Override
     public void render(ODataRequestContext requestContext, QueryResult data, ODataResponse.Builder responseBuilder)
             throws ODataException {
         LOG.trace("Start rendering service document for request: {}", requestContext);
 
-        XMLServiceDocumentWriter writer = new XMLServiceDocumentWriter(requestContext.getUri(),
-                requestContext.getEntityDataModel());
-        String serviceDocument = writer.buildServiceDocument();
+        RenderedDocumentCache.Document serviceDocument = getServiceDocument(requestContext, () ->
+                new XMLServiceDocumentWriter(requestContext.getUri(), requestContext.getEntityDataModel())
+                        .buildServiceDocument());
 
-        try {
-            responseBuilder
-                    .setContentType(XML)
-                    .setHeader("OData-Version", ODATA_VERSION_HEADER)
-                    .setBodyText(serviceDocument, StandardCharsets.UTF_8.name());
-        } catch (UnsupportedEncodingException e) {
-            throw new ODataSystemException(e);
-        }
+        responseBuilder
+                .setContentType(XML)
+                .setHeader("OData-Version", ODATA_VERSION_HEADER)
+                .setHeader(ETAG, serviceDocument.getETag())
+                .setBody(serviceDocument.getBody());
 
         LOG.debug("End rendering service document for request: {}", requestContext);
     }
@@ -70,6 +70,11 @@ public final class XMLValueRenderer extends AbstractAtomRenderer {
         return returnScore;
     }
 
+    @Override
+    public boolean isScoreCacheable() {
+        return true;
+    }
+
     @Override
     public void render(ODataRequestContext requestContext, QueryResult data, ODataResponse.Builder responseBuilder)
             throws ODataException {
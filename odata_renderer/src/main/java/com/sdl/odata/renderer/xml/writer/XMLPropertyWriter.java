@@ -187,8 +187,7 @@ public class XMLPropertyWriter extends AbstractPropertyWriter {
     private void handleProperty(Object entity, StructuralProperty property, XMLStreamWriter writer)
             throws IllegalAccessException, XMLStreamException, ODataException {
         Field field = property.getJavaField();
-        field.setAccessible(true);
-        Object value = field.get(entity);
+        Object value = property.getPropertyAccessor().get(entity);
         LOG.trace("Property name is '{}' and its value is '{}'", property.getName(), value);
         Type type = getType(value);
         if (type == null) {
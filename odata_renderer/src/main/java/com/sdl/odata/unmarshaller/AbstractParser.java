@@ -18,6 +18,7 @@ package com.sdl.odata.unmarshaller;
 import com.sdl.odata.api.ODataException;
 import com.sdl.odata.api.ODataSystemException;
 import com.sdl.odata.api.edm.model.EntityDataModel;
+import com.sdl.odata.api.edm.model.PropertyAccessor;
 import com.sdl.odata.api.edm.model.StructuralProperty;
 import com.sdl.odata.api.edm.model.Type;
 import com.sdl.odata.api.parser.ODataParser;
@@ -35,8 +36,11 @@ import org.slf4j.LoggerFactory;
 import scala.Option;
 import scala.collection.immutable.List$;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PushbackInputStream;
 import java.io.UnsupportedEncodingException;
-import java.lang.reflect.Field;
 import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
@@ -45,7 +49,6 @@ import java.util.Set;
 import static com.sdl.odata.ODataRendererUtils.checkNotNull;
 import static com.sdl.odata.api.parser.ODataUriUtil.extractEntityWithKeys;
 import static com.sdl.odata.api.service.ODataRequest.Method.GET;
-import static com.sdl.odata.util.ReferenceUtil.isNullOrEmpty;
 import static java.nio.charset.StandardCharsets.UTF_8;
 
 /**
@@ -74,10 +77,13 @@ public abstract class AbstractParser {
      * @throws ODataException In case of a parsing or validation error
      */
     public Object getODataEntity() throws ODataException {
-        final String bodyText = getBodyText();
-        LOG.trace("Text of the body is {}", bodyText);
-        if (!isNullOrEmpty(bodyText)) {
-            return processEntity(bodyText);
+        if (LOG.isTraceEnabled()) {
+            final String bodyText = getBodyText();
+            LOG.trace("Text of the body is {}", bodyText);
+        }
+        InputStream bodyStream = getNonEmptyBodyStream();
+        if (bodyStream != null) {
+            return processEntity(bodyStream);
         } else {
             throw new ODataUnmarshallingException("Payload is empty. Expected an entry.");
         }
@@ -90,15 +96,43 @@ public abstract class AbstractParser {
      * @throws ODataException In case of a parsing or validation error
      */
     public List<?> getODataEntities() throws ODataException {
-        final String bodyText = getBodyText();
-        LOG.trace("Text of the body is {}", bodyText);
-        if (!isNullOrEmpty(bodyText)) {
-            return processEntities(bodyText);
+        if (LOG.isTraceEnabled()) {
+            final String bodyText = getBodyText();
+            LOG.trace("Text of the body is {}", bodyText);
+        }
+        InputStream bodyStream = getNonEmptyBodyStream();
+        if (bodyStream != null) {
+            return processEntities(bodyStream);
         } else {
             throw new ODataUnmarshallingException("Payload is empty. Expected a feed.");
         }
     }
 
+    /**
+     * Process entity by reading it from the given stream. Parsers that can parse directly from a stream should
+     * override this; by default the stream is read into a string and passed to {@link #processEntity(String)}.
+     *
+     * @param bodyStream The UTF-8 encoded payload, which is known not to be empty.
+     * @return Object that represents entity by unmarshalling.
+     * @throws ODataException in case of invalid body.
+     */
+    protected Object processEntity(InputStream bodyStream) throws ODataException {
+        return processEntity(readText(bodyStream));
+    }
+
+    /**
+     * Process the entities (feed) by reading them from the given stream. Parsers that can parse directly from
+     * a stream should override this; by default the stream is read into a string and passed to
+     * {@link #processEntities(String)}.
+     *
+     * @param bodyStream The UTF-8 encoded payload, which is known not to be empty.
+     * @return The process entities.
+     * @throws ODataException If unable to process entities
+     */
+    protected List<?> processEntities(InputStream bodyStream) throws ODataException {
+        return processEntities(readText(bodyStream));
+    }
+
     /**
      * Process entity by given text.
      *
@@ -125,6 +159,35 @@ public abstract class AbstractParser {
         }
     }
 
+    /**
+     * Gets the body stream of the request, without reading more than a single byte ahead.
+     *
+     * @return The body stream, or {@code null} if the body is empty.
+     */
+    private InputStream getNonEmptyBodyStream() {
+        PushbackInputStream in = new PushbackInputStream(request.getBodyStream());
+        try {
+            int first = in.read();
+            if (first == -1) {
+                return null;
+            }
+            in.unread(first);
+            return in;
+        } catch (IOException e) {
+            throw new ODataSystemException("Could not read request body", e);
+        }
+    }
+
+    private static String readText(InputStream in) {
+        try {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            in.transferTo(out);
+            return out.toString(UTF_8.name());
+        } catch (IOException e) {
+            throw new ODataSystemException("Could not read request body", e);
+        }
+    }
+
     protected Type getType(String entityName) {
         return entityDataModel.getType(entityName);
     }
@@ -191,17 +254,17 @@ public abstract class AbstractParser {
     protected void saveReferencedEntity(Object entity, String propertyName, StructuralProperty property,
                                         Object referencedEntity) throws ODataUnmarshallingException {
         // Save the referenced entity in the entity we are unmarshalling
-        Field field = property.getJavaField();
-        field.setAccessible(true);
+        PropertyAccessor accessor = property.getPropertyAccessor();
         try {
-            if (List.class.isAssignableFrom(field.getType())) {
-                saveReferencedEntityListField(entity, referencedEntity, field);
-            } else if (Set.class.isAssignableFrom(field.getType())) {
-                saveReferencedEntitySetField(entity, referencedEntity, field);
+            Class<?> fieldType = accessor.getField().getType();
+            if (List.class.isAssignableFrom(fieldType)) {
+                saveReferencedEntityListField(entity, referencedEntity, accessor);
+            } else if (Set.class.isAssignableFrom(fieldType)) {
+                saveReferencedEntitySetField(entity, referencedEntity, accessor);
             } else {
-                field.set(entity, referencedEntity);
+                accessor.set(entity, referencedEntity);
             }
-        } catch (IllegalAccessException e) {
+        } catch (ODataSystemException e) {
             throw new ODataUnmarshallingException("Error while getting or setting navigation property field " +
                     propertyName, e);
         }
@@ -211,27 +274,27 @@ public abstract class AbstractParser {
     }
 
     private void saveReferencedEntitySetField(Object entity, Object referencedEntity,
-                                              Field field) throws IllegalAccessException {
+                                              PropertyAccessor accessor) {
         @SuppressWarnings("unchecked")
-        Set<Object> set = (Set<Object>) field.get(entity);
+        Set<Object> set = (Set<Object>) accessor.get(entity);
 
         if (set == null) {
             set = new HashSet<>();
-            field.set(entity, set);
+            accessor.set(entity, set);
         }
 
         set.add(referencedEntity);
     }
 
     private void saveReferencedEntityListField(Object entity, Object referencedEntity,
-                                               Field field) throws IllegalAccessException {
+                                               PropertyAccessor accessor) {
 
         @SuppressWarnings("unchecked")
-        List<Object> list = (List<Object>) field.get(entity);
+        List<Object> list = (List<Object>) accessor.get(entity);
 
         if (list == null) {
             list = new ArrayList<>();
-            field.set(entity, list);
+            accessor.set(entity, list);
         }
 
         list.add(referencedEntity);
@@ -0,0 +1,105 @@
+/**
+ * Copyright (c) 2014-2024 All Rights Reserved by the RWS Group for and on behalf of its affiliates and subsidiaries.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.sdl.odata.unmarshaller.atom;
+
+import com.sdl.odata.api.ODataException;
+import com.sdl.odata.api.unmarshaller.ODataUnmarshallingException;
+import org.w3c.dom.Element;
+import org.w3c.dom.Node;
+import org.w3c.dom.NodeList;
+
+import static com.sdl.odata.AtomConstants.ATOM_ENTRY;
+import static com.sdl.odata.AtomConstants.ATOM_LINK;
+import static com.sdl.odata.AtomConstants.HREF;
+import static com.sdl.odata.AtomConstants.NEXT;
+import static com.sdl.odata.AtomConstants.REL;
+
+/**
+ * Reads the entries of an Atom feed one at a time. Only the entry which is being read is kept in memory, together
+ * with the feed metadata; the entries which have been returned are not referenced by the reader anymore.
+ */
+public final class AtomFeedReader implements AutoCloseable {
+
+    private final ODataAtomParser parser;
+    private final AtomStreamReader reader;
+    private final Element feedElement;
+    private boolean feedMetadataChecked;
+    private boolean finished;
+
+    AtomFeedReader(ODataAtomParser parser, AtomStreamReader reader) throws ODataUnmarshallingException {
+        this.parser = parser;
+        this.reader = reader;
+        if (!reader.nextElement()) {
+            throw new ODataUnmarshallingException("Expected <feed> as the root element, but found none");
+        }
+        this.feedElement = reader.startElement();
+    }
+
+    /**
+     * Reads the next entry of the feed. Everything in the feed that is not an entry is collected under a copy of
+     * the feed element, which is used to validate the feed metadata before the first entry is processed.
+     *
+     * @return The entity of the next entry, or {@code null} if there are no more entries in the feed.
+     * @throws ODataException In case of a parsing or validation error.
+     */
+    public Object nextEntity() throws ODataException {
+        if (finished) {
+            return null;
+        }
+        while (reader.nextElement()) {
+            if (ATOM_ENTRY.equals(reader.getLocalName())) {
+                checkFeedMetadata();
+                return parser.processEntity(reader.readElement());
+            }
+            Element element = reader.readElement();
+            feedElement.appendChild(feedElement.getOwnerDocument().importNode(element, true));
+        }
+        finished = true;
+        checkFeedMetadata();
+        return null;
+    }
+
+    /**
+     * Gets the link to the next page of the feed. The link usually follows the entries, so it is only known after
+     * all entries have been read.
+     *
+     * @return The link to the next page, or {@code null} if there is none or not all entries have been read yet.
+     */
+    public String getNextLink() {
+        NodeList childNodes = feedElement.getChildNodes();
+        for (int i = 0; i < childNodes.getLength(); i++) {
+            Node node = childNodes.item(i);
+            if (node instanceof Element && ATOM_LINK.equals(node.getLocalName()) &&
+                    NEXT.equals(((Element) node).getAttribute(REL))) {
+                String href = ((Element) node).getAttribute(HREF);
+                return href.isEmpty() ? null : href;
+            }
+        }
+        return null;
+    }
+
+    private void checkFeedMetadata() throws ODataUnmarshallingException {
+        if (!feedMetadataChecked) {
+            parser.checkFeedMetadata(feedElement);
+            feedMetadataChecked = true;
+        }
+    }
+
+    @Override
+    public void close() throws ODataUnmarshallingException {
+        reader.close();
+    }
+}
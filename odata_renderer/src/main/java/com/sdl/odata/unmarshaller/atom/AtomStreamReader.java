@@ -0,0 +1,175 @@
+/**
+ * Copyright (c) 2014-2024 All Rights Reserved by the RWS Group for and on behalf of its affiliates and subsidiaries.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.sdl.odata.unmarshaller.atom;
+
+import com.sdl.odata.api.ODataSystemException;
+import com.sdl.odata.api.unmarshaller.ODataUnmarshallingException;
+import com.sdl.odata.util.XmlBuilderFactory;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.Node;
+
+import javax.xml.XMLConstants;
+import javax.xml.parsers.DocumentBuilder;
+import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.InputStream;
+
+import static com.sdl.odata.unmarshaller.atom.ODataAtomParser.DOCBUILDER_FACTORY;
+
+/**
+ * Pull parser over an Atom payload. It walks the children of the root element one at a time and only builds a DOM
+ * for the element it is positioned on, so the memory needed for a feed is bounded by its largest entry instead of
+ * by the whole feed.
+ */
+final class AtomStreamReader implements AutoCloseable {
+
+    private final XMLStreamReader reader;
+    private final DocumentBuilder documentBuilder;
+
+    AtomStreamReader(InputStream xml) throws ODataUnmarshallingException {
+        try {
+            this.reader = XmlBuilderFactory.getSecuredInputFactory().createXMLStreamReader(xml);
+            this.documentBuilder = DOCBUILDER_FACTORY.newDocumentBuilder();
+        } catch (XMLStreamException e) {
+            throw new ODataUnmarshallingException("Could not parse xml due to: " + e.getMessage(), e);
+        } catch (ParserConfigurationException e) {
+            throw new ODataSystemException("Could not parse xml due to: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Moves to the next element on the current level. The reader must be positioned on the start of the parent
+     * element or on the end of a previous sibling.
+     *
+     * @return {@code true} if the reader is now on the start of the next element, {@code false} if there are no
+     * more elements on this level; the reader is then on the end of the parent element.
+     * @throws ODataUnmarshallingException If the payload is not well-formed XML.
+     */
+    boolean nextElement() throws ODataUnmarshallingException {
+        try {
+            while (reader.hasNext()) {
+                int event = reader.next();
+                if (event == XMLStreamConstants.START_ELEMENT) {
+                    return true;
+                }
+                if (event == XMLStreamConstants.END_ELEMENT || event == XMLStreamConstants.END_DOCUMENT) {
+                    return false;
+                }
+            }
+            return false;
+        } catch (XMLStreamException e) {
+            throw new ODataUnmarshallingException("Could not parse xml due to: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Gets the local name of the element the reader is positioned on.
+     *
+     * @return The local name of the current element.
+     */
+    String getLocalName() {
+        return reader.getLocalName();
+    }
+
+    /**
+     * Creates an element for the start tag the reader is positioned on, with its attributes but without any
+     * children. The reader is not moved.
+     *
+     * @return The element, which is the document element of a new document.
+     */
+    Element startElement() {
+        Document document = documentBuilder.newDocument();
+        Element element = createElement(document);
+        document.appendChild(element);
+        return element;
+    }
+
+    /**
+     * Reads the element the reader is positioned on, including all of its descendants. Afterwards the reader is
+     * positioned on the end tag of the element.
+     *
+     * @return The element, which is the document element of a new document.
+     * @throws ODataUnmarshallingException If the payload is not well-formed XML.
+     */
+    Element readElement() throws ODataUnmarshallingException {
+        Element root = startElement();
+        Document document = root.getOwnerDocument();
+        Node current = root;
+        try {
+            while (current != null) {
+                switch (reader.next()) {
+                    case XMLStreamConstants.START_ELEMENT:
+                        current = current.appendChild(createElement(document));
+                        break;
+                    case XMLStreamConstants.END_ELEMENT:
+                        current = current == root ? null : current.getParentNode();
+                        break;
+                    case XMLStreamConstants.CHARACTERS:
+                    case XMLStreamConstants.CDATA:
+                    case XMLStreamConstants.SPACE:
+                        current.appendChild(document.createTextNode(reader.getText()));
+                        break;
+                    case XMLStreamConstants.END_DOCUMENT:
+                        throw new ODataUnmarshallingException("Unexpected end of xml in element: " +
+                                root.getNodeName());
+                    default:
+                        // comments and processing instructions do not contribute to the entity
+                        break;
+                }
+            }
+        } catch (XMLStreamException e) {
+            throw new ODataUnmarshallingException("Could not parse xml due to: " + e.getMessage(), e);
+        }
+        return root;
+    }
+
+    private Element createElement(Document document) {
+        Element element = document.createElementNS(emptyToNull(reader.getNamespaceURI()),
+                qualifiedName(reader.getPrefix(), reader.getLocalName()));
+        for (int i = 0; i < reader.getNamespaceCount(); i++) {
+            String prefix = reader.getNamespacePrefix(i);
+            element.setAttributeNS(XMLConstants.XMLNS_ATTRIBUTE_NS_URI,
+                    prefix == null || prefix.isEmpty() ? XMLConstants.XMLNS_ATTRIBUTE : "xmlns:" + prefix,
+                    reader.getNamespaceURI(i));
+        }
+        for (int i = 0; i < reader.getAttributeCount(); i++) {
+            element.setAttributeNS(emptyToNull(reader.getAttributeNamespace(i)),
+                    qualifiedName(reader.getAttributePrefix(i), reader.getAttributeLocalName(i)),
+                    reader.getAttributeValue(i));
+        }
+        return element;
+    }
+
+    private static String qualifiedName(String prefix, String localName) {
+        return prefix == null || prefix.isEmpty() ? localName : prefix + ":" + localName;
+    }
+
+    private static String emptyToNull(String namespace) {
+        return namespace == null || namespace.isEmpty() ? null : namespace;
+    }
+
+    @Override
+    public void close() throws ODataUnmarshallingException {
+        try {
+            reader.close();
+        } catch (XMLStreamException e) {
+            throw new ODataUnmarshallingException("Could not close xml reader due to: " + e.getMessage(), e);
+        }
+    }
+}
@@ -46,8 +46,8 @@ import org.xml.sax.InputSource;
 import org.xml.sax.SAXException;
 
 import javax.xml.parsers.DocumentBuilderFactory;
+import java.io.InputStream;
 import java.io.StringReader;
-import java.lang.reflect.Field;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
@@ -104,9 +104,23 @@ public class ODataAtomParser extends AbstractParser {
     public static final DocumentBuilderFactory DOCBUILDER_FACTORY = XmlBuilderFactory.getSecuredInstance();
 
     private final Set<String> foundCollectionProperties = new HashSet<>();
+    private final boolean streaming;
 
     public ODataAtomParser(ODataRequestContext context, ODataParser uriParser) {
+        this(context, uriParser, true);
+    }
+
+    /**
+     * Creates a parser which either pulls the entries of a feed from the payload one at a time, or builds a DOM
+     * of the whole payload before processing it.
+     *
+     * @param context   The request context.
+     * @param uriParser The URI parser.
+     * @param streaming {@code true} to parse payload streams with StAX, {@code false} to fall back to DOM parsing.
+     */
+    public ODataAtomParser(ODataRequestContext context, ODataParser uriParser, boolean streaming) {
         super(context, uriParser);
+        this.streaming = streaming;
     }
 
     @Override
@@ -119,6 +133,66 @@ public class ODataAtomParser extends AbstractParser {
         return processEntities(parseXML(bodyText).getDocumentElement());
     }
 
+    @Override
+    protected Object processEntity(InputStream bodyStream) throws ODataException {
+        if (!streaming) {
+            return processEntity(parseXML(bodyStream).getDocumentElement());
+        }
+        try (AtomStreamReader reader = new AtomStreamReader(bodyStream)) {
+            if (!reader.nextElement()) {
+                throw new ODataUnmarshallingException("Expected <entry> as the root element, but found none");
+            }
+            return processEntity(reader.readElement());
+        }
+    }
+
+    @Override
+    protected List<?> processEntities(InputStream bodyStream) throws ODataException {
+        if (!streaming) {
+            return processEntities(parseXML(bodyStream).getDocumentElement());
+        }
+        long time = System.currentTimeMillis();
+        try (AtomFeedReader feed = openFeed(bodyStream)) {
+            List<Object> entities = new ArrayList<>();
+            for (Object entity = feed.nextEntity(); entity != null; entity = feed.nextEntity()) {
+                entities.add(entity);
+            }
+            LOG.debug("Streaming {} entries took: {} ms", entities.size(), (System.currentTimeMillis() - time));
+            return entities;
+        }
+    }
+
+    /**
+     * Opens a feed for reading its entries one at a time, instead of processing the whole feed at once. The
+     * payload is always pulled with StAX, regardless of whether this parser streams.
+     *
+     * @param bodyStream The UTF-8 encoded feed. It is not closed by the returned reader.
+     * @return The reader for the entries of the feed, which must be closed after use.
+     * @throws ODataException If the payload does not contain a root element.
+     */
+    public AtomFeedReader openFeed(InputStream bodyStream) throws ODataException {
+        AtomStreamReader reader = new AtomStreamReader(bodyStream);
+        try {
+            return new AtomFeedReader(this, reader);
+        } catch (ODataException | RuntimeException e) {
+            reader.close();
+            throw e;
+        }
+    }
+
+    private Document parseXML(InputStream xml) throws ODataUnmarshallingException {
+        long time = System.currentTimeMillis();
+        try {
+            Document result = DOCBUILDER_FACTORY.newDocumentBuilder().parse(new InputSource(xml));
+            LOG.debug("Parsing XML stream took: {} ms", (System.currentTimeMillis() - time));
+            return result;
+        } catch (SAXException e) {
+            throw new ODataUnmarshallingException("Could not parse xml due to: " + e.getMessage(), e);
+        } catch (Exception e) {
+            throw new ODataSystemException("Could not parse xml due to: " + e.getMessage(), e);
+        }
+    }
+
     private Document parseXML(String xml) throws ODataUnmarshallingException {
         long time = System.currentTimeMillis();
         try {
@@ -134,7 +208,7 @@ public class ODataAtomParser extends AbstractParser {
         }
     }
 
-    private Object processEntity(Element entryElement) throws ODataException {
+    Object processEntity(Element entryElement) throws ODataException {
         if (!entryElement.getNodeName().equals(ATOM_ENTRY)) {
             throw new ODataUnmarshallingException("Expected <entry> as the root element, but found: " +
                     entryElement.getNodeName());
@@ -300,10 +374,8 @@ public class ODataAtomParser extends AbstractParser {
         LOG.trace("Found property element: {}, type: {}, value: {} ({})", propertyName, propertyTypeFromXML,
                 propertyValue, notNullableProperty ? propertyValue.getClass().getName() : "<null>");
         try {
-            Field field = property.getJavaField();
-            field.setAccessible(true);
-            field.set(instance, propertyValue);
-        } catch (ReflectiveOperationException e) {
+            property.getPropertyAccessor().set(instance, propertyValue);
+        } catch (ODataSystemException e) {
             throw new ODataUnmarshallingException("Error while setting property value for property '" +
                     propertyName + "': " + propertyValue + " in class " + instance.getClass().getCanonicalName(), e);
         }
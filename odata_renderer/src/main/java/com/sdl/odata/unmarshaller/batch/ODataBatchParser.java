@@ -22,8 +22,12 @@ import com.sdl.odata.api.service.ODataRequestContext;
 import com.sdl.odata.parser.ODataBatchRequestParser;
 import com.sdl.odata.unmarshaller.AbstractParser;
 
+import java.io.InputStream;
+import java.io.InputStreamReader;
 import java.util.List;
 
+import static java.nio.charset.StandardCharsets.UTF_8;
+
 /**
  * The OData Multipart Parser that is used to parse Batch request that contain multipart/mixed as the Content-Type.
  */
@@ -33,6 +37,18 @@ public class ODataBatchParser extends AbstractParser {
         super(request, uriParser);
     }
 
+    /**
+     * Parses the multipart/mixed batch request body directly from the stream, in a single pass. The parts of the
+     * batch request are parsed lazily, as they are processed.
+     * @param bodyStream represents batch request body
+     * @return parsed ODataBatchRequestContent
+     * @throws ODataException If unable to parse the first part of the batch request
+     */
+    @Override
+    protected Object processEntity(InputStream bodyStream) throws ODataException {
+        return new ODataBatchRequestParser().parseBatch(new InputStreamReader(bodyStream, UTF_8));
+    }
+
     /**
      * Actually here processed not an entity but a multipart/mixed batch request body.
      * @param bodyText represents batch request body
@@ -34,6 +34,7 @@ import com.sdl.odata.unmarshaller.json.core.JsonPropertyExpander;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.InputStream;
 import java.util.List;
 import java.util.Map;
 
@@ -71,7 +72,16 @@ public class ODataJsonParser extends AbstractParser {
     @Override
     protected Object processEntity(String bodyText) throws ODataException {
         initializeProcessor(new JsonProcessor(bodyText));
+        return buildEntity();
+    }
+
+    @Override
+    protected Object processEntity(InputStream bodyStream) throws ODataException {
+        initializeProcessor(new JsonProcessor(bodyStream));
+        return buildEntity();
+    }
 
+    private Object buildEntity() throws ODataException {
         JsonPropertyExpander expander = new JsonPropertyExpander(getEntityDataModel());
 
         String entityName = getEntityName();
@@ -102,6 +112,11 @@ public class ODataJsonParser extends AbstractParser {
         throw new ODataNotImplementedException("Unmarshalling a feed using JSON is not supported.");
     }
 
+    @Override
+    protected List<?> processEntities(InputStream bodyStream) throws ODataException {
+        throw new ODataNotImplementedException("Unmarshalling a feed using JSON is not supported.");
+    }
+
 
     /**
      * Gets the entity type name.
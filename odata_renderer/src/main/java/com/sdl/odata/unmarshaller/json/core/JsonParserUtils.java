@@ -16,7 +16,9 @@
 package com.sdl.odata.unmarshaller.json.core;
 
 import com.sdl.odata.api.ODataException;
+import com.sdl.odata.api.ODataSystemException;
 import com.sdl.odata.api.edm.model.EntityDataModel;
+import com.sdl.odata.api.edm.model.PropertyAccessor;
 import com.sdl.odata.api.edm.model.StructuralProperty;
 import com.sdl.odata.api.edm.model.StructuredType;
 import com.sdl.odata.api.edm.model.Type;
@@ -117,10 +119,9 @@ public final class JsonParserUtils {
 
     public static void setFieldValue(Field field, Object entity, Object value) throws ODataUnmarshallingException {
         try {
-            field.setAccessible(true);
-            field.set(entity, value);
+            PropertyAccessor.forField(field).set(entity, value);
             LOG.trace("'{}' is set with '{}'", field.getName(), value);
-        } catch (ReflectiveOperationException e) {
+        } catch (ODataSystemException e) {
             throw new ODataUnmarshallingException("Cannot set field '" + field.getName() +
                     "' = '" + value + "'", e);
         }
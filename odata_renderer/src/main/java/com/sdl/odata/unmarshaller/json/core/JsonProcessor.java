@@ -24,6 +24,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
@@ -54,6 +55,7 @@ public class JsonProcessor {
      */
     public static final String SVC_EXTENSION = ".svc/";
     private final String inputJson;
+    private final InputStream inputStream;
 
     private Map<String, String> odataValues = new HashMap<>();
     private Map<String, Object> values = new HashMap<>();
@@ -64,6 +66,21 @@ public class JsonProcessor {
             throw new IllegalArgumentException();
         }
         this.inputJson = bodyText;
+        this.inputStream = null;
+    }
+
+    /**
+     * Creates a processor which parses the JSON directly from the given stream, without reading it into memory
+     * first. The stream is consumed by {@link #initialize()}.
+     *
+     * @param bodyStream The JSON payload stream.
+     */
+    public JsonProcessor(InputStream bodyStream) {
+        if (bodyStream == null) {
+            throw new IllegalArgumentException();
+        }
+        this.inputJson = null;
+        this.inputStream = bodyStream;
     }
 
     /**
@@ -73,7 +90,8 @@ public class JsonProcessor {
     public void initialize() throws ODataUnmarshallingException {
         LOG.info("Parser is initializing");
         try {
-            JsonParser jsonParser = JSON_FACTORY.createParser(inputJson);
+            JsonParser jsonParser = inputStream != null ?
+                    JSON_FACTORY.createParser(inputStream) : JSON_FACTORY.createParser(inputJson);
 
             while (jsonParser.nextToken() != JsonToken.END_OBJECT) {
                 String token = jsonParser.getCurrentName();
@@ -0,0 +1,145 @@
+/**
+ * Copyright (c) 2014-2024 All Rights Reserved by the RWS Group for and on behalf of its affiliates and subsidiaries.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.sdl.odata.renderer.batch;
+
+import com.sdl.odata.api.ODataException;
+import com.sdl.odata.api.ODataRequestTimeoutException;
+import com.sdl.odata.api.ODataServerException;
+import com.sdl.odata.api.parser.ODataBatchParseException;
+import com.sdl.odata.api.processor.ProcessorResult;
+import com.sdl.odata.api.processor.query.QueryResult;
+import com.sdl.odata.api.renderer.ChunkedActionRenderResult;
+import com.sdl.odata.api.service.MediaType;
+import com.sdl.odata.api.service.ODataRequestContext;
+import com.sdl.odata.api.service.ODataResponse;
+import com.sdl.odata.renderer.RendererTest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import static com.sdl.odata.api.ODataErrorCode.UNKNOWN_ERROR;
+import static com.sdl.odata.api.service.HeaderNames.CONTENT_TYPE;
+import static com.sdl.odata.api.service.ODataRequest.Method.DELETE;
+import static com.sdl.odata.api.service.ODataRequest.Method.GET;
+import static com.sdl.odata.api.service.ODataRequest.Method.POST;
+import static com.sdl.odata.api.service.ODataResponse.Status.NOT_FOUND;
+import static com.sdl.odata.api.service.ODataResponse.Status.NO_CONTENT;
+import static com.sdl.odata.test.util.TestUtils.createODataRequestContext;
+import static com.sdl.odata.test.util.TestUtils.createODataUri;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Unit test for {@link ODataBatchRequestRenderer}, rendering the batch response in chunks.
+ */
+public class ODataBatchRequestRendererTest extends RendererTest {
+
+    private static final String NEW_LINE = System.lineSeparator();
+
+    private ODataBatchRequestRenderer renderer;
+    private ODataRequestContext batchContext;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        super.setUp();
+        renderer = new ODataBatchRequestRenderer();
+        Map<String, String> headers = new HashMap<>();
+        headers.put(CONTENT_TYPE, "multipart/mixed;boundary=batch_36522ad7");
+        batchContext = createODataRequestContext(POST, createODataUri(), entityDataModel, headers);
+    }
+
+    @Test
+    public void testRenderQueriesInPartsOfTheirOwn() throws Exception {
+        ODataResponse.Builder builder = new ODataResponse.Builder();
+        renderer.render(batchContext, QueryResult.from(Arrays.asList(createGetResult("Entity 1 not found"),
+                createGetResult("Entity 2 not found"), createDeleteResult("1"))), builder);
+        String response = builder.build().getBodyText(UTF_8.name());
+
+        String queryPart = "--batch_36522ad7" + NEW_LINE + "Content-Type: application/http" + NEW_LINE +
+                "Content-Transfer-Encoding: binary" + NEW_LINE + NEW_LINE + "HTTP/1.1 404 NOT FOUND" + NEW_LINE;
+        assertTrue(response.startsWith(queryPart));
+        int secondQuery = response.indexOf(queryPart, queryPart.length());
+        assertTrue(secondQuery > response.indexOf("Entity 1 not found"));
+        assertTrue(response.indexOf("Entity 2 not found") > secondQuery);
+        assertTrue(response.contains("--batch_36522ad7" + NEW_LINE +
+                "Content-Type: multipart/mixed;boundary=changeset_77162fcd" + NEW_LINE));
+        assertTrue(response.endsWith("--changeset_77162fcd--" + NEW_LINE + "--batch_36522ad7--" + NEW_LINE));
+    }
+
+    @Test
+    public void testRenderChangeSetAndErrorParts() throws Exception {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        ChunkedActionRenderResult renderResult = renderer.renderStart(batchContext, null, outputStream);
+        assertEquals(MediaType.MULTIPART.toString(), renderResult.getHeaders().get(CONTENT_TYPE));
+        assertEquals(0, outputStream.size());
+
+        QueryResult changeSet = QueryResult.from(Arrays.asList(createDeleteResult("1"), createDeleteResult("2")));
+        renderResult = renderer.renderBody(batchContext, changeSet, renderResult);
+        String changeSetPart = new String(outputStream.toByteArray(), UTF_8);
+
+        assertTrue(changeSetPart.startsWith("--batch_36522ad7" + NEW_LINE +
+                "Content-Type: multipart/mixed;boundary=changeset_77162fcd" + NEW_LINE + NEW_LINE +
+                "--changeset_77162fcd" + NEW_LINE));
+        assertTrue(changeSetPart.contains("Content-ID: 1" + NEW_LINE));
+        assertTrue(changeSetPart.contains("Content-ID: 2" + NEW_LINE));
+        assertTrue(changeSetPart.endsWith("--changeset_77162fcd--" + NEW_LINE));
+
+        outputStream.reset();
+        renderResult = renderer.renderBody(batchContext,
+                QueryResult.from(new ODataBatchParseException("Invalid batch part")), renderResult);
+        renderer.renderEnd(batchContext, null, renderResult);
+        String errorPart = new String(outputStream.toByteArray(), UTF_8);
+
+        assertTrue(errorPart.startsWith("--batch_36522ad7" + NEW_LINE));
+        assertTrue(errorPart.contains("Invalid batch part" + NEW_LINE));
+        assertTrue(errorPart.endsWith("--batch_36522ad7--" + NEW_LINE));
+    }
+
+    @Test
+    public void testRenderServerErrorParts() throws Exception {
+        assertTrue(renderErrorPart(new ODataRequestTimeoutException("Too late"))
+                .contains("HTTP/1.1 503 SERVICE UNAVAILABLE" + NEW_LINE));
+        assertTrue(renderErrorPart(new ODataServerException(UNKNOWN_ERROR, "Failed"))
+                .contains("HTTP/1.1 500 INTERNAL SERVER ERROR" + NEW_LINE));
+        assertTrue(renderErrorPart(new ODataBatchParseException("Invalid batch part"))
+                .contains("HTTP/1.1 400 BAD REQUEST" + NEW_LINE));
+    }
+
+    private String renderErrorPart(ODataException exception) throws Exception {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        ChunkedActionRenderResult renderResult = renderer.renderStart(batchContext, null, outputStream);
+        renderResult = renderer.renderBody(batchContext, QueryResult.from(exception), renderResult);
+        renderer.renderEnd(batchContext, null, renderResult);
+        return new String(outputStream.toByteArray(), UTF_8);
+    }
+
+    private ProcessorResult createGetResult(String message) throws Exception {
+        return new ProcessorResult(NOT_FOUND, QueryResult.from(message), new HashMap<>(),
+                createODataRequestContext(GET, entityDataModel));
+    }
+
+    private ProcessorResult createDeleteResult(String contentId) throws Exception {
+        Map<String, String> headers = new HashMap<>();
+        headers.put("changeSetId", "changeset_77162fcd");
+        headers.put("Content-ID", contentId);
+        return new ProcessorResult(NO_CONTENT, null, headers, createODataRequestContext(DELETE, entityDataModel));
+    }
+}
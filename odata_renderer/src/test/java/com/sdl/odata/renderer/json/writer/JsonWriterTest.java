@@ -21,7 +21,9 @@ import com.sdl.odata.renderer.WriterTest;
 import com.sdl.odata.test.model.SingletonSample;
 import org.junit.jupiter.api.Test;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
@@ -153,6 +155,39 @@ public class JsonWriterTest extends WriterTest {
                 ABSTRACT_ENTITY_SAMPLE_URL, EXPECTED_ABSTRACT_ENTITY_PATH);
     }
 
+    @Test
+    public void testCustomersSampleWrittenToStream() throws Exception {
+
+        odataUri = new ODataParserImpl().parseUri(
+                "http://localhost:8080/odata.svc/Customers?$count=true", entityDataModel);
+        Map<String, Object> meta = new HashMap<>();
+        meta.put("count", 5);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        new JsonWriter(odataUri, entityDataModel).writeFeed(createCustomersSample(), CUSTOMERS_URL, meta, out);
+
+        assertEquals(prettyPrintJson(readContent(EXPECTED_CUSTOMER_FEED_WITH_COUNT_PATH)),
+                prettyPrintJson(out.toString(StandardCharsets.UTF_8.name())));
+    }
+
+    @Test
+    public void testCustomersSampleWrittenInChunks() throws Exception {
+
+        odataUri = new ODataParserImpl().parseUri("http://localhost:8080/odata.svc/Customers", entityDataModel);
+        List<?> customers = createCustomersSample();
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        JsonWriter writer = new JsonWriter(odataUri, entityDataModel);
+        writer.writeStartFeed(out, customers, CUSTOMERS_URL, null);
+        for (Object customer : customers) {
+            writer.writeBodyFeed(Collections.singletonList(customer));
+        }
+        writer.writeEndFeed();
+
+        assertEquals(prettyPrintJson(readContent(EXPECTED_CUSTOMER_FEED_PATH)),
+                prettyPrintJson(out.toString(StandardCharsets.UTF_8.name())));
+    }
+
     /**
      * Checks output json with expected result.
      *
@@ -0,0 +1,90 @@
+/**
+ * Copyright (c) 2014-2024 All Rights Reserved by the RWS Group for and on behalf of its affiliates and subsidiaries.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.sdl.odata.renderer.metadata;
+
+import com.sdl.odata.api.edm.model.EntityDataModel;
+import com.sdl.odata.edm.factory.annotations.AnnotationEntityDataModelFactory;
+import com.sdl.odata.test.model.Address;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Unit tests for {@link RenderedDocumentCache}.
+ */
+public class RenderedDocumentCacheTest {
+
+    private final RenderedDocumentCache cache = new RenderedDocumentCache();
+    private final AtomicInteger renderCount = new AtomicInteger();
+
+    @Test
+    public void testDocumentIsRenderedOncePerModelAndServiceRoot() throws Exception {
+        EntityDataModel model = buildModel();
+
+        RenderedDocumentCache.Document document = cache.get(model, "http://localhost/odata.svc", this::render);
+        assertSame(document, cache.get(model, "http://localhost/odata.svc", this::render));
+        assertEquals(1, renderCount.get());
+
+        RenderedDocumentCache.Document otherRoot = cache.get(model, "http://otherhost/odata.svc", this::render);
+        assertEquals(2, renderCount.get());
+        assertFalse(Arrays.equals(document.getBody(), otherRoot.getBody()));
+    }
+
+    @Test
+    public void testDocumentIsEncodedOnce() throws Exception {
+        EntityDataModel model = buildModel();
+        RenderedDocumentCache.Document document = cache.get(model, null, () -> "document \u00e9");
+
+        assertArrayEquals("document \u00e9".getBytes(StandardCharsets.UTF_8), document.getBody());
+        assertSame(document.getBody(), cache.get(model, null, this::render).getBody());
+    }
+
+    @Test
+    public void testCacheIsClearedForNewModel() throws Exception {
+        RenderedDocumentCache.Document document = cache.get(buildModel(), null, this::render);
+        RenderedDocumentCache.Document rendered = cache.get(buildModel(), null, this::render);
+
+        assertEquals(2, renderCount.get());
+        assertNotEquals(document.getETag(), rendered.getETag());
+    }
+
+    @Test
+    public void testETag() throws Exception {
+        EntityDataModel model = buildModel();
+        RenderedDocumentCache.Document document = cache.get(model, null, () -> "document");
+
+        // Strong entity tag, which only depends on the content of the document
+        assertTrue(document.getETag().startsWith("\"") && document.getETag().endsWith("\""));
+        assertEquals(document.getETag(), new RenderedDocumentCache().get(model, null, () -> "document").getETag());
+    }
+
+    private String render() {
+        return "document " + renderCount.incrementAndGet();
+    }
+
+    private static EntityDataModel buildModel() throws Exception {
+        return new AnnotationEntityDataModelFactory().addClass(Address.class).buildEntityDataModel();
+    }
+}
@@ -18,14 +18,24 @@ package com.sdl.odata.unmarshaller.atom;
 import com.sdl.odata.api.ODataException;
 import com.sdl.odata.api.parser.ODataParser;
 import com.sdl.odata.api.service.ODataRequest;
+import com.sdl.odata.api.service.ODataRequestContext;
 import com.sdl.odata.api.unmarshaller.ODataUnmarshallingException;
 import com.sdl.odata.parser.ODataParserImpl;
+import com.sdl.odata.test.model.Customer;
 import com.sdl.odata.unmarshaller.UnmarshallerTest;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
+import java.util.List;
 
+import static com.sdl.odata.test.util.TestUtils.readContent;
+import static com.sdl.odata.test.util.Timing.allocatedBytes;
+import static com.sdl.odata.test.util.Timing.fastestNanos;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
 /**
@@ -33,6 +43,8 @@ import static org.junit.jupiter.api.Assertions.assertThrows;
  */
 public class ODataAtomParserTest extends UnmarshallerTest {
 
+    private static final Logger LOG = LoggerFactory.getLogger(ODataAtomParserTest.class);
+
     private static final String CUSTOMER_WITH_LINKS_READ_OP_ENTITY_PATH = "/xml/CustomerWithLinks.xml";
     private static final String CUSTOMER_WITH_LINKS_PATH_WRITE = "/xml/CustomerWithLinksWrite.xml";
 
@@ -46,6 +58,9 @@ public class ODataAtomParserTest extends UnmarshallerTest {
     private static final String EXPECTED_EXPANDED_PROPERTIES_ENTITY_PATH = "/xml/ExpandedPropertiesSample.xml";
     private static final String EXPECTED_ABSTRACT_ENTITY_PATH = "/xml/AbstractEntitySample.xml";
 
+    private static final int[] FEED_SIZES = {1000, 10000};
+    private static final int PARSE_ROUNDS = 5;
+
     private ODataParser uriParser;
 
     @BeforeEach
@@ -132,6 +147,25 @@ public class ODataAtomParserTest extends UnmarshallerTest {
         assertCustomersSample();
     }
 
+    @Test
+    public void testCustomersReadSampleWithDomParser() throws Exception {
+
+        prepareGetRequestContext(CUSTOMER_FEED_PATH);
+        ODataAtomParser atomParser = new ODataAtomParser(context, uriParser, false);
+
+        customersFeed = atomParser.getODataEntities();
+        assertCustomersSample();
+    }
+
+    @Test
+    public void testCustomerWithLinksSampleWithDomParser() throws Exception {
+        preparePostRequestContext(CUSTOMER_WITH_LINKS_PATH_WRITE);
+        ODataAtomParser atomParser = new ODataAtomParser(context, uriParser, false);
+
+        singleCustomer = atomParser.getODataEntity();
+        assertCustomerWithLinksSample();
+    }
+
     /**
      * This test validates that nested complex types with an attached collection do not interfere
      * with the parent complextype. This is simply asserted by checking that we have
@@ -173,4 +207,48 @@ public class ODataAtomParserTest extends UnmarshallerTest {
         assertAbstractEntityTypeSample();
     }
 
+    @Test
+    public void testCompareStreamingWithDomParser() throws Exception {
+        for (int feedSize : FEED_SIZES) {
+            ODataRequestContext feedContext = new ODataRequestContext(requestBuilder
+                    .setMethod(ODataRequest.Method.GET)
+                    .setBodyText(createCustomersFeed(feedSize), UTF_8.name())
+                    .build(), odataUri, entityDataModel);
+
+            List<?> streamed = new ODataAtomParser(feedContext, uriParser).getODataEntities();
+            List<?> parsed = new ODataAtomParser(feedContext, uriParser, false).getODataEntities();
+            assertEquals(feedSize, streamed.size());
+            assertEquals(feedSize, parsed.size());
+            assertEquals(feedSize - 1, ((Customer) streamed.get(feedSize - 1)).getId());
+            assertEquals(feedSize - 1, ((Customer) parsed.get(feedSize - 1)).getId());
+
+            long streamingNanos = fastestNanos(PARSE_ROUNDS, () ->
+                    new ODataAtomParser(feedContext, uriParser).getODataEntities());
+            long domNanos = fastestNanos(PARSE_ROUNDS, () ->
+                    new ODataAtomParser(feedContext, uriParser, false).getODataEntities());
+            long streamingBytes = allocatedBytes(() -> new ODataAtomParser(feedContext, uriParser).getODataEntities());
+            long domBytes = allocatedBytes(() -> new ODataAtomParser(feedContext, uriParser, false).getODataEntities());
+
+            // Parse times and allocation depend on the machine and are only reported
+            LOG.info("Feed of {} entries: StAX parsed in {} us allocating {} KB, DOM parsed in {} us allocating {} KB",
+                    feedSize, streamingNanos / 1000, streamingBytes / 1024, domNanos / 1000, domBytes / 1024);
+        }
+    }
+
+    /**
+     * Creates a feed of customers by repeating the first entry of the customers sample with different ids.
+     */
+    private static String createCustomersFeed(int size) throws IOException {
+        String sample = readContent(CUSTOMER_FEED_PATH);
+        int firstEntry = sample.indexOf("<entry>");
+        String entry = sample.substring(firstEntry, sample.indexOf("</entry>") + "</entry>".length());
+
+        StringBuilder feed = new StringBuilder(sample.substring(0, firstEntry));
+        for (int i = 0; i < size; i++) {
+            feed.append(entry
+                    .replace("Customers(10)", "Customers(" + i + ")")
+                    .replace(">10</data:id>", ">" + i + "</data:id>"));
+        }
+        return feed.append("</feed>").toString();
+    }
 }
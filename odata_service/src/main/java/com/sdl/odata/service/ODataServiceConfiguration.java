@@ -35,6 +35,7 @@ import com.sdl.odata.service.protocol.ParseResult;
 import com.sdl.odata.service.protocol.ReadOperation;
 import com.sdl.odata.service.protocol.Render;
 import com.sdl.odata.service.protocol.ServiceRequest;
+import com.sdl.odata.service.protocol.StreamingBatchOperationResult;
 import com.sdl.odata.service.protocol.Unmarshall;
 import com.sdl.odata.service.protocol.UnmarshallResult;
 import com.sdl.odata.service.protocol.WriteOperation;
@@ -87,6 +88,7 @@ public class ODataServiceConfiguration {
         // register renderers
         registerRoute(Render.class, ODataRendererActor.class, actorProducer);
         registerRoute(BatchOperationResult.class, ODataBatchRendererActor.class, actorProducer);
+        registerRoute(StreamingBatchOperationResult.class, ODataBatchRendererActor.class, actorProducer);
         registerRoute(ErrorMessage.class, ODataRendererActor.class, actorProducer);
     }
 }
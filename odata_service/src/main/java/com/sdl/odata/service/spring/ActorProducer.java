@@ -18,12 +18,25 @@ package com.sdl.odata.service.spring;
 import akka.actor.ActorContext;
 import akka.actor.ActorRef;
 import akka.actor.ActorSystem;
+import akka.actor.OneForOneStrategy;
 import akka.actor.Props;
+import akka.actor.SupervisorStrategy;
+import akka.japi.pf.DeciderBuilder;
+import akka.routing.RoundRobinPool;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
 /**
  * The ActorProducer is responsible for creating Akka actors that are using Spring dependency injection.
+ * <p>
+ * In the default per-request routing mode every routed message creates a new child actor. When
+ * {@code odata.service.routing.pooled} is enabled, each actor bean is instead backed by a long-lived
+ * round-robin pool that is created once and reused for the lifetime of the actor system; all request
+ * state then travels inside the messages.
  */
 @Component
 public class ActorProducer {
@@ -33,6 +46,14 @@ public class ActorProducer {
     @Autowired
     private ActorSystem actorSystem;
 
+    @Value("${odata.service.routing.pooled:false}")
+    private boolean pooled;
+
+    @Value("${odata.service.routing.pool-size:16}")
+    private int poolSize;
+
+    private final Map<String, ActorRef> pooledActors = new ConcurrentHashMap<>();
+
     public void tell(String actorId, Object message) {
         Props props = create(actorId);
         actorSystem.actorOf(props).tell(message, null);
@@ -43,7 +64,15 @@ public class ActorProducer {
     }
 
     public void tell(String actorId, Object message, ActorRef self, ActorContext context) {
-        actorRef(actorId, context).tell(message, self);
+        if (pooled) {
+            pooledActorRef(actorId).tell(message, self);
+        } else {
+            actorRef(actorId, context).tell(message, self);
+        }
+    }
+
+    public boolean isPooled() {
+        return pooled;
     }
 
     public ActorRef actorRef(String actorId) {
@@ -54,6 +83,24 @@ public class ActorProducer {
         return context.actorOf(create(actorId));
     }
 
+    /**
+     * Returns the long-lived pool for the given actor bean, creating it on first use. The pool is registered
+     * as a top level actor named after the bean, so it can also be looked up as {@code /user/<actorId>}.
+     * Failing routees are restarted, which lets {@code ODataActor.preRestart} turn the failure into an
+     * error response for the request that caused it.
+     *
+     * @param actorId The actor bean name.
+     * @return The pooled actor reference.
+     */
+    public ActorRef pooledActorRef(String actorId) {
+        return pooledActors.computeIfAbsent(actorId, id -> actorSystem.actorOf(
+                new RoundRobinPool(poolSize)
+                        .withSupervisorStrategy(new OneForOneStrategy(false, DeciderBuilder
+                                .match(Throwable.class, e -> SupervisorStrategy.restart())
+                                .build()))
+                        .props(create(id)), id));
+    }
+
     public Props create(String actorId) {
         return akkaSpringExtension.get(actorSystem).props(actorId);
     }
@@ -15,21 +15,26 @@
  */
 package com.sdl.odata.service
 
+import java.util.concurrent.CompletionStage
 import java.util.concurrent.TimeUnit.MILLISECONDS
 
-import akka.actor.PoisonPill
-import akka.pattern.ask
+import akka.actor.{ActorRef, ActorSystem, PoisonPill}
+import akka.pattern.{AskTimeoutException, ask, extended}
 import akka.util.Timeout
-import com.sdl.odata.api.service.{ODataRequest, ODataResponse, ODataService}
-import com.sdl.odata.service.actor.ODataMessageRouter
-import com.sdl.odata.service.protocol.{InitialServiceRequest, ServiceResponse}
+import com.sdl.odata.api.ODataRequestTimeoutException
+import com.sdl.odata.api.edm.registry.ODataEdmRegistry
+import com.sdl.odata.api.service.{ODataRequest, ODataRequestContext, ODataResponse, ODataService}
+import com.sdl.odata.service.actor.{ODataMessageRouter, ODataRendererActor}
+import com.sdl.odata.service.protocol.{ErrorMessage, InitialServiceRequest, ODataActorContext, ServiceResponse}
 import com.sdl.odata.service.spring.ActorProducer
 import org.slf4j.LoggerFactory
-import org.springframework.beans.factory.annotation.Autowired
+import org.springframework.beans.factory.annotation.{Autowired, Value}
 import org.springframework.stereotype.Component
 
-import scala.concurrent.Await
+import scala.compat.java8.FutureConverters._
 import scala.concurrent.duration.Duration
+import scala.concurrent.{Await, Future}
+import scala.util.control.NonFatal
 
 /**
  * The OData Service Implementation
@@ -37,32 +42,84 @@ import scala.concurrent.duration.Duration
  * ODataServiceImpl is the service which manages the lifecycle of ODataRequest.
  * First, it is responsible for handling ODataRequest, waiting for it's result and response back.
  *
+ * By default a new ODataMessageRouter is created for every request. With `odata.service.routing.pooled`
+ * enabled the router and all stage actors are long-lived pools shared by all requests.
+ *
+ * When `odata.service.request-timeout-ms` is set, a request that does not complete within that deadline is
+ * answered with a rendered OData error (503 Service Unavailable) instead. Any other failure of the request future
+ * is rendered through the same error renderers, so the synchronous and asynchronous paths answer alike.
  */
 @Component
-class ODataServiceImpl @Autowired() (producer: ActorProducer) extends ODataService {
+class ODataServiceImpl @Autowired() (producer: ActorProducer, actorSystem: ActorSystem,
+                                     edmRegistry: ODataEdmRegistry,
+                                     @Value("${odata.service.request-timeout-ms:0}") requestTimeoutMillis: Long)
+  extends ODataService {
   import com.sdl.odata.service.ODataServiceImpl._
 
-  override def handleRequest(request: ODataRequest): ODataResponse = {
+  override def handleRequest(request: ODataRequest): ODataResponse =
+    Await.result(handle(request), Duration.Inf)
+
+  override def handleRequestAsync(request: ODataRequest): CompletionStage[ODataResponse] =
+    handle(request).toJava
+
+  private def handle(request: ODataRequest): Future[ODataResponse] = {
     LOG.trace("Handling request: {}", request)
+    import actorSystem.dispatcher
 
-    implicit val timeout = new Timeout(1000000000l, MILLISECONDS)
+    val deadline = if (requestTimeoutMillis > 0) requestTimeoutMillis else NoDeadlineMillis
+    implicit val timeout = new Timeout(deadline, MILLISECONDS)
 
     val start = System.currentTimeMillis()
-    val messageRouter = producer.actorRef(classOf[ODataMessageRouter].getSimpleName)
-    val fut = ask(messageRouter, InitialServiceRequest(request)).mapTo[ServiceResponse]
-    val serviceResponse = Await.result(fut, Duration.Inf)
+    val messageRouter = actorRef(classOf[ODataMessageRouter].getSimpleName)
+    val fut = ask(messageRouter, InitialServiceRequest(request)).mapTo[ServiceResponse].map(_.response)
+      .recoverWith {
+        case _: AskTimeoutException =>
+          LOG.warn("Request did not complete within {} ms: {}", deadline, request)
+          renderError(request, new ODataRequestTimeoutException(s"Request did not complete within $deadline ms"))
+        case NonFatal(e) =>
+          LOG.error(s"Request failed: $request", e)
+          renderError(request, e)
+      }
 
-    //kill the message router
-    messageRouter.tell(PoisonPill, null)
+    fut.onComplete { _ =>
+      //kill the message router, unless it is shared by all requests
+      if (!producer.isPooled) {
+        messageRouter.tell(PoisonPill, null)
+      }
 
-    val stop = System.currentTimeMillis()
+      val stop = System.currentTimeMillis()
+      LOG.debug("Request completed in " + (stop - start) + " ms")
+    }
+    fut
+  }
 
-    LOG.debug("Request completed in " + (stop - start) + " ms")
+  /**
+   * Renders the error response for a request which failed or exceeded its deadline, using the regular error
+   * renderers so the client gets an OData error in the negotiated format.
+   */
+  private def renderError(request: ODataRequest, exception: Throwable): Future[ODataResponse] = {
+    import actorSystem.dispatcher
 
-    serviceResponse.response
+    implicit val timeout = new Timeout(ErrorRenderTimeoutMillis, MILLISECONDS)
+    val requestContext = new ODataRequestContext(request, edmRegistry.getEntityDataModel)
+
+    val renderer = actorRef(classOf[ODataRendererActor].getSimpleName)
+    val fut = extended.ask(renderer,
+      (replyTo: ActorRef) => ErrorMessage(ODataActorContext(requestContext, replyTo), exception))
+      .mapTo[ServiceResponse].map(_.response)
+    if (!producer.isPooled) {
+      fut.onComplete(_ => renderer.tell(PoisonPill, null))
+    }
+    fut
   }
+
+  private def actorRef(actorId: String): ActorRef =
+    if (producer.isPooled) producer.pooledActorRef(actorId) else producer.actorRef(actorId)
 }
 
 object ODataServiceImpl {
   val LOG = LoggerFactory.getLogger(classOf[ODataServiceImpl])
+
+  private val NoDeadlineMillis = 1000000000L
+  private val ErrorRenderTimeoutMillis = 10000L
 }
@@ -0,0 +1,175 @@
+/**
+ * Copyright (c) 2014-2024 All Rights Reserved by the RWS Group for and on behalf of its affiliates and subsidiaries.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.sdl.odata.service.actor
+
+import java.util.concurrent.atomic.AtomicInteger
+import java.util.concurrent.{ArrayBlockingQueue, Callable, CompletableFuture, ExecutionException, Future, Semaphore,
+  ThreadFactory, ThreadPoolExecutor, TimeUnit}
+
+import org.slf4j.MDC
+import org.springframework.beans.factory.DisposableBean
+import org.springframework.beans.factory.annotation.{Autowired, Value}
+import org.springframework.stereotype.Component
+
+import scala.collection.mutable
+import scala.util.{Failure, Try}
+
+/**
+  * Executes the independent query parts of batch requests concurrently.
+  *
+  * All batch requests share one bounded pool of `odata.service.batch.threads` threads (default 16). A single batch
+  * request runs at most `odata.service.batch.max-parallel-parts` parts at the same time (default 4), so that one
+  * large batch can not take all threads. A part that does not fit in the pool's queue is executed by the calling
+  * thread, so a busy pool slows a batch down instead of rejecting it. Setting
+  * `odata.service.batch.max-parallel-parts` to 1 executes all parts one after the other on the calling thread.
+  *
+  * The logging context (MDC) of the submitting thread is copied to the thread that runs a part. Other thread-bound
+  * state, such as a security context or a transaction bound to the thread, is not propagated: data sources which
+  * depend on it must run with `odata.service.batch.max-parallel-parts` set to 1.
+  */
+@Component
+class BatchQueryExecutor @Autowired()(@Value("${odata.service.batch.threads:16}") threads: Int,
+                                      @Value("${odata.service.batch.max-parallel-parts:4}") maxParallelParts: Int)
+  extends DisposableBean {
+
+  require(threads > 0, s"Number of batch query threads must be positive: $threads")
+  require(maxParallelParts > 0, s"Maximum number of parallel batch parts must be positive: $maxParallelParts")
+
+  private val KeepAliveSeconds = 60L
+  private val QueueSizePerThread = 4
+
+  private val executor = {
+    val threadCount = new AtomicInteger
+    val threadFactory = new ThreadFactory {
+      override def newThread(runnable: Runnable): Thread = {
+        val thread = new Thread(runnable, "odata-batch-query-" + threadCount.incrementAndGet())
+        thread.setDaemon(true)
+        thread
+      }
+    }
+    val pool = new ThreadPoolExecutor(threads, threads, KeepAliveSeconds, TimeUnit.SECONDS,
+      new ArrayBlockingQueue[Runnable](threads * QueueSizePerThread), threadFactory,
+      new ThreadPoolExecutor.CallerRunsPolicy)
+    pool.allowCoreThreadTimeOut(true)
+    pool
+  }
+
+  /**
+    * Starts a new group of parts of one batch request. Each part is started as soon as it is submitted, so parts
+    * can run while the rest of the batch request is still being parsed.
+    *
+    * @return The new, empty group of parts.
+    */
+  def start[T](): PartGroup[T] = new PartGroup[T]
+
+  /**
+    * Parts of one batch request that are submitted and not yet awaited.
+    */
+  class PartGroup[T] private[BatchQueryExecutor]() {
+    private val running = new Semaphore(maxParallelParts)
+    private val parts = mutable.ArrayBuffer[Future[T]]()
+
+    /**
+      * Starts a part. Blocks while the batch request already runs the maximum number of parts in parallel.
+      *
+      * @param part The part.
+      */
+    def submit(part: () => T): Unit = {
+      if (maxParallelParts == 1) {
+        parts += CompletableFuture.completedFuture(part())
+      } else {
+        running.acquire()
+        val context = MDC.getCopyOfContextMap
+        parts += executor.submit(new Callable[T] {
+          override def call(): T = {
+            val previousContext = MDC.getCopyOfContextMap
+            setContext(context)
+            try part() finally {
+              setContext(previousContext)
+              running.release()
+            }
+          }
+        })
+      }
+    }
+
+    /**
+      * Waits until all submitted parts are done. The group is empty afterwards and can be used for further parts.
+      *
+      * @return The results of the parts, in the order in which they were submitted. If any part failed, the failure
+      *         of the first failed part is thrown after all parts are done.
+      */
+    def awaitAll(): IndexedSeq[T] = {
+      val results = parts.toIndexedSeq.map(result)
+      parts.clear()
+      results.map(_.get)
+    }
+
+    /**
+      * Waits until the first submitted part is done, and removes it from the group.
+      *
+      * @return The result of the first submitted part. If it failed, its failure is thrown.
+      */
+    def awaitNext(): T = result(parts.remove(0)).get
+
+    /**
+      * Waits at most the given time until the first submitted part is done, and removes it from the group.
+      *
+      * @param timeoutMillis The maximum time to wait, in milliseconds.
+      * @return The result of the first submitted part. If it failed, its failure is thrown. If it is not done in
+      *         time, a `TimeoutException` is thrown and the part stays in the group.
+      */
+    def awaitNext(timeoutMillis: Long): T = {
+      try parts.head.get(timeoutMillis, TimeUnit.MILLISECONDS) catch {
+        case _: ExecutionException => // the failure is thrown by awaitNext
+      }
+      awaitNext()
+    }
+
+    /**
+      * Cancels all parts that are submitted and not yet awaited, interrupting the ones that are running. The group
+      * is empty afterwards.
+      */
+    def cancelAll(): Unit = {
+      parts.foreach(_.cancel(true))
+      parts.clear()
+    }
+
+    /**
+      * Whether there are parts that are submitted and not yet awaited.
+      *
+      * @return `true` if there are such parts.
+      */
+    def nonEmpty: Boolean = parts.nonEmpty
+
+    /**
+      * Whether as many parts are submitted and not yet awaited as a batch request may run in parallel. Submitting
+      * another part would block until one of them is done.
+      *
+      * @return `true` if no more parts should be submitted before awaiting one.
+      */
+    def isFull: Boolean = parts.size >= maxParallelParts
+
+    private def setContext(context: java.util.Map[String, String]): Unit =
+      if (context == null) MDC.clear() else MDC.setContextMap(context)
+
+    private def result(part: Future[T]): Try[T] = Try(part.get()).recoverWith {
+      case e: ExecutionException => Failure(e.getCause)
+    }
+  }
+
+  override def destroy(): Unit = executor.shutdownNow()
+}
@@ -16,7 +16,9 @@
 package com.sdl.odata.service.actor
 
 import akka.actor.SupervisorStrategy.Escalate
-import akka.actor.{Actor, ActorLogging, OneForOneStrategy, SupervisorStrategy}
+import akka.actor.{Actor, ActorLogging, OneForOneStrategy, Status, SupervisorStrategy}
+import com.sdl.odata.service.protocol.{ErrorMessage, ODataRequestMessage}
+import com.sdl.odata.service.util.AkkaUtil.routePooledMessage
 
 trait ODataActor extends Actor with ActorLogging {
   override def supervisorStrategy: SupervisorStrategy = OneForOneStrategy() {
@@ -25,4 +27,21 @@ trait ODataActor extends Actor with ActorLogging {
     case er: Error =>
       Escalate
   }
+
+  /**
+   * Pooled actors are restarted by their pool when processing a message fails. As there is no per-request
+   * router to escalate to, the failing message itself is used to report the error back to the request origin.
+   */
+  override def preRestart(reason: Throwable, message: Option[Any]): Unit = {
+    message match {
+      case Some(ErrorMessage(actorContext, _)) =>
+        log.error(reason, "Failed to render error response")
+        actorContext.origin ! Status.Failure(reason)
+      case Some(msg: ODataRequestMessage) =>
+        log.debug("Sending error message for exception: {}", reason)
+        routePooledMessage(context, ErrorMessage(msg.actorContext, reason))
+      case _ =>
+    }
+    super.preRestart(reason, message)
+  }
 }
@@ -16,8 +16,12 @@
 package com.sdl.odata.service.actor
 
 import java.util
+import java.util.concurrent.TimeoutException
+import java.util.stream.StreamSupport
+import java.util.{Collections, Spliterator, Spliterators}
 
-import com.sdl.odata.api.ODataBadRequestException
+import com.sdl.odata.api.ODataErrorCode.UNKNOWN_ERROR
+import com.sdl.odata.api.{ODataBadRequestException, ODataException, ODataRequestTimeoutException, ODataServerException}
 import com.sdl.odata.api.parser.{ODataBatchParseException, ODataUri}
 import com.sdl.odata.api.processor.datasource.factory.DataSourceFactory
 import com.sdl.odata.api.processor.{ODataQueryProcessor, ProcessorResult}
@@ -27,29 +31,49 @@ import com.sdl.odata.parser._
 import com.sdl.odata.processor.write.BatchMethodHandler
 import com.sdl.odata.unmarshaller.atom.ODataAtomParser
 import com.sdl.odata.unmarshaller.json.ODataJsonParser
-import com.sdl.odata.service.protocol.{BatchOperation, BatchOperationResult}
+import com.sdl.odata.service.protocol.{BatchOperation, BatchOperationResult, StreamingBatchOperationResult}
 import com.sdl.odata.service.spring.ActorProducer
 import com.sdl.odata.service.util.AkkaUtil._
-import org.springframework.beans.factory.annotation.Autowired
+import org.slf4j.LoggerFactory
+import org.springframework.beans.factory.annotation.{Autowired, Value}
 import org.springframework.context.annotation.Scope
 import org.springframework.stereotype.Component
 
 import scala.collection.JavaConverters._
 import scala.collection.mutable
+import scala.util.Try
+import scala.util.control.NonFatal
 
 /**
  * OData Batch Processor Actor used for processing batch operations.
+ *
+ * With `odata.service.batch.stream-response` enabled, the batch request is not processed here: a lazy stream of the
+ * parts of the batch response is sent to the renderer instead, and each part is processed while the response is
+ * written, so that it can be sent to the client as soon as it is done. As the response status is sent before the
+ * parts are processed, the `odata.service.request-timeout-ms` deadline is applied to the parts themselves: the
+ * parts that are not done by then are cancelled and the response ends with an error part.
  */
 @Component
 @Scope("prototype")
 class ODataBatchProcessorActor @Autowired()(actorProducer: ActorProducer, dataSourceFactory: DataSourceFactory,
-                                            oDataQueryProcessor: ODataQueryProcessor) extends ODataActor {
+                                            oDataQueryProcessor: ODataQueryProcessor,
+                                            batchQueryExecutor: BatchQueryExecutor,
+                                            @Value("${odata.service.batch.stream-response:false}")
+                                            streamResponse: Boolean,
+                                            @Value("${odata.service.request-timeout-ms:0}")
+                                            requestTimeoutMillis: Long) extends ODataActor {
+  import com.sdl.odata.service.actor.ODataBatchProcessorActor._
 
   val ContentTypeHeader = "Content-Type"
   val BatchRequestContentTypePrefix = "multipart/mixed"
   val ContentTypeBoundaryParam = "boundary="
 
   override def receive: Receive = {
+    case BatchOperation(actorContext, data) if streamResponse =>
+      log.debug("Started streaming OData Batch request")
+      checkBatchRequestHeaders(actorContext.requestContext)
+      routeMessage(actorProducer, context, StreamingBatchOperationResult(actorContext,
+        streamBatchOperation(actorContext.requestContext, data.get)))
     case BatchOperation(actorContext, data) =>
       log.debug("Started processing OData Batch request")
       checkBatchRequestHeaders(actorContext.requestContext)
@@ -73,87 +97,190 @@ class ODataBatchProcessorActor @Autowired()(actorProducer: ActorProducer, dataSo
   private def processBatchOperation(oDataRequestContext: ODataRequestContext,
                                    oDataBatchRequestContent: ODataBatchRequestContent): mutable.MutableList[ProcessorResult] = {
     val results: mutable.MutableList[ProcessorResult] = mutable.MutableList()
-    oDataBatchRequestContent.requestComponents.foreach {
-      case BatchRequestComponent(requestComponentHeaders: BatchRequestHeaders, requestDetails: Map[String, String]) =>
-        results += handleBatchRequestComponent(requestComponentHeaders, requestDetails)
-      case ChangeSetRequestComponent(changeSetHeaders: BatchRequestHeaders, changeSetRequests: List[BatchRequestComponent], changesetId: String) =>
-        results ++= handleChangeSetRequestComponent(changeSetHeaders, changeSetRequests, changesetId)
-    }
 
-    def handleBatchRequestComponent(requestComponentHeaders: BatchRequestHeaders, requestDetails: Map[String,String]): ProcessorResult = {
-      val queryRequestContext = createODataRequestContext(requestDetails, requestComponentHeaders)
-      val queryResult = oDataQueryProcessor.query(queryRequestContext, null)
-      new ProcessorResult(queryResult.getStatus, queryResult.getQueryResult, queryResult.getHeaders, queryRequestContext)
+    // The whole batch request is parsed before any part is executed, so that an invalid request content fails the
+    // batch request before the change sets in front of it are committed.
+    val requestComponents = oDataBatchRequestContent.requestComponents.toList
+
+    // Consecutive queries outside change sets do not depend on each other and are executed concurrently. A change
+    // set is only executed after all queries before it are done, and before any query after it is started, so that
+    // queries see exactly the changes of the change sets that come before them in the batch.
+    val pendingQueries = batchQueryExecutor.start[ProcessorResult]()
+    def executePendingQueries(): Unit = results ++= pendingQueries.awaitAll()
+
+    requestComponents.foreach {
+      case query: BatchRequestComponent if isQuery(query) =>
+        pendingQueries.submit(() => handleBatchRequestComponent(oDataRequestContext, query))
+      case requestComponent =>
+        executePendingQueries()
+        results ++= handleRequestComponent(oDataRequestContext, requestComponent)
     }
+    executePendingQueries()
+    results
+  }
+
+  /**
+    * Creates a lazy stream of the parts of the batch response. Each element is the list of results of one query or
+    * of one change set, and is only processed when the stream is read. Queries are started ahead of the part that is
+    * read, up to the next change set and at most as many as a batch request can run in parallel. If processing fails
+    * or the request deadline passes, an exception is the last element of the stream, after the parts before it;
+    * reading the stream itself never fails, so the response is always properly closed.
+    */
+  private def streamBatchOperation(oDataRequestContext: ODataRequestContext,
+                                   oDataBatchRequestContent: ODataBatchRequestContent): util.stream.Stream[AnyRef] = {
+    val deadline = if (requestTimeoutMillis > 0) System.currentTimeMillis() + requestTimeoutMillis else Long.MaxValue
+    val components = oDataBatchRequestContent.requestComponents.iterator.buffered
+    val pendingQueries = batchQueryExecutor.start[ProcessorResult]()
+
+    val parts = new Iterator[AnyRef] {
+      private var failure: Option[Throwable] = None
+      private var done = false
 
-    def handleChangeSetRequestComponent(changeSetHeaders: BatchRequestHeaders,
-                                        changeSetRequests: List[BatchRequestComponent],
-                                        changeSetId: String): List[ProcessorResult] = {
-      val changeSetEntities: List[ChangeSetEntity] = changeSetRequests.map((requestComponent: BatchRequestComponent) => {
-        val componentRequestContext: ODataRequestContext = createODataRequestContext(requestComponent.getRequestDetails(), requestComponent.getHeaders())
-        new ChangeSetEntity(
-          changeSetId,
-          componentRequestContext,
-          if (componentRequestContext.getRequest.getMethod == Method.DELETE) null
-          else getParsedBatchRequestComponentEntity(componentRequestContext))
+      // Reading the next component parses it, so this can fail as well
+      private def hasNextComponent: Boolean = failure.isEmpty && (try components.hasNext catch {
+        case NonFatal(e) =>
+          failure = Some(e)
+          false
       })
-      new BatchMethodHandler(oDataRequestContext, dataSourceFactory, changeSetEntities.asJava).handleWrite().asScala.toList
-    }
 
-    def getParsedBatchRequestComponentEntity(requestContext: ODataRequestContext): Any = {
-      requestContext.getRequest.getHeader("Content-Type") match {
-        case ct if ct.contains("application/json") => new ODataJsonParser(requestContext, new ODataParserImpl).getODataEntity
-        case ct if ct.contains("application/atom") => new ODataAtomParser(requestContext, new ODataParserImpl).getODataEntity
-        case _ => throw new ODataBatchParseException("Content-Type Header needs to be specified for PUT, POST, " +
-          "PATCH operations")
+      override def hasNext: Boolean = !done && (pendingQueries.nonEmpty || hasNextComponent || failure.isDefined)
+
+      override def next(): AnyRef = {
+        if (!hasNext) throw new NoSuchElementException("No more parts in batch response")
+        try {
+          if (System.currentTimeMillis() >= deadline) throw new TimeoutException()
+          while (!pendingQueries.isFull && hasNextComponent && isQuery(components.head)) {
+            val query = components.next().asInstanceOf[BatchRequestComponent]
+            pendingQueries.submit(() => handleBatchRequestComponent(oDataRequestContext, query))
+          }
+          if (pendingQueries.nonEmpty) {
+            Collections.singletonList(pendingQueries.awaitNext(deadline - System.currentTimeMillis()))
+          } else if (hasNextComponent) {
+            handleRequestComponent(oDataRequestContext, components.next()).asJava
+          } else {
+            end(failure.get)
+          }
+        } catch {
+          case _: TimeoutException =>
+            LOG.warn("Batch request did not complete within {} ms", requestTimeoutMillis)
+            pendingQueries.cancelAll()
+            end(new ODataRequestTimeoutException(s"Batch request did not complete within $requestTimeoutMillis ms"))
+          case NonFatal(e) =>
+            // Queries that are still running must be done before the response is, even if their results are lost
+            Try(pendingQueries.awaitAll())
+            end(e)
+        }
+      }
+
+      private def end(e: Throwable): ODataException = {
+        done = true
+        e match {
+          case oDataException: ODataException => oDataException
+          case _ => new ODataServerException(UNKNOWN_ERROR, s"${e.getClass.getName}: ${e.getMessage}")
+        }
       }
     }
 
-    def createODataRequestContext(requestDetails: Map[String,String], batchRequestHeaders: BatchRequestHeaders): ODataRequestContext = {
-      val oDataRequest: ODataRequest = createODataRequest(requestDetails, batchRequestHeaders)
-      new ODataRequestContext(oDataRequest, createODataUri(oDataRequest.getUri), oDataRequestContext.getEntityDataModel)
+    StreamSupport.stream(Spliterators.spliteratorUnknownSize(parts.asJava, Spliterator.ORDERED), false)
+  }
+
+  private def isQuery(requestComponent: ODataRequestComponent): Boolean = requestComponent match {
+    case BatchRequestComponent(_, requestDetails) => requestDetails.get("RequestType").contains(Method.GET.name)
+    case _ => false
+  }
+
+  private def handleRequestComponent(oDataRequestContext: ODataRequestContext,
+                                     requestComponent: ODataRequestComponent): List[ProcessorResult] =
+    requestComponent match {
+      case batchRequestComponent: BatchRequestComponent =>
+        List(handleBatchRequestComponent(oDataRequestContext, batchRequestComponent))
+      case ChangeSetRequestComponent(changeSetHeaders: BatchRequestHeaders, changeSetRequests: List[BatchRequestComponent], changesetId: String) =>
+        handleChangeSetRequestComponent(oDataRequestContext, changeSetHeaders, changeSetRequests, changesetId)
     }
 
-    def createODataUri(relativeUrl: String): ODataUri = {
-      new ODataUriParser(oDataRequestContext.getEntityDataModel).parseUri(relativeUrl)
+  private def handleBatchRequestComponent(oDataRequestContext: ODataRequestContext,
+                                          requestComponent: BatchRequestComponent): ProcessorResult = {
+    val queryRequestContext = createODataRequestContext(oDataRequestContext, requestComponent.getRequestDetails(),
+      requestComponent.getHeaders())
+    val queryResult = oDataQueryProcessor.query(queryRequestContext, null)
+    new ProcessorResult(queryResult.getStatus, queryResult.getQueryResult, queryResult.getHeaders, queryRequestContext)
+  }
+
+  private def handleChangeSetRequestComponent(oDataRequestContext: ODataRequestContext,
+                                              changeSetHeaders: BatchRequestHeaders,
+                                              changeSetRequests: List[BatchRequestComponent],
+                                              changeSetId: String): List[ProcessorResult] = {
+    val changeSetEntities: List[ChangeSetEntity] = changeSetRequests.map((requestComponent: BatchRequestComponent) => {
+      val componentRequestContext: ODataRequestContext = createODataRequestContext(oDataRequestContext,
+        requestComponent.getRequestDetails(), requestComponent.getHeaders())
+      new ChangeSetEntity(
+        changeSetId,
+        componentRequestContext,
+        if (componentRequestContext.getRequest.getMethod == Method.DELETE) null
+        else getParsedBatchRequestComponentEntity(componentRequestContext))
+    })
+    new BatchMethodHandler(oDataRequestContext, dataSourceFactory, changeSetEntities.asJava).handleWrite().asScala.toList
+  }
+
+  private def getParsedBatchRequestComponentEntity(requestContext: ODataRequestContext): Any = {
+    requestContext.getRequest.getHeader("Content-Type") match {
+      case ct if ct.contains("application/json") => new ODataJsonParser(requestContext, new ODataParserImpl).getODataEntity
+      case ct if ct.contains("application/atom") => new ODataAtomParser(requestContext, new ODataParserImpl).getODataEntity
+      case _ => throw new ODataBatchParseException("Content-Type Header needs to be specified for PUT, POST, " +
+        "PATCH operations")
     }
+  }
 
-    def createODataRequest(requestDetails: Map[String, String], batchRequestHeaders: BatchRequestHeaders): ODataRequest = {
-      val oDataRequestBuilder: ODataRequest.Builder = new ODataRequest.Builder()
+  private def createODataRequestContext(oDataRequestContext: ODataRequestContext, requestDetails: Map[String,String],
+                                        batchRequestHeaders: BatchRequestHeaders): ODataRequestContext = {
+    val oDataRequest: ODataRequest = createODataRequest(oDataRequestContext, requestDetails, batchRequestHeaders)
+    new ODataRequestContext(oDataRequest, createODataUri(oDataRequestContext, oDataRequest.getUri),
+      oDataRequestContext.getEntityDataModel)
+  }
 
-      // Request type is mandatory
-      requestDetails.get("RequestType") match {
-        case Some(method) => oDataRequestBuilder.setMethod(Method.valueOf(method))
-        case None => throw new ODataBadRequestException("No method specified for batch request")
-      }
+  private def createODataUri(oDataRequestContext: ODataRequestContext, relativeUrl: String): ODataUri = {
+    new ODataUriParser(oDataRequestContext.getEntityDataModel).parseUri(relativeUrl)
+  }
 
-      // Request uri is mandatory
-      val uri = requestDetails.getOrElse("RelativePath", "") +
-        requestDetails.getOrElse("RequestEntity", "")
-      if (uri.isEmpty) {
-        throw new ODataBadRequestException("Uri should be specified for batch request")
-      }
-      val hostFromRequestHeader = oDataRequestContext.getRequest.getHeader("Host")
-      val hostUri = requestDetails.getOrElse("RequestHost",
-        batchRequestHeaders.headers.getOrElse("Host",
-          if (hostFromRequestHeader.endsWith(".svc")) hostFromRequestHeader else oDataRequestContext.getUri.serviceRoot))
-      oDataRequestBuilder.setUri(hostUri + (if (uri.startsWith("/")) uri else "/" + uri))
-
-      // Setting request body
-      val requestBody: Option[String] = requestDetails.get("RequestBody")
-      if (requestBody.isDefined) {
-        oDataRequestBuilder.setBodyText(requestBody.get, "UTF-8")
-      }
+  private def createODataRequest(oDataRequestContext: ODataRequestContext, requestDetails: Map[String, String],
+                                 batchRequestHeaders: BatchRequestHeaders): ODataRequest = {
+    val oDataRequestBuilder: ODataRequest.Builder = new ODataRequest.Builder()
 
-      // Setting content type
-      val contentType: Option[String] = requestDetails.get("Content-Type")
-      if (contentType.isDefined) {
-        oDataRequestBuilder.setContentType(MediaType.fromString(contentType.get))
-        oDataRequestBuilder.setAccept(MediaType.fromString(contentType.get))
-      }
-      oDataRequestBuilder.setHeaders(mapAsJavaMap(batchRequestHeaders.headers))
-      oDataRequestBuilder.build()
+    // Request type is mandatory
+    requestDetails.get("RequestType") match {
+      case Some(method) => oDataRequestBuilder.setMethod(Method.valueOf(method))
+      case None => throw new ODataBadRequestException("No method specified for batch request")
     }
-    results
+
+    // Request uri is mandatory
+    val uri = requestDetails.getOrElse("RelativePath", "") +
+      requestDetails.getOrElse("RequestEntity", "")
+    if (uri.isEmpty) {
+      throw new ODataBadRequestException("Uri should be specified for batch request")
+    }
+    val hostFromRequestHeader = oDataRequestContext.getRequest.getHeader("Host")
+    val hostUri = requestDetails.getOrElse("RequestHost",
+      batchRequestHeaders.headers.getOrElse("Host",
+        if (hostFromRequestHeader.endsWith(".svc")) hostFromRequestHeader else oDataRequestContext.getUri.serviceRoot))
+    oDataRequestBuilder.setUri(hostUri + (if (uri.startsWith("/")) uri else "/" + uri))
+
+    // Setting request body
+    val requestBody: Option[String] = requestDetails.get("RequestBody")
+    if (requestBody.isDefined) {
+      oDataRequestBuilder.setBodyText(requestBody.get, "UTF-8")
+    }
+
+    // Setting content type
+    val contentType: Option[String] = requestDetails.get("Content-Type")
+    if (contentType.isDefined) {
+      oDataRequestBuilder.setContentType(MediaType.fromString(contentType.get))
+      oDataRequestBuilder.setAccept(MediaType.fromString(contentType.get))
+    }
+    oDataRequestBuilder.setHeaders(mapAsJavaMap(batchRequestHeaders.headers))
+    oDataRequestBuilder.build()
   }
 }
+
+object ODataBatchProcessorActor {
+  private val LOG = LoggerFactory.getLogger(classOf[ODataBatchProcessorActor])
+}
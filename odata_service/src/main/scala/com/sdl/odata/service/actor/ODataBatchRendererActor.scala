@@ -16,9 +16,9 @@
 package com.sdl.odata.service.actor
 
 import com.sdl.odata.api.processor.query.QueryResult
-import com.sdl.odata.api.service.ODataResponse
+import com.sdl.odata.api.service.{ODataContentStreamer, ODataResponse}
 import com.sdl.odata.renderer.batch.ODataBatchRequestRenderer
-import com.sdl.odata.service.protocol.{BatchOperationResult, ServiceResponse}
+import com.sdl.odata.service.protocol.{BatchOperationResult, ServiceResponse, StreamingBatchOperationResult}
 import org.springframework.beans.factory.annotation.Autowired
 import org.springframework.context.annotation.Scope
 import org.springframework.stereotype.Component
@@ -40,6 +40,13 @@ class ODataBatchRendererActor @Autowired()(batchRequestRenderer: ODataBatchReque
       }
       responseBuilder.setStatus(ODataResponse.Status.OK)
       actorContext.origin ! ServiceResponse(actorContext, responseBuilder.build())
+    case StreamingBatchOperationResult(actorContext, parts) =>
+      // the parts are processed and rendered one by one while the response is written
+      val responseBuilder = new ODataResponse.Builder()
+        .setODataContent(new ODataContentStreamer(batchRequestRenderer, actorContext.requestContext,
+          QueryResult.from(parts)))
+        .setStatus(ODataResponse.Status.OK)
+      actorContext.origin ! ServiceResponse(actorContext, responseBuilder.build())
   }
 
 }
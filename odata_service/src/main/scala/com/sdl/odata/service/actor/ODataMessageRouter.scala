@@ -76,10 +76,13 @@ class ODataMessageRouter @Autowired()(serviceRegistry: ODataEdmRegistry, actorPr
   def handleInitialServiceRequest(serviceRequest: InitialServiceRequest) {
     log.debug("Handling initial service request")
 
-    origin = Some(sender)
-
-    requestContext = Some(new ODataRequestContext(serviceRequest.request, serviceRegistry.getEntityDataModel))
-    routeMessage(actorProducer, context, ServiceRequest(ODataActorContext(requestContext.get, sender)))
+    val newRequestContext = new ODataRequestContext(serviceRequest.request, serviceRegistry.getEntityDataModel)
+    if (!actorProducer.isPooled) {
+      // a per-request router supervises its children and reports their failures
+      origin = Some(sender)
+      requestContext = Some(newRequestContext)
+    }
+    routeMessage(actorProducer, context, ServiceRequest(ODataActorContext(newRequestContext, sender)))
   }
 }
 
@@ -23,23 +23,30 @@ import com.sdl.odata.api.processor.ProcessorResult
 import com.sdl.odata.api.processor.datasource.{ODataDataSourceException, ODataEntityNotFoundException}
 import com.sdl.odata.api.processor.query.QueryResult
 import com.sdl.odata.api.processor.query.QueryResult.ResultType
-import com.sdl.odata.api.renderer.{ODataRenderer, RendererFactory}
+import com.sdl.odata.api.renderer.ODataRenderer
 import com.sdl.odata.api.service.ODataResponse.Status._
-import com.sdl.odata.api.service.{ODataContentStreamer, ODataResponse}
+import com.sdl.odata.api.service.ODataRequest.Method
+import com.sdl.odata.api.service.{HeaderNames, ODataContentStreamer, ODataResponse}
 import com.sdl.odata.service.protocol.{ErrorMessage, ODataActorContext, Render, ServiceResponse}
-import org.springframework.beans.factory.annotation.Autowired
+import org.springframework.beans.factory.annotation.{Autowired, Value}
 import org.springframework.context.annotation.Scope
 import org.springframework.stereotype.Component
 
 @Component
 @Scope("prototype")
-class ODataRendererActor @Autowired()(rendererFactory: RendererFactory) extends ODataActor {
+class ODataRendererActor @Autowired()(rendererSelector: RendererSelector,
+                                      @Value("${odata.renderer.stream-collections:false}") streamCollections: Boolean)
+  extends ODataActor {
   val logger = org.slf4j.LoggerFactory.getLogger(classOf[ODataRendererActor])
 
   def receive = {
     case ErrorMessage(actorContext, e) =>
       val responseBuilder = new ODataResponse.Builder()
       e match {
+        case timeoutException: ODataRequestTimeoutException =>
+          logger.warn(s"Request timed out: '${e.getMessage}'")
+          renderError(actorContext, timeoutException, responseBuilder)
+          setStatus(actorContext, responseBuilder, SERVICE_UNAVAILABLE)
         case clientException: ODataUnsupportedMediaTypeException =>
           logger.error(s"Invalid request: '${e.getMessage}'", e)
           renderError(actorContext, clientException, responseBuilder)
@@ -83,6 +90,14 @@ class ODataRendererActor @Autowired()(rendererFactory: RendererFactory) extends
               case None => renderError(actorContext,
                 new ODataServerException(UNKNOWN_ERROR, "No renderer available"), responseBuilder)
             }
+          case ResultType.COLLECTION if streamCollections =>
+            getRenderer(actorContext, result.getQueryResult) match {
+              case Some(renderer) if renderer.supportsCollectionStreaming() =>
+                // write-through: rendered straight into the response stream once headers are sent
+                responseBuilder.setODataContent(
+                  new ODataContentStreamer(renderer, actorContext.requestContext, result.getQueryResult))
+              case _ => renderResult(actorContext, result, responseBuilder)
+            }
           case _ => if (result.getData != null) {
             renderResult(actorContext, result, responseBuilder)
           }
@@ -96,7 +111,7 @@ class ODataRendererActor @Autowired()(rendererFactory: RendererFactory) extends
       if (result.getHeaders.size() > 0) {
         responseBuilder.setHeaders(result.getHeaders)
       }
-      actorContext.origin ! ServiceResponse(actorContext, responseBuilder.build())
+      actorContext.origin ! ServiceResponse(actorContext, checkNotModified(actorContext, responseBuilder.build()))
   }
 
   /**
@@ -159,13 +174,34 @@ class ODataRendererActor @Autowired()(rendererFactory: RendererFactory) extends
     responseBuilder.setStatus(INTERNAL_SERVER_ERROR)
   }
 
-  private def getRenderer(actorContext: ODataActorContext, data: QueryResult): Option[ODataRenderer] = {
+  /**
+    * Answer a conditional GET request with '304 Not Modified' when its 'If-None-Match' header matches the entity tag
+    * of the rendered response, so that the client can use the representation it already has.
+    *
+    * @param actorContext The actor context.
+    * @param response     The rendered response.
+    * @return A 'Not Modified' response without body, or the rendered response.
+    */
+  private def checkNotModified(actorContext: ODataActorContext, response: ODataResponse): ODataResponse = {
     import scala.collection.JavaConverters._
-    val r = rendererFactory.getRenderers
-    r.asScala.map(renderer => (renderer.score(actorContext.requestContext, data), renderer))
-      .filter({ case (score, _) => score > 0 })
-      .sortBy({ case (score, _) => -score })
-      .map({ case (_, renderer) => renderer })
-      .headOption
+    val request = actorContext.requestContext.getRequest
+    val eTag = response.getHeader(HeaderNames.ETAG)
+    val ifNoneMatch = Option(request.getHeader(HeaderNames.IF_NONE_MATCH))
+    if (request.getMethod == Method.GET && response.getStatus == OK && eTag != null &&
+      ifNoneMatch.exists(_.split(",").map(tag => weakETag(tag.trim)).exists(tag => tag == "*" || tag == weakETag(eTag)))) {
+      val notModified = new ODataResponse.Builder().setStatus(NOT_MODIFIED)
+      response.getHeaders.asScala
+        .filter({ case (name, _) => !name.equalsIgnoreCase(HeaderNames.CONTENT_TYPE) })
+        .foreach({ case (name, value) => notModified.setHeader(name, value) })
+      notModified.build()
+    } else {
+      response
+    }
   }
+
+  // 'If-None-Match' uses the weak comparison function, which ignores the weakness indicator
+  private def weakETag(eTag: String): String = if (eTag.startsWith("W/")) eTag.substring(2) else eTag
+
+  private def getRenderer(actorContext: ODataActorContext, data: QueryResult): Option[ODataRenderer] =
+    rendererSelector.select(actorContext.requestContext, data)
 }
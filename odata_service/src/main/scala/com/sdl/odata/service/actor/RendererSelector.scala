@@ -0,0 +1,183 @@
+/**
+ * Copyright (c) 2014-2024 All Rights Reserved by the RWS Group for and on behalf of its affiliates and subsidiaries.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.sdl.odata.service.actor
+
+import java.util.concurrent.ConcurrentHashMap
+import java.util.concurrent.atomic.LongAdder
+
+import com.sdl.odata.api.edm.model.MetaType
+import com.sdl.odata.api.parser.ODataUriUtil
+import com.sdl.odata.api.processor.query.QueryResult
+import com.sdl.odata.api.processor.query.QueryResult.ResultType
+import com.sdl.odata.api.renderer.{ODataRenderer, RendererFactory}
+import com.sdl.odata.api.service.ODataRequest.Method
+import com.sdl.odata.api.service.{MediaType, ODataRequestContext}
+import com.sdl.odata.service.actor.RendererSelector.SelectionKey
+import org.springframework.beans.factory.annotation.{Autowired, Value}
+import org.springframework.stereotype.Component
+
+import scala.collection.JavaConverters._
+
+/**
+  * Selects the renderer for a request and a result.
+  *
+  * Scoring all renderers and sorting them is only needed once for each distinct combination of the inputs the
+  * renderers score on: the request method, the shape and target type of the URI, the '$format' option, the
+  * 'Accept' and 'Content-Type' headers and the type of the result. The choice is kept in a table keyed by those
+  * inputs, so that all following requests with the same key get their renderer with a single lookup.
+  *
+  * The table holds at most `odata.renderer.selection-cache.max-size` keys (default 256); requests with a key that
+  * does not fit anymore are scored as before. A maximum size of 0 disables the table. The table is only used if all
+  * registered renderers declare with `ODataRenderer.isScoreCacheable` that they only score on these inputs; as long
+  * as any renderer does not, all requests are scored.
+  */
+@Component
+class RendererSelector @Autowired()(rendererFactory: RendererFactory,
+                                    @Value("${odata.renderer.selection-cache.max-size:256}") maxSize: Int) {
+  val logger = org.slf4j.LoggerFactory.getLogger(classOf[RendererSelector])
+
+  require(maxSize >= 0, s"Maximum size of the renderer selection cache must not be negative: $maxSize")
+
+  private val selections = new ConcurrentHashMap[SelectionKey, Option[ODataRenderer]]()
+  private val selectionCounts = new ConcurrentHashMap[String, LongAdder]()
+  private val hits = new LongAdder
+  private val misses = new LongAdder
+
+  /**
+    * Select the renderer with the highest score for a request and a result.
+    *
+    * @param requestContext The request context.
+    * @param data           The result to render.
+    * @return The renderer with the highest score, or `None` if no renderer has a positive score.
+    */
+  def select(requestContext: ODataRequestContext, data: QueryResult): Option[ODataRenderer] = {
+    val selected = if (maxSize > 0 && rendererFactory.getRenderers.asScala.forall(_.isScoreCacheable)) {
+      selectionKey(requestContext, data) match {
+        case Some(key) => lookup(key, requestContext, data)
+        case None => score(requestContext, data)
+      }
+    } else {
+      score(requestContext, data)
+    }
+    selected.foreach(countSelection)
+    selected
+  }
+
+  /**
+    * Get how often each renderer was selected, by class name of the renderer.
+    *
+    * @return The number of selections per renderer class name.
+    */
+  def getSelectionCounts: java.util.Map[String, java.lang.Long] =
+    selectionCounts.asScala.map({ case (name, count) => name -> java.lang.Long.valueOf(count.sum()) }).asJava
+
+  def getHitCount: Long = hits.sum()
+
+  def getMissCount: Long = misses.sum()
+
+  def size: Int = selections.size()
+
+  private def lookup(key: SelectionKey, requestContext: ODataRequestContext,
+                     data: QueryResult): Option[ODataRenderer] = {
+    val cached = selections.get(key)
+    if (cached != null) {
+      hits.increment()
+      cached
+    } else {
+      misses.increment()
+      val selected = score(requestContext, data)
+      if (selections.size() < maxSize) {
+        selections.putIfAbsent(key, selected)
+      }
+      logger.debug(s"Selected renderer ${selected.map(_.getClass.getName).getOrElse("<none>")} for $key")
+      if (logger.isTraceEnabled) {
+        logger.trace(s"Renderer selection cache size: $size, hits: $getHitCount, misses: $getMissCount, " +
+          s"selections: $getSelectionCounts")
+      }
+      selected
+    }
+  }
+
+  private def countSelection(renderer: ODataRenderer): Unit = {
+    val name = renderer.getClass.getName
+    val count = selectionCounts.get(name)
+    if (count != null) {
+      count.increment()
+    } else {
+      selectionCounts.putIfAbsent(name, new LongAdder)
+      selectionCounts.get(name).increment()
+    }
+  }
+
+  private def score(requestContext: ODataRequestContext, data: QueryResult): Option[ODataRenderer] =
+    rendererFactory.getRenderers.asScala.map(renderer => (renderer.score(requestContext, data), renderer))
+      .filter({ case (score, _) => score > 0 })
+      .sortBy({ case (score, _) => -score })
+      .map({ case (_, renderer) => renderer })
+      .headOption
+
+  private def selectionKey(requestContext: ODataRequestContext, data: QueryResult): Option[SelectionKey] = {
+    val request = requestContext.getRequest
+    val uri = requestContext.getUri
+    if (data == null || request == null || uri == null) {
+      // Nothing sensible to key on; these are rare error paths which are simply scored
+      None
+    } else {
+      val targetType = ODataUriUtil.resolveTargetType(uri, requestContext.getEntityDataModel)
+      val metaType = targetType.flatMap(t => Option(requestContext.getEntityDataModel.getType(t.typeName)))
+        .map(_.getMetaType)
+      Some(SelectionKey(
+        request.getMethod,
+        uri.relativeUri.getClass,
+        targetType.map(_.typeName),
+        targetType.exists(_.isCollection),
+        metaType,
+        ODataUriUtil.isValuePathUri(uri),
+        ODataUriUtil.isCountPathUri(uri),
+        ODataUriUtil.isFunctionCallUri(uri),
+        ODataUriUtil.isActionCallUri(uri),
+        ODataUriUtil.getFormatOption(uri).map(format => normalize(format.mediaType)),
+        request.getAccept.asScala.map(normalize).toList,
+        Option(request.getContentType).map(normalize),
+        data.getType,
+        if (data.getType == ResultType.EXCEPTION) Option(data.getData).map(_.getClass) else None))
+    }
+  }
+
+  /**
+    * Renderers only match on type and subtype, so parameters such as 'charset' or 'q' are not part of the key.
+    */
+  private def normalize(mediaType: MediaType): MediaType = new MediaType(mediaType.getType, mediaType.getSubType)
+}
+
+object RendererSelector {
+
+  private[actor] case class SelectionKey(method: Method,
+                                         relativeUriType: Class[_],
+                                         targetTypeName: Option[String],
+                                         targetIsCollection: Boolean,
+                                         targetMetaType: Option[MetaType],
+                                         valuePath: Boolean,
+                                         countPath: Boolean,
+                                         functionCall: Boolean,
+                                         actionCall: Boolean,
+                                         format: Option[MediaType],
+                                         accept: List[MediaType],
+                                         contentType: Option[MediaType],
+                                         resultType: ResultType,
+                                         exceptionType: Option[Class[_]])
+
+}
@@ -15,6 +15,8 @@
  */
 package com.sdl.odata.service.protocol
 
+import java.util.stream.Stream
+
 import akka.actor.ActorRef
 import com.sdl.odata.api.parser.ODataUri
 import com.sdl.odata.api.processor.ProcessorResult
@@ -25,37 +27,45 @@ case class ODataActorContext(requestContext: ODataRequestContext, origin: ActorR
 
 sealed trait ODataActorMessage
 
+// A message that belongs to a single request and carries all of its state
+sealed trait ODataRequestMessage extends ODataActorMessage {
+  def actorContext: ODataActorContext
+}
+
 // Register an actor to handle a specified type of message
 case class RegisterMessageHandler(messageType: Class[_ <: ODataActorMessage], beanName: String) extends ODataActorMessage
 
 // Unregister an actor the handle a specified type of message
 case class UnregisterMessageHandler(messageType: Class[_ <: ODataActorMessage], beanName: String) extends ODataActorMessage
 
-case class ErrorMessage(actorContext: ODataActorContext, ex: Throwable) extends ODataActorMessage
+case class ErrorMessage(actorContext: ODataActorContext, ex: Throwable) extends ODataRequestMessage
 
 // Initial request sent by ODataServiceImpl to ODataMessageRouter
 case class InitialServiceRequest(request: ODataRequest) extends ODataActorMessage
 
-case class ServiceRequest(actorContext: ODataActorContext) extends ODataActorMessage
+case class ServiceRequest(actorContext: ODataActorContext) extends ODataRequestMessage
+
+case class ParseUri(actorContext: ODataActorContext) extends ODataRequestMessage
 
-case class ParseUri(actorContext: ODataActorContext) extends ODataActorMessage
+case class ParseResult(actorContext: ODataActorContext, uri: ODataUri) extends ODataRequestMessage
 
-case class ParseResult(actorContext: ODataActorContext, uri: ODataUri) extends ODataActorMessage
+case class Unmarshall(actorContext: ODataActorContext) extends ODataRequestMessage
 
-case class Unmarshall(actorContext: ODataActorContext) extends ODataActorMessage
+case class UnmarshallResult(actorContext: ODataActorContext, data: Option[AnyRef]) extends ODataRequestMessage
 
-case class UnmarshallResult(actorContext: ODataActorContext, data: Option[AnyRef]) extends ODataActorMessage
+case class ReadOperation(actorContext: ODataActorContext, data: Option[AnyRef]) extends ODataRequestMessage
 
-case class ReadOperation(actorContext: ODataActorContext, data: Option[AnyRef]) extends ODataActorMessage
+case class WriteOperation(actorContext: ODataActorContext, data: Option[AnyRef]) extends ODataRequestMessage
 
-case class WriteOperation(actorContext: ODataActorContext, data: Option[AnyRef]) extends ODataActorMessage
+case class OperationResult(actorContext: ODataActorContext, result: ProcessorResult) extends ODataRequestMessage
 
-case class OperationResult(actorContext: ODataActorContext, result: ProcessorResult) extends ODataActorMessage
+case class Render(actorContext: ODataActorContext, result: ProcessorResult) extends ODataRequestMessage
 
-case class Render(actorContext: ODataActorContext, result: ProcessorResult) extends ODataActorMessage
+case class ServiceResponse(actorContext: ODataActorContext, response: ODataResponse) extends ODataRequestMessage
 
-case class ServiceResponse(actorContext: ODataActorContext, response: ODataResponse) extends ODataActorMessage
+case class BatchOperation(actorContext: ODataActorContext, data: Option[ODataBatchRequestContent]) extends ODataRequestMessage
 
-case class BatchOperation(actorContext: ODataActorContext, data: Option[ODataBatchRequestContent]) extends ODataActorMessage
+case class BatchOperationResult(actorContext: ODataActorContext, result: List[ProcessorResult]) extends ODataRequestMessage
 
-case class BatchOperationResult(actorContext: ODataActorContext, result: List[ProcessorResult]) extends ODataActorMessage
+case class StreamingBatchOperationResult(actorContext: ODataActorContext, parts: Stream[AnyRef])
+  extends ODataRequestMessage
@@ -15,13 +15,18 @@
  */
 package com.sdl.odata.service.util
 
-import akka.actor.{Actor, ActorContext, ActorRef}
+import akka.actor.{Actor, ActorContext, ActorRef, ExtendedActorSystem, Extension, ExtensionId, Status}
+import com.sdl.odata.api.ODataSystemException
 import com.sdl.odata.service.actor.MessageHandlerRegistry._
 import com.sdl.odata.service.actor.ODataMessageRouter
-import com.sdl.odata.service.protocol.{ODataActorMessage, RegisterMessageHandler}
+import com.sdl.odata.service.protocol.{ErrorMessage, ODataActorMessage, ODataRequestMessage, RegisterMessageHandler}
 import com.sdl.odata.service.spring.ActorProducer
 import org.slf4j.{Logger, LoggerFactory}
 
+import scala.collection.concurrent.TrieMap
+import scala.concurrent.duration._
+import scala.util.{Failure, Success}
+
 /**
  * Akka Util Class is resppnsible for registering routes for actors.
  *
@@ -29,12 +34,20 @@ import org.slf4j.{Logger, LoggerFactory}
 object AkkaUtil {
   private val logger: Logger = LoggerFactory.getLogger("AkkaUtil")
 
+  private val PoolResolveTimeout = 1.second
+
+  /** How long a pool which could not be resolved is taken to be missing before it is looked up again. */
+  private[util] val MissingPoolRetryInterval = 1.second
+
   def registerRoute(messageType: Class[_ <: ODataActorMessage], actorType: Class[_ <: Actor])(implicit producer: ActorProducer) {
     messageRouter().tell(RegisterMessageHandler(messageType, actorType.getSimpleName), null)
+    // create the pool right away, so it can be resolved as soon as messages are routed to it
+    if (producer.isPooled) producer.pooledActorRef(actorType.getSimpleName)
   }
 
   private def messageRouter()(implicit producer : ActorProducer): ActorRef =
-    actorRef(classOf[ODataMessageRouter])
+    if (producer.isPooled) producer.pooledActorRef(classOf[ODataMessageRouter].getSimpleName)
+    else actorRef(classOf[ODataMessageRouter])
 
   private def actorRef(actorType: Class[_ <: Actor])(implicit producer: ActorProducer): ActorRef = {
     producer.actorRef(actorType.getSimpleName)
@@ -55,4 +68,74 @@ object AkkaUtil {
       logger.warn(s"No handler registered for message type: $messageType")
     }
   }
+
+  /**
+   * Routes a message to the long-lived actor pools, looking them up by name rather than through the
+   * ActorProducer. Only valid in pooled routing mode.
+   *
+   * A pool is resolved by its path once and its reference is kept for the actor system. The pools are created when
+   * their routes are registered, so they normally resolve on first use. The resolution does not block the calling
+   * actor: the message is sent on when it completes. If a pool can not be resolved, the request of the message fails
+   * instead of the message going to the dead letters and the request waiting until it times out. The pool is then
+   * taken to be missing for a while, so that messages for it fail right away rather than each waiting for the
+   * resolution to time out.
+   */
+  def routePooledMessage(context: ActorContext, message: ODataActorMessage) {
+    val messageType = message.getClass
+    if (contains(messageType)) {
+      get(messageType).foreach(beanName => routeToPool(context, beanName, message))
+    } else {
+      logger.warn(s"No handler registered for message type: $messageType")
+    }
+  }
+
+  private def routeToPool(context: ActorContext, beanName: String, message: ODataActorMessage): Unit = {
+    val refs = PooledActorRefs(context.system)
+    val self = context.self
+    refs.pools.get(beanName) match {
+      case Some(pool) => pool.tell(message, self)
+      case None if refs.isMissing(beanName) => failRequest(beanName, message)
+      case None =>
+        // the callback must not touch the actor context, it does not run on the actor's own thread
+        import context.dispatcher
+        context.actorSelection(s"/user/$beanName").resolveOne(PoolResolveTimeout).onComplete {
+          case Success(pool) =>
+            refs.pools.putIfAbsent(beanName, pool).getOrElse(pool).tell(message, self)
+          case Failure(e) =>
+            logger.debug(s"Unable to resolve actor pool: $beanName", e)
+            refs.setMissing(beanName)
+            failRequest(beanName, message)
+        }
+    }
+  }
+
+  private def failRequest(beanName: String, message: ODataActorMessage): Unit = {
+    logger.error(s"No actor pool '$beanName' is available to handle message: $message")
+    message match {
+      case ErrorMessage(actorContext, ex) => actorContext.origin.tell(Status.Failure(ex), ActorRef.noSender)
+      case msg: ODataRequestMessage => msg.actorContext.origin.tell(Status.Failure(
+        new ODataSystemException(s"No actor pool '$beanName' is available to handle the request")), ActorRef.noSender)
+      case _ =>
+    }
+  }
+}
+
+/**
+ * The resolved references of the long-lived actor pools of an actor system, and the pools which could not be
+ * resolved recently.
+ */
+private[service] class PooledActorRefs extends Extension {
+  val pools: TrieMap[String, ActorRef] = TrieMap.empty
+
+  // the System.nanoTime until which each pool is taken to be missing
+  private val missingUntil: TrieMap[String, Long] = TrieMap.empty
+
+  def isMissing(beanName: String): Boolean = missingUntil.get(beanName).exists(until => System.nanoTime() - until < 0)
+
+  def setMissing(beanName: String): Unit =
+    missingUntil.put(beanName, System.nanoTime() + AkkaUtil.MissingPoolRetryInterval.toNanos)
+}
+
+private[service] object PooledActorRefs extends ExtensionId[PooledActorRefs] {
+  override def createExtension(system: ExtendedActorSystem): PooledActorRefs = new PooledActorRefs
 }
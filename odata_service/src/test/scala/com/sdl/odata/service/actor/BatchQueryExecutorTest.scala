@@ -0,0 +1,159 @@
+/**
+ * Copyright (c) 2014-2024 All Rights Reserved by the RWS Group for and on behalf of its affiliates and subsidiaries.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.sdl.odata.service.actor
+
+import java.util.concurrent.atomic.AtomicInteger
+import java.util.concurrent.{ConcurrentLinkedQueue, CountDownLatch, TimeUnit, TimeoutException}
+
+import org.scalatest.FunSuite
+import org.slf4j.MDC
+
+/**
+ * Unit tests for executing batch parts with 'BatchQueryExecutor'.
+ */
+class BatchQueryExecutorTest extends FunSuite {
+
+  test("Results are returned in the order in which the parts were submitted") {
+    val executor = new BatchQueryExecutor(4, 4)
+    try {
+      val parts = executor.start[Int]()
+      for (i <- 1 to 4) {
+        // The first part takes the longest, so the parts complete in reverse order
+        parts.submit(() => {
+          Thread.sleep((5 - i) * 20L)
+          i
+        })
+      }
+      assert(parts.awaitAll() === IndexedSeq(1, 2, 3, 4))
+      assert(!parts.nonEmpty)
+    } finally {
+      executor.destroy()
+    }
+  }
+
+  test("A part that does not fit in the queue of a busy pool runs on the calling thread") {
+    // One thread with a queue of four parts
+    val executor = new BatchQueryExecutor(1, 10)
+    val blocked = new CountDownLatch(1)
+    val threads = new ConcurrentLinkedQueue[Thread]()
+    try {
+      val parts = executor.start[Int]()
+      parts.submit(() => {
+        blocked.await(10, TimeUnit.SECONDS)
+        0
+      })
+      for (i <- 1 to 5) {
+        parts.submit(() => {
+          threads.add(Thread.currentThread)
+          i
+        })
+      }
+      // The first part holds the only thread and four parts are queued, so the last part has run already
+      assert(threads.size === 1)
+      assert(threads.peek === Thread.currentThread)
+
+      blocked.countDown()
+      assert(parts.awaitAll() === IndexedSeq(0, 1, 2, 3, 4, 5))
+    } finally {
+      executor.destroy()
+    }
+  }
+
+  test("A failed part does not stop the other parts, and its failure is thrown once all parts are done") {
+    val executor = new BatchQueryExecutor(4, 4)
+    val completed = new AtomicInteger
+    try {
+      val parts = executor.start[Int]()
+      parts.submit(() => {
+        Thread.sleep(50)
+        completed.incrementAndGet()
+      })
+      parts.submit(() => throw new IllegalStateException("Part failed"))
+      parts.submit(() => {
+        Thread.sleep(50)
+        completed.incrementAndGet()
+      })
+
+      val e = intercept[IllegalStateException] {
+        parts.awaitAll()
+      }
+      assert(e.getMessage === "Part failed")
+      assert(completed.get === 2)
+      assert(!parts.nonEmpty)
+    } finally {
+      executor.destroy()
+    }
+  }
+
+  test("A failed part only fails its own result when the parts are awaited one by one") {
+    val executor = new BatchQueryExecutor(4, 4)
+    try {
+      val parts = executor.start[Int]()
+      parts.submit(() => 1)
+      parts.submit(() => throw new IllegalStateException("Part failed"))
+      parts.submit(() => 3)
+
+      assert(parts.awaitNext() === 1)
+      intercept[IllegalStateException] {
+        parts.awaitNext()
+      }
+      assert(parts.awaitNext() === 3)
+    } finally {
+      executor.destroy()
+    }
+  }
+
+  test("The logging context of the submitting thread is available in the part") {
+    val executor = new BatchQueryExecutor(4, 4)
+    MDC.put("requestId", "42")
+    try {
+      val parts = executor.start[String]()
+      parts.submit(() => MDC.get("requestId"))
+      assert(parts.awaitAll() === IndexedSeq("42"))
+    } finally {
+      MDC.remove("requestId")
+      executor.destroy()
+    }
+  }
+
+  test("A part that is not done in time stays in the group until it is cancelled") {
+    val executor = new BatchQueryExecutor(4, 4)
+    val blocked = new CountDownLatch(1)
+    val interrupted = new CountDownLatch(1)
+    try {
+      val parts = executor.start[Int]()
+      parts.submit(() => {
+        try blocked.await(10, TimeUnit.SECONDS) catch {
+          case e: InterruptedException =>
+            interrupted.countDown()
+            throw e
+        }
+        1
+      })
+
+      intercept[TimeoutException] {
+        parts.awaitNext(10)
+      }
+      assert(parts.nonEmpty)
+
+      parts.cancelAll()
+      assert(!parts.nonEmpty)
+      assert(interrupted.await(10, TimeUnit.SECONDS))
+    } finally {
+      executor.destroy()
+    }
+  }
+}
@@ -0,0 +1,116 @@
+/**
+ * Copyright (c) 2014-2024 All Rights Reserved by the RWS Group for and on behalf of its affiliates and subsidiaries.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.sdl.odata.service.actor
+
+import com.sdl.odata.api.edm.model.EntityDataModel
+import com.sdl.odata.api.parser.{ODataUri, ServiceRootUri}
+import com.sdl.odata.api.processor.query.QueryResult
+import com.sdl.odata.api.processor.query.QueryResult.ResultType
+import com.sdl.odata.api.renderer.{ODataRenderer, RendererFactory}
+import com.sdl.odata.api.service.{MediaType, ODataRequest, ODataRequestContext, ODataResponse}
+import com.sdl.odata.api.{ODataNotImplementedException, ODataSystemException}
+import com.sdl.odata.renderer.AbstractRenderer
+import org.scalatest.FunSuite
+
+import scala.collection.JavaConverters._
+
+/**
+ * Unit tests for selecting renderers with 'RendererSelector'.
+ */
+class RendererSelectorTest extends FunSuite {
+
+  private val entityDataModel: EntityDataModel = null
+
+  private val requestContext = new ODataRequestContext(
+    new ODataRequest.Builder()
+      .setMethod(ODataRequest.Method.GET)
+      .setUri("http://localhost:8080/odata.svc")
+      .setAccept(MediaType.JSON)
+      .build(),
+    ODataUri("http://localhost:8080/odata.svc", ServiceRootUri(None)),
+    entityDataModel)
+
+  private val entity = QueryResult.from(new Object)
+
+  private def selector(renderers: ODataRenderer*): RendererSelector =
+    new RendererSelector(new RendererFactory {
+      override def getRenderers: java.util.List[ODataRenderer] = renderers.asJava
+    }, 256)
+
+  test("On a tie the first renderer with the highest score is selected, every time") {
+    val first = new StubRenderer(_ => 10)
+    val second = new StubRenderer(_ => 10)
+    val lower = new StubRenderer(_ => 5)
+    val rendererSelector = selector(lower, first, second)
+
+    assert(rendererSelector.select(requestContext, entity) === Some(first))
+    assert(rendererSelector.select(requestContext, entity) === Some(first))
+    assert(rendererSelector.getHitCount === 1)
+  }
+
+  test("No renderer is selected when none has a positive score") {
+    val rendererSelector = selector(new StubRenderer(_ => 0), new StubRenderer(_ => -1))
+
+    assert(rendererSelector.select(requestContext, entity) === None)
+    assert(rendererSelector.select(requestContext, entity) === None)
+    assert(rendererSelector.getHitCount === 1)
+    assert(rendererSelector.getSelectionCounts.isEmpty)
+  }
+
+  test("Error results are selected separately from other results and per exception type") {
+    val renderer = new StubRenderer(data => if (data.getType == ResultType.EXCEPTION) 0 else 10)
+    val errorRenderer = new StubRenderer(data => if (data.getType == ResultType.EXCEPTION) 20 else 0)
+    val rendererSelector = selector(renderer, errorRenderer)
+
+    assert(rendererSelector.select(requestContext, entity) === Some(renderer))
+    assert(rendererSelector.select(requestContext, QueryResult.from(new ODataSystemException("Failed"))) ===
+      Some(errorRenderer))
+    assert(rendererSelector.select(requestContext, QueryResult.from(new ODataNotImplementedException("Failed"))) ===
+      Some(errorRenderer))
+    assert(rendererSelector.size === 3)
+  }
+
+  test("A renderer which fails while scoring fails the selection, which is not cached") {
+    val rendererSelector = selector(new StubRenderer(_ => throw new IllegalStateException("Cannot score")))
+
+    intercept[IllegalStateException] {
+      rendererSelector.select(requestContext, entity)
+    }
+    assert(rendererSelector.size === 0)
+  }
+
+  test("Renderers are scored for every request when a renderer does not declare its score cacheable") {
+    var calls = 0
+    val renderer = new StubRenderer(_ => 10)
+    val uncacheable = new StubRenderer(_ => { calls += 1; 5 }, scoreCacheable = false)
+    val rendererSelector = selector(renderer, uncacheable)
+
+    assert(rendererSelector.select(requestContext, entity) === Some(renderer))
+    assert(rendererSelector.select(requestContext, entity) === Some(renderer))
+    assert(calls === 2)
+    assert(rendererSelector.size === 0)
+    assert(rendererSelector.getHitCount === 0)
+  }
+
+  private class StubRenderer(scoreFor: QueryResult => Int, scoreCacheable: Boolean = true) extends AbstractRenderer {
+    override def score(requestContext: ODataRequestContext, data: QueryResult): Int = scoreFor(data)
+
+    override def isScoreCacheable: Boolean = scoreCacheable
+
+    override def render(requestContext: ODataRequestContext, data: QueryResult,
+                        responseBuilder: ODataResponse.Builder): Unit = {}
+  }
+}
@@ -0,0 +1,97 @@
+/**
+ * Copyright (c) 2014-2024 All Rights Reserved by the RWS Group for and on behalf of its affiliates and subsidiaries.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.sdl.odata.service.util
+
+import akka.actor.{Actor, ActorRef, ActorSystem, Props, Status}
+import akka.testkit.{ImplicitSender, TestKit}
+import com.sdl.odata.api.ODataSystemException
+import com.sdl.odata.service.StopSystemAfterAll
+import com.sdl.odata.service.actor.MessageHandlerRegistry
+import com.sdl.odata.service.protocol.{ErrorMessage, ODataActorContext, ODataActorMessage, ParseUri, ServiceRequest}
+import org.scalatest.FunSuiteLike
+
+import scala.concurrent.duration._
+
+/**
+ * Unit tests for routing messages to the long-lived actor pools with 'AkkaUtil'.
+ */
+class AkkaUtilTest extends TestKit(ActorSystem("AkkaUtilTest")) with ImplicitSender with FunSuiteLike
+  with StopSystemAfterAll {
+
+  private val routingActor = system.actorOf(Props(new RoutingActor))
+
+  test("A message for a pool which does not exist fails the request instead of going to the dead letters") {
+    MessageHandlerRegistry.add(classOf[ErrorMessage], "MissingPool")
+    try {
+      val error = new IllegalStateException("Processing failed")
+
+      routingActor ! ErrorMessage(ODataActorContext(null, testActor), error)
+
+      expectMsg(Status.Failure(error))
+    } finally {
+      MessageHandlerRegistry.remove(classOf[ErrorMessage], "MissingPool")
+    }
+  }
+
+  test("A message is routed to a pool created after it was found missing once the retry interval has passed") {
+    MessageHandlerRegistry.add(classOf[ServiceRequest], "LatePool")
+    try {
+      val request = ServiceRequest(ODataActorContext(null, testActor))
+
+      routingActor ! request
+      expectMsgPF() { case Status.Failure(e: ODataSystemException) => e }
+
+      // the pool is taken to be missing without looking it up again, so the request fails right away
+      system.actorOf(Props(new ForwardingActor(testActor)), "LatePool")
+      routingActor ! request
+      expectMsgPF(AkkaUtil.MissingPoolRetryInterval / 2) { case Status.Failure(e: ODataSystemException) => e }
+
+      Thread.sleep((AkkaUtil.MissingPoolRetryInterval + 100.millis).toMillis)
+      routingActor ! request
+      expectMsg(request)
+    } finally {
+      MessageHandlerRegistry.remove(classOf[ServiceRequest], "LatePool")
+    }
+  }
+
+  test("A message is routed to an existing pool") {
+    system.actorOf(Props(new ForwardingActor(testActor)), "ExistingPool")
+    MessageHandlerRegistry.add(classOf[ParseUri], "ExistingPool")
+    try {
+      val parseUri = ParseUri(ODataActorContext(null, testActor))
+
+      routingActor ! parseUri
+      routingActor ! parseUri
+
+      expectMsg(parseUri)
+      expectMsg(parseUri)
+    } finally {
+      MessageHandlerRegistry.remove(classOf[ParseUri], "ExistingPool")
+    }
+  }
+
+  private class RoutingActor extends Actor {
+    def receive = {
+      case msg: ODataActorMessage => AkkaUtil.routePooledMessage(context, msg)
+    }
+  }
+
+  private class ForwardingActor(target: ActorRef) extends Actor {
+    def receive = {
+      case msg => target ! msg
+    }
+  }
+}
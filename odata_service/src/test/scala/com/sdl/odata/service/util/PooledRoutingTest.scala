@@ -0,0 +1,164 @@
+/**
+ * Copyright (c) 2014-2024 All Rights Reserved by the RWS Group for and on behalf of its affiliates and subsidiaries.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.sdl.odata.service.util
+
+import java.util.Collections
+
+import akka.actor.{ActorSystem, PoisonPill, Status}
+import akka.testkit.{ImplicitSender, TestKit}
+import com.sdl.odata.service.actor.{MessageHandlerRegistry, ODataActor}
+import com.sdl.odata.service.protocol.{ErrorMessage, ODataActorContext, ServiceRequest}
+import com.sdl.odata.service.spring.{ActorProducer, AkkaSpringExtension}
+import org.scalatest.{BeforeAndAfterAll, FunSuiteLike}
+import org.springframework.beans.factory.config.BeanDefinition
+import org.springframework.beans.factory.support.RootBeanDefinition
+import org.springframework.context.annotation.AnnotationConfigApplicationContext
+import org.springframework.core.env.MapPropertySource
+
+import scala.concurrent.duration._
+
+/**
+ * End-to-end tests of the pooled routing mode: Spring actor beans run in the pools of the 'ActorProducer', and a
+ * failing pooled actor reports its failure through 'AkkaUtil.routePooledMessage'. The throughput of the pooled mode
+ * is compared with creating an actor per request, as the per-request routing mode does.
+ */
+class PooledRoutingTest extends TestKit(ActorSystem("PooledRoutingTest")) with ImplicitSender with FunSuiteLike
+  with BeforeAndAfterAll {
+
+  private val logger = org.slf4j.LoggerFactory.getLogger(classOf[PooledRoutingTest])
+
+  private val Requests = 2000
+  private val Rounds = 5
+
+  private val applicationContext = new AnnotationConfigApplicationContext()
+  private var producer: ActorProducer = _
+
+  override protected def beforeAll(): Unit = {
+    applicationContext.getEnvironment.getPropertySources.addFirst(new MapPropertySource("pooled",
+      Collections.singletonMap[String, AnyRef]("odata.service.routing.pooled", "true")))
+    applicationContext.getBeanFactory.registerSingleton("actorSystem", system)
+    applicationContext.register(classOf[AkkaSpringExtension], classOf[ActorProducer])
+    registerActor(classOf[FailingTestActor])
+    registerActor(classOf[ErrorRenderingTestActor])
+    registerActor(classOf[AnsweringTestActor])
+    applicationContext.refresh()
+    applicationContext.getBean(classOf[AkkaSpringExtension]).get(system).initialize(applicationContext)
+    producer = applicationContext.getBean(classOf[ActorProducer])
+  }
+
+  override protected def afterAll(): Unit = {
+    applicationContext.close()
+    TestKit.shutdownActorSystem(system)
+  }
+
+  test("A failure in a pooled actor is rendered by the error pool") {
+    MessageHandlerRegistry.add(classOf[ErrorMessage], "ErrorRenderingTestActor")
+    try {
+      producer.pooledActorRef("ErrorRenderingTestActor")
+
+      producer.tell("FailingTestActor", ServiceRequest(ODataActorContext(null, testActor)), testActor, null)
+
+      expectMsg(RenderedError("Processing failed"))
+    } finally {
+      MessageHandlerRegistry.remove(classOf[ErrorMessage], "ErrorRenderingTestActor")
+    }
+  }
+
+  test("A failure in a pooled actor fails the request when there is no error pool") {
+    MessageHandlerRegistry.add(classOf[ErrorMessage], "MissingTestActor")
+    try {
+      val request = ServiceRequest(ODataActorContext(null, testActor))
+
+      producer.tell("FailingTestActor", request, testActor, null)
+      expectMsgPF() { case Status.Failure(e: IllegalStateException) => e }
+
+      // the missing pool is remembered, so the next failure does not wait for it to be looked up again
+      producer.tell("FailingTestActor", request, testActor, null)
+      expectMsgPF(AkkaUtil.MissingPoolRetryInterval / 2) { case Status.Failure(e: IllegalStateException) => e }
+    } finally {
+      MessageHandlerRegistry.remove(classOf[ErrorMessage], "MissingTestActor")
+    }
+  }
+
+  test("Pooled actors handle requests without creating an actor per request") {
+    val request = ServiceRequest(ODataActorContext(null, testActor))
+    val pool = producer.pooledActorRef("AnsweringTestActor")
+
+    val pooledNanos = fastestNanos {
+      (1 to Requests).foreach(_ => pool ! request)
+      receiveN(Requests, 30.seconds)
+    }
+    // The per-request routing mode creates a child actor from its Spring bean for every request and stops it after
+    val perRequestNanos = fastestNanos {
+      (1 to Requests).foreach { _ =>
+        val actor = producer.actorRef("AnsweringTestActor")
+        actor ! request
+        actor ! PoisonPill
+      }
+      receiveN(Requests, 30.seconds)
+    }
+
+    // Throughput depends on the machine and is only reported
+    logger.info(s"$Requests requests: pooled in ${pooledNanos / 1000} us, with an actor per request in " +
+      s"${perRequestNanos / 1000} us")
+    assert(pooledNanos > 0 && perRequestNanos > 0)
+  }
+
+  // The fastest of several rounds, so that the first rounds can warm up the code
+  private def fastestNanos(round: => Unit): Long =
+    (1 to Rounds).map { _ =>
+      val start = System.nanoTime()
+      round
+      System.nanoTime() - start
+    }.min
+
+  private def registerActor(actorType: Class[_]): Unit = {
+    val beanDefinition = new RootBeanDefinition(actorType)
+    beanDefinition.setScope(BeanDefinition.SCOPE_PROTOTYPE)
+    applicationContext.registerBeanDefinition(actorType.getSimpleName, beanDefinition)
+  }
+}
+
+case class RenderedError(message: String)
+
+/**
+ * Fails every request, which makes its pool restart it and report the failure.
+ */
+class FailingTestActor extends ODataActor {
+  def receive = {
+    case _: ServiceRequest => throw new IllegalStateException("Processing failed")
+  }
+}
+
+/**
+ * Answers error messages in place of the renderer.
+ */
+class ErrorRenderingTestActor extends ODataActor {
+  def receive = {
+    case ErrorMessage(actorContext, ex) => actorContext.origin ! RenderedError(ex.getMessage)
+  }
+}
+
+case object RequestHandled
+
+/**
+ * Answers every request right away.
+ */
+class AnsweringTestActor extends ODataActor {
+  def receive = {
+    case ServiceRequest(actorContext) => actorContext.origin ! RequestHandled
+  }
+}
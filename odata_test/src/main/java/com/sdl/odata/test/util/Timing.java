@@ -0,0 +1,76 @@
+/**
+ * Copyright (c) 2014-2024 All Rights Reserved by the RWS Group for and on behalf of its affiliates and subsidiaries.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.sdl.odata.test.util;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+
+/**
+ * Measures code for tests which compare the speed of two implementations. The fastest of several rounds is taken,
+ * so that the first rounds warm up the code. The results depend on the machine, so tests log them rather than
+ * assert them.
+ */
+public final class Timing {
+
+    private Timing() {
+    }
+
+    /**
+     * Code to measure.
+     */
+    @FunctionalInterface
+    public interface Task {
+        void run() throws Exception;
+    }
+
+    /**
+     * Runs a task a number of times and returns the time of the fastest run.
+     *
+     * @param rounds The number of runs.
+     * @param task   The task.
+     * @return The time of the fastest run in nanoseconds.
+     * @throws Exception If the task fails.
+     */
+    public static long fastestNanos(int rounds, Task task) throws Exception {
+        long fastest = Long.MAX_VALUE;
+        for (int i = 0; i < rounds; i++) {
+            long start = System.nanoTime();
+            task.run();
+            fastest = Math.min(fastest, System.nanoTime() - start);
+        }
+        return fastest;
+    }
+
+    /**
+     * Runs a task once on the current thread and returns the number of bytes it allocated.
+     *
+     * @param task The task.
+     * @return The number of bytes allocated by the task, or -1 if the JVM does not measure allocation.
+     * @throws Exception If the task fails.
+     */
+    public static long allocatedBytes(Task task) throws Exception {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        if (!(threads instanceof com.sun.management.ThreadMXBean)) {
+            task.run();
+            return -1;
+        }
+        com.sun.management.ThreadMXBean allocation = (com.sun.management.ThreadMXBean) threads;
+        long threadId = Thread.currentThread().getId();
+        long before = allocation.getThreadAllocatedBytes(threadId);
+        task.run();
+        return allocation.getThreadAllocatedBytes(threadId) - before;
+    }
+}